@@ -2,8 +2,10 @@ package com.glucovion.authservice.config;
 
 import com.glucovion.authservice.security.JwtAuthenticationFilter;
 import com.glucovion.authservice.security.JwtService;
+import com.glucovion.authservice.security.UserDetailsCache;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -19,6 +21,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 /**
  * Configures Spring Security for the Auth Service.
  *
@@ -53,10 +57,20 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    /**
+     * Cache of the users loaded by the JWT filter, invalidated when an account changes.
+     */
+    @Bean
+    public UserDetailsCache userDetailsCache(@Value("${auth.user-cache.ttl:60s}") Duration ttl,
+                                             @Value("${auth.user-cache.max-size:10000}") int maxSize) {
+        log.info("[SECURITY] User details cache enabled (ttl={}, maxSize={})", ttl, maxSize);
+        return new UserDetailsCache(userDetailsService, ttl, maxSize);
+    }
+
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, UserDetailsCache userDetailsCache) throws Exception {
         log.info("[SECURITY] Configuring SecurityFilterChain");
-        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter(userDetailsService, jwtService);
+        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter(userDetailsCache, jwtService);
         log.info("[SECURITY] JWT filter added before UsernamePasswordAuthenticationFilter");
 
         return http
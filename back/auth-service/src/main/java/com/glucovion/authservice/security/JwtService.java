@@ -14,6 +14,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 /**
@@ -29,6 +30,9 @@ public class JwtService {
     /** Key used to sign and validate JWTs */
     final Key signingKey;
 
+    /** Parser verifying signature and expiry, built once and shared */
+    private final JwtParser parser;
+
     /**
      * Constructs the JwtService with a secret key from configuration.
      *
@@ -40,6 +44,30 @@ public class JwtService {
             throw new IllegalArgumentException("JWT secret key cannot be null or empty");
         }
         this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
+    /**
+     * Validates a token and extracts its subject in a single parse.
+     * <p>
+     * The signature and the expiration date are checked by the parser.
+     * </p>
+     *
+     * @param token the JWT token
+     * @return the subject (email), or empty if the token is invalid or expired
+     */
+    public Optional<String> extractValidUsername(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(extractAllClaims(token).getSubject());
+        } catch (io.jsonwebtoken.JwtException | IllegalArgumentException ex) {
+            log.debug("JWT validation error: {}", ex.getMessage());
+            return Optional.empty();
+        }
     }
 
     /**
@@ -72,10 +100,7 @@ public class JwtService {
      * @return all claims
      */
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(signingKey)
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -0,0 +1,119 @@
+package com.glucovion.authservice.security;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process cache of the users loaded by {@link JwtAuthenticationFilter}.
+ * <p>
+ * Every authenticated request needs the user's details; without the cache, each one costs a
+ * database round trip. Users are kept for a short TTL and evicted explicitly through
+ * {@link #invalidate(String)} when their account is updated or toggled, so that changes apply
+ * immediately on this instance.
+ * </p>
+ *
+ * <p>Unknown users are not cached: a {@link UsernameNotFoundException} is rethrown on every lookup.</p>
+ */
+@Log4j2
+public class UserDetailsCache {
+
+    private final UserDetailsService delegate;
+    private final Duration ttl;
+    private final int maxSize;
+    private final Clock clock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a cache in front of the given service.
+     *
+     * @param delegate the service loading users on cache misses
+     * @param ttl      how long a user is served from the cache; zero disables caching
+     * @param maxSize  the maximum number of cached users
+     */
+    public UserDetailsCache(UserDetailsService delegate, Duration ttl, int maxSize) {
+        this(delegate, ttl, maxSize, Clock.systemUTC());
+    }
+
+    UserDetailsCache(UserDetailsService delegate, Duration ttl, int maxSize, Clock clock) {
+        this.delegate = delegate;
+        this.ttl = ttl;
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the user with the given email, loading it only if it is not cached or its entry has expired.
+     *
+     * @param email the user's email
+     * @return the user details
+     * @throws UsernameNotFoundException if no user exists with this email
+     */
+    public UserDetails loadUserByUsername(String email) {
+        if (ttl.isZero() || ttl.isNegative() || maxSize <= 0) {
+            return delegate.loadUserByUsername(email);
+        }
+
+        Instant now = clock.instant();
+        Entry entry = entries.get(email);
+        if (entry != null && now.isBefore(entry.expiresAt())) {
+            return entry.user();
+        }
+
+        UserDetails user = delegate.loadUserByUsername(email);
+        if (entries.size() >= maxSize) {
+            purge(now);
+        }
+        entries.put(email, new Entry(user, now.plus(ttl)));
+        return user;
+    }
+
+    /**
+     * Evicts a user, typically after their account has been modified.
+     *
+     * @param email the user's email; ignored if {@code null}
+     */
+    public void invalidate(String email) {
+        if (email != null && entries.remove(email) != null) {
+            log.debug("User details evicted from cache: {}", email);
+        }
+    }
+
+    /**
+     * Evicts all users.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Returns the number of cached users, expired entries not yet purged included.
+     *
+     * @return the cache size
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes expired entries, then arbitrary ones if the cache is still full.
+     */
+    private void purge(Instant now) {
+        entries.values().removeIf(entry -> !now.isBefore(entry.expiresAt()));
+        for (Iterator<String> it = entries.keySet().iterator(); it.hasNext() && entries.size() >= maxSize; ) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private record Entry(UserDetails user, Instant expiresAt) {
+    }
+}
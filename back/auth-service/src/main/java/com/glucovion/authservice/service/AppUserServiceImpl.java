@@ -3,6 +3,7 @@ package com.glucovion.authservice.service;
 import com.glucovion.authservice.dto.AppUserResponseDto;
 import com.glucovion.authservice.model.AppUser;
 import com.glucovion.authservice.repository.AppUserRepository;
+import com.glucovion.authservice.security.UserDetailsCache;
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.data.domain.Page;
@@ -21,6 +22,7 @@ import java.util.Optional;
  * <p>
  * Handles user-related operations such as retrieval, update, conversion between entity and DTO,
  * and toggling the user's active status.
+ * Modified users are evicted from the {@link UserDetailsCache} used by the JWT filter.
  * </p>
  */
 @Log4j2
@@ -30,6 +32,8 @@ public class AppUserServiceImpl implements AppUserService {
 
     private final AppUserRepository appUserRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
+
     /**
      * Finds a user by their email address.
      *
@@ -49,7 +53,9 @@ public class AppUserServiceImpl implements AppUserService {
      */
     @Override
     public AppUser save(AppUser appUser) {
-        return appUserRepository.save(appUser);
+        AppUser saved = appUserRepository.save(appUser);
+        userDetailsCache.invalidate(saved.getEmail());
+        return saved;
     }
 
     /**
@@ -135,6 +141,7 @@ public class AppUserServiceImpl implements AppUserService {
     public AppUserResponseDto updateAppUser(AppUserResponseDto dto) {
         AppUser user = appUserRepository.findById(dto.getId())
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        String previousEmail = user.getEmail();
 
         user.setFirstName(dto.getFirstName());
         user.setLastName(dto.getLastName());
@@ -148,6 +155,8 @@ public class AppUserServiceImpl implements AppUserService {
         }
 
         AppUser updated = appUserRepository.save(user);
+        userDetailsCache.invalidate(previousEmail);
+        userDetailsCache.invalidate(updated.getEmail());
         return convertToDTO(updated);
     }
 
@@ -167,6 +176,7 @@ public class AppUserServiceImpl implements AppUserService {
         log.info("New status: {}", user.getActive());
 
         AppUser updated = appUserRepository.save(user);
+        userDetailsCache.invalidate(updated.getEmail());
         return convertToDTO(updated);
     }
 
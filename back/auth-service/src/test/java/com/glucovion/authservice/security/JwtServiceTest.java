@@ -10,6 +10,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.Date;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -108,4 +109,28 @@ class JwtServiceTest {
         // Act & Assert
         assertFalse(jwtService.isTokenValid(malformedToken, user));
     }
-}
\ No newline at end of file
+
+    @Test
+    void extractValidUsername_ShouldReturnEmail_ForValidToken() {
+        // Arrange
+        String token = jwtService.generateToken(user);
+
+        // Act & Assert
+        assertEquals(Optional.of(user.getEmail()), jwtService.extractValidUsername(token));
+    }
+
+    @Test
+    void extractValidUsername_ShouldReturnEmpty_ForExpiredOrInvalidToken() {
+        // Arrange
+        String expiredToken = Jwts.builder()
+                .setSubject(user.getEmail())
+                .setExpiration(new Date(System.currentTimeMillis() - 1000))
+                .signWith(jwtService.signingKey, SignatureAlgorithm.HS256)
+                .compact();
+
+        // Act & Assert
+        assertTrue(jwtService.extractValidUsername(expiredToken).isEmpty());
+        assertTrue(jwtService.extractValidUsername("garbage.invalid.token").isEmpty());
+        assertTrue(jwtService.extractValidUsername(null).isEmpty());
+    }
+}
@@ -0,0 +1,139 @@
+package com.glucovion.authservice.security;
+
+import com.glucovion.authservice.model.AppRole;
+import com.glucovion.authservice.model.AppUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserDetailsCacheTest {
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+    private UserDetailsCache cache;
+    private AppUser user;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserDetailsCache(userDetailsService, Duration.ofSeconds(60), 100, clock);
+        user = new AppUser();
+        user.setEmail("test@example.com");
+        user.setRole(AppRole.USER);
+        user.setActive(true);
+    }
+
+    @Test
+    void loadUserByUsername_ShouldHitDatabaseOnce_WithinTtl() {
+        // Arrange
+        when(userDetailsService.loadUserByUsername("test@example.com")).thenReturn(user);
+
+        // Act
+        UserDetails first = cache.loadUserByUsername("test@example.com");
+        UserDetails second = cache.loadUserByUsername("test@example.com");
+
+        // Assert
+        assertSame(user, first);
+        assertSame(user, second);
+        verify(userDetailsService, times(1)).loadUserByUsername("test@example.com");
+    }
+
+    @Test
+    void loadUserByUsername_ShouldReload_AfterTtl() {
+        // Arrange
+        when(userDetailsService.loadUserByUsername("test@example.com")).thenReturn(user);
+
+        // Act
+        cache.loadUserByUsername("test@example.com");
+        clock.advance(Duration.ofSeconds(60));
+        cache.loadUserByUsername("test@example.com");
+
+        // Assert
+        verify(userDetailsService, times(2)).loadUserByUsername("test@example.com");
+    }
+
+    @Test
+    void invalidate_ShouldForceReload() {
+        // Arrange
+        when(userDetailsService.loadUserByUsername("test@example.com")).thenReturn(user);
+        cache.loadUserByUsername("test@example.com");
+
+        // Act
+        cache.invalidate("test@example.com");
+        cache.loadUserByUsername("test@example.com");
+
+        // Assert
+        verify(userDetailsService, times(2)).loadUserByUsername("test@example.com");
+    }
+
+    @Test
+    void loadUserByUsername_ShouldNotCacheUnknownUsers() {
+        // Arrange
+        when(userDetailsService.loadUserByUsername("unknown@example.com"))
+                .thenThrow(new UsernameNotFoundException("User not found"));
+
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class, () -> cache.loadUserByUsername("unknown@example.com"));
+        assertThrows(UsernameNotFoundException.class, () -> cache.loadUserByUsername("unknown@example.com"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void loadUserByUsername_ShouldStayWithinMaxSize() {
+        // Arrange
+        UserDetailsCache smallCache = new UserDetailsCache(userDetailsService, Duration.ofSeconds(60), 3, clock);
+        when(userDetailsService.loadUserByUsername(anyString())).thenReturn(user);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            smallCache.loadUserByUsername("user" + i + "@example.com");
+        }
+
+        // Assert
+        assertTrue(smallCache.size() <= 3);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.glucovion.authservice.dto.AppUserResponseDto;
 import com.glucovion.authservice.model.AppUser;
 import com.glucovion.authservice.model.AppRole;
 import com.glucovion.authservice.repository.AppUserRepository;
+import com.glucovion.authservice.security.UserDetailsCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -38,6 +39,9 @@ public class AppUserServiceImplTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
     private AppUser sampleUser;
     private AppUserResponseDto sampleDto;
 
@@ -169,6 +173,8 @@ public class AppUserServiceImplTest {
         assertEquals("Updated", result.getFirstName());
         assertEquals("updated@example.com", result.getEmail());
         assertFalse(result.getActive());
+        verify(userDetailsCache).invalidate("test@example.com");
+        verify(userDetailsCache).invalidate("updated@example.com");
     }
 
     // Tests pour toggleActiveUser()
@@ -185,6 +191,7 @@ public class AppUserServiceImplTest {
         // Second appel pour tester false -> true
         result = appUserService.toggleActiveUser(1L);
         assertTrue(result.getActive());
+        verify(userDetailsCache, times(2)).invalidate("test@example.com");
     }
 
     @Test
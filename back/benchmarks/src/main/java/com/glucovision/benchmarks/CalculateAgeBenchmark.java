@@ -0,0 +1,54 @@
+package com.glucovision.benchmarks;
+
+import com.glucovision.diabetesriskservice.dto.PatientDto;
+import com.glucovision.diabetesriskservice.service.RiskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link RiskService#calculateAge(PatientDto)}, called once per evaluated patient.
+ * <p>
+ * {@code calculateAge} only depends on the birth date, so the service is built without collaborators.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculateAgeBenchmark {
+
+    private static final int PATIENTS = 1024;
+
+    private RiskService riskService;
+    private PatientDto[] patients;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        riskService = new RiskService(null, null, null, null, null, null, null);
+        Random random = new Random(42);
+        patients = new PatientDto[PATIENTS];
+        for (int i = 0; i < PATIENTS; i++) {
+            patients[i] = new PatientDto(String.valueOf(i), LocalDate.now().minusDays(random.nextInt(100 * 365)), "F");
+        }
+    }
+
+    @Benchmark
+    public int calculateAge() {
+        next = (next + 1) % PATIENTS;
+        return riskService.calculateAge(patients[next]);
+    }
+}
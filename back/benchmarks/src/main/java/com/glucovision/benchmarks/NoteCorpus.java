@@ -0,0 +1,94 @@
+package com.glucovision.benchmarks;
+
+import com.glucovision.diabetesriskservice.dto.NoteDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates French practitioner notes resembling the ones stored by the Note Service.
+ * <p>
+ * Notes are built from sentences of the demo data set, about a third of them holding trigger terms
+ * written with the accents, case and punctuation practitioners actually use. The generation is seeded,
+ * so every run benchmarks the same corpus.
+ */
+public final class NoteCorpus {
+
+    /**
+     * Length of the generated notes.
+     */
+    public enum NoteLength {
+
+        /** One or two sentences, like most notes of the demo data set. */
+        SHORT(1, 2),
+
+        /** A consultation summary of five to ten sentences. */
+        MEDIUM(5, 10),
+
+        /** A detailed report of forty to sixty sentences. */
+        LONG(40, 60);
+
+        private final int minSentences;
+        private final int maxSentences;
+
+        NoteLength(int minSentences, int maxSentences) {
+            this.minSentences = minSentences;
+            this.maxSentences = maxSentences;
+        }
+    }
+
+    private static final List<String> SENTENCES = List.of(
+            "Le patient déclare qu'il 'se sent très bien'.",
+            "Poids égal ou inférieur au poids recommandé !!!",
+            "Le patient déclare qu'il ressent beaucoup de stress au travail.",
+            "Il se plaint également que son audition est anormale dernièrement.",
+            "Le patient déclare avoir fait une réaction aux médicaments au cours des 3 derniers mois.",
+            "Le patient déclare qu'il fume depuis peu !",
+            "Le patient déclare qu'il est fumeur et qu'il a cessé de fumer l'année dernière.",
+            "Tests de laboratoire indiquant un taux de cholestérol LDL élevé.",
+            "Le patient déclare qu'il lui est devenu difficile de monter les escaliers.",
+            "Il se plaint également d’être essoufflé.",
+            "Tests de laboratoire indiquant que les anticorps sont élevés.",
+            "Le patient déclare qu'il a mal au dos lorsqu'il reste assis pendant longtemps.",
+            "Hémoglobine A1C supérieure au niveau recommandé.",
+            "Taille, Poids, Cholestérol, Vertige et Réaction.",
+            "La patiente signale des vertiges passagers en fin de journée.",
+            "Microalbumine dans les limites de la normale lors du dernier bilan.",
+            "Aucune rechute constatée depuis la dernière consultation.",
+            "Tension artérielle stable, pas de modification du traitement.",
+            "Le patient dort mal depuis plusieurs semaines et se sent fatigué au réveil.",
+            "Alimentation équilibrée, activité physique régulière : marche trente minutes par jour.",
+            "Pas d'antécédents familiaux particuliers signalés.",
+            "Examen clinique sans particularité, auscultation cardiaque normale.",
+            "La patiente souhaite un contrôle de sa glycémie à jeun le mois prochain.",
+            "Renouvellement de l'ordonnance pour trois mois."
+    );
+
+    private NoteCorpus() {
+    }
+
+    /**
+     * Generates the notes of one patient.
+     *
+     * @param count  the number of notes
+     * @param length the length of each note
+     * @param random the generator to draw the sentences from
+     * @return the notes, all attached to patient {@code "benchmark"}
+     */
+    public static List<NoteDto> notes(int count, NoteLength length, Random random) {
+        List<NoteDto> notes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int sentences = length.minSentences + random.nextInt(length.maxSentences - length.minSentences + 1);
+            StringBuilder comments = new StringBuilder();
+            for (int s = 0; s < sentences; s++) {
+                if (s > 0) {
+                    comments.append(' ');
+                }
+                comments.append(SENTENCES.get(random.nextInt(SENTENCES.size())));
+            }
+            notes.add(new NoteDto("benchmark", comments.toString()));
+        }
+        return notes;
+    }
+}
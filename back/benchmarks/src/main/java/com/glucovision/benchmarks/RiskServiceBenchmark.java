@@ -0,0 +1,136 @@
+package com.glucovision.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glucovision.benchmarks.NoteCorpus.NoteLength;
+import com.glucovision.diabetesriskservice.config.TriggerMatcherConfig;
+import com.glucovision.diabetesriskservice.dto.NoteDto;
+import com.glucovision.diabetesriskservice.dto.PatientDto;
+import com.glucovision.diabetesriskservice.model.RiskLevel;
+import com.glucovision.diabetesriskservice.rules.RiskRuleEngine;
+import com.glucovision.diabetesriskservice.service.NoteDataService;
+import com.glucovision.diabetesriskservice.service.PatientDataService;
+import com.glucovision.diabetesriskservice.service.RiskCache;
+import com.glucovision.diabetesriskservice.service.RiskService;
+import com.glucovision.diabetesriskservice.service.RiskStats;
+import com.glucovision.diabetesriskservice.trigger.NormalizingTriggerMatcher;
+import com.glucovision.diabetesriskservice.trigger.TriggerDictionary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the risk scoring of one patient: trigger counting over the notes, then the full evaluation.
+ * <p>
+ * The Patient and Note services are replaced by in-memory data and the risk cache is disabled, so
+ * {@link RiskService#evaluateRiskLevel(String)} measures the local work of a cache miss: trigger matching,
+ * age computation, rule lookup and statistics. Each invocation evaluates the next of {@value #PATIENTS}
+ * patients, whose ages and genders vary so that every branch of the rules is taken.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RiskServiceBenchmark {
+
+    private static final int PATIENTS = 256;
+
+    /**
+     * Number of notes per patient.
+     */
+    @Param({"1", "10", "50"})
+    public int notesPerPatient;
+
+    /**
+     * Length of each note.
+     */
+    @Param({"SHORT", "MEDIUM", "LONG"})
+    public NoteLength noteLength;
+
+    private RiskService riskService;
+    private ExecutorService fetchExecutor;
+    private List<List<NoteDto>> notes;
+    private String[] patientIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        notes = new ArrayList<>(PATIENTS);
+        List<PatientDto> patients = new ArrayList<>(PATIENTS);
+        patientIds = new String[PATIENTS];
+        for (int i = 0; i < PATIENTS; i++) {
+            patientIds[i] = String.valueOf(i);
+            notes.add(NoteCorpus.notes(notesPerPatient, noteLength, random));
+            patients.add(new PatientDto(patientIds[i], LocalDate.now().minusYears(18 + random.nextInt(70)).minusDays(random.nextInt(365)),
+                    random.nextBoolean() ? "M" : "F"));
+        }
+
+        NoteDataService noteDataService = new NoteDataService(null, null) {
+            @Override
+            public List<NoteDto> getNoteDtoList(String id) {
+                return notes.get(Integer.parseInt(id));
+            }
+        };
+        PatientDataService patientDataService = new PatientDataService(null, null) {
+            @Override
+            public PatientDto getPatient(String id) {
+                return patients.get(Integer.parseInt(id));
+            }
+        };
+        RiskCache riskCache = new RiskCache(Duration.ZERO, 0, new SimpleMeterRegistry());
+        fetchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        riskService = new RiskService(noteDataService, patientDataService,
+                new TriggerDictionary(new NormalizingTriggerMatcher(TriggerMatcherConfig.TRIGGER_TERMS, Map.of()), Map.of()), fetchExecutor,
+                riskCache, new RiskStats(new SimpleMeterRegistry()),
+                new RiskRuleEngine(new DefaultResourceLoader(), new ObjectMapper(), "classpath:risk-rules.json", event -> { }));
+    }
+
+    @TearDown
+    public void tearDown() {
+        fetchExecutor.shutdownNow();
+    }
+
+    /**
+     * Counts the trigger terms of one patient's notes.
+     */
+    @Benchmark
+    public int calculateRisk() {
+        return riskService.calculateRisk(notes.get(nextPatient()));
+    }
+
+    /**
+     * Evaluates the risk level of one patient, as {@code GET /api/risk/{id}} does on a cache miss.
+     */
+    @Benchmark
+    public RiskLevel evaluateRiskLevel() {
+        return riskService.evaluateRiskLevel(patientIds[nextPatient()]);
+    }
+
+    private int nextPatient() {
+        next = (next + 1) % PATIENTS;
+        return next;
+    }
+}
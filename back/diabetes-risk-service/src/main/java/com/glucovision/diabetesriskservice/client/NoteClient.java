@@ -1,11 +1,15 @@
 package com.glucovision.diabetesriskservice.client;
 
 import com.glucovision.diabetesriskservice.dto.NoteDto;
+import com.glucovision.diabetesriskservice.dto.TriggerSummaryDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Feign client interface for communicating with the Note Service.
@@ -25,4 +29,32 @@ public interface NoteClient {
      */
     @GetMapping("/api/notes/patient/{id}")
     List<NoteDto> getNoteListe(@PathVariable String id);
+
+    /**
+     * Retrieves the medical notes of several patients in a single request.
+     *
+     * @param ids The unique identifiers of the patients.
+     * @return The notes of each patient, keyed by patient ID.
+     */
+    @PostMapping("/api/notes/patients")
+    Map<String, List<NoteDto>> getNotesByPatientIds(@RequestBody List<String> ids);
+
+    /**
+     * Retrieves the summary of the risk trigger terms found in the notes of a patient,
+     * computed by the Note Service without sending the notes.
+     *
+     * @param id The unique identifier of the patient.
+     * @return The note count, trigger count and matched terms of the patient.
+     */
+    @GetMapping("/api/notes/patient/{id}/trigger-summary")
+    TriggerSummaryDto getTriggerSummary(@PathVariable String id);
+
+    /**
+     * Retrieves the trigger summaries of several patients in a single request.
+     *
+     * @param ids The unique identifiers of the patients.
+     * @return The trigger summary of each patient, keyed by patient ID.
+     */
+    @PostMapping("/api/notes/patients/trigger-summary")
+    Map<String, TriggerSummaryDto> getTriggerSummaries(@RequestBody List<String> ids);
 }
@@ -1,9 +1,16 @@
 package com.glucovision.diabetesriskservice.client;
 
+import com.glucovision.diabetesriskservice.dto.PatientBatchDto;
 import com.glucovision.diabetesriskservice.dto.PatientDto;
+import com.glucovision.diabetesriskservice.dto.PatientScrollDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 /**
  * Feign client interface for communicating with the Patient Service.
@@ -23,4 +30,28 @@ public interface PatientClient {
      */
     @GetMapping("/api/patients/{id}")
     PatientDto getPatientById(@PathVariable String id);
+
+    /** Fields of the patients read by the risk evaluation, besides their UID. */
+    String RISK_FIELDS = "birthDate,gender,active";
+
+    /**
+     * Retrieves several patients in a single request.
+     *
+     * @param fields The fields to return besides the UID, e.g. {@link #RISK_FIELDS}.
+     * @param ids    The unique identifiers of the patients, at most 1000.
+     * @return A {@link PatientBatchDto} with the patients found and the IDs that match no patient.
+     */
+    @PostMapping("/api/patients/batch")
+    PatientBatchDto getPatientsByIds(@RequestParam("fields") String fields, @RequestBody List<String> ids);
+
+    /**
+     * Retrieves one page of active patients, with keyset pagination.
+     *
+     * @param after The token of the page to read, as returned with the previous page; {@code null} for the first page.
+     * @param size  The number of patients per page (at most 100).
+     * @return A {@link PatientScrollDto} with the patients and the token of the next page.
+     */
+    @GetMapping("/api/patients/active/scroll")
+    PatientScrollDto scrollActivePatients(@RequestParam(value = "after", required = false) String after,
+                                          @RequestParam("size") int size);
 }
@@ -1,36 +1,30 @@
 package com.glucovision.diabetesriskservice.config;
 
-import com.glucovision.diabetesriskservice.client.InternalAuthClient;
 import feign.RequestInterceptor;
 import feign.RequestTemplate;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
 /**
  * Intercepts all outgoing Feign client requests and adds an internal authorization token
  * to the "Authorization" header.
  * <p>
- * The token is retrieved dynamically from the {@link InternalAuthClient} using a pre-configured API key.
+ * The token comes from the {@link InternalTokenProvider}, which caches it until shortly before it expires.
  * This interceptor skips the call to the internal token endpoint itself to prevent circular dependencies.
  */
 @Slf4j
 @Configuration
 public class FeignClientInterceptor implements RequestInterceptor {
 
-    private final InternalAuthClient internalAuthClient;
-    private final String apiKey;
+    private final InternalTokenProvider tokenProvider;
 
     /**
-     * Constructor injecting the internal auth client and API key from configuration.
+     * Constructor injecting the provider of the internal token.
      *
-     * @param internalAuthClient the client used to retrieve internal tokens
-     * @param apiKey the API key used to authenticate internal token requests
+     * @param tokenProvider the provider supplying the cached internal token
      */
-    public FeignClientInterceptor(InternalAuthClient internalAuthClient,
-                                  @Value("${internal.api.key}") String apiKey) {
-        this.internalAuthClient = internalAuthClient;
-        this.apiKey = apiKey;
+    public FeignClientInterceptor(InternalTokenProvider tokenProvider) {
+        this.tokenProvider = tokenProvider;
     }
 
     /**
@@ -52,7 +46,9 @@ public class FeignClientInterceptor implements RequestInterceptor {
         log.debug("Injecting Authorization header for request to: {}", url);
 
         try {
-            String token = internalAuthClient.getInternalToken(apiKey);
+            String token = tokenProvider.getToken();
+            // A retried request already carries the rejected token
+            requestTemplate.removeHeader("Authorization");
             requestTemplate.header("Authorization", "Bearer " + token);
             log.debug("Authorization header successfully added.");
         } catch (Exception e) {
@@ -0,0 +1,217 @@
+package com.glucovision.diabetesriskservice.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glucovision.diabetesriskservice.client.InternalAuthClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Supplies the internal JWT token attached to outgoing Feign requests.
+ * <p>
+ * The token is fetched from the Authentication Service once and cached until shortly before its
+ * {@code exp} claim, instead of being requested for every call:
+ * <ul>
+ *     <li>a refresh is scheduled in the background {@code internal.token.refresh-before-expiry} before expiry,
+ *     so callers keep using the current token while the next one is fetched;</li>
+ *     <li>refreshes are single-flight: concurrent callers needing a token share the same request;</li>
+ *     <li>{@link #invalidate(String)} drops a token rejected by a downstream service (HTTP 401),
+ *     so that the next call fetches a new one synchronously.</li>
+ * </ul>
+ * Cache hits, misses and refreshes are published as Micrometer counters.
+ */
+@Slf4j
+@Component
+public class InternalTokenProvider {
+
+    /** Margin kept before {@code exp} so that a token is never sent just as it expires. */
+    private static final Duration EXPIRY_MARGIN = Duration.ofSeconds(10);
+
+    /** Lifetime assumed for a token whose {@code exp} claim cannot be read. */
+    private static final Duration FALLBACK_TTL = Duration.ofMinutes(5);
+
+    private final InternalAuthClient internalAuthClient;
+    private final String apiKey;
+    private final Duration refreshBeforeExpiry;
+    private final Clock clock;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("internal-token-refresh").daemon().factory());
+
+    private final MeterRegistry meterRegistry;
+    private final Counter hits;
+    private final Counter misses;
+
+    private volatile CachedToken cached;
+    private final AtomicReference<CompletableFuture<CachedToken>> inFlight = new AtomicReference<>();
+    private ScheduledFuture<?> scheduledRefresh;
+
+    /**
+     * Creates the provider used by the Feign clients.
+     *
+     * @param internalAuthClient  the client used to retrieve internal tokens
+     * @param apiKey              the API key used to authenticate internal token requests
+     * @param refreshBeforeExpiry how long before expiry the token is refreshed in the background
+     * @param meterRegistry       the registry receiving the cache metrics
+     */
+    @Autowired
+    public InternalTokenProvider(InternalAuthClient internalAuthClient,
+                                 @Value("${internal.api.key}") String apiKey,
+                                 @Value("${internal.token.refresh-before-expiry:5m}") Duration refreshBeforeExpiry,
+                                 MeterRegistry meterRegistry) {
+        this(internalAuthClient, apiKey, refreshBeforeExpiry, meterRegistry, Clock.systemUTC());
+    }
+
+    InternalTokenProvider(InternalAuthClient internalAuthClient, String apiKey, Duration refreshBeforeExpiry,
+                          MeterRegistry meterRegistry, Clock clock) {
+        this.internalAuthClient = internalAuthClient;
+        this.apiKey = apiKey;
+        this.refreshBeforeExpiry = refreshBeforeExpiry;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.hits = meterRegistry.counter("internal.token.cache", "result", "hit");
+        this.misses = meterRegistry.counter("internal.token.cache", "result", "miss");
+    }
+
+    /**
+     * Returns a valid internal token, fetching one only if none is cached or the cached one has expired.
+     *
+     * @return the internal JWT token
+     * @throws RuntimeException the exception raised by the Authentication Service client if the token cannot be fetched
+     */
+    public String getToken() {
+        CachedToken current = cached;
+        Instant now = clock.instant();
+        if (current != null && now.isBefore(current.expiresAt())) {
+            hits.increment();
+            if (!now.isBefore(current.refreshAt())) {
+                refresh("proactive", true);
+            }
+            return current.token();
+        }
+
+        misses.increment();
+        try {
+            return refresh(current == null ? "initial" : "expired", false).join().token();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the cached token if it is the given one, typically after a downstream service rejected it.
+     *
+     * @param token the rejected token
+     */
+    public void invalidate(String token) {
+        CachedToken current = cached;
+        if (current != null && current.token().equals(token)) {
+            log.warn("Internal token rejected by a downstream service, discarding it");
+            cached = null;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * Returns the refresh in progress, or starts one. The caller's thread performs a foreground
+     * refresh itself; a background refresh runs on the refresher thread.
+     */
+    private CompletableFuture<CachedToken> refresh(String trigger, boolean background) {
+        while (true) {
+            CompletableFuture<CachedToken> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+            CompletableFuture<CachedToken> created = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, created)) {
+                if (background) {
+                    refresher.execute(() -> fetchInto(created, trigger));
+                } else {
+                    fetchInto(created, trigger);
+                }
+                return created;
+            }
+        }
+    }
+
+    private void fetchInto(CompletableFuture<CachedToken> target, String trigger) {
+        try {
+            log.debug("Fetching internal token ({})", trigger);
+            CachedToken token = decode(internalAuthClient.getInternalToken(apiKey));
+            cached = token;
+            scheduleRefresh(token);
+            meterRegistry.counter("internal.token.refresh", "trigger", trigger, "outcome", "success").increment();
+            log.info("Internal token refreshed ({}), valid until {}", trigger, token.expiresAt());
+            target.complete(token);
+        } catch (RuntimeException e) {
+            meterRegistry.counter("internal.token.refresh", "trigger", trigger, "outcome", "failure").increment();
+            log.error("Failed to retrieve internal token ({}): {}", trigger, e.getMessage());
+            target.completeExceptionally(e);
+        } finally {
+            inFlight.compareAndSet(target, null);
+        }
+    }
+
+    private synchronized void scheduleRefresh(CachedToken token) {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+        }
+        long delayMs = Math.max(0, Duration.between(clock.instant(), token.refreshAt()).toMillis());
+        scheduledRefresh = refresher.schedule(() -> refresh("scheduled", true), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads the {@code exp} claim of the token, without verifying its signature: the token
+     * comes straight from the Authentication Service and is only forwarded.
+     */
+    private CachedToken decode(String token) {
+        Instant now = clock.instant();
+        Instant expiresAt = now.plus(FALLBACK_TTL);
+        try {
+            String[] parts = token.split("\\.");
+            JsonNode claims = objectMapper.readTree(new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8));
+            if (claims.hasNonNull("exp")) {
+                expiresAt = Instant.ofEpochSecond(claims.get("exp").asLong()).minus(EXPIRY_MARGIN);
+            } else {
+                log.warn("Internal token has no exp claim, caching it for {}", FALLBACK_TTL);
+            }
+        } catch (Exception e) {
+            log.warn("Could not read the exp claim of the internal token, caching it for {}: {}", FALLBACK_TTL, e.getMessage());
+        }
+
+        Duration lifetime = Duration.between(now, expiresAt);
+        Duration lead = lifetime.dividedBy(2).compareTo(refreshBeforeExpiry) < 0 ? lifetime.dividedBy(2) : refreshBeforeExpiry;
+        return new CachedToken(token, expiresAt, expiresAt.minus(lead));
+    }
+
+    /**
+     * A fetched token with the instant it stops being used and the instant its refresh starts.
+     */
+    private record CachedToken(String token, Instant expiresAt, Instant refreshAt) {
+    }
+}
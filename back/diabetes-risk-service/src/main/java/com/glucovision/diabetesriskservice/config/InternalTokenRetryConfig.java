@@ -0,0 +1,81 @@
+package com.glucovision.diabetesriskservice.config;
+
+import feign.RetryableException;
+import feign.Retryer;
+import feign.codec.ErrorDecoder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collection;
+
+/**
+ * Retries a Feign request once when a downstream service rejects the cached internal token.
+ * <p>
+ * On a 401 response, the token that was sent is discarded from the {@link InternalTokenProvider}
+ * and the request is retried: the {@link FeignClientInterceptor} then fetches a fresh token
+ * synchronously. Any other error is decoded and propagated as before, without retry.
+ */
+@Slf4j
+@Configuration
+public class InternalTokenRetryConfig {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    /**
+     * Decodes 401 responses into a retryable error after invalidating the rejected token.
+     *
+     * @param tokenProvider the provider holding the cached token, resolved lazily since it depends on a Feign client itself
+     * @return the error decoder used by all Feign clients
+     */
+    @Bean
+    public ErrorDecoder internalTokenErrorDecoder(ObjectProvider<InternalTokenProvider> tokenProvider) {
+        ErrorDecoder defaultDecoder = new ErrorDecoder.Default();
+        return (methodKey, response) -> {
+            Collection<String> authorization = response.request().headers().get("Authorization");
+            if (response.status() != 401 || authorization == null || authorization.isEmpty()) {
+                return defaultDecoder.decode(methodKey, response);
+            }
+            String header = authorization.iterator().next();
+            if (header.startsWith(BEARER_PREFIX)) {
+                tokenProvider.getObject().invalidate(header.substring(BEARER_PREFIX.length()));
+            }
+            log.warn("401 received from {}, retrying with a new internal token", methodKey);
+            return new RetryableException(401, "Internal token rejected", response.request().httpMethod(),
+                    (Long) null, response.request());
+        };
+    }
+
+    /**
+     * Provides the retry policy: a single retry for rejected internal tokens, none otherwise.
+     *
+     * @return the retryer used by all Feign clients
+     */
+    @Bean
+    public Retryer internalTokenRetryer() {
+        return new UnauthorizedRetryer();
+    }
+
+    /**
+     * Retries once on a 401 and propagates every other retryable error immediately,
+     * as the default {@link Retryer#NEVER_RETRY} does.
+     */
+    static class UnauthorizedRetryer implements Retryer {
+
+        private boolean retried;
+
+        @Override
+        public void continueOrPropagate(RetryableException e) {
+            if (e.status() != 401 || retried) {
+                throw e;
+            }
+            retried = true;
+        }
+
+        @Override
+        public Retryer clone() {
+            return new UnauthorizedRetryer();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.glucovision.diabetesriskservice.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Provides the executor used to fetch patient data and notes concurrently during risk evaluation.
+ * <p>
+ * Fetches are blocking Feign calls, so they run on virtual threads. The pool is bounded so that a
+ * burst of evaluations cannot open an unbounded number of downstream connections; extra fetches
+ * wait in the queue, and that wait counts towards their timeout.
+ */
+@Slf4j
+@Configuration
+public class RiskFetchConfig {
+
+    /**
+     * Creates the bounded virtual-thread executor for downstream fetches.
+     *
+     * @param maxConcurrency the maximum number of downstream fetches running at the same time
+     * @return the executor, shut down with the application context
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService riskFetchExecutor(@Value("${risk.fetch.max-concurrency:64}") int maxConcurrency) {
+        log.info("Creating risk fetch executor with at most {} concurrent fetch(es)", maxConcurrency);
+        return Executors.newFixedThreadPool(maxConcurrency, Thread.ofVirtual().name("risk-fetch-", 0).factory());
+    }
+}
@@ -0,0 +1,63 @@
+package com.glucovision.diabetesriskservice.config;
+
+import com.glucovision.diabetesriskservice.trigger.NormalizingTriggerMatcher;
+import com.glucovision.diabetesriskservice.trigger.TriggerDictionary;
+import com.glucovision.diabetesriskservice.trigger.TriggerMatcher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Provides the {@link TriggerMatcher} used to count risk trigger terms in medical notes.
+ * <p>
+ * The matcher is compiled once at startup and shared by all risk evaluations. Notes are normalized
+ * (accents, case, whitespace) before matching, and the synonyms from {@link TriggerProperties} are
+ * reported as their canonical term.
+ * <p>
+ * The Note Service keeps its own copy of the terms and synonyms to count the triggers server-side. Both sides
+ * version them with a {@link TriggerDictionary}, and a trigger summary computed with another version is not used.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(TriggerProperties.class)
+public class TriggerMatcherConfig {
+
+    /**
+     * Trigger terms searched in the patient's notes, in bit order.
+     */
+    public static final List<String> TRIGGER_TERMS = List.of(
+            "HÉMOGLOBINE A1C", "MICROALBUMINE", "TAILLE", "POIDS", "FUMEUR",
+            "FUMEUSE", "ANORMAL", "CHOLESTÉROL", "VERTIGES", "RECHUTE",
+            "RÉACTION", "ANTICORPS"
+    );
+
+    /**
+     * Builds the normalizing matcher for the trigger terms and their configured synonyms.
+     *
+     * @param properties the configured synonyms
+     * @return the shared trigger matcher
+     */
+    @Bean
+    public TriggerMatcher triggerMatcher(TriggerProperties properties) {
+        log.info("Compiling trigger matcher for {} term(s) and {} synonym group(s)",
+                TRIGGER_TERMS.size(), properties.getSynonyms().size());
+        return new NormalizingTriggerMatcher(TRIGGER_TERMS, properties.synonymsByTerm());
+    }
+
+    /**
+     * Versions the trigger terms and synonyms the matcher was compiled with.
+     *
+     * @param triggerMatcher the shared trigger matcher
+     * @param properties     the configured synonyms
+     * @return the versioned dictionary, compared with the one of the Note Service
+     */
+    @Bean
+    public TriggerDictionary triggerDictionary(TriggerMatcher triggerMatcher, TriggerProperties properties) {
+        TriggerDictionary dictionary = new TriggerDictionary(triggerMatcher, properties.synonymsByTerm());
+        log.info("Trigger dictionary version {}", dictionary.version());
+        return dictionary;
+    }
+}
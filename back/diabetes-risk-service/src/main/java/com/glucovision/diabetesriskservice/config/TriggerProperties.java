@@ -0,0 +1,61 @@
+package com.glucovision.diabetesriskservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configurable spellings of the risk trigger terms, bound from {@code risk.triggers.*}.
+ * <p>
+ * Example:
+ * <pre>
+ * risk:
+ *   triggers:
+ *     synonyms:
+ *       - term: HÉMOGLOBINE A1C
+ *         variants: [HBA1C]
+ * </pre>
+ */
+@Data
+@ConfigurationProperties(prefix = "risk.triggers")
+public class TriggerProperties {
+
+    /**
+     * Synonyms and stems reported as one of the canonical trigger terms.
+     */
+    private List<Synonym> synonyms = new ArrayList<>();
+
+    /**
+     * Groups the configured variants by canonical term.
+     *
+     * @return the variants of each term that has any
+     */
+    public Map<String, List<String>> synonymsByTerm() {
+        Map<String, List<String>> byTerm = new LinkedHashMap<>();
+        for (Synonym synonym : synonyms) {
+            byTerm.computeIfAbsent(synonym.getTerm(), term -> new ArrayList<>()).addAll(synonym.getVariants());
+        }
+        return byTerm;
+    }
+
+    /**
+     * Variants of a single canonical trigger term.
+     */
+    @Data
+    public static class Synonym {
+
+        /**
+         * The canonical trigger term, as listed in {@link TriggerMatcherConfig#TRIGGER_TERMS}.
+         */
+        private String term;
+
+        /**
+         * Whole words or phrases matching the term; a trailing {@code *} turns a variant into a word stem.
+         */
+        private List<String> variants = new ArrayList<>();
+    }
+}
@@ -1,5 +1,6 @@
 package com.glucovision.diabetesriskservice.controller;
 
+import com.glucovision.diabetesriskservice.dto.RiskBatchDto;
 import com.glucovision.diabetesriskservice.dto.RiskDto;
 import com.glucovision.diabetesriskservice.service.RiskService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,11 +13,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * REST controller for evaluating the diabetes risk level of a patient.
  * <p>
- * This controller exposes an endpoint that takes a patient ID and returns the associated
- * diabetes risk level based on their age, gender, and medical notes.
+ * This controller exposes endpoints that take one or several patient IDs and return the associated
+ * diabetes risk levels based on age, gender, and medical notes.
  */
 @RestController
 @RequestMapping("/api/risk")
@@ -50,4 +53,31 @@ public class RiskController {
 
         return ResponseEntity.ok(riskDto);
     }
+
+    /**
+     * Evaluates the diabetes risk level of several patients in one call.
+     * <p>
+     * Patients that cannot be evaluated are listed with the reason in the {@code errors} map,
+     * the others in {@code riskLevels}.
+     *
+     * @param ids The unique identifiers of the patients
+     * @return A {@link ResponseEntity} containing the {@link RiskBatchDto} with the risk level or error of each patient
+     */
+    @Operation(summary = "Evaluate the diabetes risk level of several patients")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch evaluated; per-patient failures are reported in errors"),
+            @ApiResponse(responseCode = "400", description = "Empty batch or batch size limit exceeded")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<RiskBatchDto> getRiskLevels(@RequestBody List<String> ids) {
+
+        log.info("[POST] Request received to evaluate diabetes risk for {} patient(s)", ids.size());
+
+        RiskBatchDto riskBatchDto = service.evaluateRiskLevels(ids);
+
+        log.info("✅ Batch risk evaluation complete: {} evaluated, {} error(s)",
+                riskBatchDto.getRiskLevels().size(), riskBatchDto.getErrors().size());
+
+        return ResponseEntity.ok(riskBatchDto);
+    }
 }
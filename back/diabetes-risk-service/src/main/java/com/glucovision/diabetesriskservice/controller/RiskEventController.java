@@ -0,0 +1,75 @@
+package com.glucovision.diabetesriskservice.controller;
+
+import com.glucovision.diabetesriskservice.dto.RiskInvalidationEvent;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Webhook receiving the changes that invalidate cached risk levels.
+ * <p>
+ * The Note Service and the Patient Service post a {@link RiskInvalidationEvent} here; it is republished
+ * in-process, where the risk cache listens for it. Callers authenticate with the shared internal API key
+ * in the {@code Internal-Api-Key} header, as for internal token requests.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/risk/events")
+@Tag(name = "Risk events", description = "Webhook invalidating cached risk levels")
+public class RiskEventController {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final byte[] internalApiKey;
+
+    /**
+     * Creates the webhook.
+     *
+     * @param eventPublisher the publisher relaying the events in-process
+     * @param internalApiKey the API key shared by the internal services
+     */
+    public RiskEventController(ApplicationEventPublisher eventPublisher,
+                               @Value("${internal.api.key}") String internalApiKey) {
+        this.eventPublisher = eventPublisher;
+        this.internalApiKey = internalApiKey.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Accepts a change notification from an internal service.
+     *
+     * @param apiKey the internal API key
+     * @param event  the change
+     * @return HTTP 202 once the event is applied, 401 if the key is wrong
+     */
+    @Operation(summary = "Notify a change invalidating a patient's cached risk level (internal)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Event applied"),
+            @ApiResponse(responseCode = "400", description = "Invalid event"),
+            @ApiResponse(responseCode = "401", description = "Missing or wrong internal API key")
+    })
+    @PostMapping
+    public ResponseEntity<Void> onEvent(@RequestHeader(value = "Internal-Api-Key", required = false) String apiKey,
+                                        @Valid @RequestBody RiskInvalidationEvent event) {
+        if (apiKey == null || !MessageDigest.isEqual(internalApiKey, apiKey.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("❌ [RISK EVENTS] Rejected event with a missing or wrong API key");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        log.info("[RISK EVENTS] {} for patientId={}", event.getReason(), event.getPatientId());
+        eventPublisher.publishEvent(event);
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.glucovision.diabetesriskservice.controller;
+
+import com.glucovision.diabetesriskservice.dto.RiskScanStatus;
+import com.glucovision.diabetesriskservice.service.RiskScanJob;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller starting and monitoring the population risk scan (admin only).
+ */
+@RestController
+@RequestMapping("/api/risk/scan")
+@AllArgsConstructor
+@Slf4j
+@Tag(name = "Risk scan", description = "Risk evaluation of all active patients, written as NDJSON")
+public class RiskScanController {
+
+    private final RiskScanJob riskScanJob;
+
+    /**
+     * Starts a scan of all active patients in the background, resuming the scan of the day if it was interrupted.
+     *
+     * @return HTTP 202 with the scan status, or 409 if a scan is already running
+     */
+    @Operation(summary = "Start the risk scan of all active patients")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Scan started"),
+            @ApiResponse(responseCode = "409", description = "A scan is already running")
+    })
+    @PostMapping
+    public ResponseEntity<RiskScanStatus> startScan() {
+        log.info("[POST] Request received to start the risk scan");
+        if (!riskScanJob.start()) {
+            log.warn("⚠️ Risk scan already running");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(riskScanJob.status());
+        }
+        return ResponseEntity.accepted().body(riskScanJob.status());
+    }
+
+    /**
+     * Returns the progress of the running scan, or the outcome of the last one.
+     *
+     * @return the scan status, including its throughput in patients per second
+     */
+    @Operation(summary = "Get the progress of the risk scan")
+    @GetMapping
+    public ResponseEntity<RiskScanStatus> getScanStatus() {
+        return ResponseEntity.ok(riskScanJob.status());
+    }
+}
@@ -0,0 +1,52 @@
+package com.glucovision.diabetesriskservice.controller;
+
+import com.glucovision.diabetesriskservice.dto.RiskStatsDto;
+import com.glucovision.diabetesriskservice.service.RiskStats;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller exposing the distribution of the latest risk levels of the patients.
+ */
+@RestController
+@RequestMapping("/api/risk/stats")
+@AllArgsConstructor
+@Slf4j
+@Tag(name = "Risk statistics", description = "Risk level distribution by age band and gender")
+public class RiskStatsController {
+
+    private final RiskStats riskStats;
+
+    /**
+     * Counts the patients per risk level, grouped by age band and/or gender.
+     * <p>
+     * Counts are read from the materialized latest level of each patient, not recomputed.
+     *
+     * @param groupBy the dimensions to group on: {@code ageBand}, {@code gender}, both (default) or none
+     * @return the count of patients per risk level of each group
+     */
+    @Operation(summary = "Get the number of patients per risk level, by age band and gender")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Unknown grouping dimension")
+    })
+    @GetMapping
+    public ResponseEntity<RiskStatsDto> getStats(
+            @Parameter(description = "Dimensions to group on: ageBand, gender")
+            @RequestParam(defaultValue = RiskStats.AGE_BAND + "," + RiskStats.GENDER) List<String> groupBy) {
+        log.info("[GET] Request received for risk statistics grouped by {}", groupBy);
+        return ResponseEntity.ok(riskStats.stats(groupBy));
+    }
+}
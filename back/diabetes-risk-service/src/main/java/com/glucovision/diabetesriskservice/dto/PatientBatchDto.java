@@ -0,0 +1,25 @@
+package com.glucovision.diabetesriskservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a bulk patient lookup returned by the Patient Service.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Patients found by a bulk lookup, and the requested IDs that were not found")
+public class PatientBatchDto {
+
+    @Schema(description = "Patients found for the requested IDs")
+    private List<PatientDto> patients = new ArrayList<>();
+
+    @Schema(description = "Requested IDs that do not match any patient")
+    private List<String> missing = new ArrayList<>();
+}
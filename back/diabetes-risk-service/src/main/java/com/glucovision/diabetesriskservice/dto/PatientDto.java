@@ -1,5 +1,6 @@
 package com.glucovision.diabetesriskservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -17,6 +18,7 @@ import java.time.LocalDate;
 public class PatientDto {
 
     @Schema(description = "Unique identifier of the patient", example = "8e1f3b34-5c7e-4c17-9df6-bc6dd40efc62", required = true)
+    @JsonAlias("uid")
     private String id;
 
     @Schema(description = "Patient's birth date", example = "1985-04-23", required = true)
@@ -24,4 +26,18 @@ public class PatientDto {
 
     @Schema(description = "Patient's gender (e.g., MALE, FEMALE, OTHER)", example = "MALE", required = true)
     private String gender;
+
+    @Schema(description = "Whether the patient is active; unknown counts as active", example = "true")
+    private Boolean active;
+
+    /**
+     * Creates a patient whose active status is unknown, which counts as active.
+     *
+     * @param id        the patient UID
+     * @param birthDate the birth date
+     * @param gender    the gender
+     */
+    public PatientDto(String id, LocalDate birthDate, String gender) {
+        this(id, birthDate, gender, null);
+    }
 }
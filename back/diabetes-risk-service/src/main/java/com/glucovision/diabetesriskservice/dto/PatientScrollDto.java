@@ -0,0 +1,28 @@
+package com.glucovision.diabetesriskservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of active patients returned by the Patient Service keyset pagination.
+ * <p>
+ * The next page is requested by sending {@code next} back as the {@code after} parameter;
+ * {@code next} is {@code null} on the last page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "One page of active patients, with the token of the next page")
+public class PatientScrollDto {
+
+    @Schema(description = "Patients of this page")
+    private List<PatientDto> patients = new ArrayList<>();
+
+    @Schema(description = "Opaque token of the next page; absent on the last page")
+    private String next;
+}
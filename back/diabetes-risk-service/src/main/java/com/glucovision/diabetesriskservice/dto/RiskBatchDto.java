@@ -0,0 +1,30 @@
+package com.glucovision.diabetesriskservice.dto;
+
+import com.glucovision.diabetesriskservice.model.RiskLevel;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DTO representing the diabetes risk evaluation result for a batch of patients.
+ * <p>
+ * Each requested patient ID appears in exactly one of the two maps.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Diabetes risk levels evaluated for a batch of patients")
+public class RiskBatchDto {
+
+    @Schema(description = "Risk level of each successfully evaluated patient, keyed by patient ID",
+            example = "{\"8e1f3b34-5c7e-4c17-9df6-bc6dd40efc62\": \"BORDERLINE\"}")
+    private Map<String, RiskLevel> riskLevels = new LinkedHashMap<>();
+
+    @Schema(description = "Reason why a patient could not be evaluated, keyed by patient ID",
+            example = "{\"0c8a1b7e-2f4d-4e8b-9a51-7d3e6f2b1c90\": \"Patient not found with ID: 0c8a1b7e-2f4d-4e8b-9a51-7d3e6f2b1c90\"}")
+    private Map<String, String> errors = new LinkedHashMap<>();
+}
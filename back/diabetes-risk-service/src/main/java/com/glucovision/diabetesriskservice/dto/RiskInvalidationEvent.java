@@ -0,0 +1,55 @@
+package com.glucovision.diabetesriskservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Notification that the data a patient's risk level depends on has changed.
+ * <p>
+ * Sent by the Note Service and the Patient Service to {@code POST /api/risk/events}, and published
+ * in-process as an application event so that cached risk levels are dropped.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Change of the data a patient's risk level depends on")
+public class RiskInvalidationEvent {
+
+    /**
+     * What changed.
+     */
+    public enum Reason {
+        /** A note was added, updated or deleted. */
+        NOTE_CHANGED,
+        /** The birth date or the gender of the patient changed. */
+        PATIENT_CHANGED,
+        /** The patient was activated or deactivated. */
+        PATIENT_STATUS_CHANGED,
+        /** The patient was deleted. */
+        PATIENT_DELETED,
+        /** The sender dropped earlier events it could not deliver; no patient is given. */
+        EVENTS_DROPPED
+    }
+
+    @NotNull(message = "Reason is required")
+    @Schema(description = "What changed", example = "NOTE_CHANGED", required = true)
+    private Reason reason;
+
+    @Schema(description = "Patient whose risk level may have changed, required unless the reason is EVENTS_DROPPED",
+            example = "8e1f3b34-5c7e-4c17-9df6-bc6dd40efc62")
+    private String patientId;
+
+    /**
+     * @return {@code true} if the event names a patient, or does not need to
+     */
+    @JsonIgnore
+    @AssertTrue(message = "PatientId is required")
+    public boolean isPatientIdValid() {
+        return reason == Reason.EVENTS_DROPPED || (patientId != null && !patientId.isBlank());
+    }
+}
@@ -0,0 +1,26 @@
+package com.glucovision.diabetesriskservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.glucovision.diabetesriskservice.model.AgeBand;
+import com.glucovision.diabetesriskservice.model.Gender;
+import com.glucovision.diabetesriskservice.model.RiskLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of the NDJSON file written by the population risk scan: the risk level of a patient with the
+ * age band and gender it is aggregated under, or the reason why it could not be evaluated.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RiskScanRecord {
+
+    private String patientId;
+    private RiskLevel riskLevel;
+    private AgeBand ageBand;
+    private Gender gender;
+    private String error;
+}
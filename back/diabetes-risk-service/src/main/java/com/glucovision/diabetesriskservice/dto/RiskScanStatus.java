@@ -0,0 +1,62 @@
+package com.glucovision.diabetesriskservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Progress of the current or last population risk scan.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Progress of the current or last population risk scan")
+public class RiskScanStatus {
+
+    /**
+     * Lifecycle of a scan.
+     */
+    public enum State {
+        /** No scan has run since the service started. */
+        IDLE,
+        RUNNING,
+        COMPLETED,
+        /** The scan stopped on an error; the next run resumes from its checkpoint. */
+        FAILED
+    }
+
+    @Schema(description = "State of the scan", example = "RUNNING")
+    private State state;
+
+    @Schema(description = "NDJSON file receiving the risk levels", example = "/app/data/risk-scan/risk-scan-2025-06-15T020000.ndjson")
+    private String output;
+
+    @Schema(description = "Whether the scan resumed from the checkpoint of an interrupted run")
+    private boolean resumed;
+
+    @Schema(description = "Start of the scan")
+    private Instant startedAt;
+
+    @Schema(description = "End of the scan, absent while running")
+    private Instant finishedAt;
+
+    @Schema(description = "Pages of patients written, resumed pages included", example = "42")
+    private long pages;
+
+    @Schema(description = "Patients written, resumed patients included", example = "4200")
+    private long patients;
+
+    @Schema(description = "Patients that could not be evaluated", example = "3")
+    private long errors;
+
+    @Schema(description = "Patients written per second by this run", example = "850.5")
+    private double patientsPerSecond;
+
+    @Schema(description = "Cause of the failure, when the scan failed")
+    private String failure;
+}
@@ -0,0 +1,57 @@
+package com.glucovision.diabetesriskservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.glucovision.diabetesriskservice.model.AgeBand;
+import com.glucovision.diabetesriskservice.model.Gender;
+import com.glucovision.diabetesriskservice.model.RiskLevel;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Distribution of the latest risk level of the patients, grouped by age band and/or gender.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Number of patients per risk level, grouped by age band and/or gender")
+public class RiskStatsDto {
+
+    @Schema(description = "Dimensions of the groups", example = "[\"ageBand\", \"gender\"]")
+    private List<String> groupBy = new ArrayList<>();
+
+    @Schema(description = "Number of patients with a known risk level", example = "1250")
+    private long total;
+
+    @Schema(description = "One entry per combination of the grouped dimensions, empty groups included")
+    private List<Group> groups = new ArrayList<>();
+
+    /**
+     * Risk level counts of one group; the dimensions that are not grouped on are absent.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Group {
+
+        @Schema(description = "Age band of the group", example = "30-39")
+        private AgeBand ageBand;
+
+        @Schema(description = "Gender of the group", example = "FEMALE")
+        private Gender gender;
+
+        @Schema(description = "Number of patients in the group", example = "212")
+        private long total;
+
+        @Schema(description = "Number of patients of the group per risk level",
+                example = "{\"NONE\": 150, \"BORDERLINE\": 40, \"IN_DANGER\": 15, \"EARLY_ONSET\": 7}")
+        private Map<RiskLevel, Long> counts = new EnumMap<>(RiskLevel.class);
+    }
+}
@@ -0,0 +1,34 @@
+package com.glucovision.diabetesriskservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of the risk trigger terms found in the notes of a patient, computed by the Note Service.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Summary of the risk trigger terms found in the notes of a patient")
+public class TriggerSummaryDto {
+
+    @Schema(description = "Patient ID", example = "8e1f3b34-5c7e-4c17-9df6-bc6dd40efc62")
+    private String patientId;
+
+    @Schema(description = "Number of notes of the patient", example = "3")
+    private int noteCount;
+
+    @Schema(description = "Sum over the notes of the distinct trigger terms found in each note", example = "4")
+    private int triggerCount;
+
+    @Schema(description = "Distinct trigger terms found in at least one note")
+    private List<String> matchedTerms = new ArrayList<>();
+
+    @Schema(description = "Version of the trigger dictionary the counts were computed with", example = "3f9a1c0d52e7b814")
+    private String dictionaryVersion;
+}
@@ -0,0 +1,16 @@
+package com.glucovision.diabetesriskservice.exception;
+
+/**
+ * Exception thrown when a downstream service does not answer within the configured timeout.
+ */
+public class DownstreamTimeoutException extends RuntimeException {
+
+    /**
+     * Constructs a new DownstreamTimeoutException with a specific message.
+     *
+     * @param message the detail message naming the service that timed out
+     */
+    public DownstreamTimeoutException(String message) {
+        super(message);
+    }
+}
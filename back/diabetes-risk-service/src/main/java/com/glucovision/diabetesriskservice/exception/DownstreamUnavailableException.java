@@ -0,0 +1,17 @@
+package com.glucovision.diabetesriskservice.exception;
+
+/**
+ * Exception thrown when a call to a downstream service is rejected without being sent,
+ * because its circuit breaker is open or too many calls to it are already running.
+ */
+public class DownstreamUnavailableException extends RuntimeException {
+
+    /**
+     * Constructs a new DownstreamUnavailableException with a specific message.
+     *
+     * @param message the detail message naming the unavailable service
+     */
+    public DownstreamUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -30,6 +30,17 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse(ex.getMessage()));
     }
 
+    /**
+     * Handles {@link IllegalArgumentException}, thrown when a request parameter is invalid.
+     *
+     * @param ex the exception thrown
+     * @return a 400 Bad Request response with the exception message
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleBadRequest(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest().body(new ErrorResponse(ex.getMessage()));
+    }
+
     /**
      * Handles validation errors for invalid method arguments annotated with {@code @Valid}.
      * <p>
@@ -83,4 +94,28 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(new ErrorResponse(ex.getMessage()));
     }
+
+    /**
+     * Handles {@link DownstreamTimeoutException} when a downstream service is too slow to answer.
+     *
+     * @param ex the exception thrown
+     * @return a 504 Gateway Timeout response with the exception message
+     */
+    @ExceptionHandler(DownstreamTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleDownstreamTimeout(DownstreamTimeoutException ex) {
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                .body(new ErrorResponse(ex.getMessage()));
+    }
+
+    /**
+     * Handles {@link DownstreamUnavailableException} when a downstream service is considered down or saturated.
+     *
+     * @param ex the exception thrown
+     * @return a 503 Service Unavailable response with the exception message
+     */
+    @ExceptionHandler(DownstreamUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleDownstreamUnavailable(DownstreamUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorResponse(ex.getMessage()));
+    }
 }
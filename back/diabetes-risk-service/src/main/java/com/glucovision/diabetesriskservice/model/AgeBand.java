@@ -0,0 +1,80 @@
+package com.glucovision.diabetesriskservice.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+/**
+ * Age bands used to aggregate the risk levels; the first boundary is the 30-year threshold of the risk rules.
+ */
+public enum AgeBand {
+
+    UNDER_30("0-29", 0),
+    FROM_30_TO_39("30-39", 30),
+    FROM_40_TO_49("40-49", 40),
+    FROM_50_TO_59("50-59", 50),
+    FROM_60_TO_69("60-69", 60),
+    FROM_70("70+", 70);
+
+    private final String label;
+    private final int minAge;
+
+    AgeBand(String label, int minAge) {
+        this.label = label;
+        this.minAge = minAge;
+    }
+
+    /**
+     * @return the label of the band, e.g. {@code 30-39}
+     */
+    @JsonValue
+    public String label() {
+        return label;
+    }
+
+    /**
+     * Returns the band of an age.
+     *
+     * @param age the age in years
+     * @return the band containing it
+     */
+    public static AgeBand of(int age) {
+        AgeBand[] bands = values();
+        for (int i = bands.length - 1; i > 0; i--) {
+            if (age >= bands[i].minAge) {
+                return bands[i];
+            }
+        }
+        return UNDER_30;
+    }
+
+    /**
+     * Returns the band of a patient on a given day.
+     *
+     * @param birthDate the birth date of the patient
+     * @param today     the day of the evaluation
+     * @return the band containing the patient's age
+     */
+    public static AgeBand of(LocalDate birthDate, LocalDate today) {
+        return of(Period.between(birthDate, today).getYears());
+    }
+
+    /**
+     * Returns the band with the given label or name.
+     *
+     * @param value a label such as {@code 30-39}, or a constant name
+     * @return the band
+     * @throws IllegalArgumentException if no band matches
+     */
+    @JsonCreator
+    public static AgeBand fromLabel(String value) {
+        for (AgeBand band : values()) {
+            if (band.label.equals(value) || band.name().equalsIgnoreCase(value)) {
+                return band;
+            }
+        }
+        throw new IllegalArgumentException("Unknown age band: " + value);
+    }
+}
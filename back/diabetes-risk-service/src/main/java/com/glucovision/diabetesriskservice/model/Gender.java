@@ -0,0 +1,33 @@
+package com.glucovision.diabetesriskservice.model;
+
+/**
+ * Gender of a patient, as used to aggregate the risk levels.
+ */
+public enum Gender {
+
+    MALE,
+
+    FEMALE,
+
+    /**
+     * Missing or unrecognized gender.
+     */
+    OTHER;
+
+    /**
+     * Normalizes the gender sent by the Patient Service ({@code M}, {@code MALE}, {@code F}, {@code FEMALE}, any case).
+     *
+     * @param value the gender as received, may be {@code null}
+     * @return the matching gender, {@link #OTHER} if it is not recognized
+     */
+    public static Gender of(String value) {
+        if (value == null) {
+            return OTHER;
+        }
+        return switch (value.trim().toUpperCase()) {
+            case "M", "MALE" -> MALE;
+            case "F", "FEMALE" -> FEMALE;
+            default -> OTHER;
+        };
+    }
+}
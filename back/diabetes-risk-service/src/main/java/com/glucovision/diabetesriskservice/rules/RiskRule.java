@@ -0,0 +1,60 @@
+package com.glucovision.diabetesriskservice.rules;
+
+import com.glucovision.diabetesriskservice.model.Gender;
+import com.glucovision.diabetesriskservice.model.RiskLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One row of the risk rule table: the level of the patients of some genders, in an age range,
+ * whose notes contain a number of trigger terms in a range.
+ * <p>
+ * Bounds are inclusive; a missing lower bound is 0 and a missing upper bound is unlimited.
+ * An empty gender list applies the rule to every {@link Gender}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RiskRule {
+
+    /**
+     * Free text naming the rule in validation errors.
+     */
+    private String description;
+
+    private List<Gender> genders = new ArrayList<>();
+
+    private Integer minAge;
+
+    private Integer maxAge;
+
+    private Integer minTriggers;
+
+    private Integer maxTriggers;
+
+    private RiskLevel level;
+
+    boolean appliesTo(Gender gender) {
+        return genders == null || genders.isEmpty() || genders.contains(gender);
+    }
+
+    boolean coversAge(int age) {
+        return age >= lowerBound(minAge) && (maxAge == null || age <= maxAge);
+    }
+
+    boolean coversTriggers(int triggerCount) {
+        return triggerCount >= lowerBound(minTriggers) && (maxTriggers == null || triggerCount <= maxTriggers);
+    }
+
+    String name() {
+        return description != null ? description : String.valueOf(level);
+    }
+
+    static int lowerBound(Integer min) {
+        return min == null ? 0 : min;
+    }
+}
@@ -0,0 +1,116 @@
+package com.glucovision.diabetesriskservice.rules;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glucovision.diabetesriskservice.model.Gender;
+import com.glucovision.diabetesriskservice.model.RiskLevel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Resolves risk levels from the rule table loaded from {@code risk.rules.location}.
+ * <p>
+ * The table is compiled and validated at startup, which fails if the rules are invalid. When the rules
+ * come from a file, the file is checked every {@code risk.rules.reload-interval} and reloaded when it
+ * changes: a valid new table replaces the current one and a {@link RiskRulesReloadedEvent} is published, on
+ * which the levels evaluated with the previous rules are dropped; an invalid one is logged and ignored.
+ */
+@Slf4j
+@Component
+public class RiskRuleEngine {
+
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+    private final String location;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile RiskRuleTable table;
+    private volatile long lastModified;
+
+    /**
+     * Loads the rules, failing if they are invalid.
+     *
+     * @param resourceLoader the loader resolving the location
+     * @param objectMapper   the mapper reading the rule file
+     * @param location       the location of the JSON rule file, e.g. {@code file:/app/config/risk-rules.json}
+     * @param eventPublisher the publisher of the {@link RiskRulesReloadedEvent}
+     * @throws IllegalArgumentException if the rules leave gaps, overlap or are malformed
+     * @throws UncheckedIOException     if the rule file cannot be read
+     */
+    public RiskRuleEngine(ResourceLoader resourceLoader,
+                          ObjectMapper objectMapper,
+                          @Value("${risk.rules.location:classpath:risk-rules.json}") String location,
+                          ApplicationEventPublisher eventPublisher) {
+        this.resourceLoader = resourceLoader;
+        this.objectMapper = objectMapper;
+        this.location = location;
+        this.eventPublisher = eventPublisher;
+        try {
+            Resource resource = resourceLoader.getResource(location);
+            this.lastModified = lastModified(resource);
+            this.table = load(resource);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the risk rules from " + location, e);
+        }
+    }
+
+    /**
+     * Resolves the risk level of a patient with a single table lookup.
+     *
+     * @param gender       the gender of the patient
+     * @param age          the age of the patient in years
+     * @param triggerCount the number of trigger terms found in the patient's notes
+     * @return the risk level
+     */
+    public RiskLevel resolve(Gender gender, int age, int triggerCount) {
+        return table.resolve(gender, age, triggerCount);
+    }
+
+    /**
+     * Reloads the rule file if it changed since it was last read.
+     *
+     * @return {@code true} if a new table is in use
+     */
+    @Scheduled(fixedDelayString = "${risk.rules.reload-interval:30s}", initialDelayString = "${risk.rules.reload-interval:30s}")
+    public boolean reloadIfModified() {
+        Resource resource = resourceLoader.getResource(location);
+        try {
+            long modified = lastModified(resource);
+            if (modified == lastModified) {
+                return false;
+            }
+            lastModified = modified;
+            table = load(resource);
+            log.info("✅ [RISK RULES] Rules reloaded from {}", location);
+            eventPublisher.publishEvent(new RiskRulesReloadedEvent(location));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.error("❌ [RISK RULES] Ignoring the new rules from {}, the previous ones stay in use: {}", location, e.getMessage());
+            return false;
+        }
+    }
+
+    private RiskRuleTable load(Resource resource) throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            RiskRuleSet ruleSet = objectMapper.readValue(in, RiskRuleSet.class);
+            RiskRuleTable compiled = RiskRuleTable.compile(ruleSet.getRules());
+            log.info("[RISK RULES] {} rule(s) compiled from {}", ruleSet.getRules().size(), location);
+            return compiled;
+        }
+    }
+
+    /**
+     * Returns the modification time of a file resource; other resources (e.g. in the jar) never change.
+     */
+    private static long lastModified(Resource resource) throws IOException {
+        return resource.isFile() ? resource.lastModified() : 0L;
+    }
+}
@@ -0,0 +1,24 @@
+package com.glucovision.diabetesriskservice.rules;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Content of the risk rule file ({@code risk.rules.location}).
+ * <p>
+ * Example:
+ * <pre>
+ * {
+ *   "rules": [
+ *     { "description": "Over 30, 2 to 5 triggers", "minAge": 31, "minTriggers": 2, "maxTriggers": 5, "level": "BORDERLINE" }
+ *   ]
+ * }
+ * </pre>
+ */
+@Data
+public class RiskRuleSet {
+
+    private List<RiskRule> rules = new ArrayList<>();
+}
@@ -0,0 +1,142 @@
+package com.glucovision.diabetesriskservice.rules;
+
+import com.glucovision.diabetesriskservice.model.Gender;
+import com.glucovision.diabetesriskservice.model.RiskLevel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Risk rules compiled into a lookup table indexed by gender, age band and trigger count.
+ * <p>
+ * The age bands and trigger counts are cut at every bound used by a rule, so that each cell of the table
+ * is covered by the same rules whatever the age and trigger count within it. Trigger counts above the
+ * highest bound all fall in the last cell. Compilation checks that every cell is covered by exactly one
+ * rule: a cell covered by none is a gap, a cell covered by several is an overlap.
+ */
+public final class RiskRuleTable {
+
+    private static final Gender[] GENDERS = Gender.values();
+    private static final int MAX_REPORTED_ERRORS = 10;
+
+    private final RiskLevel[] levels;
+    private final int[] bandOfAge;
+    private final int bandCount;
+    private final int maxTriggerIndex;
+
+    private RiskRuleTable(RiskLevel[] levels, int[] bandOfAge, int bandCount, int maxTriggerIndex) {
+        this.levels = levels;
+        this.bandOfAge = bandOfAge;
+        this.bandCount = bandCount;
+        this.maxTriggerIndex = maxTriggerIndex;
+    }
+
+    /**
+     * Compiles and validates a set of rules.
+     *
+     * @param rules the rules, in any order
+     * @return the compiled table
+     * @throws IllegalArgumentException if a rule is malformed, or if the rules leave gaps or overlap
+     */
+    public static RiskRuleTable compile(List<RiskRule> rules) {
+        if (rules == null || rules.isEmpty()) {
+            throw new IllegalArgumentException("The risk rule table is empty");
+        }
+        TreeSet<Integer> ageCuts = new TreeSet<>(List.of(0));
+        TreeSet<Integer> triggerCuts = new TreeSet<>(List.of(0));
+        for (RiskRule rule : rules) {
+            checkRule(rule);
+            ageCuts.add(RiskRule.lowerBound(rule.getMinAge()));
+            triggerCuts.add(RiskRule.lowerBound(rule.getMinTriggers()));
+            if (rule.getMaxAge() != null) {
+                ageCuts.add(rule.getMaxAge() + 1);
+            }
+            if (rule.getMaxTriggers() != null) {
+                triggerCuts.add(rule.getMaxTriggers() + 1);
+            }
+        }
+
+        List<Integer> bandStarts = new ArrayList<>(ageCuts);
+        int bandCount = bandStarts.size();
+        int lastAge = bandStarts.get(bandCount - 1);
+        int[] bandOfAge = new int[lastAge + 1];
+        for (int band = 0; band < bandCount; band++) {
+            int end = band + 1 < bandCount ? bandStarts.get(band + 1) : lastAge + 1;
+            for (int age = bandStarts.get(band); age < end; age++) {
+                bandOfAge[age] = band;
+            }
+        }
+
+        int maxTriggerIndex = triggerCuts.last();
+        RiskLevel[] levels = new RiskLevel[GENDERS.length * bandCount * (maxTriggerIndex + 1)];
+        List<String> errors = new ArrayList<>();
+        for (Gender gender : GENDERS) {
+            for (int band = 0; band < bandCount; band++) {
+                int age = bandStarts.get(band);
+                for (int triggers = 0; triggers <= maxTriggerIndex; triggers++) {
+                    List<RiskRule> matches = new ArrayList<>(1);
+                    for (RiskRule rule : rules) {
+                        if (rule.appliesTo(gender) && rule.coversAge(age) && rule.coversTriggers(triggers)) {
+                            matches.add(rule);
+                        }
+                    }
+                    String cell = "gender=" + gender + ", age " + describe(age, band + 1 < bandCount ? bandStarts.get(band + 1) : null)
+                            + ", triggers " + (triggers == maxTriggerIndex ? triggers + "+" : String.valueOf(triggers));
+                    if (matches.isEmpty()) {
+                        errors.add("gap for " + cell);
+                    } else if (matches.size() > 1) {
+                        errors.add("overlap for " + cell + ": " + matches.stream().map(RiskRule::name).toList());
+                    } else {
+                        levels[index(gender, band, triggers, bandCount, maxTriggerIndex)] = matches.get(0).getLevel();
+                    }
+                }
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException("Invalid risk rule table, " + errors.size() + " problem(s): "
+                    + String.join("; ", errors.subList(0, Math.min(errors.size(), MAX_REPORTED_ERRORS))));
+        }
+        return new RiskRuleTable(levels, bandOfAge, bandCount, maxTriggerIndex);
+    }
+
+    /**
+     * Resolves the risk level of a patient.
+     *
+     * @param gender       the gender of the patient
+     * @param age          the age of the patient in years; negative ages are treated as 0
+     * @param triggerCount the number of trigger terms found in the patient's notes
+     * @return the level of the only rule covering the patient
+     */
+    public RiskLevel resolve(Gender gender, int age, int triggerCount) {
+        int band = bandOfAge[Math.min(Math.max(age, 0), bandOfAge.length - 1)];
+        int triggers = Math.min(Math.max(triggerCount, 0), maxTriggerIndex);
+        return levels[index(gender, band, triggers, bandCount, maxTriggerIndex)];
+    }
+
+    private static int index(Gender gender, int band, int triggers, int bandCount, int maxTriggerIndex) {
+        return (gender.ordinal() * bandCount + band) * (maxTriggerIndex + 1) + triggers;
+    }
+
+    private static void checkRule(RiskRule rule) {
+        if (rule.getLevel() == null) {
+            throw new IllegalArgumentException("Risk rule '" + rule.name() + "' has no level");
+        }
+        checkRange(rule, "age", rule.getMinAge(), rule.getMaxAge());
+        checkRange(rule, "triggers", rule.getMinTriggers(), rule.getMaxTriggers());
+    }
+
+    private static void checkRange(RiskRule rule, String dimension, Integer min, Integer max) {
+        if ((min != null && min < 0) || (max != null && max < RiskRule.lowerBound(min))) {
+            throw new IllegalArgumentException("Risk rule '" + rule.name() + "' has an invalid " + dimension
+                    + " range: [" + min + ", " + max + "]");
+        }
+    }
+
+    private static String describe(int start, Integer nextStart) {
+        if (nextStart == null) {
+            return start + "+";
+        }
+        return nextStart - 1 == start ? String.valueOf(start) : start + "-" + (nextStart - 1);
+    }
+}
@@ -0,0 +1,10 @@
+package com.glucovision.diabetesriskservice.rules;
+
+/**
+ * Published in-process once a new rule table is in use, so that the levels evaluated with the previous one
+ * are evaluated again.
+ *
+ * @param location the location the rules were reloaded from
+ */
+public record RiskRulesReloadedEvent(String location) {
+}
@@ -2,16 +2,19 @@ package com.glucovision.diabetesriskservice.service;
 
 import com.glucovision.diabetesriskservice.client.NoteClient;
 import com.glucovision.diabetesriskservice.dto.NoteDto;
+import com.glucovision.diabetesriskservice.dto.TriggerSummaryDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service responsible for retrieving medical notes related to a specific patient.
  * <p>
  * Delegates the call to the {@link NoteClient}, which communicates with the Note Service.
+ * Every call goes through the {@link DownstreamGuard}, so a slow or failing service is cut off quickly.
  */
 @Slf4j
 @Service
@@ -19,6 +22,7 @@ import java.util.List;
 public class NoteDataService {
 
     private final NoteClient noteClient;
+    private final DownstreamGuard downstreamGuard;
 
     /**
      * Retrieves the list of medical notes for the given patient ID.
@@ -35,9 +39,56 @@ public class NoteDataService {
             throw new IllegalArgumentException("L'ID du patient ne peut pas être null ou vide");
         }
 
-        List<NoteDto> notes = noteClient.getNoteListe(id);
+        List<NoteDto> notes = downstreamGuard.call(DownstreamGuard.NOTE_SERVICE, () -> noteClient.getNoteListe(id));
         log.info("Retrieved {} note(s) for patientId={}", notes.size(), id);
 
         return notes;
     }
+
+    /**
+     * Retrieves the medical notes of several patients with a single call to the Note Service.
+     *
+     * @param ids the unique identifiers of the patients
+     * @return the notes of each patient, keyed by patient ID
+     */
+    public Map<String, List<NoteDto>> getNotesByPatientIds(List<String> ids) {
+        log.debug("Fetching notes for {} patient(s)", ids.size());
+        Map<String, List<NoteDto>> notes = downstreamGuard.call(DownstreamGuard.NOTE_SERVICE, () -> noteClient.getNotesByPatientIds(ids));
+        log.info("Retrieved notes for {} patient(s)", notes.size());
+        return notes;
+    }
+
+    /**
+     * Retrieves the summary of the risk trigger terms found in the notes of the given patient.
+     *
+     * @param id the unique identifier of the patient
+     * @return the trigger summary computed by the Note Service
+     * @throws IllegalArgumentException if the ID is null or empty
+     */
+    public TriggerSummaryDto getTriggerSummary(String id) {
+        log.debug("Fetching trigger summary for patientId={}", id);
+
+        if (id == null || id.trim().isEmpty()) {
+            log.warn("Attempted to fetch a trigger summary with null or empty patient ID");
+            throw new IllegalArgumentException("L'ID du patient ne peut pas être null ou vide");
+        }
+
+        TriggerSummaryDto summary = downstreamGuard.call(DownstreamGuard.NOTE_SERVICE, () -> noteClient.getTriggerSummary(id));
+        log.info("Retrieved trigger summary for patientId={}: {} trigger(s) in {} note(s)",
+                id, summary.getTriggerCount(), summary.getNoteCount());
+        return summary;
+    }
+
+    /**
+     * Retrieves the trigger summaries of several patients with a single call to the Note Service.
+     *
+     * @param ids the unique identifiers of the patients
+     * @return the trigger summary of each patient, keyed by patient ID
+     */
+    public Map<String, TriggerSummaryDto> getTriggerSummaries(List<String> ids) {
+        log.debug("Fetching trigger summaries for {} patient(s)", ids.size());
+        Map<String, TriggerSummaryDto> summaries = downstreamGuard.call(DownstreamGuard.NOTE_SERVICE, () -> noteClient.getTriggerSummaries(ids));
+        log.info("Retrieved trigger summaries for {} patient(s)", summaries.size());
+        return summaries;
+    }
 }
@@ -1,15 +1,20 @@
 package com.glucovision.diabetesriskservice.service;
 
 import com.glucovision.diabetesriskservice.client.PatientClient;
+import com.glucovision.diabetesriskservice.dto.PatientBatchDto;
 import com.glucovision.diabetesriskservice.dto.PatientDto;
+import com.glucovision.diabetesriskservice.dto.PatientScrollDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 /**
  * Service responsible for retrieving patient information by ID.
  * <p>
  * Communicates with the Patient Service through the {@link PatientClient}.
+ * Every call goes through the {@link DownstreamGuard}, so a slow or failing service is cut off quickly.
  */
 @Slf4j
 @Service
@@ -17,6 +22,7 @@ import org.springframework.stereotype.Service;
 public class PatientDataService {
 
     private final PatientClient patientClient;
+    private final DownstreamGuard downstreamGuard;
 
     /**
      * Retrieves patient details for the given ID.
@@ -33,8 +39,33 @@ public class PatientDataService {
             throw new IllegalArgumentException("L'ID du patient ne peut pas être null ou vide");
         }
 
-        PatientDto patient = patientClient.getPatientById(id);
+        PatientDto patient = downstreamGuard.call(DownstreamGuard.PATIENT_SERVICE, () -> patientClient.getPatientById(id));
         log.info("Patient data retrieved for patientId={}", id);
         return patient;
     }
+
+    /**
+     * Retrieves the details of several patients with a single call to the Patient Service.
+     *
+     * @param ids the unique identifiers of the patients
+     * @return the patients found and the IDs that match no patient
+     */
+    public PatientBatchDto getPatients(List<String> ids) {
+        log.debug("Fetching patient details for {} patient(s)", ids.size());
+        PatientBatchDto batch = downstreamGuard.call(DownstreamGuard.PATIENT_SERVICE, () -> patientClient.getPatientsByIds(PatientClient.RISK_FIELDS, ids));
+        log.info("Patient data retrieved for {} patient(s), {} missing", batch.getPatients().size(), batch.getMissing().size());
+        return batch;
+    }
+
+    /**
+     * Retrieves one page of active patients from the Patient Service.
+     *
+     * @param after the token returned with the previous page, {@code null} for the first page
+     * @param size  the number of patients per page
+     * @return the patients of the page and the token of the next one
+     */
+    public PatientScrollDto scrollActivePatients(String after, int size) {
+        log.debug("Fetching a page of {} active patient(s) after={}", size, after);
+        return downstreamGuard.call(DownstreamGuard.PATIENT_SERVICE, () -> patientClient.scrollActivePatients(after, size));
+    }
 }
@@ -0,0 +1,253 @@
+package com.glucovision.diabetesriskservice.service;
+
+import com.glucovision.diabetesriskservice.dto.RiskInvalidationEvent;
+import com.glucovision.diabetesriskservice.model.RiskLevel;
+import com.glucovision.diabetesriskservice.rules.RiskRulesReloadedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of evaluated risk levels, keyed by patient UID.
+ * <p>
+ * A {@link RiskInvalidationEvent} drops the cached level of the patient and stamps the patient with the value of a
+ * global invalidation counter. An evaluation takes a {@link #ticket()} before fetching the data and passes it back
+ * with its result, which is not stored if that patient was invalidated in the meantime, so a result computed from
+ * data that changed is never served, while the evaluations of other patients are still cached.
+ * <p>
+ * A stamp is kept for {@code risk.cache.ttl}, far longer than an evaluation can take, and at most
+ * {@code risk.cache.max-size} stamps are kept: when there are more, the stamps are replaced by a single floor that
+ * rejects every ticket taken before it, as {@link #clear()} does. Memory stays bounded either way.
+ * <p>
+ * A level expires after {@code risk.cache.ttl}, and at the latest at the patient's next birthday, since the
+ * risk rules depend on the age (the 30-year threshold). A zero TTL disables the cache.
+ * When {@code risk.cache.max-size} is reached, expired entries are purged, then arbitrary ones.
+ * Hits, misses and invalidations are published as Micrometer counters.
+ */
+@Slf4j
+@Component
+public class RiskCache {
+
+    private final Duration ttl;
+    private final int maxSize;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    /** Incremented by every invalidation and by {@link #clear()}, under the lock of the cache. */
+    private final AtomicLong invalidations = new AtomicLong();
+    /** Value of {@link #invalidations} at the latest invalidation of each recently invalidated patient. */
+    private final Map<String, Stamp> stamps = new ConcurrentHashMap<>();
+    /** Tickets below this value are rejected whatever the patient; guarded by the lock of the cache. */
+    private long floor;
+
+    private record Entry(RiskLevel level, Instant expiresAt) {
+    }
+
+    private record Stamp(long invalidation, Instant expiresAt) {
+    }
+
+    /**
+     * Creates the cache used by the risk evaluation.
+     *
+     * @param ttl           how long an evaluated level is served, zero to disable the cache
+     * @param maxSize       the maximum number of cached patients
+     * @param meterRegistry the registry receiving the cache metrics
+     */
+    @Autowired
+    public RiskCache(@Value("${risk.cache.ttl:10m}") Duration ttl,
+                     @Value("${risk.cache.max-size:10000}") int maxSize,
+                     MeterRegistry meterRegistry) {
+        this(ttl, maxSize, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    RiskCache(Duration ttl, int maxSize, MeterRegistry meterRegistry, Clock clock) {
+        this.ttl = ttl;
+        this.maxSize = maxSize;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        meterRegistry.gauge("risk.cache.size", entries, Map::size);
+    }
+
+    /**
+     * @return {@code true} if levels are cached at all
+     */
+    public boolean isEnabled() {
+        return !ttl.isZero() && maxSize > 0;
+    }
+
+    /**
+     * Returns the cached level of a patient, if it is still current.
+     *
+     * @param patientId the patient UID
+     * @return the cached level, or empty on a miss
+     */
+    public Optional<RiskLevel> get(String patientId) {
+        if (!isEnabled() || patientId == null) {
+            return Optional.empty();
+        }
+        Entry entry = entries.get(patientId);
+        if (entry == null || !clock.instant().isBefore(entry.expiresAt())) {
+            meterRegistry.counter("risk.cache", "result", "miss").increment();
+            return Optional.empty();
+        }
+        meterRegistry.counter("risk.cache", "result", "hit").increment();
+        return Optional.of(entry.level());
+    }
+
+    /**
+     * Returns the ticket to pass to {@link #put(String, long, RiskLevel, LocalDate)}, to be taken before the data
+     * of an evaluation is fetched.
+     *
+     * @return the current invalidation counter, incremented by each invalidation and by {@link #clear()}
+     */
+    public long ticket() {
+        return invalidations.get();
+    }
+
+    /**
+     * Caches an evaluated level, unless the patient was invalidated, or the cache cleared, since {@code ticket} was
+     * taken.
+     *
+     * @param patientId the patient UID
+     * @param ticket    the ticket taken before the evaluation fetched its data
+     * @param level     the evaluated level
+     * @param birthDate the patient's birth date, bounding the entry to the next birthday; may be {@code null}
+     */
+    public void put(String patientId, long ticket, RiskLevel level, LocalDate birthDate) {
+        if (!isEnabled() || patientId == null) {
+            return;
+        }
+        Instant now = clock.instant();
+        Instant expiresAt = now.plus(ttl);
+        if (birthDate != null) {
+            Instant nextBirthday = nextBirthday(birthDate, LocalDate.now(clock)).atStartOfDay(clock.getZone()).toInstant();
+            if (nextBirthday.isBefore(expiresAt)) {
+                expiresAt = nextBirthday;
+            }
+        }
+        synchronized (this) {
+            Stamp stamp = stamps.get(patientId);
+            if (ticket < floor || (stamp != null && stamp.invalidation() > ticket)) {
+                return;
+            }
+            if (entries.size() >= maxSize && !entries.containsKey(patientId)) {
+                evict(now);
+            }
+            entries.put(patientId, new Entry(level, expiresAt));
+        }
+    }
+
+    /**
+     * Drops the cached level of a patient and stamps the patient, so that the evaluations running meanwhile are not
+     * cached.
+     *
+     * @param patientId the patient UID
+     */
+    public void invalidate(String patientId) {
+        if (patientId == null) {
+            return;
+        }
+        Instant now = clock.instant();
+        synchronized (this) {
+            long invalidation = invalidations.incrementAndGet();
+            entries.remove(patientId);
+            if (stamps.size() >= maxSize && !stamps.containsKey(patientId)) {
+                stamps.values().removeIf(stamp -> !now.isBefore(stamp.expiresAt()));
+            }
+            if (stamps.size() >= maxSize && !stamps.containsKey(patientId)) {
+                stamps.clear();
+                floor = invalidation;
+            } else {
+                stamps.put(patientId, new Stamp(invalidation, now.plus(ttl)));
+            }
+        }
+        meterRegistry.counter("risk.cache.invalidations").increment();
+    }
+
+    /**
+     * Drops every cached level, e.g. when the risk rules change. Evaluations running meanwhile are not cached.
+     */
+    public void clear() {
+        synchronized (this) {
+            floor = invalidations.incrementAndGet();
+            entries.clear();
+            stamps.clear();
+        }
+        log.info("[RISK CACHE] Cleared");
+    }
+
+    /**
+     * Handles a change notified by another service, before the other listeners so that they do not read the stale level.
+     * When the sender dropped events, any cached level may be stale, so all of them are dropped.
+     *
+     * @param event the invalidation event
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onInvalidation(RiskInvalidationEvent event) {
+        log.debug("[RISK CACHE] {} for patientId={}", event.getReason(), event.getPatientId());
+        if (event.getReason() == RiskInvalidationEvent.Reason.EVENTS_DROPPED) {
+            clear();
+        } else {
+            invalidate(event.getPatientId());
+        }
+    }
+
+    /**
+     * Drops every cached level once the risk rules are reloaded, since they were evaluated with the previous rules.
+     */
+    @EventListener(RiskRulesReloadedEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onRulesReloaded() {
+        clear();
+    }
+
+    /**
+     * @return the number of cached patients
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the first day on which the age computed from {@code birthDate} differs from its age on {@code today}.
+     */
+    static LocalDate nextBirthday(LocalDate birthDate, LocalDate today) {
+        int age = Period.between(birthDate, today).getYears();
+        LocalDate next = birthDate.plusYears(age + 1L);
+        // A birthday on February 29 falls on March 1 in common years
+        while (Period.between(birthDate, next).getYears() <= age) {
+            next = next.plusDays(1);
+        }
+        return next;
+    }
+
+    private void evict(Instant now) {
+        entries.entrySet().removeIf(e -> !now.isBefore(e.getValue().expiresAt()));
+        if (entries.size() >= maxSize) {
+            int toRemove = entries.size() - maxSize * 9 / 10;
+            Iterator<String> iterator = entries.keySet().iterator();
+            while (toRemove-- > 0 && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,597 @@
+package com.glucovision.diabetesriskservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glucovision.diabetesriskservice.dto.PatientDto;
+import com.glucovision.diabetesriskservice.dto.PatientScrollDto;
+import com.glucovision.diabetesriskservice.dto.RiskBatchDto;
+import com.glucovision.diabetesriskservice.dto.RiskScanRecord;
+import com.glucovision.diabetesriskservice.dto.RiskScanStatus;
+import com.glucovision.diabetesriskservice.model.AgeBand;
+import com.glucovision.diabetesriskservice.model.Gender;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Evaluates the diabetes risk level of every active patient and writes the results as NDJSON.
+ * <p>
+ * Active patients are read from the Patient Service one keyset page at a time. Each page is evaluated on a
+ * pool of {@code risk.scan.parallelism} workers, with one bulk note request per page. At most
+ * {@code risk.scan.max-pending-pages} pages are read and not yet written: once that limit is reached, no page
+ * is read until the oldest one is written, so a slow Note Service slows the scan down instead of filling memory.
+ * <p>
+ * Pages are written in reading order, one {@link RiskScanRecord} per line. After each page, the output is flushed
+ * and a checkpoint holding the token of the next page and the length of the output is saved next to it. A scan
+ * that finds a checkpoint for its output truncates the output to that length and resumes from that page, so an
+ * interrupted scan neither loses nor duplicates patients. The checkpoint is deleted once the scan completes.
+ * <p>
+ * Every evaluated level is recorded in {@link RiskStats}, and the patients the scan could not evaluate are touched
+ * there, keeping their previous level. A resumed scan first records or touches the patients written before it was
+ * interrupted, streaming them from its output. Once a scan completes, the patients neither recorded nor touched
+ * since it started (deactivated or deleted without a notification reaching this service) are dropped from it, so
+ * that the statistics match the output of the scan; memory does not grow with the number of patients.
+ * <p>
+ * The scan runs on {@code risk.scan.cron} (disabled when absent) or on demand, one at a time; its progress and
+ * throughput are available from {@link #status()}. A started scan first resumes the latest interrupted one, even
+ * from a previous day. Otherwise it writes a new file named after its start time, so that a completed output is
+ * never overwritten: the completed outputs of the same day are only deleted once the new scan completes, and a
+ * failed scan leaves the latest completed one in place.
+ */
+@Slf4j
+@Component
+public class RiskScanJob {
+
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+    private static final String PREFIX = "risk-scan-";
+    private static final DateTimeFormatter STARTED_AT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HHmmss");
+    private static final int PROGRESS_LOG_PAGES = 50;
+
+    private final PatientDataService patientService;
+    private final RiskService riskService;
+    private final RiskStats riskStats;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+
+    private final Path outputDir;
+    private final int pageSize;
+    private final int parallelism;
+    private final int maxPendingPages;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean requested = new AtomicBoolean();
+    private volatile RiskScanStatus status = new RiskScanStatus();
+
+    /**
+     * Saved after each written page; {@code after} is the token of the next page to read.
+     */
+    record Checkpoint(String after, long offset, long pages, long patients, long errors) {
+    }
+
+    /**
+     * Creates the scan job.
+     *
+     * @param patientService  the source of the active patients
+     * @param riskService     the risk evaluation, which records the levels it evaluates
+     * @param riskStats       the materialized levels, cleaned up once a scan completes
+     * @param objectMapper    the mapper writing the NDJSON lines and the checkpoint
+     * @param meterRegistry   the registry receiving the scan metrics
+     * @param outputDir       the directory of the NDJSON files
+     * @param pageSize        the number of patients per page (at most 100, the Patient Service limit)
+     * @param parallelism     the number of pages evaluated at the same time
+     * @param maxPendingPages the maximum number of pages read and not yet written
+     */
+    @Autowired
+    public RiskScanJob(PatientDataService patientService,
+                       RiskService riskService,
+                       RiskStats riskStats,
+                       ObjectMapper objectMapper,
+                       MeterRegistry meterRegistry,
+                       @Value("${risk.scan.output-dir:risk-scan}") Path outputDir,
+                       @Value("${risk.scan.page-size:100}") int pageSize,
+                       @Value("${risk.scan.parallelism:4}") int parallelism,
+                       @Value("${risk.scan.max-pending-pages:8}") int maxPendingPages) {
+        this(patientService, riskService, riskStats, objectMapper, meterRegistry, outputDir, pageSize, parallelism,
+                maxPendingPages, Clock.systemDefaultZone());
+    }
+
+    RiskScanJob(PatientDataService patientService, RiskService riskService, RiskStats riskStats,
+                ObjectMapper objectMapper, MeterRegistry meterRegistry, Path outputDir, int pageSize, int parallelism,
+                int maxPendingPages, Clock clock) {
+        this.patientService = patientService;
+        this.riskService = riskService;
+        this.riskStats = riskStats;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.outputDir = outputDir;
+        this.pageSize = pageSize;
+        this.parallelism = parallelism;
+        this.maxPendingPages = Math.max(maxPendingPages, parallelism);
+        this.clock = clock;
+        this.status.setState(RiskScanStatus.State.IDLE);
+    }
+
+    /**
+     * Runs the nightly scan, resuming the latest interrupted one if there is one.
+     */
+    @Scheduled(cron = "${risk.scan.cron:-}")
+    public void scheduledScan() {
+        if (!start()) {
+            log.warn("⚠️ [RISK SCAN] Scheduled scan skipped: a scan is already running");
+        }
+    }
+
+    /**
+     * Starts a scan on a background thread: the latest interrupted one resumes from its checkpoint, otherwise a
+     * scan into a new file starts.
+     *
+     * @return {@code false} if a scan is already running
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        launch();
+        return true;
+    }
+
+    /**
+     * Starts a scan as {@link #start()} does, or right after the running one if there is one, e.g. because the
+     * levels it already evaluated are stale. Several requests made during the same scan start a single one.
+     */
+    public void requestScan() {
+        requested.set(true);
+        startRequested();
+    }
+
+    private void startRequested() {
+        if (requested.get() && running.compareAndSet(false, true)) {
+            requested.set(false);
+            launch();
+        }
+    }
+
+    private void launch() {
+        Path output = nextOutput();
+        Thread.ofPlatform().name("risk-scan").daemon(true).start(() -> {
+            try {
+                scan(output);
+            } finally {
+                running.set(false);
+                startRequested();
+            }
+        });
+    }
+
+    /**
+     * Runs a scan into the given file on the calling thread, resuming from its checkpoint if there is one.
+     *
+     * @param output the NDJSON file
+     * @return the final status of the scan
+     * @throws IllegalStateException if a scan is already running
+     */
+    public RiskScanStatus run(Path output) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A risk scan is already running");
+        }
+        try {
+            return scan(output);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * @return the progress of the running scan, or the outcome of the last one
+     */
+    public RiskScanStatus status() {
+        return copy(status);
+    }
+
+    /**
+     * Returns the output of the most recent scan that completed, if any.
+     *
+     * @return the latest NDJSON file that has no checkpoint left
+     * @throws IOException if the output directory cannot be listed
+     */
+    public Optional<Path> latestCompletedScan() throws IOException {
+        try (Stream<Path> files = scanFiles()) {
+            return files
+                    .filter(file -> !Files.exists(checkpointOf(file)))
+                    .max(Comparator.comparing(file -> file.getFileName().toString()));
+        }
+    }
+
+    /**
+     * Chooses the output of the next scan. The latest interrupted scan is resumed whatever its day, so that a scan
+     * failing after midnight is not restarted from scratch; the older interrupted ones can no longer be resumed and
+     * are deleted with their checkpoint.
+     *
+     * @return the latest NDJSON file that still has a checkpoint, or else a new file named after the current time
+     */
+    Path nextOutput() {
+        List<Path> interrupted;
+        try (Stream<Path> files = scanFiles()) {
+            interrupted = files
+                    .filter(file -> Files.exists(checkpointOf(file)))
+                    .sorted(Comparator.comparing((Path file) -> file.getFileName().toString()).reversed())
+                    .toList();
+        } catch (IOException e) {
+            log.warn("⚠️ [RISK SCAN] Cannot look for an interrupted scan in {}: {}", outputDir, e.getMessage());
+            return newOutput();
+        }
+        if (interrupted.isEmpty()) {
+            return newOutput();
+        }
+        for (Path stale : interrupted.subList(1, interrupted.size())) {
+            try {
+                Files.deleteIfExists(checkpointOf(stale));
+                Files.deleteIfExists(stale);
+                log.warn("⚠️ [RISK SCAN] Interrupted scan {} superseded by {}, deleted", stale, interrupted.get(0));
+            } catch (IOException e) {
+                log.warn("⚠️ [RISK SCAN] Cannot delete the interrupted scan {}: {}", stale, e.getMessage());
+            }
+        }
+        return interrupted.get(0);
+    }
+
+    /**
+     * @return a file of the output directory that does not exist yet, named after the current time, e.g.
+     * {@code risk-scan-2025-06-15T020000.ndjson}; it sorts after the other files of the day
+     */
+    private Path newOutput() {
+        LocalDateTime startedAt = LocalDateTime.now(clock).truncatedTo(ChronoUnit.SECONDS);
+        Path output;
+        while (Files.exists(output = outputDir.resolve(PREFIX + STARTED_AT.format(startedAt) + ".ndjson"))) {
+            startedAt = startedAt.plusSeconds(1);
+        }
+        return output;
+    }
+
+    /**
+     * Deletes the completed outputs of the same day that sort before a just completed one.
+     */
+    private void retireOlderScans(Path completed) {
+        String name = completed.getFileName().toString();
+        int dayLength = PREFIX.length() + "yyyy-MM-dd".length();
+        if (!name.startsWith(PREFIX) || name.length() < dayLength) {
+            return;
+        }
+        String sameDay = name.substring(0, dayLength);
+        try (Stream<Path> files = scanFiles()) {
+            for (Path older : files.filter(file -> {
+                String other = file.getFileName().toString();
+                return other.startsWith(sameDay) && other.compareTo(name) < 0 && !Files.exists(checkpointOf(file));
+            }).toList()) {
+                Files.deleteIfExists(older);
+                log.info("[RISK SCAN] Earlier scan of the day {} superseded by {}, deleted", older, completed);
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ [RISK SCAN] Cannot delete the earlier scans of the day: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the NDJSON files of the output directory, completed or not
+     */
+    private Stream<Path> scanFiles() throws IOException {
+        if (!Files.isDirectory(outputDir)) {
+            return Stream.empty();
+        }
+        return Files.list(outputDir).filter(file -> {
+            String name = file.getFileName().toString();
+            return name.startsWith(PREFIX) && name.endsWith(".ndjson");
+        });
+    }
+
+    private static Path checkpointOf(Path output) {
+        return output.resolveSibling(output.getFileName() + CHECKPOINT_SUFFIX);
+    }
+
+    private RiskScanStatus scan(Path output) {
+        Path checkpointFile = checkpointOf(output);
+        Instant startedAt = clock.instant();
+        RiskScanStatus initial = new RiskScanStatus();
+        initial.setState(RiskScanStatus.State.RUNNING);
+        initial.setOutput(output.toString());
+        initial.setStartedAt(startedAt);
+        status = initial;
+        long mark = riskStats.mark();
+        boolean completed = false;
+        try {
+            Files.createDirectories(output.toAbsolutePath().getParent());
+            Checkpoint checkpoint = readCheckpoint(checkpointFile);
+            try (FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                long offset = checkpoint == null ? 0 : checkpoint.offset();
+                channel.truncate(offset);
+                channel.position(offset);
+                if (checkpoint != null) {
+                    touchWritten(output);
+                }
+                PageWriter writer = new PageWriter(channel, checkpointFile, checkpoint, startedAt);
+                log.info("🚀 [RISK SCAN] Scanning active patients into {}{}", output,
+                        checkpoint == null ? "" : " (resuming after " + checkpoint.patients() + " patient(s))");
+                if (checkpoint == null || checkpoint.after() != null) {
+                    readPages(checkpoint == null ? null : checkpoint.after(), writer);
+                }
+                writer.finish();
+            }
+            Files.deleteIfExists(checkpointFile);
+            completed = true;
+            retireOlderScans(output);
+            int dropped = riskStats.retainWrittenSince(mark);
+            if (dropped > 0) {
+                log.info("[RISK SCAN] {} patient(s) not seen by the scan dropped from the risk statistics", dropped);
+            }
+            RiskScanStatus done = updateStatus(s -> {
+                s.setState(RiskScanStatus.State.COMPLETED);
+                s.setFinishedAt(clock.instant());
+            });
+            log.info("✅ [RISK SCAN] {} patient(s) written to {} ({} error(s), {} patients/s)",
+                    done.getPatients(), output, done.getErrors(), String.format("%.1f", done.getPatientsPerSecond()));
+            return done;
+        } catch (IOException | RuntimeException e) {
+            log.error("❌ [RISK SCAN] Scan into {} failed, it will resume from its checkpoint: {}", output, e.getMessage());
+            if (!completed) {
+                discardIfNotStarted(output, checkpointFile);
+            }
+            return updateStatus(s -> {
+                s.setState(RiskScanStatus.State.FAILED);
+                s.setFinishedAt(clock.instant());
+                s.setFailure(e.getMessage());
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            discardIfNotStarted(output, checkpointFile);
+            return updateStatus(s -> {
+                s.setState(RiskScanStatus.State.FAILED);
+                s.setFinishedAt(clock.instant());
+                s.setFailure("Interrupted");
+            });
+        }
+    }
+
+    /**
+     * Deletes the output of a failed scan that saved no checkpoint, which would otherwise pass for a completed scan.
+     */
+    private static void discardIfNotStarted(Path output, Path checkpointFile) {
+        try {
+            if (!Files.exists(checkpointFile)) {
+                Files.deleteIfExists(output);
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ [RISK SCAN] Cannot delete the output of the failed scan {}: {}", output, e.getMessage());
+        }
+    }
+
+    /**
+     * Marks the patients written before a scan was resumed as seen by it, one line at a time: their level is
+     * recorded unless the patient already has one, which is kept.
+     */
+    private void touchWritten(Path output) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(output, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                RiskScanRecord record = objectMapper.readValue(line, RiskScanRecord.class);
+                riskStats.touch(record.getPatientId());
+                riskStats.recordIfAbsent(record.getPatientId(), record.getRiskLevel(), record.getAgeBand(), record.getGender());
+            }
+        }
+    }
+
+    /**
+     * Reads the pages one after the other and hands them to the workers, waiting while too many pages are pending.
+     */
+    private void readPages(String after, PageWriter writer) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, Thread.ofPlatform().name("risk-scan-worker-", 0).factory());
+        Semaphore pending = writer.pending;
+        try {
+            long sequence = 0;
+            String next = after;
+            do {
+                pending.acquire();
+                writer.rethrowFailure();
+                PatientScrollDto page = patientService.scrollActivePatients(next, pageSize);
+                long pageSequence = sequence++;
+                String pageNext = page.getNext();
+                workers.execute(() -> {
+                    try {
+                        writer.write(pageSequence, page.getPatients(), riskService.evaluatePatients(page.getPatients()), pageNext);
+                    } catch (RuntimeException | Error e) {
+                        writer.fail(e);
+                    }
+                });
+                next = pageNext;
+            } while (next != null);
+        } catch (RuntimeException e) {
+            writer.fail(e);
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+        writer.rethrowFailure();
+    }
+
+    /**
+     * Writes the evaluated pages in reading order, and saves a checkpoint after each one.
+     */
+    private final class PageWriter {
+
+        private final Semaphore pending = new Semaphore(maxPendingPages);
+        private final Map<Long, Runnable> completed = new HashMap<>();
+        private final FileChannel channel;
+        private final Writer out;
+        private final Path checkpointFile;
+        private final long resumedPatients;
+        private final Instant startedAt;
+        private long nextSequence;
+        private long pages;
+        private long patients;
+        private long errors;
+        private volatile Throwable failure;
+
+        PageWriter(FileChannel channel, Path checkpointFile, Checkpoint checkpoint, Instant startedAt) {
+            this.channel = channel;
+            this.out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+            this.checkpointFile = checkpointFile;
+            this.startedAt = startedAt;
+            if (checkpoint != null) {
+                pages = checkpoint.pages();
+                patients = checkpoint.patients();
+                errors = checkpoint.errors();
+            }
+            this.resumedPatients = patients;
+            updateStatus(s -> {
+                s.setResumed(checkpoint != null);
+                s.setPages(pages);
+                s.setPatients(patients);
+                s.setErrors(errors);
+            });
+        }
+
+        synchronized void write(long sequence, List<PatientDto> page, RiskBatchDto result, String next) {
+            completed.put(sequence, () -> append(page, result, next));
+            Runnable ready;
+            while (failure == null && (ready = completed.remove(nextSequence)) != null) {
+                ready.run();
+                nextSequence++;
+                pending.release();
+            }
+        }
+
+        private void append(List<PatientDto> page, RiskBatchDto result, String next) {
+            try {
+                int pageErrors = 0;
+                for (PatientDto patient : page) {
+                    String id = patient.getId();
+                    String error = result.getErrors().get(id);
+                    if (error == null && !result.getRiskLevels().containsKey(id)) {
+                        error = "Not evaluated";
+                    }
+                    if (error != null) {
+                        pageErrors++;
+                        riskStats.touch(id);
+                    }
+                    AgeBand ageBand = patient.getBirthDate() == null ? null : AgeBand.of(patient.getBirthDate(), LocalDate.now(clock));
+                    out.write(objectMapper.writeValueAsString(new RiskScanRecord(id, result.getRiskLevels().get(id),
+                            ageBand, Gender.of(patient.getGender()), error)));
+                    out.write('\n');
+                }
+                out.flush();
+                channel.force(false);
+
+                pages++;
+                patients += page.size();
+                errors += pageErrors;
+                saveCheckpoint(new Checkpoint(next, channel.position(), pages, patients, errors));
+
+                meterRegistry.counter("risk.scan.patients", "result", "evaluated").increment(page.size() - pageErrors);
+                meterRegistry.counter("risk.scan.patients", "result", "error").increment(pageErrors);
+                RiskScanStatus progress = updateStatus(s -> {
+                    s.setPages(pages);
+                    s.setPatients(patients);
+                    s.setErrors(errors);
+                    s.setPatientsPerSecond(throughput(patients - resumedPatients));
+                });
+                if (pages % PROGRESS_LOG_PAGES == 0) {
+                    log.info("[RISK SCAN] {} patient(s) written, {} patients/s",
+                            progress.getPatients(), String.format("%.1f", progress.getPatientsPerSecond()));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private double throughput(long scanned) {
+            long millis = Duration.between(startedAt, clock.instant()).toMillis();
+            return millis <= 0 ? 0 : scanned * 1000.0 / millis;
+        }
+
+        private void saveCheckpoint(Checkpoint checkpoint) throws IOException {
+            Path tmp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+            Files.write(tmp, objectMapper.writeValueAsBytes(checkpoint));
+            Files.move(tmp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        /**
+         * Stops the scan: no page is written any more, and the reading loop is unblocked.
+         */
+        void fail(Throwable e) {
+            synchronized (this) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+            pending.release(maxPendingPages);
+        }
+
+        void rethrowFailure() {
+            Throwable e = failure;
+            if (e instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e instanceof Error error) {
+                throw error;
+            }
+        }
+
+        void finish() throws IOException {
+            rethrowFailure();
+            out.flush();
+        }
+    }
+
+    private Checkpoint readCheckpoint(Path checkpointFile) throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return null;
+        }
+        return objectMapper.readValue(checkpointFile.toFile(), Checkpoint.class);
+    }
+
+    private synchronized RiskScanStatus updateStatus(Consumer<RiskScanStatus> update) {
+        RiskScanStatus next = copy(status);
+        update.accept(next);
+        status = next;
+        return copy(next);
+    }
+
+    private static RiskScanStatus copy(RiskScanStatus s) {
+        return new RiskScanStatus(s.getState(), s.getOutput(), s.isResumed(), s.getStartedAt(), s.getFinishedAt(),
+                s.getPages(), s.getPatients(), s.getErrors(), s.getPatientsPerSecond(), s.getFailure());
+    }
+}
@@ -1,37 +1,99 @@
 package com.glucovision.diabetesriskservice.service;
 
 import com.glucovision.diabetesriskservice.dto.NoteDto;
+import com.glucovision.diabetesriskservice.dto.PatientBatchDto;
 import com.glucovision.diabetesriskservice.dto.PatientDto;
+import com.glucovision.diabetesriskservice.dto.RiskBatchDto;
+import com.glucovision.diabetesriskservice.dto.TriggerSummaryDto;
+import com.glucovision.diabetesriskservice.exception.DownstreamTimeoutException;
+import com.glucovision.diabetesriskservice.exception.DownstreamUnavailableException;
 import com.glucovision.diabetesriskservice.exception.PatientNotFoundException;
+import com.glucovision.diabetesriskservice.model.Gender;
 import com.glucovision.diabetesriskservice.model.RiskLevel;
-import lombok.AllArgsConstructor;
+import com.glucovision.diabetesriskservice.rules.RiskRuleEngine;
+import com.glucovision.diabetesriskservice.trigger.TriggerDictionary;
+import com.glucovision.diabetesriskservice.trigger.TriggerMatcher;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.Period;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Service responsible for evaluating diabetes risk level for a given patient.
  * <p>
  * Combines data from the patient profile and medical notes to determine a risk category.
+ * When {@code risk.fetch.concurrent} is enabled, the profile and the notes are fetched in parallel, and both must
+ * be done within {@code risk.fetch.timeout-ms} of their submission, waiting for a free fetch thread included. A
+ * fetch that is no longer needed, because it timed out or the other one failed, is cancelled, which interrupts it.
+ * <p>
+ * When {@code risk.triggers.server-side} is enabled, the trigger terms are counted by the Note Service,
+ * which only returns a summary; otherwise the notes are downloaded and scanned with the local {@link TriggerMatcher}.
+ * A summary computed with another version of the trigger dictionary than the local {@link TriggerDictionary}
+ * is discarded, and the notes of that patient are scanned locally instead, so that a drift between the two
+ * services' terms or synonyms cannot silently change the risk levels.
+ * <p>
+ * Evaluated levels are kept in the {@link RiskCache} until the patient's data changes or the level expires,
+ * and recorded in {@link RiskStats} as the patient's latest level.
+ * <p>
+ * The level itself is resolved from the patient's gender, age and trigger count by the {@link RiskRuleEngine}.
  */
 @Slf4j
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class RiskService {
 
+    /**
+     * Initial capacity of the buffer the notes are normalized into, enough for most notes.
+     */
+    private static final int NOTE_BUFFER_CAPACITY = 1024;
+
     private final NoteDataService noteService;
     private final PatientDataService patientService;
+    private final TriggerDictionary triggerDictionary;
+    private final ExecutorService riskFetchExecutor;
+    private final RiskCache riskCache;
+    private final RiskStats riskStats;
+    private final RiskRuleEngine riskRules;
 
-    private static final Set<String> TRIGGER_TERMS = Set.of(
-            "HÉMOGLOBINE A1C", "MICROALBUMINE", "TAILLE", "POIDS", "FUMEUR",
-            "FUMEUSE", "ANORMAL", "CHOLESTÉROL", "VERTIGES", "RECHUTE",
-            "RÉACTION", "ANTICORPS"
-    );
+    /**
+     * Whether patient data and notes are fetched in parallel rather than one after the other.
+     */
+    @Value("${risk.fetch.concurrent:false}")
+    private boolean concurrentFetch;
+
+    /**
+     * Maximum time for the fetches of an evaluation in concurrent mode, from their submission, in milliseconds.
+     */
+    @Value("${risk.fetch.timeout-ms:3000}")
+    private long fetchTimeoutMs = 3000;
+
+    /**
+     * Whether the trigger terms are counted by the Note Service rather than from the downloaded notes.
+     */
+    @Value("${risk.triggers.server-side:false}")
+    private boolean serverSideTriggers;
+
+    /**
+     * Maximum number of distinct patients evaluated by a single batch request.
+     */
+    @Value("${risk.batch.max-size:100}")
+    private int maxBatchSize = 100;
 
     /**
      * Calculates the patient's age based on their birth date.
@@ -45,21 +107,23 @@ public class RiskService {
 
     /**
      * Calculates the number of risk trigger terms found in the patient's medical notes.
+     * <p>
+     * Each distinct term counts once per note; a term repeated in several notes counts once for each of them.
      *
      * @param noteDtoList list of notes to evaluate
      * @return total number of matched trigger terms
      */
     public int calculateRisk(List<NoteDto> noteDtoList) {
+        return calculateRisk(noteDtoList, new StringBuilder(NOTE_BUFFER_CAPACITY));
+    }
+
+    /**
+     * Same as {@link #calculateRisk(List)}, normalizing every note into the given buffer.
+     */
+    private int calculateRisk(List<NoteDto> noteDtoList, StringBuilder buffer) {
         int risk = 0;
         for (NoteDto noteDto : noteDtoList) {
-            Set<String> matchedTriggers = new HashSet<>();
-            String upperCase = noteDto.getComments().toUpperCase();
-            for (String trigger : TRIGGER_TERMS) {
-                if (upperCase.contains(trigger)) {
-                    matchedTriggers.add(trigger);
-                }
-            }
-            risk += matchedTriggers.size();
+            risk += Long.bitCount(triggerDictionary.match(noteDto.getComments(), buffer));
         }
         return risk;
     }
@@ -71,70 +135,289 @@ public class RiskService {
      * @return the evaluated {@link RiskLevel}
      */
     public RiskLevel evaluateRiskLevel(String id) {
+        Optional<RiskLevel> cached = riskCache.get(id);
+        if (cached.isPresent()) {
+            log.info("✅ Risk level served from cache for patientId={} -> {}", id, cached.get());
+            return cached.get();
+        }
+        long ticket = riskCache.ticket();
+
         log.info("🔍 Starting risk evaluation for patientId={}", id);
 
-        PatientDto patientDto = patientService.getPatient(id);
-        if (patientDto == null) {
-            log.warn("❌ Patient not found: {}", id);
-            throw new PatientNotFoundException("Patient not found with ID: " + id);
+        PatientDto patientDto;
+        NoteTriggers noteTriggers;
+        if (concurrentFetch) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(fetchTimeoutMs);
+            Future<PatientDto> patientFuture = riskFetchExecutor.submit(() -> patientService.getPatient(id));
+            Future<NoteTriggers> notesFuture = riskFetchExecutor.submit(() -> fetchNoteTriggers(id));
+            try {
+                patientDto = await(patientFuture, deadline, "Patient service", id);
+            } catch (RuntimeException e) {
+                notesFuture.cancel(true);
+                throw e;
+            }
+            if (patientDto == null) {
+                notesFuture.cancel(true);
+                log.warn("❌ Patient not found: {}", id);
+                throw new PatientNotFoundException("Patient not found with ID: " + id);
+            }
+            noteTriggers = await(notesFuture, deadline, "Note service", id);
+        } else {
+            patientDto = patientService.getPatient(id);
+            if (patientDto == null) {
+                log.warn("❌ Patient not found: {}", id);
+                throw new PatientNotFoundException("Patient not found with ID: " + id);
+            }
+            noteTriggers = fetchNoteTriggers(id);
         }
 
-        List<NoteDto> noteDtoList = noteService.getNoteDtoList(id);
-        if (noteDtoList.isEmpty()) {
-            log.info("ℹ️ No notes found for patientId={}, returning NONE", id);
-            return RiskLevel.NONE;
-        }
+        RiskLevel riskLevel = assessRisk(id, patientDto, noteTriggers);
+        riskCache.put(id, ticket, riskLevel, patientDto.getBirthDate());
+        riskStats.record(id, patientDto, riskLevel);
 
-        int age = calculateAge(patientDto);
-        int triggerCount = calculateRisk(noteDtoList);
+        log.info("✅ Risk level evaluated for patientId={} -> {}", id, riskLevel);
+        return riskLevel;
+    }
 
-        log.debug("PatientId={} | Age={} | Trigger count={}", id, age, triggerCount);
+    /**
+     * Evaluates the diabetes risk level of several patients at once.
+     * <p>
+     * Patients and notes are fetched with one bulk request per downstream service, whatever the
+     * number of patients. A patient that cannot be evaluated (unknown ID, incomplete data) is
+     * reported in {@link RiskBatchDto#getErrors()} without failing the rest of the batch.
+     * Duplicate IDs are evaluated once, and patients whose level is cached are not fetched.
+     * A patient that no longer exists is removed from {@link RiskStats}.
+     *
+     * @param ids the patient identifiers
+     * @return the risk level or the error of each requested patient
+     * @throws IllegalArgumentException if the batch is empty or has more distinct IDs than allowed
+     */
+    public RiskBatchDto evaluateRiskLevels(List<String> ids) {
+        RiskBatchDto result = new RiskBatchDto();
 
-        RiskLevel riskLevel;
+        Set<String> distinctIds = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id == null || id.trim().isEmpty()) {
+                result.getErrors().put(String.valueOf(id), "L'ID du patient ne peut pas être null ou vide");
+            } else {
+                distinctIds.add(id);
+            }
+        }
+        if (distinctIds.isEmpty() && result.getErrors().isEmpty()) {
+            throw new IllegalArgumentException("La liste des patients ne peut pas être vide");
+        }
+        if (distinctIds.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Trop de patients dans le lot : " + distinctIds.size() + " (maximum " + maxBatchSize + ")");
+        }
+        long ticket = riskCache.ticket();
+        Map<String, RiskLevel> cachedLevels = new HashMap<>();
+        for (String id : distinctIds) {
+            riskCache.get(id).ifPresent(level -> cachedLevels.put(id, level));
+        }
+        List<String> requestedIds = distinctIds.stream().filter(id -> !cachedLevels.containsKey(id)).toList();
 
-        if (triggerCount == 0) {
-            riskLevel = RiskLevel.NONE;
-        } else if (triggerCount >= 2 && triggerCount <= 5 && age > 30) {
-            riskLevel = RiskLevel.BORDERLINE;
-        } else if (isInDanger(patientDto, age, triggerCount)) {
-            riskLevel = RiskLevel.IN_DANGER;
-        } else if (isEarlyOnset(patientDto, age, triggerCount)) {
-            riskLevel = RiskLevel.EARLY_ONSET;
-        } else {
-            riskLevel = RiskLevel.NONE;
+        Map<String, PatientDto> patientsById = new HashMap<>();
+        Map<String, NoteTriggers> notesByPatient = Map.of();
+        if (!requestedIds.isEmpty()) {
+            log.info("🔍 Starting batch risk evaluation for {} patient(s), {} cached", requestedIds.size(), cachedLevels.size());
+            PatientBatchDto patients;
+            if (concurrentFetch) {
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(fetchTimeoutMs);
+                Future<PatientBatchDto> patientsFuture = riskFetchExecutor.submit(() -> patientService.getPatients(requestedIds));
+                Future<Map<String, NoteTriggers>> notesFuture = riskFetchExecutor.submit(() -> fetchNoteTriggers(requestedIds));
+                try {
+                    patients = await(patientsFuture, deadline, "Patient service", requestedIds.size() + " patient(s)");
+                } catch (RuntimeException e) {
+                    notesFuture.cancel(true);
+                    throw e;
+                }
+                notesByPatient = await(notesFuture, deadline, "Note service", requestedIds.size() + " patient(s)");
+            } else {
+                patients = patientService.getPatients(requestedIds);
+                notesByPatient = fetchNoteTriggers(requestedIds);
+            }
+            for (PatientDto patientDto : patients.getPatients()) {
+                patientsById.put(patientDto.getId(), patientDto);
+            }
         }
 
-        log.info("✅ Risk level evaluated for patientId={} -> {}", id, riskLevel);
-        return riskLevel;
+        for (String id : distinctIds) {
+            RiskLevel cachedLevel = cachedLevels.get(id);
+            if (cachedLevel != null) {
+                result.getRiskLevels().put(id, cachedLevel);
+                continue;
+            }
+            PatientDto patientDto = patientsById.get(id);
+            if (patientDto == null) {
+                log.warn("❌ Patient not found: {}", id);
+                riskStats.remove(id);
+                result.getErrors().put(id, "Patient not found with ID: " + id);
+                continue;
+            }
+            try {
+                RiskLevel riskLevel = assessRisk(id, patientDto, notesByPatient.getOrDefault(id, NoteTriggers.NONE));
+                riskCache.put(id, ticket, riskLevel, patientDto.getBirthDate());
+                riskStats.record(id, patientDto, riskLevel);
+                result.getRiskLevels().put(id, riskLevel);
+            } catch (RuntimeException e) {
+                log.warn("❌ Risk evaluation failed for patientId={}: {}", id, e.getMessage());
+                result.getErrors().put(id, "Évaluation impossible : " + e.getMessage());
+            }
+        }
+
+        log.info("✅ Batch risk evaluation complete: {} evaluated, {} error(s)",
+                result.getRiskLevels().size(), result.getErrors().size());
+        return result;
     }
 
-    private boolean isInDanger(PatientDto patientDto, int age, int triggerCount) {
-        String gender = patientDto.getGender().toUpperCase();
+    /**
+     * Evaluates the diabetes risk level of patients whose data was already fetched, such as a page of the
+     * population risk scan. The notes are fetched with a single request; the cache is neither read nor filled,
+     * but the levels are recorded in {@link RiskStats}.
+     *
+     * @param patients the patients to evaluate
+     * @return the risk level or the error of each patient, in the order of {@code patients}
+     */
+    public RiskBatchDto evaluatePatients(List<PatientDto> patients) {
+        RiskBatchDto result = new RiskBatchDto();
+        if (patients.isEmpty()) {
+            return result;
+        }
+        List<String> ids = patients.stream().map(PatientDto::getId).toList();
+        Map<String, NoteTriggers> notesByPatient = fetchNoteTriggers(ids);
+        for (PatientDto patientDto : patients) {
+            String id = patientDto.getId();
+            try {
+                RiskLevel riskLevel = assessRisk(id, patientDto, notesByPatient.getOrDefault(id, NoteTriggers.NONE));
+                riskStats.record(id, patientDto, riskLevel);
+                result.getRiskLevels().put(id, riskLevel);
+            } catch (RuntimeException e) {
+                log.warn("❌ Risk evaluation failed for patientId={}: {}", id, e.getMessage());
+                result.getErrors().put(id, "Évaluation impossible : " + e.getMessage());
+            }
+        }
+        return result;
+    }
 
-        if (age > 30) {
-            return triggerCount == 6 || triggerCount == 7;
+    /**
+     * Note count and trigger count of a patient, whichever way they were obtained.
+     */
+    private record NoteTriggers(int noteCount, int triggerCount) {
+
+        static final NoteTriggers NONE = new NoteTriggers(0, 0);
+
+        static NoteTriggers of(TriggerSummaryDto summary) {
+            return summary == null ? NONE : new NoteTriggers(summary.getNoteCount(), summary.getTriggerCount());
         }
+    }
 
-        if ((gender.equals("M") || gender.equals("MALE")) && age < 30) {
-            return triggerCount >= 3 && triggerCount < 5;
+    /**
+     * Counts the trigger terms of a patient, from the Note Service summary or from the downloaded notes.
+     */
+    private NoteTriggers fetchNoteTriggers(String id) {
+        if (serverSideTriggers) {
+            TriggerSummaryDto summary = noteService.getTriggerSummary(id);
+            if (summary == null || isCurrent(summary)) {
+                return NoteTriggers.of(summary);
+            }
+            warnDictionaryMismatch(summary, 1);
         }
+        List<NoteDto> notes = noteService.getNoteDtoList(id);
+        return new NoteTriggers(notes.size(), calculateRisk(notes));
+    }
 
-        if ((gender.equals("F") || gender.equals("FEMALE")) && age < 30) {
-            return triggerCount >= 4 && triggerCount < 7;
+    /**
+     * Counts the trigger terms of several patients with a single request to the Note Service.
+     */
+    private Map<String, NoteTriggers> fetchNoteTriggers(List<String> ids) {
+        Map<String, NoteTriggers> triggers = new HashMap<>();
+        List<String> scannedIds = ids;
+        if (serverSideTriggers) {
+            List<String> staleIds = new ArrayList<>();
+            TriggerSummaryDto stale = null;
+            for (Map.Entry<String, TriggerSummaryDto> entry : noteService.getTriggerSummaries(ids).entrySet()) {
+                TriggerSummaryDto summary = entry.getValue();
+                if (summary == null || isCurrent(summary)) {
+                    triggers.put(entry.getKey(), NoteTriggers.of(summary));
+                } else {
+                    staleIds.add(entry.getKey());
+                    stale = summary;
+                }
+            }
+            if (staleIds.isEmpty()) {
+                return triggers;
+            }
+            warnDictionaryMismatch(stale, staleIds.size());
+            scannedIds = staleIds;
         }
+        StringBuilder buffer = new StringBuilder(NOTE_BUFFER_CAPACITY);
+        noteService.getNotesByPatientIds(scannedIds).forEach((id, notes) -> triggers.put(id, new NoteTriggers(notes.size(), calculateRisk(notes, buffer))));
+        return triggers;
+    }
 
-        return false;
+    /**
+     * Whether a trigger summary was counted with the same trigger dictionary as the local one.
+     */
+    private boolean isCurrent(TriggerSummaryDto summary) {
+        return triggerDictionary.version().equals(summary.getDictionaryVersion());
     }
 
+    private void warnDictionaryMismatch(TriggerSummaryDto summary, int patients) {
+        log.warn("⚠️ Note service counted the triggers with dictionary version {} instead of {}, "
+                        + "scanning the notes of {} patient(s) locally",
+                summary.getDictionaryVersion(), triggerDictionary.version(), patients);
+    }
 
-    private boolean isEarlyOnset(PatientDto patientDto, int age, int triggerCount) {
-        String gender = patientDto.getGender().toUpperCase();
-        if ((gender.equals("M") || gender.equals("MALE")) && age < 30 && triggerCount >= 5) {
-            return true;
+    /**
+     * Waits until the deadline for a fetch submitted to the fetch executor, and rethrows its failure as thrown by
+     * the data service, so that callers see the same exceptions as in sequential mode. A fetch still queued or
+     * running at the deadline is cancelled, which interrupts its blocking call.
+     *
+     * @param deadline the {@link System#nanoTime()} by which the fetch must be done
+     * @throws DownstreamTimeoutException if the fetch was not done by the deadline
+     */
+    private <T> T await(Future<T> future, long deadline, String source, String target) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("⏱️ {} did not answer within {} ms for {}", source, fetchTimeoutMs, target);
+            throw new DownstreamTimeoutException(source + " did not answer within " + fetchTimeoutMs + " ms");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new DownstreamUnavailableException("Interrupted while waiting for " + source);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
         }
-        if ((gender.equals("F") || gender.equals("FEMALE")) && age < 30 && triggerCount >= 7) {
-            return true;
+    }
+
+    /**
+     * Applies the risk rules to a patient and the trigger count of their notes.
+     *
+     * @param id           the patient identifier, for logging
+     * @param patientDto   the patient data
+     * @param noteTriggers the note and trigger counts of the patient
+     * @return the evaluated {@link RiskLevel}
+     */
+    private RiskLevel assessRisk(String id, PatientDto patientDto, NoteTriggers noteTriggers) {
+        if (noteTriggers.noteCount() == 0) {
+            log.info("ℹ️ No notes found for patientId={}, returning NONE", id);
+            return RiskLevel.NONE;
         }
-        return age > 30 && triggerCount >= 8;
+
+        int age = calculateAge(patientDto);
+        int triggerCount = noteTriggers.triggerCount();
+
+        log.debug("PatientId={} | Age={} | Trigger count={}", id, age, triggerCount);
+
+        return riskRules.resolve(Gender.of(patientDto.getGender()), age, triggerCount);
     }
 }
@@ -0,0 +1,245 @@
+package com.glucovision.diabetesriskservice.service;
+
+import com.glucovision.diabetesriskservice.dto.PatientDto;
+import com.glucovision.diabetesriskservice.dto.RiskStatsDto;
+import com.glucovision.diabetesriskservice.model.AgeBand;
+import com.glucovision.diabetesriskservice.model.Gender;
+import com.glucovision.diabetesriskservice.model.RiskLevel;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Materialized latest risk level of each patient, with its age band and gender.
+ * <p>
+ * Every evaluation records its result here, replacing the previous one of the patient, and the number of
+ * patients per age band, gender and risk level is updated at the same time. Statistics are therefore read
+ * from a fixed-size table of counters, whatever the number of patients.
+ * <p>
+ * The age band is the one of the day of the evaluation; the nightly risk scan re-evaluates every active
+ * patient, which moves those who had a birthday to their new band, {@link #touch}es those it could not evaluate,
+ * then drops the patients it did not see with {@link #retainWrittenSince}. An inactive patient is removed instead
+ * of recorded.
+ */
+@Component
+public class RiskStats {
+
+    /** Dimension names accepted by {@link #stats(List)}. */
+    public static final String AGE_BAND = "ageBand";
+    public static final String GENDER = "gender";
+
+    private static final AgeBand[] BANDS = AgeBand.values();
+    private static final Gender[] GENDERS = Gender.values();
+    private static final RiskLevel[] LEVELS = RiskLevel.values();
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLongArray counts = new AtomicLongArray(BANDS.length * GENDERS.length * LEVELS.length);
+    private final AtomicLong writes = new AtomicLong();
+    private final Clock clock;
+
+    /**
+     * @param written the value of {@link #writes} when the entry was recorded, compared with a {@link #mark()}
+     */
+    private record Entry(RiskLevel level, AgeBand ageBand, Gender gender, long written) {
+
+        int cell() {
+            return (ageBand.ordinal() * GENDERS.length + gender.ordinal()) * LEVELS.length + level.ordinal();
+        }
+    }
+
+    /**
+     * Creates the store.
+     *
+     * @param meterRegistry the registry receiving the number of materialized patients
+     */
+    @Autowired
+    public RiskStats(MeterRegistry meterRegistry) {
+        this(meterRegistry, Clock.systemDefaultZone());
+    }
+
+    RiskStats(MeterRegistry meterRegistry, Clock clock) {
+        this.clock = clock;
+        meterRegistry.gauge("risk.stats.patients", entries, Map::size);
+    }
+
+    /**
+     * Records the latest risk level of a patient, replacing the previous one, or forgets the patient if inactive.
+     *
+     * @param patientId the patient UID
+     * @param patient   the patient data the level was evaluated from
+     * @param level     the evaluated level
+     */
+    public void record(String patientId, PatientDto patient, RiskLevel level) {
+        if (patientId != null && patient != null && Boolean.FALSE.equals(patient.getActive())) {
+            remove(patientId);
+            return;
+        }
+        if (patientId == null || patient == null || patient.getBirthDate() == null || level == null) {
+            return;
+        }
+        AgeBand ageBand = AgeBand.of(patient.getBirthDate(), LocalDate.now(clock));
+        put(patientId, new Entry(level, ageBand, Gender.of(patient.getGender()), writes.incrementAndGet()), true);
+    }
+
+    /**
+     * Records a risk level read from a previous scan, unless the patient was evaluated since.
+     *
+     * @param patientId the patient UID
+     * @param level     the level of the scan
+     * @param ageBand   the age band of the patient at the time of the scan
+     * @param gender    the gender of the patient
+     */
+    public void recordIfAbsent(String patientId, RiskLevel level, AgeBand ageBand, Gender gender) {
+        if (patientId == null || level == null || ageBand == null) {
+            return;
+        }
+        put(patientId, new Entry(level, ageBand, gender == null ? Gender.OTHER : gender, writes.incrementAndGet()), false);
+    }
+
+    /**
+     * Forgets a patient, e.g. once deleted.
+     *
+     * @param patientId the patient UID
+     */
+    public void remove(String patientId) {
+        if (patientId == null) {
+            return;
+        }
+        entries.computeIfPresent(patientId, (id, previous) -> {
+            counts.decrementAndGet(previous.cell());
+            return null;
+        });
+    }
+
+    /**
+     * Returns a mark to pass to {@link #retainWrittenSince} once a scan completes, taken when it starts.
+     *
+     * @return the position of the latest write
+     */
+    public long mark() {
+        return writes.get();
+    }
+
+    /**
+     * Marks a patient as seen by the running scan, keeping their level, e.g. when the scan could not evaluate them.
+     *
+     * @param patientId the patient UID
+     */
+    public void touch(String patientId) {
+        if (patientId == null) {
+            return;
+        }
+        entries.computeIfPresent(patientId, (id, previous) ->
+                new Entry(previous.level(), previous.ageBand(), previous.gender(), writes.incrementAndGet()));
+    }
+
+    /**
+     * Forgets the patients neither recorded nor touched since a mark, i.e. those a completed scan did not see.
+     * A patient recorded during the scan by something else, e.g. created meanwhile, is kept.
+     *
+     * @param mark the {@link #mark()} taken when the scan started
+     * @return the number of patients forgotten
+     */
+    public int retainWrittenSince(long mark) {
+        int removed = 0;
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            Entry current = entry.getValue();
+            if (current.written() <= mark && entries.remove(entry.getKey(), current)) {
+                counts.decrementAndGet(current.cell());
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * @return the number of patients with a materialized level
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Counts the patients per risk level, grouped by the given dimensions.
+     *
+     * @param groupBy any of {@value #AGE_BAND} and {@value #GENDER}; empty for a single group of all patients
+     * @return one group per combination of the dimensions, in enum order, empty groups included
+     * @throws IllegalArgumentException if a dimension is unknown
+     */
+    public RiskStatsDto stats(List<String> groupBy) {
+        boolean byAgeBand = false;
+        boolean byGender = false;
+        for (String dimension : groupBy) {
+            if (dimension.isBlank()) {
+                continue;
+            }
+            if (AGE_BAND.equals(dimension)) {
+                byAgeBand = true;
+            } else if (GENDER.equals(dimension)) {
+                byGender = true;
+            } else {
+                throw new IllegalArgumentException("Dimension de regroupement inconnue : " + dimension
+                        + " (attendu : " + AGE_BAND + ", " + GENDER + ")");
+            }
+        }
+
+        Map<List<Object>, RiskStatsDto.Group> groups = new LinkedHashMap<>();
+        for (AgeBand band : byAgeBand ? BANDS : new AgeBand[]{null}) {
+            for (Gender gender : byGender ? GENDERS : new Gender[]{null}) {
+                RiskStatsDto.Group group = new RiskStatsDto.Group();
+                group.setAgeBand(band);
+                group.setGender(gender);
+                for (RiskLevel level : LEVELS) {
+                    group.getCounts().put(level, 0L);
+                }
+                groups.put(Arrays.asList(band, gender), group);
+            }
+        }
+
+        long total = 0;
+        for (AgeBand band : BANDS) {
+            for (Gender gender : GENDERS) {
+                RiskStatsDto.Group group = groups.get(Arrays.asList(byAgeBand ? band : null, byGender ? gender : null));
+                for (RiskLevel level : LEVELS) {
+                    long count = counts.get(new Entry(level, band, gender, 0).cell());
+                    group.getCounts().merge(level, count, Long::sum);
+                    group.setTotal(group.getTotal() + count);
+                    total += count;
+                }
+            }
+        }
+
+        List<String> dimensions = new ArrayList<>();
+        if (byAgeBand) {
+            dimensions.add(AGE_BAND);
+        }
+        if (byGender) {
+            dimensions.add(GENDER);
+        }
+        return new RiskStatsDto(dimensions, total, new ArrayList<>(groups.values()));
+    }
+
+    private void put(String patientId, Entry entry, boolean replace) {
+        entries.compute(patientId, (id, previous) -> {
+            if (previous != null && !replace) {
+                return previous;
+            }
+            if (previous != null) {
+                counts.decrementAndGet(previous.cell());
+            }
+            counts.incrementAndGet(entry.cell());
+            return entry;
+        });
+    }
+}
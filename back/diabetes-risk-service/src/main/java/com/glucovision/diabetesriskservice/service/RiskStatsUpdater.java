@@ -0,0 +1,204 @@
+package com.glucovision.diabetesriskservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glucovision.diabetesriskservice.dto.RiskInvalidationEvent;
+import com.glucovision.diabetesriskservice.dto.RiskScanRecord;
+import com.glucovision.diabetesriskservice.rules.RiskRulesReloadedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps {@link RiskStats} up to date as the inputs of the risk levels change.
+ * <p>
+ * A patient whose notes, birth date, gender or active status changed is re-evaluated in the background, which
+ * records the new level or removes the patient if inactive or gone; a deleted patient is removed. The changed
+ * patients are queued once each and re-evaluated in batches of up to {@code risk.batch.max-size}, with one bulk
+ * request per downstream service, so that a bulk import upstream costs a few requests rather than two per patient.
+ * <p>
+ * When the risk rules are reloaded, or when another service reports that it dropped events, any level may be
+ * stale: a risk scan is requested to evaluate them all again. At startup, the store is filled from the output of
+ * the latest completed risk scan when {@code risk.stats.warm-up.enabled} is set, without overwriting the levels
+ * evaluated since.
+ */
+@Slf4j
+@Component
+public class RiskStatsUpdater {
+
+    private final RiskService riskService;
+    private final RiskStats riskStats;
+    private final RiskScanJob riskScanJob;
+    private final ObjectMapper objectMapper;
+    private final boolean warmUpEnabled;
+    private final int batchSize;
+
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "risk-stats");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates the updater.
+     *
+     * @param riskService   the risk evaluation, which records the levels it evaluates
+     * @param riskStats     the materialized levels
+     * @param riskScanJob   the scan whose latest output fills the store at startup
+     * @param objectMapper  the mapper reading the scan output
+     * @param warmUpEnabled whether the store is filled from the latest scan at startup
+     * @param batchSize     the maximum number of patients re-evaluated together
+     */
+    public RiskStatsUpdater(RiskService riskService,
+                            RiskStats riskStats,
+                            RiskScanJob riskScanJob,
+                            ObjectMapper objectMapper,
+                            @Value("${risk.stats.warm-up.enabled:false}") boolean warmUpEnabled,
+                            @Value("${risk.batch.max-size:100}") int batchSize) {
+        this.riskService = riskService;
+        this.riskStats = riskStats;
+        this.riskScanJob = riskScanJob;
+        this.objectMapper = objectMapper;
+        this.warmUpEnabled = warmUpEnabled;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Queues the re-evaluation of the patient of a change notified by another service, or removes the patient if
+     * deleted. When the sender dropped events, the changed patients are unknown and a risk scan is requested.
+     *
+     * @param event the invalidation event
+     */
+    @EventListener
+    public void onInvalidation(RiskInvalidationEvent event) {
+        String patientId = event.getPatientId();
+        switch (event.getReason()) {
+            case PATIENT_DELETED -> riskStats.remove(patientId);
+            case EVENTS_DROPPED -> {
+                log.warn("⚠️ [RISK STATS] Risk events were dropped by their sender, requesting a risk scan");
+                riskScanJob.requestScan();
+            }
+            default -> {
+                queued.add(patientId);
+                if (draining.compareAndSet(false, true)) {
+                    executor.execute(this::drain);
+                }
+            }
+        }
+    }
+
+    /**
+     * Requests a risk scan, which evaluates every active patient with the new rules.
+     *
+     * @param event the reload of the rules
+     */
+    @EventListener
+    public void onRulesReloaded(RiskRulesReloadedEvent event) {
+        log.info("[RISK STATS] Risk rules reloaded from {}, requesting a risk scan", event.location());
+        riskScanJob.requestScan();
+    }
+
+    /**
+     * Fills the store from the latest completed scan, in the background.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (warmUpEnabled) {
+            executor.execute(this::loadLatestScan);
+        }
+    }
+
+    /**
+     * Re-evaluates the queued patients batch by batch until the queue is empty; patients queued during a batch
+     * join the next one.
+     */
+    void drain() {
+        do {
+            try {
+                List<String> batch;
+                while (!(batch = nextBatch()).isEmpty()) {
+                    refresh(batch);
+                }
+            } finally {
+                draining.set(false);
+            }
+        } while (!queued.isEmpty() && draining.compareAndSet(false, true));
+    }
+
+    private List<String> nextBatch() {
+        List<String> batch = new ArrayList<>(Math.min(batchSize, queued.size()));
+        Iterator<String> iterator = queued.iterator();
+        while (batch.size() < batchSize && iterator.hasNext()) {
+            batch.add(iterator.next());
+            iterator.remove();
+        }
+        return batch;
+    }
+
+    /**
+     * Re-evaluates patients together, which records their new levels and removes those who no longer exist.
+     */
+    void refresh(List<String> patientIds) {
+        try {
+            riskService.evaluateRiskLevels(patientIds);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ [RISK STATS] Could not re-evaluate {} patient(s), keeping the previous levels: {}",
+                    patientIds.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Records the levels of the latest completed scan for the patients not evaluated since.
+     *
+     * @return the number of levels read
+     */
+    long loadLatestScan() {
+        try {
+            Optional<Path> scan = riskScanJob.latestCompletedScan();
+            if (scan.isEmpty()) {
+                log.info("[RISK STATS] No completed risk scan to load");
+                return 0;
+            }
+            long loaded = 0;
+            try (BufferedReader reader = Files.newBufferedReader(scan.get(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    RiskScanRecord record = objectMapper.readValue(line, RiskScanRecord.class);
+                    if (record.getRiskLevel() != null) {
+                        riskStats.recordIfAbsent(record.getPatientId(), record.getRiskLevel(), record.getAgeBand(), record.getGender());
+                        loaded++;
+                    }
+                }
+            }
+            log.info("✅ [RISK STATS] {} risk level(s) loaded from {}", loaded, scan.get());
+            return loaded;
+        } catch (IOException | RuntimeException e) {
+            log.warn("⚠️ [RISK STATS] Could not load the latest risk scan: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,160 @@
+package com.glucovision.diabetesriskservice.trigger;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * {@link TriggerMatcher} backed by an Aho-Corasick automaton.
+ * <p>
+ * The automaton is compiled once into a dense transition table, so scanning a note is a single
+ * pass over its characters with one array lookup per character, whatever the number of terms.
+ * Characters are upper-cased one at a time with {@link Character#toUpperCase(char)}: no upper-case
+ * copy of the note is allocated.
+ * <p>
+ * Patterns must be made of Latin-1 characters once upper-cased, and at most 64 terms are supported.
+ * Instances are immutable and thread-safe.
+ */
+public class AhoCorasickTriggerMatcher implements TriggerMatcher {
+
+    private static final int LATIN1_SIZE = 256;
+
+    private final List<String> terms;
+
+    /** Upper-cased Latin-1 character to alphabet symbol; symbol 0 stands for any other character. */
+    private final int[] symbols = new int[LATIN1_SIZE];
+    private final int alphabetSize;
+
+    /** Complete transition function: {@code transitions[state * alphabetSize + symbol]}. */
+    private final int[] transitions;
+
+    /** Bitmask of the terms ending in each state, failure links included. */
+    private final long[] outputs;
+
+    private final long allTermsMask;
+
+    /**
+     * Compiles the automaton for the given terms, each term being its own single pattern.
+     *
+     * @param terms the trigger terms, the index of each term being its bit in the match result
+     * @throws IllegalArgumentException if the list is empty, too large, or contains an unsupported term
+     */
+    public AhoCorasickTriggerMatcher(List<String> terms) {
+        this(terms, terms.stream().map(List::of).toList());
+    }
+
+    /**
+     * Compiles the automaton for terms that may each be spelled in several ways.
+     *
+     * @param terms    the trigger terms, the index of each term being its bit in the match result
+     * @param patterns for each term, the strings whose occurrence reports that term
+     * @throws IllegalArgumentException if the lists are empty, too large, mismatched, or contain an unsupported pattern
+     */
+    public AhoCorasickTriggerMatcher(List<String> terms, List<? extends Collection<String>> patterns) {
+        if (terms == null || terms.isEmpty() || terms.size() > Long.SIZE) {
+            throw new IllegalArgumentException("Between 1 and " + Long.SIZE + " trigger terms are required");
+        }
+        if (patterns.size() != terms.size()) {
+            throw new IllegalArgumentException("Exactly one pattern list per trigger term is required");
+        }
+        this.terms = List.copyOf(terms);
+
+        int symbolCount = 1;
+        int maxStates = 1;
+        for (Collection<String> termPatterns : patterns) {
+            for (String pattern : termPatterns) {
+                if (pattern.isEmpty()) {
+                    throw new IllegalArgumentException("Trigger patterns must not be empty");
+                }
+                for (int i = 0; i < pattern.length(); i++) {
+                    char upper = Character.toUpperCase(pattern.charAt(i));
+                    if (upper >= LATIN1_SIZE) {
+                        throw new IllegalArgumentException("Unsupported character in trigger pattern: " + pattern);
+                    }
+                    if (symbols[upper] == 0) {
+                        symbols[upper] = symbolCount++;
+                    }
+                }
+                maxStates += pattern.length();
+            }
+        }
+        this.alphabetSize = symbolCount;
+
+        // Trie: 0 means "no edge" since the root (state 0) is never a child.
+        int[] next = new int[maxStates * alphabetSize];
+        long[] out = new long[maxStates];
+        int stateCount = 1;
+        for (int t = 0; t < this.terms.size(); t++) {
+            for (String pattern : patterns.get(t)) {
+                int state = 0;
+                for (int i = 0; i < pattern.length(); i++) {
+                    int index = state * alphabetSize + symbolOf(pattern.charAt(i));
+                    if (next[index] == 0) {
+                        next[index] = stateCount++;
+                    }
+                    state = next[index];
+                }
+                out[state] |= 1L << t;
+            }
+        }
+
+        // Breadth-first pass: compute failure links and turn the trie into a complete DFA.
+        int[] fail = new int[stateCount];
+        int[] queue = new int[stateCount];
+        int head = 0;
+        int tail = 0;
+        for (int symbol = 0; symbol < alphabetSize; symbol++) {
+            int child = next[symbol];
+            if (child != 0) {
+                queue[tail++] = child;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            out[state] |= out[fail[state]];
+            for (int symbol = 0; symbol < alphabetSize; symbol++) {
+                int index = state * alphabetSize + symbol;
+                int fallback = next[fail[state] * alphabetSize + symbol];
+                if (next[index] != 0) {
+                    fail[next[index]] = fallback;
+                    queue[tail++] = next[index];
+                } else {
+                    next[index] = fallback;
+                }
+            }
+        }
+
+        this.transitions = Arrays.copyOf(next, stateCount * alphabetSize);
+        this.outputs = Arrays.copyOf(out, stateCount);
+        this.allTermsMask = this.terms.size() == Long.SIZE ? -1L : (1L << this.terms.size()) - 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The scan stops early once every term has been found.
+     */
+    @Override
+    public long match(CharSequence text) {
+        long mask = 0;
+        int state = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = transitions[state * alphabetSize + symbolOf(text.charAt(i))];
+            mask |= outputs[state];
+            if (mask == allTermsMask) {
+                break;
+            }
+        }
+        return mask;
+    }
+
+    @Override
+    public List<String> terms() {
+        return terms;
+    }
+
+    private int symbolOf(char c) {
+        char upper = Character.toUpperCase(c);
+        return upper < LATIN1_SIZE ? symbols[upper] : 0;
+    }
+}
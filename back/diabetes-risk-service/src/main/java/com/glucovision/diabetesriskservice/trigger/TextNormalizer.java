@@ -0,0 +1,83 @@
+package com.glucovision.diabetesriskservice.trigger;
+
+import java.text.Normalizer;
+
+/**
+ * Folds free text into the canonical form used for trigger matching.
+ * <p>
+ * The text is processed one character at a time into a caller-supplied buffer:
+ * <ul>
+ *     <li>letters are upper-cased and stripped of their accents ("é" and "É" become "E");</li>
+ *     <li>combining marks are dropped, so NFC and NFD input give the same result;</li>
+ *     <li>the ligatures "œ", "æ" and "ß" are expanded;</li>
+ *     <li>every run of whitespace or punctuation becomes a single space.</li>
+ * </ul>
+ * The output always starts and ends with a space, which lets patterns anchor on word boundaries.
+ * This class is stateless and thread-safe.
+ */
+public final class TextNormalizer {
+
+    private static final char SEPARATOR = ' ';
+
+    /** Pre-computed folding of the Latin blocks; {@link #SEPARATOR} marks a non letter-or-digit. */
+    private static final char[] FOLD = new char[0x300];
+
+    static {
+        for (char c = 0; c < FOLD.length; c++) {
+            if (!Character.isLetterOrDigit(c)) {
+                FOLD[c] = SEPARATOR;
+                continue;
+            }
+            String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            FOLD[c] = Character.toUpperCase(decomposed.charAt(0));
+        }
+    }
+
+    /**
+     * Normalizes the given text into the buffer, replacing its previous content.
+     *
+     * @param text the text to normalize
+     * @param out  the reusable buffer receiving the normalized text
+     */
+    public void normalize(CharSequence text, StringBuilder out) {
+        out.setLength(0);
+        out.append(SEPARATOR);
+        for (int i = 0, length = text.length(); i < length; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case 'œ', 'Œ' -> out.append("OE");
+                case 'æ', 'Æ' -> out.append("AE");
+                case 'ß' -> out.append("SS");
+                default -> {
+                    if (c < FOLD.length) {
+                        append(out, FOLD[c]);
+                    } else if (c <= '\u036F' || Character.getType(c) == Character.NON_SPACING_MARK) {
+                        // combining diacritical mark: part of the previous letter
+                    } else {
+                        append(out, Character.isLetterOrDigit(c) ? Character.toUpperCase(c) : SEPARATOR);
+                    }
+                }
+            }
+        }
+        append(out, SEPARATOR);
+    }
+
+    /**
+     * Normalizes the given text into a new string, without the surrounding spaces.
+     * Intended for one-off conversions such as compiling patterns.
+     *
+     * @param text the text to normalize
+     * @return the normalized text
+     */
+    public String normalize(CharSequence text) {
+        StringBuilder out = new StringBuilder(text.length() + 2);
+        normalize(text, out);
+        return out.toString().trim();
+    }
+
+    private static void append(StringBuilder out, char c) {
+        if (c != SEPARATOR || out.charAt(out.length() - 1) != SEPARATOR) {
+            out.append(c);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.glucovision.diabetesriskservice.trigger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The trigger terms and their synonyms, together with a version identifying them.
+ * <p>
+ * The version is a fingerprint of the terms (in bit order), of the synonyms and of {@link #MATCHING_REVISION},
+ * computed exactly as the Note Service computes the version of its own dictionary. The Note Service reports that
+ * version with every trigger summary, so that a summary counted with another dictionary is not trusted.
+ */
+public class TriggerDictionary {
+
+    /**
+     * Revision of the matching rules (normalization, synonym semantics); bump it together with the one of the
+     * Note Service when they change.
+     */
+    public static final int MATCHING_REVISION = 1;
+
+    private final TriggerMatcher matcher;
+    private final String version;
+
+    /**
+     * Creates the dictionary for a compiled matcher.
+     *
+     * @param matcher  the matcher compiled from the terms and synonyms
+     * @param synonyms the synonyms the matcher was compiled with
+     */
+    public TriggerDictionary(TriggerMatcher matcher, Map<String, List<String>> synonyms) {
+        this.matcher = matcher;
+        this.version = fingerprint(matcher.terms(), synonyms);
+    }
+
+    /**
+     * @return the matcher of this dictionary
+     */
+    public TriggerMatcher matcher() {
+        return matcher;
+    }
+
+    /**
+     * @return the version of this dictionary, changing whenever a term, a synonym or the matching rules change
+     */
+    public String version() {
+        return version;
+    }
+
+    /**
+     * Scans a note with this dictionary.
+     *
+     * @param text the note content, may be {@code null}
+     * @return the bitmask of the distinct terms found, in the bit order of {@link TriggerMatcher#terms()}
+     */
+    public long match(String text) {
+        return text == null ? 0L : matcher.match(text);
+    }
+
+    /**
+     * Scans a note with this dictionary, normalizing it into the given buffer.
+     *
+     * @param text   the note content, may be {@code null}
+     * @param buffer the scratch buffer, reused by callers scanning several notes
+     * @return the bitmask of the distinct terms found, in the bit order of {@link TriggerMatcher#terms()}
+     */
+    public long match(String text, StringBuilder buffer) {
+        return text == null ? 0L : matcher.match(text, buffer);
+    }
+
+    static String fingerprint(List<String> terms, Map<String, List<String>> synonyms) {
+        StringBuilder canonical = new StringBuilder("r").append(MATCHING_REVISION);
+        for (String term : terms) {
+            canonical.append('\n').append(term);
+        }
+        new TreeMap<>(synonyms).forEach((term, variants) -> {
+            canonical.append('\n').append(term).append(" =");
+            variants.stream().sorted().forEach(variant -> canonical.append(' ').append(variant).append(';'));
+        });
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
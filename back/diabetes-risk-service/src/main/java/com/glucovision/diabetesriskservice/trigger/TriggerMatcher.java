@@ -0,0 +1,42 @@
+package com.glucovision.diabetesriskservice.trigger;
+
+import java.util.List;
+
+/**
+ * Strategy used by the risk evaluation to detect trigger terms inside a medical note.
+ * <p>
+ * Implementations report the distinct terms found in a text as a bitmask, where bit {@code i}
+ * is set when the term at index {@code i} of {@link #terms()} occurs at least once.
+ * Matching is case-insensitive.
+ */
+public interface TriggerMatcher {
+
+    /**
+     * Scans the given text and returns the set of distinct trigger terms it contains.
+     *
+     * @param text the text to scan
+     * @return a bitmask of the matched term indexes, {@code 0} when nothing matches
+     */
+    long match(CharSequence text);
+
+    /**
+     * Same as {@link #match(CharSequence)}, using the given buffer as scratch space instead of allocating one.
+     * <p>
+     * Callers scanning many notes in a row allocate the buffer once and pass it to every call; its content
+     * is overwritten. Matchers that need no scratch space ignore it.
+     *
+     * @param text   the text to scan
+     * @param buffer the scratch buffer, owned by the calling thread for the duration of the call
+     * @return a bitmask of the matched term indexes, {@code 0} when nothing matches
+     */
+    default long match(CharSequence text, StringBuilder buffer) {
+        return match(text);
+    }
+
+    /**
+     * Returns the trigger terms known by this matcher, in bit order.
+     *
+     * @return the ordered list of trigger terms
+     */
+    List<String> terms();
+}
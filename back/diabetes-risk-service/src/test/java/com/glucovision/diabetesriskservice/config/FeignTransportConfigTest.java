@@ -0,0 +1,50 @@
+package com.glucovision.diabetesriskservice.config;
+
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the Feign clients share the pooled transport and that its pool is published as metrics.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+class FeignTransportConfigTest {
+
+    @Autowired
+    private Client feignClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void feignClients_shouldUsePooledTransport() {
+        assertInstanceOf(ApacheHttp5Client.class, feignClient);
+    }
+
+    @Test
+    void connectionPool_shouldBePublishedWithConfiguredLimits() {
+        // Act
+        Gauge maxTotal = meterRegistry.find("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", FeignTransportConfig.POOL_NAME).gauge();
+        Gauge maxPerRoute = meterRegistry.find("httpcomponents.httpclient.pool.route.max.default")
+                .tag("httpclient", FeignTransportConfig.POOL_NAME).gauge();
+        Gauge leased = meterRegistry.find("httpcomponents.httpclient.pool.total.connections")
+                .tags("httpclient", FeignTransportConfig.POOL_NAME, "state", "leased").gauge();
+
+        // Assert
+        assertNotNull(maxTotal);
+        assertEquals(200, maxTotal.value());
+        assertNotNull(maxPerRoute);
+        assertEquals(64, maxPerRoute.value());
+        assertNotNull(leased);
+        assertEquals(0, leased.value());
+    }
+}
@@ -0,0 +1,213 @@
+package com.glucovision.diabetesriskservice.config;
+
+import com.glucovision.diabetesriskservice.client.InternalAuthClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InternalTokenProviderTest {
+
+    private static final String API_KEY = "api-key";
+    private static final Instant NOW = Instant.parse("2025-05-13T10:00:00Z");
+
+    @Mock
+    private InternalAuthClient internalAuthClient;
+
+    private final MutableClock clock = new MutableClock(NOW);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private InternalTokenProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = new InternalTokenProvider(internalAuthClient, API_KEY, Duration.ofMinutes(5), meterRegistry, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        provider.shutdown();
+    }
+
+    @Test
+    void getToken_shouldCacheTokenUntilExpiry() {
+        // Arrange
+        String first = jwtExpiringAt(NOW.plus(Duration.ofHours(24)));
+        String second = jwtExpiringAt(NOW.plus(Duration.ofHours(48)));
+        when(internalAuthClient.getInternalToken(API_KEY)).thenReturn(first, second);
+
+        // Act & Assert
+        assertEquals(first, provider.getToken());
+        clock.advance(Duration.ofHours(1));
+        assertEquals(first, provider.getToken());
+        verify(internalAuthClient, times(1)).getInternalToken(API_KEY);
+
+        clock.advance(Duration.ofHours(23));
+        assertEquals(second, provider.getToken());
+        verify(internalAuthClient, times(2)).getInternalToken(API_KEY);
+
+        assertEquals(1.0, meterRegistry.counter("internal.token.cache", "result", "hit").count());
+        assertEquals(2.0, meterRegistry.counter("internal.token.cache", "result", "miss").count());
+        assertEquals(1.0, meterRegistry.counter("internal.token.refresh", "trigger", "initial", "outcome", "success").count());
+        assertEquals(1.0, meterRegistry.counter("internal.token.refresh", "trigger", "expired", "outcome", "success").count());
+    }
+
+    @Test
+    void getToken_shouldRefreshInBackground_shortlyBeforeExpiry() throws Exception {
+        // Arrange
+        String first = jwtExpiringAt(NOW.plus(Duration.ofHours(1)));
+        String second = jwtExpiringAt(NOW.plus(Duration.ofHours(2)));
+        CountDownLatch refreshed = new CountDownLatch(2);
+        when(internalAuthClient.getInternalToken(API_KEY)).thenAnswer(invocation -> {
+            refreshed.countDown();
+            return refreshed.getCount() == 1 ? first : second;
+        });
+        provider.getToken();
+
+        // Act
+        clock.advance(Duration.ofMinutes(56));
+        String duringRefresh = provider.getToken();
+
+        // Assert
+        assertEquals(first, duringRefresh, "the still valid token is returned without waiting");
+        assertTrue(refreshed.await(5, java.util.concurrent.TimeUnit.SECONDS));
+        for (int i = 0; i < 50 && !second.equals(provider.getToken()); i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(second, provider.getToken());
+    }
+
+    @Test
+    void getToken_shouldFetchOnce_forConcurrentCallers() throws Exception {
+        // Arrange
+        String token = jwtExpiringAt(NOW.plus(Duration.ofHours(24)));
+        CountDownLatch release = new CountDownLatch(1);
+        when(internalAuthClient.getInternalToken(API_KEY)).thenAnswer(invocation -> {
+            release.await();
+            return token;
+        });
+
+        // Act
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(callers.submit(provider::getToken));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        // Assert
+        for (Future<String> result : results) {
+            assertEquals(token, result.get());
+        }
+        callers.shutdown();
+        verify(internalAuthClient, times(1)).getInternalToken(API_KEY);
+    }
+
+    @Test
+    void invalidate_shouldForceSynchronousFetch_forTheRejectedTokenOnly() {
+        // Arrange
+        String first = jwtExpiringAt(NOW.plus(Duration.ofHours(24)));
+        String second = jwtExpiringAt(NOW.plus(Duration.ofHours(25)));
+        when(internalAuthClient.getInternalToken(API_KEY)).thenReturn(first, second);
+        provider.getToken();
+
+        // Act
+        provider.invalidate("some-other-token");
+        String stillCached = provider.getToken();
+        provider.invalidate(first);
+        String refetched = provider.getToken();
+
+        // Assert
+        assertEquals(first, stillCached);
+        assertEquals(second, refetched);
+        verify(internalAuthClient, times(2)).getInternalToken(API_KEY);
+    }
+
+    @Test
+    void getToken_shouldCacheForFallbackTtl_whenTokenHasNoReadableExpiry() {
+        // Arrange
+        when(internalAuthClient.getInternalToken(API_KEY)).thenReturn("opaque-token");
+
+        // Act
+        provider.getToken();
+        clock.advance(Duration.ofMinutes(4));
+        provider.getToken();
+        clock.advance(Duration.ofMinutes(2));
+        provider.getToken();
+
+        // Assert
+        verify(internalAuthClient, times(2)).getInternalToken(API_KEY);
+    }
+
+    @Test
+    void getToken_shouldPropagateClientFailure_andRetryOnNextCall() {
+        // Arrange
+        String token = jwtExpiringAt(NOW.plus(Duration.ofHours(24)));
+        when(internalAuthClient.getInternalToken(API_KEY))
+                .thenThrow(new IllegalStateException("auth-service down"))
+                .thenReturn(token);
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> provider.getToken());
+        assertEquals("auth-service down", exception.getMessage());
+        assertEquals(token, provider.getToken());
+        assertEquals(1.0, meterRegistry.counter("internal.token.refresh", "trigger", "initial", "outcome", "failure").count());
+    }
+
+    private static String jwtExpiringAt(Instant expiry) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8));
+        String payload = encoder.encodeToString(("{\"sub\":\"diabetes-risk-service\",\"exp\":" + expiry.getEpochSecond() + "}")
+                .getBytes(StandardCharsets.UTF_8));
+        return header + "." + payload + ".signature";
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
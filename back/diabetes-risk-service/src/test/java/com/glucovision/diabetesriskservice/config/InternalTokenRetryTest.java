@@ -0,0 +1,100 @@
+package com.glucovision.diabetesriskservice.config;
+
+import com.glucovision.diabetesriskservice.dto.PatientDto;
+import com.glucovision.diabetesriskservice.service.PatientDataService;
+import com.glucovision.diabetesriskservice.util.AbstractWireMockTest;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import feign.FeignException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a Feign call rejected with a 401 is retried once with a freshly fetched internal token.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = "internal.token.refresh-before-expiry=1m")
+class InternalTokenRetryTest extends AbstractWireMockTest {
+
+    private static final String PATIENT_ID = "8e1f3b34-5c7e-4c17-9df6-bc6dd40efc62";
+
+    @Autowired
+    private PatientDataService patientDataService;
+
+    @Autowired
+    private InternalTokenProvider tokenProvider;
+
+    @BeforeAll
+    static void useWireMockForAuth() {
+        System.setProperty("auth-service.url", wireMockServer.baseUrl());
+    }
+
+    @BeforeEach
+    void stubAuthService() {
+        wireMockServer.resetAll();
+        wireMockServer.stubFor(post(urlEqualTo("/internal-auth/internal-token"))
+                .inScenario("token").whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse().withHeader("Content-Type", "text/plain").withBody("old-token"))
+                .willSetStateTo("rotated"));
+        wireMockServer.stubFor(post(urlEqualTo("/internal-auth/internal-token"))
+                .inScenario("token").whenScenarioStateIs("rotated")
+                .willReturn(aResponse().withHeader("Content-Type", "text/plain").withBody("new-token")));
+        tokenProvider.invalidate(tokenProvider.getToken());
+        wireMockServer.resetRequests();
+        wireMockServer.setScenarioState("token", Scenario.STARTED);
+    }
+
+    @Test
+    void rejectedToken_shouldBeReplaced_andRequestRetriedOnce() {
+        // Arrange
+        wireMockServer.stubFor(get(urlEqualTo("/api/patients/" + PATIENT_ID))
+                .withHeader("Authorization", equalTo("Bearer old-token"))
+                .willReturn(aResponse().withStatus(401)));
+        wireMockServer.stubFor(get(urlEqualTo("/api/patients/" + PATIENT_ID))
+                .withHeader("Authorization", equalTo("Bearer new-token"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"uid\":\"" + PATIENT_ID + "\",\"birthDate\":\"1980-04-23\",\"gender\":\"MALE\"}")));
+
+        // Act
+        PatientDto patient = patientDataService.getPatient(PATIENT_ID);
+        patientDataService.getPatient(PATIENT_ID);
+
+        // Assert
+        assertEquals(PATIENT_ID, patient.getId());
+        wireMockServer.verify(2, postRequestedFor(urlEqualTo("/internal-auth/internal-token")));
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo("/api/patients/" + PATIENT_ID))
+                .withHeader("Authorization", equalTo("Bearer old-token")));
+        wireMockServer.verify(2, getRequestedFor(urlEqualTo("/api/patients/" + PATIENT_ID))
+                .withHeader("Authorization", equalTo("Bearer new-token")));
+    }
+
+    @Test
+    void persistentRejection_shouldPropagateAfterOneRetry() {
+        // Arrange
+        wireMockServer.stubFor(get(urlEqualTo("/api/patients/" + PATIENT_ID))
+                .willReturn(aResponse().withStatus(401)));
+
+        // Act & Assert
+        FeignException exception = assertThrows(FeignException.class, () -> patientDataService.getPatient(PATIENT_ID));
+        assertEquals(401, exception.status());
+        wireMockServer.verify(2, getRequestedFor(urlEqualTo("/api/patients/" + PATIENT_ID)));
+    }
+
+    @Test
+    void otherErrors_shouldNotBeRetried() {
+        // Arrange
+        wireMockServer.stubFor(get(urlEqualTo("/api/patients/" + PATIENT_ID))
+                .willReturn(aResponse().withStatus(404)));
+
+        // Act & Assert
+        assertThrows(FeignException.NotFound.class, () -> patientDataService.getPatient(PATIENT_ID));
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo("/api/patients/" + PATIENT_ID)));
+    }
+}
@@ -1,5 +1,6 @@
 package com.glucovision.diabetesriskservice.controller;
 
+import com.glucovision.diabetesriskservice.dto.RiskBatchDto;
 import com.glucovision.diabetesriskservice.dto.RiskDto;
 import com.glucovision.diabetesriskservice.model.RiskLevel;
 import com.glucovision.diabetesriskservice.service.RiskService;
@@ -11,6 +12,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
 
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -56,4 +60,22 @@ class RiskControllerTest {
         // Assert
         verify(riskService, times(1)).evaluateRiskLevel(patientId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getRiskLevels_shouldReturnBatchResult() {
+        // Arrange
+        List<String> ids = List.of(patientId, "unknown");
+        RiskBatchDto batch = new RiskBatchDto(
+                Map.of(patientId, RiskLevel.IN_DANGER),
+                Map.of("unknown", "Patient not found with ID: unknown"));
+        when(riskService.evaluateRiskLevels(ids)).thenReturn(batch);
+
+        // Act
+        ResponseEntity<RiskBatchDto> response = riskController.getRiskLevels(ids);
+
+        // Assert
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(batch, response.getBody());
+        verify(riskService, times(1)).evaluateRiskLevels(ids);
+    }
+}
@@ -0,0 +1,69 @@
+package com.glucovision.diabetesriskservice.controller;
+
+import com.glucovision.diabetesriskservice.dto.RiskInvalidationEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RiskEventControllerTest {
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private RiskEventController riskEventController;
+
+    private final RiskInvalidationEvent event =
+            new RiskInvalidationEvent(RiskInvalidationEvent.Reason.NOTE_CHANGED, "12345");
+
+    @BeforeEach
+    void setUp() {
+        riskEventController = new RiskEventController(eventPublisher, "secret-key");
+    }
+
+    @Test
+    void onEvent_shouldPublishEvent_whenApiKeyMatches() {
+        // Act
+        ResponseEntity<Void> response = riskEventController.onEvent("secret-key", event);
+
+        // Assert
+        assertEquals(202, response.getStatusCode().value());
+        verify(eventPublisher).publishEvent(event);
+    }
+
+    @Test
+    void onEvent_shouldReturn401_whenApiKeyIsWrong() {
+        // Act
+        ResponseEntity<Void> response = riskEventController.onEvent("wrong-key", event);
+
+        // Assert
+        assertEquals(401, response.getStatusCode().value());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void onEvent_shouldReturn401_whenApiKeyIsMissing() {
+        // Act
+        ResponseEntity<Void> response = riskEventController.onEvent(null, event);
+
+        // Assert
+        assertEquals(401, response.getStatusCode().value());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void event_shouldRequirePatientId_unlessEventsWereDropped() {
+        assertTrue(event.isPatientIdValid());
+        assertFalse(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.NOTE_CHANGED, " ").isPatientIdValid());
+        assertTrue(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.EVENTS_DROPPED, null).isPatientIdValid());
+    }
+}
@@ -0,0 +1,52 @@
+package com.glucovision.diabetesriskservice.controller;
+
+import com.glucovision.diabetesriskservice.dto.RiskScanStatus;
+import com.glucovision.diabetesriskservice.service.RiskScanJob;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RiskScanControllerTest {
+
+    @Mock
+    private RiskScanJob riskScanJob;
+
+    @InjectMocks
+    private RiskScanController riskScanController;
+
+    @Test
+    void startScan_shouldReturn202_whenScanStarts() {
+        // Arrange
+        RiskScanStatus status = new RiskScanStatus();
+        status.setState(RiskScanStatus.State.RUNNING);
+        when(riskScanJob.start()).thenReturn(true);
+        when(riskScanJob.status()).thenReturn(status);
+
+        // Act
+        ResponseEntity<RiskScanStatus> response = riskScanController.startScan();
+
+        // Assert
+        assertEquals(202, response.getStatusCode().value());
+        assertEquals(RiskScanStatus.State.RUNNING, response.getBody().getState());
+    }
+
+    @Test
+    void startScan_shouldReturn409_whenScanIsAlreadyRunning() {
+        // Arrange
+        when(riskScanJob.start()).thenReturn(false);
+
+        // Act
+        ResponseEntity<RiskScanStatus> response = riskScanController.startScan();
+
+        // Assert
+        assertEquals(409, response.getStatusCode().value());
+        verify(riskScanJob).status();
+    }
+}
@@ -0,0 +1,158 @@
+package com.glucovision.diabetesriskservice.integration;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.core5.pool.PoolStats;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test of the Feign transport on the risk fan-out: each evaluation fetches a patient and its notes in parallel.
+ * <p>
+ * Runs the same load through the former {@code HttpURLConnection} transport, which keeps at most 5 idle connections
+ * per host and opens a new one for every other concurrent request, and through the {@link Client} of the application
+ * context, i.e. the transport configured in application.yml. Logs the latency percentiles of both, and checks that
+ * the configured pool served the load within its per-route limit and kept its connections for reuse; timings are
+ * only logged, since they depend on the machine.
+ * <p>
+ * Takes about a minute, so it only runs on demand:
+ * {@code mvn verify -Dit.test=FeignTransportLoadIT -Dfeign.load-test=true}.
+ */
+@Slf4j
+@ActiveProfiles("test")
+@SpringBootTest
+@EnabledIfSystemProperty(named = "feign.load-test", matches = "true")
+class FeignTransportLoadIT {
+
+    private static final int CONCURRENT_EVALUATIONS = 64;
+    private static final int WARM_UP_EVALUATIONS = 500;
+    private static final int MEASURED_EVALUATIONS = 3_000;
+    private static final Request.Options OPTIONS = new Request.Options(2, TimeUnit.SECONDS, 3, TimeUnit.SECONDS, true);
+
+    private static WireMockServer wireMockServer;
+
+    @Autowired
+    private Client feignClient;
+
+    @Autowired
+    private HttpClientConnectionManager connectionManager;
+
+    @Value("${spring.cloud.openfeign.httpclient.max-connections-per-route}")
+    private int maxConnectionsPerRoute;
+
+    @BeforeAll
+    static void startServices() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort().containerThreads(256));
+        wireMockServer.start();
+        wireMockServer.stubFor(get(urlPathMatching("/api/patients/.*")).willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"uid\":\"1\",\"birthDate\":\"1980-04-23\",\"gender\":\"MALE\"}")));
+        wireMockServer.stubFor(get(urlPathMatching("/api/notes/.*")).willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("[{\"patientId\":\"1\",\"comments\":\"Le patient déclare qu'il fume depuis peu, cholestérol élevé\"}]")));
+    }
+
+    @AfterAll
+    static void stopServices() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void configuredTransport_shouldServeFanOutFromItsPool() throws Exception {
+        // Given
+        PoolingHttpClientConnectionManager pool = assertInstanceOf(PoolingHttpClientConnectionManager.class, connectionManager);
+
+        // When
+        long[] defaultLatencies = run(new Client.Default(null, null));
+        long[] configuredLatencies = run(feignClient);
+
+        // Then
+        PoolStats stats = pool.getTotalStats();
+        log.info("[FEIGN LOAD] {} evaluations x 2 calls, {} at a time", MEASURED_EVALUATIONS, CONCURRENT_EVALUATIONS);
+        log.info("[FEIGN LOAD] HttpURLConnection      {}", percentiles(defaultLatencies));
+        log.info("[FEIGN LOAD] {} {}", String.format("%-22s", feignClient.getClass().getSimpleName()), percentiles(configuredLatencies));
+        log.info("[FEIGN LOAD] Pool after the run: {}", stats);
+        assertEquals(0, stats.getLeased());
+        assertTrue(stats.getAvailable() > 0, "The pool should keep its connections for reuse");
+        assertTrue(stats.getAvailable() <= maxConnectionsPerRoute, "The pool opened more connections than its per-route limit");
+    }
+
+    /**
+     * Runs the warm-up then the measured evaluations, and returns the sorted fan-out latencies in nanoseconds.
+     */
+    private long[] run(Client client) throws Exception {
+        evaluate(client, WARM_UP_EVALUATIONS);
+        long[] latencies = evaluate(client, MEASURED_EVALUATIONS);
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private long[] evaluate(Client client, int evaluations) throws Exception {
+        long[] latencies = new long[evaluations];
+        Semaphore inFlight = new Semaphore(CONCURRENT_EVALUATIONS);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(evaluations);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < evaluations; i++) {
+                int index = i;
+                inFlight.acquire();
+                futures.add(CompletableFuture.runAsync(() -> {
+                    long start = System.nanoTime();
+                    CompletableFuture<Void> patient = CompletableFuture.runAsync(() -> call(client, "/api/patients/" + index), executor);
+                    CompletableFuture<Void> notes = CompletableFuture.runAsync(() -> call(client, "/api/notes/" + index), executor);
+                    CompletableFuture.allOf(patient, notes).join();
+                    latencies[index] = System.nanoTime() - start;
+                }, executor).whenComplete((result, error) -> inFlight.release()));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+        }
+        return latencies;
+    }
+
+    private void call(Client client, String path) {
+        Request request = Request.create(Request.HttpMethod.GET, wireMockServer.baseUrl() + path, Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        try (Response response = client.execute(request, OPTIONS); InputStream body = response.body().asInputStream()) {
+            body.readAllBytes();
+        } catch (IOException e) {
+            throw new IllegalStateException("Call to " + path + " failed", e);
+        }
+    }
+
+    private static String percentiles(long[] sortedLatencies) {
+        return String.format("p50=%.2f ms  p99=%.2f ms  max=%.2f ms",
+                millis(sortedLatencies, 0.50), millis(sortedLatencies, 0.99), millis(sortedLatencies, 1.0));
+    }
+
+    private static double millis(long[] sortedLatencies, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
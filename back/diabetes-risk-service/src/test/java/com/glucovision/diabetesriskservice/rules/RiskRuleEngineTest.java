@@ -0,0 +1,85 @@
+package com.glucovision.diabetesriskservice.rules;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glucovision.diabetesriskservice.model.Gender;
+import com.glucovision.diabetesriskservice.model.RiskLevel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiskRuleEngineTest {
+
+    private static final String ALL_NONE = "{\"rules\":[{\"description\":\"all\",\"level\":\"NONE\"}]}";
+    private static final String ALL_BORDERLINE = "{\"rules\":[{\"description\":\"all\",\"level\":\"BORDERLINE\"}]}";
+    private static final String WITH_GAP = "{\"rules\":[{\"description\":\"young\",\"maxAge\":29,\"level\":\"NONE\"}]}";
+
+    @TempDir
+    Path tempDir;
+
+    private Path rules;
+    private final List<Object> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        rules = tempDir.resolve("risk-rules.json");
+        Files.writeString(rules, ALL_NONE);
+    }
+
+    @Test
+    void constructor_shouldFail_whenRulesAreInvalid() throws IOException {
+        // Given
+        Files.writeString(rules, WITH_GAP);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, this::engine);
+    }
+
+    @Test
+    void reloadIfModified_shouldSwapTableAndPublishEvent_whenFileChanged() throws IOException {
+        // Given
+        RiskRuleEngine engine = engine();
+        assertFalse(engine.reloadIfModified());
+
+        // When
+        rewrite(ALL_BORDERLINE);
+
+        // Then
+        assertTrue(engine.reloadIfModified());
+        assertEquals(RiskLevel.BORDERLINE, engine.resolve(Gender.MALE, 45, 3));
+        assertEquals(List.of(new RiskRulesReloadedEvent(rules.toUri().toString())), events);
+    }
+
+    @Test
+    void reloadIfModified_shouldKeepPreviousTable_whenNewRulesAreInvalid() throws IOException {
+        // Given
+        RiskRuleEngine engine = engine();
+
+        // When
+        rewrite(WITH_GAP);
+
+        // Then
+        assertFalse(engine.reloadIfModified());
+        assertEquals(RiskLevel.NONE, engine.resolve(Gender.FEMALE, 45, 3));
+        assertTrue(events.isEmpty());
+    }
+
+    private RiskRuleEngine engine() {
+        return new RiskRuleEngine(new DefaultResourceLoader(), new ObjectMapper(), rules.toUri().toString(), events::add);
+    }
+
+    private void rewrite(String content) throws IOException {
+        Files.writeString(rules, content);
+        Files.setLastModifiedTime(rules, FileTime.from(Instant.now().plusSeconds(60)));
+    }
+}
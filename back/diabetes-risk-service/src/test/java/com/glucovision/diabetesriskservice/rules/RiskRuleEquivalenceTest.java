@@ -0,0 +1,98 @@
+package com.glucovision.diabetesriskservice.rules;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glucovision.diabetesriskservice.model.Gender;
+import com.glucovision.diabetesriskservice.model.RiskLevel;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that the shipped risk-rules.json gives the same levels as the if/else cascade it replaced,
+ * exhaustively over the realistic domain and on random large inputs.
+ */
+class RiskRuleEquivalenceTest {
+
+    private static final List<String> GENDERS = List.of("M", "MALE", "F", "FEMALE", "m", "female", "X", "");
+
+    private static RiskRuleEngine engine;
+
+    @BeforeAll
+    static void loadRules() {
+        engine = new RiskRuleEngine(new DefaultResourceLoader(), new ObjectMapper(), "classpath:risk-rules.json", event -> { });
+    }
+
+    @Test
+    void resolve_shouldMatchCascade_forEveryGenderAgeAndTriggerCount() {
+        for (String gender : GENDERS) {
+            for (int age = -2; age <= 120; age++) {
+                for (int triggers = 0; triggers <= 40; triggers++) {
+                    assertSameLevel(gender, age, triggers);
+                }
+            }
+        }
+    }
+
+    @Test
+    void resolve_shouldMatchCascade_forRandomLargeInputs() {
+        Random random = new Random(20240517L);
+        for (int i = 0; i < 100_000; i++) {
+            String gender = GENDERS.get(random.nextInt(GENDERS.size()));
+            int age = random.nextInt(1_000) - 10;
+            int triggers = random.nextInt(Integer.MAX_VALUE);
+            assertSameLevel(gender, age, triggers);
+        }
+    }
+
+    private static void assertSameLevel(String gender, int age, int triggers) {
+        assertEquals(cascade(gender, age, triggers), engine.resolve(Gender.of(gender), age, triggers),
+                () -> "gender=" + gender + ", age=" + age + ", triggers=" + triggers);
+    }
+
+    /**
+     * The rules as they were hard-coded in RiskService before the rule table.
+     */
+    private static RiskLevel cascade(String gender, int age, int triggerCount) {
+        if (triggerCount == 0) {
+            return RiskLevel.NONE;
+        } else if (triggerCount >= 2 && triggerCount <= 5 && age > 30) {
+            return RiskLevel.BORDERLINE;
+        } else if (isInDanger(gender, age, triggerCount)) {
+            return RiskLevel.IN_DANGER;
+        } else if (isEarlyOnset(gender, age, triggerCount)) {
+            return RiskLevel.EARLY_ONSET;
+        } else {
+            return RiskLevel.NONE;
+        }
+    }
+
+    private static boolean isInDanger(String rawGender, int age, int triggerCount) {
+        String gender = rawGender.toUpperCase();
+        if (age > 30) {
+            return triggerCount == 6 || triggerCount == 7;
+        }
+        if ((gender.equals("M") || gender.equals("MALE")) && age < 30) {
+            return triggerCount >= 3 && triggerCount < 5;
+        }
+        if ((gender.equals("F") || gender.equals("FEMALE")) && age < 30) {
+            return triggerCount >= 4 && triggerCount < 7;
+        }
+        return false;
+    }
+
+    private static boolean isEarlyOnset(String rawGender, int age, int triggerCount) {
+        String gender = rawGender.toUpperCase();
+        if ((gender.equals("M") || gender.equals("MALE")) && age < 30 && triggerCount >= 5) {
+            return true;
+        }
+        if ((gender.equals("F") || gender.equals("FEMALE")) && age < 30 && triggerCount >= 7) {
+            return true;
+        }
+        return age > 30 && triggerCount >= 8;
+    }
+}
@@ -0,0 +1,76 @@
+package com.glucovision.diabetesriskservice.rules;
+
+import com.glucovision.diabetesriskservice.model.Gender;
+import com.glucovision.diabetesriskservice.model.RiskLevel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiskRuleTableTest {
+
+    @Test
+    void compile_shouldResolveEachCellToItsRule() {
+        // Given
+        RiskRuleTable table = RiskRuleTable.compile(List.of(
+                rule("young", List.of(), null, 39, null, null, RiskLevel.NONE),
+                rule("old, few", List.of(), 40, null, null, 2, RiskLevel.BORDERLINE),
+                rule("old, many", List.of(), 40, null, 3, null, RiskLevel.EARLY_ONSET)));
+
+        // When / Then
+        assertEquals(RiskLevel.NONE, table.resolve(Gender.MALE, 39, 50));
+        assertEquals(RiskLevel.BORDERLINE, table.resolve(Gender.FEMALE, 40, 2));
+        assertEquals(RiskLevel.EARLY_ONSET, table.resolve(Gender.OTHER, 200, 3));
+        assertEquals(RiskLevel.EARLY_ONSET, table.resolve(Gender.OTHER, 40, Integer.MAX_VALUE));
+        assertEquals(RiskLevel.NONE, table.resolve(Gender.MALE, -5, 0));
+    }
+
+    @Test
+    void compile_shouldReportGaps() {
+        // Given: nobody aged 30 to 39, and no rule for women over 40
+        List<RiskRule> rules = List.of(
+                rule("young", List.of(), null, 29, null, null, RiskLevel.NONE),
+                rule("old men", List.of(Gender.MALE, Gender.OTHER), 40, null, null, null, RiskLevel.BORDERLINE));
+
+        // When
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> RiskRuleTable.compile(rules));
+
+        // Then
+        assertTrue(exception.getMessage().contains("gap for gender=MALE, age 30-39"), exception.getMessage());
+        assertTrue(exception.getMessage().contains("gap for gender=FEMALE, age 40+"), exception.getMessage());
+    }
+
+    @Test
+    void compile_shouldReportOverlaps() {
+        // Given
+        List<RiskRule> rules = List.of(
+                rule("all", List.of(), null, null, null, 5, RiskLevel.NONE),
+                rule("many", List.of(), null, null, 6, null, RiskLevel.IN_DANGER),
+                rule("women with 5", List.of(Gender.FEMALE), null, null, 5, 5, RiskLevel.BORDERLINE));
+
+        // When
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> RiskRuleTable.compile(rules));
+
+        // Then
+        assertTrue(exception.getMessage().contains("overlap for gender=FEMALE, age 0+, triggers 5: [all, women with 5]"),
+                exception.getMessage());
+        assertFalse(exception.getMessage().contains("gender=MALE"));
+    }
+
+    @Test
+    void compile_shouldRejectMalformedRules() {
+        assertThrows(IllegalArgumentException.class, () -> RiskRuleTable.compile(List.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> RiskRuleTable.compile(List.of(rule("no level", List.of(), null, null, null, null, null))));
+        assertThrows(IllegalArgumentException.class,
+                () -> RiskRuleTable.compile(List.of(rule("inverted", List.of(), 50, 40, null, null, RiskLevel.NONE))));
+        assertThrows(IllegalArgumentException.class,
+                () -> RiskRuleTable.compile(List.of(rule("negative", List.of(), null, null, -1, null, RiskLevel.NONE))));
+    }
+
+    private static RiskRule rule(String description, List<Gender> genders, Integer minAge, Integer maxAge,
+                                 Integer minTriggers, Integer maxTriggers, RiskLevel level) {
+        return new RiskRule(description, genders, minAge, maxAge, minTriggers, maxTriggers, level);
+    }
+}
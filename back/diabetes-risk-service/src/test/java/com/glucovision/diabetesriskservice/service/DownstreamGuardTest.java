@@ -0,0 +1,168 @@
+package com.glucovision.diabetesriskservice.service;
+
+import com.glucovision.diabetesriskservice.exception.DownstreamTimeoutException;
+import com.glucovision.diabetesriskservice.exception.DownstreamUnavailableException;
+import com.glucovision.diabetesriskservice.util.AbstractWireMockTest;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import feign.FeignException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fault injection on the Patient Service with WireMock: slow answers, errors and saturation.
+ */
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "resilience4j.timelimiter.instances.patient-service.timeout-duration=300ms",
+        "resilience4j.circuitbreaker.instances.patient-service.sliding-window-size=4",
+        "resilience4j.circuitbreaker.instances.patient-service.minimum-number-of-calls=4",
+        "resilience4j.circuitbreaker.instances.patient-service.wait-duration-in-open-state=1m",
+        "resilience4j.bulkhead.instances.patient-service.max-concurrent-calls=2",
+        "resilience4j.bulkhead.instances.patient-service.max-wait-duration=0"
+})
+class DownstreamGuardTest extends AbstractWireMockTest {
+
+    private static final String PATIENT_ID = "8e1f3b34-5c7e-4c17-9df6-bc6dd40efc62";
+    private static final String PATIENT_URL = "/api/patients/" + PATIENT_ID;
+
+    @Autowired
+    private PatientDataService patientDataService;
+
+    @Autowired
+    private DownstreamGuard downstreamGuard;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakers;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    static void useWireMockForAuth() {
+        System.setProperty("auth-service.url", wireMockServer.baseUrl());
+    }
+
+    @BeforeEach
+    void resetServices() {
+        wireMockServer.resetAll();
+        wireMockServer.stubFor(post(urlEqualTo("/internal-auth/internal-token"))
+                .willReturn(aResponse().withHeader("Content-Type", "text/plain").withBody("token")));
+        circuitBreakers.circuitBreaker(DownstreamGuard.PATIENT_SERVICE).reset();
+    }
+
+    @Test
+    void slowService_shouldTimeOut_withoutWaitingForTheAnswer() {
+        // Arrange
+        wireMockServer.stubFor(get(urlEqualTo(PATIENT_URL)).willReturn(patient().withFixedDelay(2000)));
+
+        // Act
+        long start = System.nanoTime();
+        DownstreamTimeoutException exception = assertThrows(DownstreamTimeoutException.class,
+                () -> patientDataService.getPatient(PATIENT_ID));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertTrue(elapsedMs < 1500, "Waited " + elapsedMs + " ms");
+        assertEquals("patient-service did not answer within 300 ms", exception.getMessage());
+    }
+
+    @Test
+    void abandonedCall_shouldBeInterrupted() throws Exception {
+        // Arrange
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        // Act
+        assertThrows(DownstreamTimeoutException.class, () -> downstreamGuard.call(DownstreamGuard.PATIENT_SERVICE, () -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        }));
+
+        // Assert
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS), "The abandoned call kept running");
+    }
+
+    @Test
+    void failingService_shouldOpenCircuit_andRejectCallsWithoutSendingThem() throws Exception {
+        // Arrange
+        wireMockServer.stubFor(get(urlEqualTo(PATIENT_URL)).willReturn(aResponse().withStatus(500)));
+        for (int i = 0; i < 4; i++) {
+            assertThrows(FeignException.InternalServerError.class, () -> patientDataService.getPatient(PATIENT_ID));
+        }
+        wireMockServer.resetRequests();
+
+        // Act
+        assertThrows(DownstreamUnavailableException.class, () -> patientDataService.getPatient(PATIENT_ID));
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakers.circuitBreaker(DownstreamGuard.PATIENT_SERVICE).getState());
+        wireMockServer.verify(0, getRequestedFor(urlEqualTo(PATIENT_URL)));
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/circuitbreakers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.circuitBreakers['patient-service'].state").value("OPEN"));
+    }
+
+    @Test
+    void clientErrors_shouldNotOpenCircuit() {
+        // Arrange
+        wireMockServer.stubFor(get(urlEqualTo(PATIENT_URL)).willReturn(aResponse().withStatus(404)));
+
+        // Act
+        for (int i = 0; i < 6; i++) {
+            assertThrows(FeignException.NotFound.class, () -> patientDataService.getPatient(PATIENT_ID));
+        }
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreakers.circuitBreaker(DownstreamGuard.PATIENT_SERVICE).getState());
+    }
+
+    @Test
+    void saturatedService_shouldRejectCallsBeyondTheBulkhead() throws Exception {
+        // Arrange
+        wireMockServer.stubFor(get(urlEqualTo(PATIENT_URL)).willReturn(patient().withFixedDelay(250)));
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Act
+            CompletableFuture<?> first = CompletableFuture.runAsync(() -> patientDataService.getPatient(PATIENT_ID), callers);
+            CompletableFuture<?> second = CompletableFuture.runAsync(() -> patientDataService.getPatient(PATIENT_ID), callers);
+            Thread.sleep(100);
+
+            // Assert
+            DownstreamUnavailableException exception = assertThrows(DownstreamUnavailableException.class,
+                    () -> patientDataService.getPatient(PATIENT_ID));
+            assertEquals("patient-service is saturated, too many calls are running", exception.getMessage());
+            first.get();
+            second.get();
+        }
+    }
+
+    private static ResponseDefinitionBuilder patient() {
+        return aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"uid\":\"" + PATIENT_ID + "\",\"birthDate\":\"1980-04-23\",\"gender\":\"MALE\"}");
+    }
+}
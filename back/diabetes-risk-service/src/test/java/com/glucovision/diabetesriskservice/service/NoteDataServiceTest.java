@@ -2,16 +2,22 @@ package com.glucovision.diabetesriskservice.service;
 
 import com.glucovision.diabetesriskservice.client.NoteClient;
 import com.glucovision.diabetesriskservice.dto.NoteDto;
+import com.glucovision.diabetesriskservice.dto.TriggerSummaryDto;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,6 +28,10 @@ class NoteDataServiceTest {
     @Mock
     private NoteClient noteClient;
 
+    @Spy
+    private DownstreamGuard downstreamGuard = new DownstreamGuard(CircuitBreakerRegistry.ofDefaults(),
+            BulkheadRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults());
+
     @InjectMocks
     private NoteDataService noteDataService;
 
@@ -135,4 +145,56 @@ class NoteDataServiceTest {
         assertEquals("L'ID du patient ne peut pas être null ou vide", exception.getMessage());
         verifyNoInteractions(noteClient);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getNotesByPatientIds_shouldDelegateToClientInOneCall() {
+        // Arrange
+        Map<String, List<NoteDto>> expected = Map.of("1", List.of(NOTE_1), "2", List.of(NOTE_2));
+        when(noteClient.getNotesByPatientIds(List.of("1", "2"))).thenReturn(expected);
+
+        // Act
+        Map<String, List<NoteDto>> result = noteDataService.getNotesByPatientIds(List.of("1", "2"));
+
+        // Assert
+        assertEquals(expected, result);
+        verify(noteClient, times(1)).getNotesByPatientIds(List.of("1", "2"));
+    }
+
+    @Test
+    void getTriggerSummary_shouldReturnSummaryFromClient() {
+        // Arrange
+        TriggerSummaryDto summary = new TriggerSummaryDto(PATIENT_ID, 2, 3, List.of("POIDS", "FUMEUR"), "v1");
+        when(noteClient.getTriggerSummary(PATIENT_ID)).thenReturn(summary);
+
+        // Act
+        TriggerSummaryDto result = noteDataService.getTriggerSummary(PATIENT_ID);
+
+        // Assert
+        assertEquals(summary, result);
+        verify(noteClient, never()).getNoteListe(anyString());
+    }
+
+    @Test
+    void getTriggerSummary_shouldThrowException_whenIdIsBlank() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> noteDataService.getTriggerSummary(" "));
+        verifyNoInteractions(noteClient);
+    }
+
+    @Test
+    void getTriggerSummaries_shouldReturnSummariesFromSingleClientCall() {
+        // Arrange
+        List<String> ids = List.of("1", "2");
+        Map<String, TriggerSummaryDto> summaries = Map.of(
+                "1", new TriggerSummaryDto("1", 1, 1, List.of("TAILLE"), "v1"),
+                "2", new TriggerSummaryDto("2", 0, 0, List.of(), "v1"));
+        when(noteClient.getTriggerSummaries(ids)).thenReturn(summaries);
+
+        // Act
+        Map<String, TriggerSummaryDto> result = noteDataService.getTriggerSummaries(ids);
+
+        // Assert
+        assertEquals(summaries, result);
+        verify(noteClient, times(1)).getTriggerSummaries(ids);
+    }
+}
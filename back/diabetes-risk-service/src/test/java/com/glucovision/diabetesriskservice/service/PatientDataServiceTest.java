@@ -1,14 +1,21 @@
 package com.glucovision.diabetesriskservice.service;
 
 import com.glucovision.diabetesriskservice.client.PatientClient;
+import com.glucovision.diabetesriskservice.dto.PatientBatchDto;
 import com.glucovision.diabetesriskservice.dto.PatientDto;
+import com.glucovision.diabetesriskservice.dto.PatientScrollDto;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -19,6 +26,10 @@ class PatientDataServiceTest {
     @Mock
     private PatientClient patientClient;
 
+    @Spy
+    private DownstreamGuard downstreamGuard = new DownstreamGuard(CircuitBreakerRegistry.ofDefaults(),
+            BulkheadRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults());
+
     @InjectMocks
     private PatientDataService patientDataService;
 
@@ -112,4 +123,31 @@ class PatientDataServiceTest {
         assertNull(result);
         verify(patientClient).getPatientById(VALID_ID);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getPatients_shouldDelegateToClientInOneCall() {
+        // Arrange
+        PatientBatchDto expected = new PatientBatchDto(List.of(SAMPLE_PATIENT), List.of("unknown"));
+        when(patientClient.getPatientsByIds(PatientClient.RISK_FIELDS, List.of(VALID_ID, "unknown"))).thenReturn(expected);
+
+        // Act
+        PatientBatchDto result = patientDataService.getPatients(List.of(VALID_ID, "unknown"));
+
+        // Assert
+        assertEquals(expected, result);
+        verify(patientClient, times(1)).getPatientsByIds(PatientClient.RISK_FIELDS, List.of(VALID_ID, "unknown"));
+    }
+
+    @Test
+    void scrollActivePatients_shouldDelegateToClient() {
+        // Arrange
+        PatientScrollDto expected = new PatientScrollDto(List.of(SAMPLE_PATIENT), "next-token");
+        when(patientClient.scrollActivePatients("token", 100)).thenReturn(expected);
+
+        // Act
+        PatientScrollDto result = patientDataService.scrollActivePatients("token", 100);
+
+        // Assert
+        assertEquals(expected, result);
+    }
+}
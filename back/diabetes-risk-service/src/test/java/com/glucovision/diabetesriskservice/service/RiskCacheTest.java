@@ -0,0 +1,239 @@
+package com.glucovision.diabetesriskservice.service;
+
+import com.glucovision.diabetesriskservice.dto.RiskInvalidationEvent;
+import com.glucovision.diabetesriskservice.model.RiskLevel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiskCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+    private MutableClock clock;
+    private SimpleMeterRegistry meterRegistry;
+    private RiskCache riskCache;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(TODAY.atTime(12, 0).toInstant(ZoneOffset.UTC));
+        meterRegistry = new SimpleMeterRegistry();
+        riskCache = new RiskCache(Duration.ofMinutes(10), 3, meterRegistry, clock);
+    }
+
+    @Test
+    void get_shouldReturnCachedLevel_untilTtlExpires() {
+        // Given
+        riskCache.put("1", riskCache.ticket(), RiskLevel.BORDERLINE, LocalDate.of(1980, 1, 1));
+
+        // When / Then
+        assertEquals(Optional.of(RiskLevel.BORDERLINE), riskCache.get("1"));
+        clock.advance(Duration.ofMinutes(10));
+        assertEquals(Optional.empty(), riskCache.get("1"));
+        assertEquals(1.0, meterRegistry.counter("risk.cache", "result", "hit").count());
+        assertEquals(1.0, meterRegistry.counter("risk.cache", "result", "miss").count());
+    }
+
+    @Test
+    void invalidate_shouldDropEntryAndBumpTicket() {
+        // Given
+        long ticket = riskCache.ticket();
+        riskCache.put("1", ticket, RiskLevel.IN_DANGER, null);
+
+        // When
+        riskCache.invalidate("1");
+
+        // Then
+        assertEquals(Optional.empty(), riskCache.get("1"));
+        assertEquals(ticket + 1, riskCache.ticket());
+        assertEquals(1.0, meterRegistry.counter("risk.cache.invalidations").count());
+    }
+
+    @Test
+    void put_shouldBeIgnored_whenPatientWasInvalidatedSinceTicketWasTaken() {
+        // Given
+        long ticket = riskCache.ticket();
+        riskCache.invalidate("1");
+
+        // When
+        riskCache.put("1", ticket, RiskLevel.NONE, null);
+
+        // Then
+        assertEquals(0, riskCache.size());
+        assertEquals(Optional.empty(), riskCache.get("1"));
+    }
+
+    @Test
+    void put_shouldBeStored_whenOnlyOtherPatientsWereInvalidatedSinceTicketWasTaken() {
+        // Given
+        long ticket = riskCache.ticket();
+        riskCache.invalidate("2");
+        riskCache.invalidate("3");
+
+        // When
+        riskCache.put("1", ticket, RiskLevel.BORDERLINE, null);
+
+        // Then
+        assertEquals(Optional.of(RiskLevel.BORDERLINE), riskCache.get("1"));
+    }
+
+    @Test
+    void put_shouldBeIgnored_whenTooManyPatientsWereInvalidatedToTrackThemAll() {
+        // Given: more invalidated patients than the cache size, so that their stamps are replaced by a floor
+        long ticket = riskCache.ticket();
+        for (int i = 0; i < 4; i++) {
+            riskCache.invalidate("other-" + i);
+        }
+
+        // When
+        riskCache.put("1", ticket, RiskLevel.NONE, null);
+        riskCache.put("2", riskCache.ticket(), RiskLevel.NONE, null);
+
+        // Then
+        assertEquals(Optional.empty(), riskCache.get("1"));
+        assertEquals(Optional.of(RiskLevel.NONE), riskCache.get("2"));
+    }
+
+    @Test
+    void invalidate_shouldKeepOtherPatientsCached_andNotRememberInvalidatedOnes() {
+        // Given
+        riskCache.put("1", riskCache.ticket(), RiskLevel.BORDERLINE, null);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            riskCache.invalidate("other-" + i);
+        }
+
+        // Then
+        assertEquals(Optional.of(RiskLevel.BORDERLINE), riskCache.get("1"));
+        assertEquals(1, riskCache.size());
+        riskCache.put("2", riskCache.ticket(), RiskLevel.NONE, null);
+        assertEquals(Optional.of(RiskLevel.NONE), riskCache.get("2"));
+    }
+
+    @Test
+    void put_shouldExpireEntryAtNextBirthday_whenBeforeTtl() {
+        // Given: the patient turns 30 tomorrow, a threshold of the risk rules
+        riskCache = new RiskCache(Duration.ofDays(7), 3, meterRegistry, clock);
+        riskCache.put("1", riskCache.ticket(), RiskLevel.NONE, LocalDate.of(1995, 6, 16));
+
+        // When / Then
+        clock.advance(Duration.ofHours(11).plusMinutes(59));
+        assertEquals(Optional.of(RiskLevel.NONE), riskCache.get("1"));
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(Optional.empty(), riskCache.get("1"));
+    }
+
+    @Test
+    void nextBirthday_shouldHandleLeapDayBirthdays() {
+        assertEquals(LocalDate.of(2025, 3, 1), RiskCache.nextBirthday(LocalDate.of(2000, 2, 29), LocalDate.of(2025, 2, 28)));
+        assertEquals(LocalDate.of(2028, 2, 29), RiskCache.nextBirthday(LocalDate.of(2000, 2, 29), LocalDate.of(2027, 3, 1)));
+        assertEquals(LocalDate.of(2026, 6, 15), RiskCache.nextBirthday(LocalDate.of(1990, 6, 15), TODAY));
+    }
+
+    @Test
+    void onInvalidation_shouldInvalidateEventPatient() {
+        // Given
+        riskCache.put("1", riskCache.ticket(), RiskLevel.EARLY_ONSET, null);
+
+        // When
+        riskCache.onInvalidation(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.PATIENT_CHANGED, "1"));
+
+        // Then
+        assertEquals(Optional.empty(), riskCache.get("1"));
+    }
+
+    @Test
+    void onInvalidation_shouldClearCache_whenEventsWereDropped() {
+        // Given
+        riskCache.put("1", riskCache.ticket(), RiskLevel.EARLY_ONSET, null);
+        riskCache.put("2", riskCache.ticket(), RiskLevel.NONE, null);
+
+        // When
+        riskCache.onInvalidation(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.EVENTS_DROPPED, null));
+
+        // Then
+        assertEquals(0, riskCache.size());
+    }
+
+    @Test
+    void onRulesReloaded_shouldClearCache_andRejectRunningEvaluations() {
+        // Given
+        long ticket = riskCache.ticket();
+        riskCache.put("1", ticket, RiskLevel.EARLY_ONSET, null);
+
+        // When
+        riskCache.onRulesReloaded();
+
+        // Then
+        assertEquals(0, riskCache.size());
+        riskCache.put("2", ticket, RiskLevel.NONE, null);
+        assertEquals(Optional.empty(), riskCache.get("2"));
+    }
+
+    @Test
+    void put_shouldEvictEntries_whenCacheIsFull() {
+        // Given
+        riskCache.put("1", 0, RiskLevel.NONE, null);
+        riskCache.put("2", 0, RiskLevel.NONE, null);
+        riskCache.put("3", 0, RiskLevel.NONE, null);
+
+        // When
+        riskCache.put("4", 0, RiskLevel.NONE, null);
+
+        // Then
+        assertTrue(riskCache.size() <= 3);
+        assertEquals(Optional.of(RiskLevel.NONE), riskCache.get("4"));
+    }
+
+    @Test
+    void cache_shouldBeDisabled_whenTtlIsZero() {
+        // Given
+        riskCache = new RiskCache(Duration.ZERO, 3, meterRegistry, clock);
+
+        // When
+        riskCache.put("1", 0, RiskLevel.NONE, null);
+
+        // Then
+        assertFalse(riskCache.isEnabled());
+        assertEquals(Optional.empty(), riskCache.get("1"));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package com.glucovision.diabetesriskservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glucovision.diabetesriskservice.dto.PatientDto;
+import com.glucovision.diabetesriskservice.dto.PatientScrollDto;
+import com.glucovision.diabetesriskservice.dto.RiskBatchDto;
+import com.glucovision.diabetesriskservice.dto.RiskScanRecord;
+import com.glucovision.diabetesriskservice.dto.RiskScanStatus;
+import com.glucovision.diabetesriskservice.model.AgeBand;
+import com.glucovision.diabetesriskservice.model.Gender;
+import com.glucovision.diabetesriskservice.model.RiskLevel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RiskScanJobTest {
+
+    private static final int PAGE_SIZE = 2;
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PatientDataService patientDataService;
+    private RiskService riskService;
+    private RiskStats riskStats;
+    private Path output;
+
+    /** Pages of the fake patient listing, keyed by their 'after' token ("" for the first page). */
+    private final Map<String, PatientScrollDto> pages = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        patientDataService = mock(PatientDataService.class);
+        riskService = mock(RiskService.class);
+        riskStats = new RiskStats(new SimpleMeterRegistry());
+        output = tempDir.resolve("scan.ndjson");
+
+        when(patientDataService.scrollActivePatients(any(), eq(PAGE_SIZE)))
+                .thenAnswer(invocation -> {
+                    String after = invocation.getArgument(0);
+                    return pages.get(after == null ? "" : after);
+                });
+        when(riskService.evaluatePatients(anyList())).thenAnswer(invocation -> evaluate(invocation.getArgument(0)));
+    }
+
+    @Test
+    void run_shouldWriteEveryActivePatientInOrder_andDeleteCheckpoint() throws IOException {
+        // Given
+        givenPatients(5);
+
+        // When
+        RiskScanStatus status = job(2, 2).run(output);
+
+        // Then
+        assertEquals(RiskScanStatus.State.COMPLETED, status.getState());
+        assertEquals(5, status.getPatients());
+        assertEquals(3, status.getPages());
+        assertEquals(1, status.getErrors());
+        assertEquals(List.of("p0", "p1", "p2", "p3", "p4"), readPatientIds());
+        assertEquals("Patient without birth date", readRecords().get(3).getError());
+        assertEquals(AgeBand.FROM_40_TO_49, readRecords().get(0).getAgeBand());
+        assertEquals(Gender.MALE, readRecords().get(0).getGender());
+        assertFalse(Files.exists(checkpoint()));
+    }
+
+    @Test
+    void run_shouldKeepCheckpoint_whenScanFails_andResumeWithoutDuplicates() throws IOException {
+        // Given
+        givenPatients(6);
+        when(riskService.evaluatePatients(anyList()))
+                .thenAnswer(invocation -> evaluate(invocation.getArgument(0)))
+                .thenThrow(new IllegalStateException("Note service unavailable"));
+
+        // When
+        RiskScanStatus failed = job(1, 1).run(output);
+
+        // Then
+        assertEquals(RiskScanStatus.State.FAILED, failed.getState());
+        assertEquals("Note service unavailable", failed.getFailure());
+        assertTrue(Files.exists(checkpoint()));
+        assertEquals(List.of("p0", "p1"), readPatientIds());
+
+        // When
+        doAnswer(invocation -> evaluate(invocation.getArgument(0))).when(riskService).evaluatePatients(anyList());
+        RiskScanStatus resumed = job(1, 1).run(output);
+
+        // Then
+        assertEquals(RiskScanStatus.State.COMPLETED, resumed.getState());
+        assertTrue(resumed.isResumed());
+        assertEquals(6, resumed.getPatients());
+        assertEquals(List.of("p0", "p1", "p2", "p3", "p4", "p5"), readPatientIds());
+        verify(patientDataService, times(1)).scrollActivePatients(null, PAGE_SIZE);
+        assertFalse(Files.exists(checkpoint()));
+    }
+
+    @Test
+    void run_shouldTruncateLinesWrittenAfterCheckpoint_whenResuming() throws IOException {
+        // Given: a first page was checkpointed, then a partial line was written before a crash
+        givenPatients(4);
+        Files.writeString(output, "{\"patientId\":\"p0\",\"riskLevel\":\"NONE\"}\n{\"patientId\":\"p1\",\"riskLevel\":\"NONE\"}\n{\"patientId\":\"p2\"");
+        long offset = "{\"patientId\":\"p0\",\"riskLevel\":\"NONE\"}\n{\"patientId\":\"p1\",\"riskLevel\":\"NONE\"}\n".length();
+        Files.write(checkpoint(), objectMapper.writeValueAsBytes(new RiskScanJob.Checkpoint("p1", offset, 1, 2, 0)));
+
+        // When
+        RiskScanStatus status = job(1, 1).run(output);
+
+        // Then
+        assertEquals(List.of("p0", "p1", "p2", "p3"), readPatientIds());
+        assertEquals(4, status.getPatients());
+        verify(patientDataService, never()).scrollActivePatients(isNull(), anyInt());
+    }
+
+    @Test
+    void run_shouldStopReadingPages_whileTooManyPagesArePending() throws Exception {
+        // Given
+        givenPatients(20);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger evaluations = new AtomicInteger();
+        when(riskService.evaluatePatients(anyList())).thenAnswer(invocation -> {
+            evaluations.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return evaluate(invocation.getArgument(0));
+        });
+        RiskScanJob job = job(2, 3);
+
+        // When
+        Thread scan = new Thread(() -> job.run(output));
+        scan.start();
+        Thread.sleep(300);
+
+        // Then
+        verify(patientDataService, times(3)).scrollActivePatients(any(), eq(PAGE_SIZE));
+        assertEquals(2, evaluations.get());
+        assertEquals(RiskScanStatus.State.RUNNING, job.status().getState());
+
+        release.countDown();
+        scan.join(5000);
+        assertEquals(RiskScanStatus.State.COMPLETED, job.status().getState());
+        assertEquals(20, readPatientIds().size());
+    }
+
+    @Test
+    void run_shouldRejectConcurrentScan() throws Exception {
+        // Given
+        givenPatients(2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(riskService.evaluatePatients(anyList())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return evaluate(invocation.getArgument(0));
+        });
+        RiskScanJob job = job(1, 1);
+
+        // When
+        assertTrue(job.start());
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Then
+        assertFalse(job.start());
+        assertThrows(IllegalStateException.class, () -> job.run(output));
+        release.countDown();
+        for (int i = 0; i < 50 && job.status().getState() == RiskScanStatus.State.RUNNING; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(RiskScanStatus.State.COMPLETED, job.status().getState());
+    }
+
+    @Test
+    void run_shouldDropPatientsNotSeen_fromRiskStats_onceCompleted() throws IOException {
+        // Given: p9 was deactivated without notification, p8 is evaluated while the scan runs
+        givenPatients(2);
+        riskStats.record("p9", new PatientDto("p9", LocalDate.now().minusYears(45), "M"), RiskLevel.NONE);
+        when(riskService.evaluatePatients(anyList())).thenAnswer(invocation -> {
+            riskStats.record("p8", new PatientDto("p8", LocalDate.now().minusYears(45), "M"), RiskLevel.NONE);
+            List<PatientDto> patients = invocation.getArgument(0);
+            patients.forEach(patient -> riskStats.record(patient.getId(), patient, RiskLevel.NONE));
+            return evaluate(patients);
+        });
+
+        // When
+        RiskScanStatus status = job(1, 1).run(output);
+
+        // Then
+        assertEquals(RiskScanStatus.State.COMPLETED, status.getState());
+        assertEquals(3, riskStats.size());
+        List.of("p0", "p1", "p8").forEach(riskStats::remove);
+        assertEquals(0, riskStats.size());
+    }
+
+    @Test
+    void run_shouldKeepPatientsWrittenBeforeResume_andThoseItCouldNotEvaluate() throws IOException {
+        // Given: p0 and p1 were written before a restart; p3 cannot be evaluated but had a level; p9 is gone
+        givenPatients(4);
+        String written = "{\"patientId\":\"p0\",\"riskLevel\":\"NONE\",\"ageBand\":\"40-49\",\"gender\":\"MALE\"}\n"
+                + "{\"patientId\":\"p1\",\"riskLevel\":\"BORDERLINE\",\"ageBand\":\"40-49\",\"gender\":\"MALE\"}\n";
+        Files.writeString(output, written);
+        Files.write(checkpoint(), objectMapper.writeValueAsBytes(new RiskScanJob.Checkpoint("p1", written.length(), 1, 2, 0)));
+        riskStats.record("p3", new PatientDto("p3", LocalDate.now().minusYears(45), "M"), RiskLevel.IN_DANGER);
+        riskStats.record("p9", new PatientDto("p9", LocalDate.now().minusYears(45), "M"), RiskLevel.NONE);
+        when(riskService.evaluatePatients(anyList())).thenAnswer(invocation -> {
+            List<PatientDto> patients = invocation.getArgument(0);
+            patients.forEach(patient -> riskStats.record(patient.getId(), patient, RiskLevel.NONE));
+            return evaluate(patients);
+        });
+
+        // When
+        RiskScanStatus status = job(1, 1).run(output);
+
+        // Then: p0 and p1 from the output, p2 evaluated, p3 with its previous level
+        assertEquals(RiskScanStatus.State.COMPLETED, status.getState());
+        Map<RiskLevel, Long> counts = riskStats.stats(List.of()).getGroups().get(0).getCounts();
+        assertEquals(4, riskStats.size());
+        assertEquals(2L, counts.get(RiskLevel.NONE));
+        assertEquals(1L, counts.get(RiskLevel.BORDERLINE));
+        assertEquals(1L, counts.get(RiskLevel.IN_DANGER));
+    }
+
+    @Test
+    void requestScan_shouldStartAnotherScan_afterTheRunningOne() throws Exception {
+        // Given
+        givenPatients(2);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger scans = new AtomicInteger();
+        when(riskService.evaluatePatients(anyList())).thenAnswer(invocation -> {
+            scans.incrementAndGet();
+            release.await(5, TimeUnit.SECONDS);
+            return evaluate(invocation.getArgument(0));
+        });
+        RiskScanJob job = job(1, 1);
+        assertTrue(job.start());
+
+        // When
+        job.requestScan();
+        job.requestScan();
+        release.countDown();
+
+        // Then
+        verify(riskService, timeout(5000).times(2)).evaluatePatients(anyList());
+        for (int i = 0; i < 50 && job.status().getState() == RiskScanStatus.State.RUNNING; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(2, scans.get());
+        assertEquals(RiskScanStatus.State.COMPLETED, job.status().getState());
+    }
+
+    @Test
+    void nextOutput_shouldResumeLatestInterruptedScan_andDeleteOlderOnes() throws IOException {
+        // Given: the scans of the 1st and 2nd were interrupted, the one of the 3rd is not started yet
+        Path first = givenInterruptedScan("2025-03-01");
+        Path second = givenInterruptedScan("2025-03-02");
+        RiskScanJob job = job(Clock.fixed(Instant.parse("2025-03-03T01:00:00Z"), ZoneOffset.UTC));
+
+        // When
+        Path next = job.nextOutput();
+
+        // Then
+        assertEquals(second, next);
+        assertTrue(Files.exists(checkpointOf(second)));
+        assertFalse(Files.exists(first));
+        assertFalse(Files.exists(checkpointOf(first)));
+    }
+
+    @Test
+    void nextOutput_shouldUseNewFile_whenNoScanWasInterrupted() throws IOException {
+        // Given: yesterday's scan and a first scan of today completed
+        Files.writeString(tempDir.resolve("risk-scan-2025-03-02.ndjson"), "");
+        Files.writeString(tempDir.resolve("risk-scan-2025-03-03T010000.ndjson"), "");
+        RiskScanJob job = job(Clock.fixed(Instant.parse("2025-03-03T01:00:00Z"), ZoneOffset.UTC));
+
+        // When
+        Path next = job.nextOutput();
+
+        // Then
+        assertEquals(tempDir.resolve("risk-scan-2025-03-03T010001.ndjson"), next);
+        assertEquals(Optional.of(tempDir.resolve("risk-scan-2025-03-03T010000.ndjson")), job.latestCompletedScan());
+    }
+
+    @Test
+    void run_shouldRetireEarlierScansOfTheDay_onlyOnceCompleted() throws IOException {
+        // Given
+        givenPatients(2);
+        Path yesterday = tempDir.resolve("risk-scan-2025-03-02.ndjson");
+        Path earlier = tempDir.resolve("risk-scan-2025-03-03.ndjson");
+        Files.writeString(yesterday, "{\"patientId\":\"p0\",\"riskLevel\":\"NONE\"}\n");
+        Files.writeString(earlier, "{\"patientId\":\"p0\",\"riskLevel\":\"NONE\"}\n");
+        RiskScanJob job = job(Clock.fixed(Instant.parse("2025-03-03T14:00:00Z"), ZoneOffset.UTC));
+        Path next = job.nextOutput();
+
+        // When
+        RiskScanStatus status = job.run(next);
+
+        // Then
+        assertEquals(RiskScanStatus.State.COMPLETED, status.getState());
+        assertFalse(Files.exists(earlier));
+        assertTrue(Files.exists(yesterday));
+        assertEquals(Optional.of(next), job.latestCompletedScan());
+    }
+
+    @Test
+    void run_shouldKeepLatestCompletedScan_whenNewScanFailsBeforeItsFirstPage() throws IOException {
+        // Given
+        givenPatients(2);
+        Path earlier = tempDir.resolve("risk-scan-2025-03-03.ndjson");
+        Files.writeString(earlier, "{\"patientId\":\"p0\",\"riskLevel\":\"NONE\"}\n");
+        when(riskService.evaluatePatients(anyList())).thenThrow(new IllegalStateException("Note service unavailable"));
+        RiskScanJob job = job(Clock.fixed(Instant.parse("2025-03-03T14:00:00Z"), ZoneOffset.UTC));
+        Path next = job.nextOutput();
+
+        // When
+        RiskScanStatus status = job.run(next);
+
+        // Then
+        assertEquals(RiskScanStatus.State.FAILED, status.getState());
+        assertFalse(Files.exists(next));
+        assertEquals(Optional.of(earlier), job.latestCompletedScan());
+        assertTrue(Files.size(earlier) > 0);
+    }
+
+    private Path givenInterruptedScan(String day) throws IOException {
+        Path file = tempDir.resolve("risk-scan-" + day + ".ndjson");
+        Files.writeString(file, "{\"patientId\":\"p0\",\"riskLevel\":\"NONE\"}\n");
+        Files.write(checkpointOf(file), objectMapper.writeValueAsBytes(new RiskScanJob.Checkpoint("p0", 0, 1, 1, 0)));
+        return file;
+    }
+
+    private RiskScanJob job(Clock clock) {
+        return new RiskScanJob(patientDataService, riskService, riskStats, objectMapper, new SimpleMeterRegistry(),
+                tempDir, PAGE_SIZE, 1, 1, clock);
+    }
+
+    private RiskScanJob job(int parallelism, int maxPendingPages) {
+        return new RiskScanJob(patientDataService, riskService, riskStats, objectMapper, new SimpleMeterRegistry(),
+                tempDir, PAGE_SIZE, parallelism, maxPendingPages, Clock.systemUTC());
+    }
+
+    /**
+     * Builds the active patients p0..p(count-1), in pages of {@link #PAGE_SIZE}; p3 has no birth date.
+     */
+    private void givenPatients(int count) {
+        String after = "";
+        for (int start = 0; start < count; start += PAGE_SIZE) {
+            List<PatientDto> patients = new ArrayList<>();
+            for (int i = start; i < Math.min(start + PAGE_SIZE, count); i++) {
+                patients.add(new PatientDto("p" + i, i == 3 ? null : LocalDate.now().minusYears(45), "M"));
+            }
+            String next = start + PAGE_SIZE < count ? patients.get(patients.size() - 1).getId() : null;
+            pages.put(after, new PatientScrollDto(patients, next));
+            after = next;
+        }
+    }
+
+    private RiskBatchDto evaluate(List<PatientDto> patients) {
+        RiskBatchDto result = new RiskBatchDto();
+        for (PatientDto patient : patients) {
+            if (patient.getBirthDate() == null) {
+                result.getErrors().put(patient.getId(), "Patient without birth date");
+            } else {
+                result.getRiskLevels().put(patient.getId(), RiskLevel.NONE);
+            }
+        }
+        return result;
+    }
+
+    private Path checkpoint() {
+        return checkpointOf(output);
+    }
+
+    private static Path checkpointOf(Path file) {
+        return file.resolveSibling(file.getFileName() + ".checkpoint");
+    }
+
+    private List<RiskScanRecord> readRecords() throws IOException {
+        List<RiskScanRecord> records = new ArrayList<>();
+        for (String line : Files.readAllLines(output)) {
+            records.add(objectMapper.readValue(line, RiskScanRecord.class));
+        }
+        return records;
+    }
+
+    private List<String> readPatientIds() throws IOException {
+        return readRecords().stream().map(RiskScanRecord::getPatientId).toList();
+    }
+}
@@ -0,0 +1,98 @@
+package com.glucovision.diabetesriskservice.service;
+
+import com.glucovision.diabetesriskservice.model.RiskLevel;
+import com.glucovision.diabetesriskservice.trigger.TriggerDictionary;
+import com.glucovision.diabetesriskservice.util.AbstractWireMockTest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the latency of {@link RiskService#evaluateRiskLevel(String)} with sequential and concurrent
+ * fetches, against downstream services stubbed with a fixed delay.
+ */
+@Slf4j
+@ActiveProfiles("test")
+@SpringBootTest(properties = {"risk.fetch.concurrent=false", "risk.fetch.timeout-ms=2000", "risk.cache.ttl=0"})
+class RiskServiceLatencyTest extends AbstractWireMockTest {
+
+    private static final int DOWNSTREAM_DELAY_MS = 300;
+    private static final String PATIENT_ID = "8e1f3b34-5c7e-4c17-9df6-bc6dd40efc62";
+
+    @Autowired
+    private RiskService riskService;
+
+    @Autowired
+    private TriggerDictionary triggerDictionary;
+
+    @BeforeAll
+    static void useWireMockForAuth() {
+        System.setProperty("auth-service.url", wireMockServer.baseUrl());
+    }
+
+    @BeforeEach
+    void stubDownstreamServices() {
+        wireMockServer.resetAll();
+        wireMockServer.stubFor(post(urlEqualTo("/internal-auth/internal-token"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "text/plain")
+                        .withBody("internal-token")));
+        wireMockServer.stubFor(get(urlEqualTo("/api/patients/" + PATIENT_ID))
+                .willReturn(aResponse()
+                        .withFixedDelay(DOWNSTREAM_DELAY_MS)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"uid\":\"" + PATIENT_ID + "\",\"birthDate\":\"1980-04-23\",\"gender\":\"MALE\"}")));
+        wireMockServer.stubFor(get(urlEqualTo("/api/notes/patient/" + PATIENT_ID))
+                .willReturn(aResponse()
+                        .withFixedDelay(DOWNSTREAM_DELAY_MS)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"patientId\":\"" + PATIENT_ID + "\",\"comments\":\"Fumeur, cholestérol élevé\"}]")));
+        wireMockServer.stubFor(get(urlEqualTo("/api/notes/patient/" + PATIENT_ID + "/trigger-summary"))
+                .willReturn(aResponse()
+                        .withFixedDelay(DOWNSTREAM_DELAY_MS)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"patientId\":\"" + PATIENT_ID + "\",\"noteCount\":1,\"triggerCount\":2,"
+                                + "\"matchedTerms\":[\"FUMEUR\",\"CHOLESTÉROL\"],"
+                                + "\"dictionaryVersion\":\"" + triggerDictionary.version() + "\"}")));
+    }
+
+    @Test
+    void evaluateRiskLevel_shouldOverlapDownstreamCalls_whenConcurrentFetchEnabled() {
+        // Arrange
+        long sequential = bestOfThree(false);
+        long concurrent = bestOfThree(true);
+
+        // Assert
+        log.info("[RISK LATENCY] evaluateRiskLevel: sequential={} ms, concurrent={} ms", sequential, concurrent);
+        assertTrue(sequential >= 2L * DOWNSTREAM_DELAY_MS,
+                "Sequential mode should wait for both calls in turn, took " + sequential + " ms");
+        assertTrue(concurrent < 2L * DOWNSTREAM_DELAY_MS,
+                "Concurrent mode should overlap both calls, took " + concurrent + " ms");
+        assertTrue(concurrent < sequential,
+                "Concurrent mode should be faster, took " + concurrent + " ms instead of " + sequential + " ms");
+    }
+
+    /**
+     * Runs a warm-up evaluation, then returns the fastest of three timed evaluations in the given mode.
+     */
+    private long bestOfThree(boolean concurrentFetch) {
+        ReflectionTestUtils.setField(riskService, "concurrentFetch", concurrentFetch);
+        assertEquals(RiskLevel.BORDERLINE, riskService.evaluateRiskLevel(PATIENT_ID));
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            assertEquals(RiskLevel.BORDERLINE, riskService.evaluateRiskLevel(PATIENT_ID));
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+        }
+        return best;
+    }
+}
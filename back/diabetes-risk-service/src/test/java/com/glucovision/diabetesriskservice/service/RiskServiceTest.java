@@ -1,16 +1,38 @@
 package com.glucovision.diabetesriskservice.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glucovision.diabetesriskservice.config.TriggerMatcherConfig;
 import com.glucovision.diabetesriskservice.dto.NoteDto;
+import com.glucovision.diabetesriskservice.dto.PatientBatchDto;
 import com.glucovision.diabetesriskservice.dto.PatientDto;
+import com.glucovision.diabetesriskservice.dto.RiskBatchDto;
+import com.glucovision.diabetesriskservice.dto.RiskStatsDto;
+import com.glucovision.diabetesriskservice.dto.TriggerSummaryDto;
+import com.glucovision.diabetesriskservice.exception.DownstreamTimeoutException;
+import com.glucovision.diabetesriskservice.exception.PatientNotFoundException;
 import com.glucovision.diabetesriskservice.model.RiskLevel;
+import com.glucovision.diabetesriskservice.rules.RiskRuleEngine;
+import com.glucovision.diabetesriskservice.trigger.NormalizingTriggerMatcher;
+import com.glucovision.diabetesriskservice.trigger.TriggerDictionary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 public class RiskServiceTest {
@@ -18,12 +40,22 @@ public class RiskServiceTest {
     private NoteDataService noteDataService;
     private PatientDataService patientDataService;
     private RiskService riskService;
+    private RiskCache riskCache;
+    private RiskStats riskStats;
+
+    private static final ExecutorService FETCH_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+    private static final TriggerDictionary DICTIONARY = new TriggerDictionary(
+            new NormalizingTriggerMatcher(TriggerMatcherConfig.TRIGGER_TERMS, Map.of()), Map.of());
 
     @BeforeEach
     public void setUp() {
         noteDataService = mock(NoteDataService.class);
         patientDataService = mock(PatientDataService.class);
-        riskService = new RiskService(noteDataService, patientDataService);
+        riskCache = new RiskCache(Duration.ZERO, 0, new SimpleMeterRegistry());
+        riskStats = new RiskStats(new SimpleMeterRegistry());
+        riskService = new RiskService(noteDataService, patientDataService,
+                DICTIONARY, FETCH_EXECUTOR, riskCache, riskStats,
+                new RiskRuleEngine(new DefaultResourceLoader(), new ObjectMapper(), "classpath:risk-rules.json", event -> { }));
     }
 
     @Test
@@ -199,5 +231,382 @@ public class RiskServiceTest {
         assertEquals(25, riskService.calculateAge(patient));
     }
 
+    @Test
+    public void testEvaluateRiskLevels_shouldFetchInBulk_andReportMissingPatients() {
+        // Given
+        PatientDto borderline = new PatientDto("1", LocalDate.now().minusYears(45), "F");
+        PatientDto withoutNotes = new PatientDto("2", LocalDate.now().minusYears(20), "M");
+        List<String> requestedIds = List.of("1", "2", "3");
+
+        when(patientDataService.getPatients(requestedIds))
+                .thenReturn(new PatientBatchDto(List.of(borderline, withoutNotes), List.of("3")));
+        when(noteDataService.getNotesByPatientIds(requestedIds)).thenReturn(Map.of(
+                "1", List.of(new NoteDto("1", "Vertiges et cholestérol élevé.")),
+                "2", List.of()
+        ));
+
+        // When
+        RiskBatchDto result = riskService.evaluateRiskLevels(List.of("1", "2", "3", "1"));
+
+        // Then
+        assertEquals(Map.of("1", RiskLevel.BORDERLINE, "2", RiskLevel.NONE), result.getRiskLevels());
+        assertEquals(Map.of("3", "Patient not found with ID: 3"), result.getErrors());
+        verify(patientDataService, times(1)).getPatients(requestedIds);
+        verify(noteDataService, times(1)).getNotesByPatientIds(requestedIds);
+        verify(patientDataService, never()).getPatient(anyString());
+        verify(noteDataService, never()).getNoteDtoList(anyString());
+    }
+
+    @Test
+    public void testEvaluateRiskLevels_shouldRemoveMissingPatientsFromStats() {
+        // Given
+        riskStats.record("3", new PatientDto("3", LocalDate.now().minusYears(45), "F"), RiskLevel.BORDERLINE);
+        when(patientDataService.getPatients(List.of("3"))).thenReturn(new PatientBatchDto(List.of(), List.of("3")));
+        when(noteDataService.getNotesByPatientIds(List.of("3"))).thenReturn(Map.of());
+
+        // When
+        riskService.evaluateRiskLevels(List.of("3"));
+
+        // Then
+        assertEquals(0, riskStats.size());
+    }
+
+    @Test
+    public void testEvaluateRiskLevel_shouldUseTriggerSummary_whenServerSideTriggersEnabled() {
+        // Given
+        ReflectionTestUtils.setField(riskService, "serverSideTriggers", true);
+        PatientDto patient = new PatientDto("1", LocalDate.now().minusYears(45), "M");
+        when(patientDataService.getPatient("1")).thenReturn(patient);
+        when(noteDataService.getTriggerSummary("1"))
+                .thenReturn(new TriggerSummaryDto("1", 3, 6, List.of("POIDS", "FUMEUR", "ANORMAL"), DICTIONARY.version()));
+
+        // When
+        RiskLevel result = riskService.evaluateRiskLevel("1");
+
+        // Then
+        assertEquals(RiskLevel.IN_DANGER, result);
+        verify(noteDataService, never()).getNoteDtoList(anyString());
+    }
+
+    @Test
+    public void testEvaluateRiskLevel_shouldReturnNone_whenTriggerSummaryHasNoNote() {
+        // Given
+        ReflectionTestUtils.setField(riskService, "serverSideTriggers", true);
+        ReflectionTestUtils.setField(riskService, "concurrentFetch", true);
+        when(patientDataService.getPatient("1")).thenReturn(new PatientDto("1", LocalDate.now().minusYears(25), "F"));
+        when(noteDataService.getTriggerSummary("1")).thenReturn(new TriggerSummaryDto("1", 0, 0, List.of(), DICTIONARY.version()));
+
+        // When
+        RiskLevel result = riskService.evaluateRiskLevel("1");
+
+        // Then
+        assertEquals(RiskLevel.NONE, result);
+    }
+
+    @Test
+    public void testEvaluateRiskLevels_shouldUseTriggerSummaries_whenServerSideTriggersEnabled() {
+        // Given
+        ReflectionTestUtils.setField(riskService, "serverSideTriggers", true);
+        List<String> requestedIds = List.of("1", "2");
+        when(patientDataService.getPatients(requestedIds)).thenReturn(new PatientBatchDto(List.of(
+                new PatientDto("1", LocalDate.now().minusYears(45), "F"),
+                new PatientDto("2", LocalDate.now().minusYears(20), "M")), List.of()));
+        when(noteDataService.getTriggerSummaries(requestedIds)).thenReturn(Map.of(
+                "1", new TriggerSummaryDto("1", 1, 2, List.of("CHOLESTÉROL", "VERTIGES"), DICTIONARY.version())));
+
+        // When
+        RiskBatchDto result = riskService.evaluateRiskLevels(requestedIds);
+
+        // Then
+        assertEquals(Map.of("1", RiskLevel.BORDERLINE, "2", RiskLevel.NONE), result.getRiskLevels());
+        verify(noteDataService, times(1)).getTriggerSummaries(requestedIds);
+        verify(noteDataService, never()).getNotesByPatientIds(anyList());
+    }
+
+    @Test
+    public void testEvaluateRiskLevel_shouldScanNotesLocally_whenTriggerSummaryUsesAnotherDictionary() {
+        // Given
+        ReflectionTestUtils.setField(riskService, "serverSideTriggers", true);
+        when(patientDataService.getPatient("1")).thenReturn(new PatientDto("1", LocalDate.now().minusYears(45), "M"));
+        when(noteDataService.getTriggerSummary("1"))
+                .thenReturn(new TriggerSummaryDto("1", 1, 8, List.of("POIDS"), "other-version"));
+        when(noteDataService.getNoteDtoList("1")).thenReturn(List.of(new NoteDto("1", "Poids stable.")));
+
+        // When
+        RiskLevel result = riskService.evaluateRiskLevel("1");
+
+        // Then
+        assertEquals(RiskLevel.NONE, result);
+        verify(noteDataService, times(1)).getNoteDtoList("1");
+    }
+
+    @Test
+    public void testEvaluateRiskLevels_shouldScanOnlyStaleSummariesLocally_whenDictionariesDiffer() {
+        // Given
+        ReflectionTestUtils.setField(riskService, "serverSideTriggers", true);
+        List<String> requestedIds = List.of("1", "2");
+        when(patientDataService.getPatients(requestedIds)).thenReturn(new PatientBatchDto(List.of(
+                new PatientDto("1", LocalDate.now().minusYears(45), "F"),
+                new PatientDto("2", LocalDate.now().minusYears(45), "M")), List.of()));
+        when(noteDataService.getTriggerSummaries(requestedIds)).thenReturn(Map.of(
+                "1", new TriggerSummaryDto("1", 1, 2, List.of("CHOLESTÉROL", "VERTIGES"), DICTIONARY.version()),
+                "2", new TriggerSummaryDto("2", 1, 0, List.of(), null)));
+        when(noteDataService.getNotesByPatientIds(List.of("2"))).thenReturn(Map.of(
+                "2", List.of(new NoteDto("2", "Fumeur, cholestérol, vertiges, rechute, poids anormal"))));
+
+        // When
+        RiskBatchDto result = riskService.evaluateRiskLevels(requestedIds);
+
+        // Then
+        assertEquals(Map.of("1", RiskLevel.BORDERLINE, "2", RiskLevel.IN_DANGER), result.getRiskLevels());
+        verify(noteDataService, times(1)).getNotesByPatientIds(List.of("2"));
+    }
+
+    @Test
+    public void testEvaluateRiskLevel_shouldServeCachedLevel_untilPatientIsInvalidated() {
+        // Given
+        useCache();
+        when(patientDataService.getPatient("1")).thenReturn(new PatientDto("1", LocalDate.now().minusYears(45), "M"));
+        when(noteDataService.getNoteDtoList("1")).thenReturn(List.of(new NoteDto("1", "Fumeur, cholestérol élevé.")));
+
+        // When
+        RiskLevel first = riskService.evaluateRiskLevel("1");
+        RiskLevel second = riskService.evaluateRiskLevel("1");
+        riskCache.invalidate("1");
+        RiskLevel third = riskService.evaluateRiskLevel("1");
+
+        // Then
+        assertEquals(RiskLevel.BORDERLINE, first);
+        assertEquals(RiskLevel.BORDERLINE, second);
+        assertEquals(RiskLevel.BORDERLINE, third);
+        verify(patientDataService, times(2)).getPatient("1");
+        verify(noteDataService, times(2)).getNoteDtoList("1");
+    }
+
+    @Test
+    public void testEvaluateRiskLevel_shouldNotCacheResult_whenInvalidatedDuringEvaluation() {
+        // Given
+        useCache();
+        when(patientDataService.getPatient("1")).thenReturn(new PatientDto("1", LocalDate.now().minusYears(45), "M"));
+        when(noteDataService.getNoteDtoList("1")).thenAnswer(invocation -> {
+            riskCache.invalidate("1");
+            return List.of(new NoteDto("1", "Fumeur, cholestérol élevé."));
+        });
+
+        // When
+        riskService.evaluateRiskLevel("1");
+
+        // Then
+        assertEquals(0, riskCache.size());
+    }
+
+    @Test
+    public void testEvaluateRiskLevels_shouldOnlyFetchPatientsMissingFromCache() {
+        // Given
+        useCache();
+        PatientDto cachedPatient = new PatientDto("1", LocalDate.now().minusYears(45), "M");
+        when(patientDataService.getPatient("1")).thenReturn(cachedPatient);
+        when(noteDataService.getNoteDtoList("1")).thenReturn(List.of(new NoteDto("1", "Fumeur, cholestérol élevé.")));
+        riskService.evaluateRiskLevel("1");
+
+        when(patientDataService.getPatients(List.of("2")))
+                .thenReturn(new PatientBatchDto(List.of(new PatientDto("2", LocalDate.now().minusYears(20), "M")), List.of()));
+        when(noteDataService.getNotesByPatientIds(List.of("2"))).thenReturn(Map.of("2", List.of()));
+
+        // When
+        RiskBatchDto result = riskService.evaluateRiskLevels(List.of("2", "1"));
 
+        // Then
+        assertEquals(List.of("2", "1"), List.copyOf(result.getRiskLevels().keySet()));
+        assertEquals(RiskLevel.BORDERLINE, result.getRiskLevels().get("1"));
+        assertEquals(RiskLevel.NONE, result.getRiskLevels().get("2"));
+        verify(patientDataService, never()).getPatients(List.of("2", "1"));
+    }
+
+    @Test
+    public void testEvaluateRiskLevels_shouldNotFetchAnything_whenAllLevelsAreCached() {
+        // Given
+        useCache();
+        riskCache.put("1", riskCache.ticket(), RiskLevel.IN_DANGER, LocalDate.now().minusYears(45));
+
+        // When
+        RiskBatchDto result = riskService.evaluateRiskLevels(List.of("1"));
+
+        // Then
+        assertEquals(Map.of("1", RiskLevel.IN_DANGER), result.getRiskLevels());
+        verifyNoInteractions(patientDataService, noteDataService);
+    }
+
+    @Test
+    public void testEvaluateRiskLevel_shouldRecordLatestLevelInStats() {
+        // Given
+        when(patientDataService.getPatient("1")).thenReturn(new PatientDto("1", LocalDate.now().minusYears(45), "M"));
+        when(noteDataService.getNoteDtoList("1"))
+                .thenReturn(List.of(new NoteDto("1", "Fumeur, cholestérol élevé.")))
+                .thenReturn(List.of());
+
+        // When
+        riskService.evaluateRiskLevel("1");
+        riskService.evaluateRiskLevel("1");
+
+        // Then
+        RiskStatsDto stats = riskStats.stats(List.of());
+        assertEquals(1, stats.getTotal());
+        assertEquals(1L, stats.getGroups().get(0).getCounts().get(RiskLevel.NONE));
+        assertEquals(0L, stats.getGroups().get(0).getCounts().get(RiskLevel.BORDERLINE));
+    }
+
+    @Test
+    public void testEvaluatePatients_shouldOnlyFetchNotes_andKeepPatientOrder() {
+        // Given
+        List<PatientDto> patients = List.of(
+                new PatientDto("2", LocalDate.now().minusYears(45), "M"),
+                new PatientDto("1", LocalDate.now().minusYears(20), "F"));
+        when(noteDataService.getNotesByPatientIds(List.of("2", "1")))
+                .thenReturn(Map.of("2", List.of(new NoteDto("2", "Fumeur, cholestérol élevé.")), "1", List.of()));
+
+        // When
+        RiskBatchDto result = riskService.evaluatePatients(patients);
+
+        // Then
+        assertEquals(List.of("2", "1"), List.copyOf(result.getRiskLevels().keySet()));
+        assertEquals(RiskLevel.BORDERLINE, result.getRiskLevels().get("2"));
+        assertEquals(RiskLevel.NONE, result.getRiskLevels().get("1"));
+        verifyNoInteractions(patientDataService);
+    }
+
+    @Test
+    public void testEvaluateRiskLevels_shouldReportInvalidPatientData_withoutFailingTheBatch() {
+        // Given
+        PatientDto valid = new PatientDto("1", LocalDate.now().minusYears(45), "M");
+        PatientDto noBirthDate = new PatientDto("2", null, "M");
+        List<NoteDto> notes = List.of(new NoteDto(null, "Fumeur, poids anormal."));
+
+        when(patientDataService.getPatients(List.of("1", "2")))
+                .thenReturn(new PatientBatchDto(List.of(valid, noBirthDate), List.of()));
+        when(noteDataService.getNotesByPatientIds(List.of("1", "2"))).thenReturn(Map.of("1", notes, "2", notes));
+
+        // When
+        RiskBatchDto result = riskService.evaluateRiskLevels(List.of("1", "2"));
+
+        // Then
+        assertEquals(Map.of("1", RiskLevel.BORDERLINE), result.getRiskLevels());
+        assertTrue(result.getErrors().containsKey("2"));
+    }
+
+    @Test
+    public void testEvaluateRiskLevels_shouldReportBlankIds_withoutCallingServices() {
+        // When
+        RiskBatchDto result = riskService.evaluateRiskLevels(List.of(" "));
+
+        // Then
+        assertTrue(result.getRiskLevels().isEmpty());
+        assertEquals(Map.of(" ", "L'ID du patient ne peut pas être null ou vide"), result.getErrors());
+        verifyNoInteractions(patientDataService, noteDataService);
+    }
+
+    @Test
+    public void testEvaluateRiskLevels_shouldRejectEmptyOrOversizedBatch() {
+        // Given
+        ReflectionTestUtils.setField(riskService, "maxBatchSize", 2);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> riskService.evaluateRiskLevels(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> riskService.evaluateRiskLevels(List.of("1", "2", "3")));
+        verifyNoInteractions(patientDataService, noteDataService);
+    }
+
+    @Test
+    public void testEvaluateRiskLevel_concurrentFetch_shouldReturnSameLevelAsSequential() {
+        // Given
+        String patientId = "11";
+        PatientDto patient = new PatientDto(patientId, LocalDate.now().minusYears(45), "F");
+        List<NoteDto> notes = List.of(new NoteDto(patientId, "Vertiges, rechute et réaction cutanée."));
+        when(patientDataService.getPatient(patientId)).thenReturn(patient);
+        when(noteDataService.getNoteDtoList(patientId)).thenReturn(notes);
+
+        // When
+        RiskLevel sequential = riskService.evaluateRiskLevel(patientId);
+        ReflectionTestUtils.setField(riskService, "concurrentFetch", true);
+        RiskLevel concurrent = riskService.evaluateRiskLevel(patientId);
+
+        // Then
+        assertEquals(RiskLevel.BORDERLINE, sequential);
+        assertEquals(sequential, concurrent);
+    }
+
+    @Test
+    public void testEvaluateRiskLevel_concurrentFetch_shouldThrowPatientNotFound_whenPatientMissing() {
+        // Given
+        ReflectionTestUtils.setField(riskService, "concurrentFetch", true);
+        when(patientDataService.getPatient("12")).thenReturn(null);
+        when(noteDataService.getNoteDtoList("12")).thenReturn(List.of(new NoteDto("12", "Fumeur")));
+
+        // When / Then
+        assertThrows(PatientNotFoundException.class, () -> riskService.evaluateRiskLevel("12"));
+    }
+
+    @Test
+    public void testEvaluateRiskLevel_concurrentFetch_shouldReturnNone_whenNoNotes() {
+        // Given
+        ReflectionTestUtils.setField(riskService, "concurrentFetch", true);
+        when(patientDataService.getPatient("13")).thenReturn(new PatientDto("13", LocalDate.now().minusYears(25), "M"));
+        when(noteDataService.getNoteDtoList("13")).thenReturn(List.of());
+
+        // When / Then
+        assertEquals(RiskLevel.NONE, riskService.evaluateRiskLevel("13"));
+    }
+
+    @Test
+    public void testEvaluateRiskLevel_concurrentFetch_shouldRethrowDataServiceException() {
+        // Given
+        ReflectionTestUtils.setField(riskService, "concurrentFetch", true);
+        when(patientDataService.getPatient(" ")).thenThrow(new IllegalArgumentException("L'ID du patient ne peut pas être null ou vide"));
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> riskService.evaluateRiskLevel(" "));
+    }
+
+    @Test
+    public void testEvaluateRiskLevel_concurrentFetch_shouldTimeOut_whenDownstreamIsTooSlow() {
+        // Given
+        ReflectionTestUtils.setField(riskService, "concurrentFetch", true);
+        ReflectionTestUtils.setField(riskService, "fetchTimeoutMs", 50L);
+        when(patientDataService.getPatient("14")).thenReturn(new PatientDto("14", LocalDate.now().minusYears(45), "M"));
+        when(noteDataService.getNoteDtoList("14")).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return List.of();
+        });
+
+        // When / Then
+        assertThrows(DownstreamTimeoutException.class, () -> riskService.evaluateRiskLevel("14"));
+    }
+
+    @Test
+    public void testEvaluateRiskLevel_concurrentFetch_shouldInterruptFetch_whenItTimesOut() throws InterruptedException {
+        // Given
+        ReflectionTestUtils.setField(riskService, "concurrentFetch", true);
+        ReflectionTestUtils.setField(riskService, "fetchTimeoutMs", 50L);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(patientDataService.getPatient("15")).thenReturn(new PatientDto("15", LocalDate.now().minusYears(45), "M"));
+        when(noteDataService.getNoteDtoList("15")).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return List.of();
+        });
+
+        // When
+        assertThrows(DownstreamTimeoutException.class, () -> riskService.evaluateRiskLevel("15"));
+
+        // Then
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS), "The abandoned fetch kept running");
+    }
+
+    private void useCache() {
+        riskCache = new RiskCache(Duration.ofMinutes(10), 100, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(riskService, "riskCache", riskCache);
+    }
 }
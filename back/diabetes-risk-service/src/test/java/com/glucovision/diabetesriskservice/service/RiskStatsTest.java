@@ -0,0 +1,154 @@
+package com.glucovision.diabetesriskservice.service;
+
+import com.glucovision.diabetesriskservice.dto.PatientDto;
+import com.glucovision.diabetesriskservice.dto.RiskStatsDto;
+import com.glucovision.diabetesriskservice.model.AgeBand;
+import com.glucovision.diabetesriskservice.model.Gender;
+import com.glucovision.diabetesriskservice.model.RiskLevel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RiskStatsTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+    private RiskStats riskStats;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        riskStats = new RiskStats(new SimpleMeterRegistry(), clock);
+    }
+
+    @Test
+    void stats_shouldCountPatientsByAgeBandAndGender() {
+        // Given
+        riskStats.record("1", new PatientDto("1", LocalDate.of(1990, 1, 1), "M"), RiskLevel.BORDERLINE);
+        riskStats.record("2", new PatientDto("2", LocalDate.of(1990, 6, 15), "MALE"), RiskLevel.NONE);
+        riskStats.record("3", new PatientDto("3", LocalDate.of(2000, 1, 1), "F"), RiskLevel.EARLY_ONSET);
+
+        // When
+        RiskStatsDto stats = riskStats.stats(List.of(RiskStats.AGE_BAND, RiskStats.GENDER));
+
+        // Then
+        assertEquals(List.of("ageBand", "gender"), stats.getGroupBy());
+        assertEquals(3, stats.getTotal());
+        assertEquals(AgeBand.values().length * Gender.values().length, stats.getGroups().size());
+        RiskStatsDto.Group men30 = group(stats, AgeBand.FROM_30_TO_39, Gender.MALE);
+        assertEquals(2, men30.getTotal());
+        assertEquals(1L, men30.getCounts().get(RiskLevel.BORDERLINE));
+        assertEquals(1L, men30.getCounts().get(RiskLevel.NONE));
+        assertEquals(1L, group(stats, AgeBand.UNDER_30, Gender.FEMALE).getCounts().get(RiskLevel.EARLY_ONSET));
+    }
+
+    @Test
+    void record_shouldReplacePreviousLevelOfPatient() {
+        // Given
+        PatientDto patient = new PatientDto("1", LocalDate.of(1970, 3, 3), "F");
+        riskStats.record("1", patient, RiskLevel.BORDERLINE);
+
+        // When
+        riskStats.record("1", patient, RiskLevel.IN_DANGER);
+
+        // Then
+        RiskStatsDto stats = riskStats.stats(List.of(RiskStats.GENDER));
+        assertEquals(1, stats.getTotal());
+        assertEquals(Gender.values().length, stats.getGroups().size());
+        RiskStatsDto.Group women = stats.getGroups().get(Gender.FEMALE.ordinal());
+        assertNull(women.getAgeBand());
+        assertEquals(0L, women.getCounts().get(RiskLevel.BORDERLINE));
+        assertEquals(1L, women.getCounts().get(RiskLevel.IN_DANGER));
+    }
+
+    @Test
+    void remove_shouldForgetPatient() {
+        // Given
+        riskStats.record("1", new PatientDto("1", LocalDate.of(1970, 3, 3), "F"), RiskLevel.BORDERLINE);
+
+        // When
+        riskStats.remove("1");
+        riskStats.remove("unknown");
+
+        // Then
+        assertEquals(0, riskStats.size());
+        assertEquals(0, riskStats.stats(List.of()).getTotal());
+    }
+
+    @Test
+    void record_shouldForgetInactivePatient() {
+        // Given
+        riskStats.record("1", new PatientDto("1", LocalDate.of(1970, 3, 3), "F"), RiskLevel.BORDERLINE);
+
+        // When
+        riskStats.record("1", new PatientDto("1", LocalDate.of(1970, 3, 3), "F", false), RiskLevel.BORDERLINE);
+        riskStats.record("2", new PatientDto("2", LocalDate.of(1970, 3, 3), "F", false), RiskLevel.NONE);
+
+        // Then
+        assertEquals(0, riskStats.size());
+        assertEquals(0, riskStats.stats(List.of()).getTotal());
+    }
+
+    @Test
+    void retainWrittenSince_shouldForgetPatientsNotScanned_unlessRecordedOrTouchedSinceMark() {
+        // Given
+        riskStats.record("1", new PatientDto("1", LocalDate.of(1970, 3, 3), "F"), RiskLevel.BORDERLINE);
+        riskStats.record("2", new PatientDto("2", LocalDate.of(1970, 3, 3), "F"), RiskLevel.NONE);
+        long mark = riskStats.mark();
+        riskStats.touch("1");
+        riskStats.record("3", new PatientDto("3", LocalDate.of(1970, 3, 3), "M"), RiskLevel.IN_DANGER);
+
+        // When
+        int removed = riskStats.retainWrittenSince(mark);
+
+        // Then
+        assertEquals(1, removed);
+        assertEquals(2, riskStats.size());
+        RiskStatsDto stats = riskStats.stats(List.of());
+        assertEquals(2, stats.getTotal());
+        assertEquals(0L, stats.getGroups().get(0).getCounts().get(RiskLevel.NONE));
+    }
+
+    @Test
+    void recordIfAbsent_shouldNotOverwriteNewerLevel() {
+        // Given
+        riskStats.record("1", new PatientDto("1", LocalDate.of(1970, 3, 3), "F"), RiskLevel.IN_DANGER);
+
+        // When
+        riskStats.recordIfAbsent("1", RiskLevel.NONE, AgeBand.FROM_50_TO_59, Gender.FEMALE);
+        riskStats.recordIfAbsent("2", RiskLevel.NONE, AgeBand.FROM_70, null);
+
+        // Then
+        RiskStatsDto stats = riskStats.stats(List.of());
+        assertEquals(1, stats.getGroups().size());
+        assertEquals(1L, stats.getGroups().get(0).getCounts().get(RiskLevel.IN_DANGER));
+        assertEquals(1L, stats.getGroups().get(0).getCounts().get(RiskLevel.NONE));
+    }
+
+    @Test
+    void stats_shouldRejectUnknownDimension() {
+        assertThrows(IllegalArgumentException.class, () -> riskStats.stats(List.of("city")));
+    }
+
+    @Test
+    void ageBand_shouldStartNewBandOnBirthday() {
+        assertEquals(AgeBand.UNDER_30, AgeBand.of(LocalDate.of(1995, 6, 16), TODAY));
+        assertEquals(AgeBand.FROM_30_TO_39, AgeBand.of(LocalDate.of(1995, 6, 15), TODAY));
+        assertEquals(AgeBand.FROM_70, AgeBand.of(95));
+        assertEquals(AgeBand.FROM_30_TO_39, AgeBand.fromLabel("30-39"));
+    }
+
+    private static RiskStatsDto.Group group(RiskStatsDto stats, AgeBand ageBand, Gender gender) {
+        return stats.getGroups().stream()
+                .filter(g -> g.getAgeBand() == ageBand && g.getGender() == gender)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,147 @@
+package com.glucovision.diabetesriskservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.glucovision.diabetesriskservice.dto.PatientDto;
+import com.glucovision.diabetesriskservice.dto.RiskBatchDto;
+import com.glucovision.diabetesriskservice.dto.RiskInvalidationEvent;
+import com.glucovision.diabetesriskservice.model.RiskLevel;
+import com.glucovision.diabetesriskservice.rules.RiskRulesReloadedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RiskStatsUpdaterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private RiskService riskService;
+    private RiskScanJob riskScanJob;
+    private RiskStats riskStats;
+    private RiskStatsUpdater updater;
+
+    @BeforeEach
+    void setUp() {
+        riskService = mock(RiskService.class);
+        riskScanJob = mock(RiskScanJob.class);
+        riskStats = new RiskStats(new SimpleMeterRegistry());
+        updater = new RiskStatsUpdater(riskService, riskStats, riskScanJob, new ObjectMapper(), true, 2);
+    }
+
+    @Test
+    void onInvalidation_shouldRemoveDeletedPatient() {
+        // Given
+        riskStats.record("1", new PatientDto("1", LocalDate.of(1980, 1, 1), "M"), RiskLevel.NONE);
+
+        // When
+        updater.onInvalidation(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.PATIENT_DELETED, "1"));
+
+        // Then
+        assertEquals(0, riskStats.size());
+        verifyNoInteractions(riskService);
+    }
+
+    @Test
+    void onInvalidation_shouldReEvaluateChangedPatient() {
+        // When
+        updater.onInvalidation(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.NOTE_CHANGED, "1"));
+
+        // Then
+        verify(riskService, timeout(2000)).evaluateRiskLevels(List.of("1"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onInvalidation_shouldCoalesceQueuedPatientsIntoBatches() throws InterruptedException {
+        // Given: the first re-evaluation is still running while the other changes arrive
+        CountDownLatch release = new CountDownLatch(1);
+        when(riskService.evaluateRiskLevels(List.of("1"))).thenAnswer(invocation -> {
+            release.await(2, TimeUnit.SECONDS);
+            return new RiskBatchDto();
+        });
+        updater.onInvalidation(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.NOTE_CHANGED, "1"));
+        verify(riskService, timeout(2000)).evaluateRiskLevels(List.of("1"));
+
+        // When
+        for (String patientId : List.of("2", "3", "2", "4")) {
+            updater.onInvalidation(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.NOTE_CHANGED, patientId));
+        }
+        release.countDown();
+
+        // Then
+        ArgumentCaptor<List<String>> batches = ArgumentCaptor.forClass(List.class);
+        verify(riskService, timeout(2000).times(3)).evaluateRiskLevels(batches.capture());
+        List<List<String>> queuedBatches = batches.getAllValues().subList(1, 3);
+        Set<String> reEvaluated = new HashSet<>();
+        queuedBatches.forEach(reEvaluated::addAll);
+        assertEquals(Set.of("2", "3", "4"), reEvaluated);
+        assertEquals(3, queuedBatches.get(0).size() + queuedBatches.get(1).size());
+    }
+
+    @Test
+    void onInvalidation_shouldRequestRiskScan_whenEventsWereDropped() {
+        // When
+        updater.onInvalidation(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.EVENTS_DROPPED, null));
+
+        // Then
+        verify(riskScanJob).requestScan();
+        verifyNoInteractions(riskService);
+    }
+
+    @Test
+    void onRulesReloaded_shouldRequestRiskScan() {
+        // When
+        updater.onRulesReloaded(new RiskRulesReloadedEvent("file:/app/config/risk-rules.json"));
+
+        // Then
+        verify(riskScanJob).requestScan();
+        verifyNoInteractions(riskService);
+    }
+
+    @Test
+    void refresh_shouldKeepPreviousLevel_whenEvaluationFails() {
+        // Given
+        riskStats.record("1", new PatientDto("1", LocalDate.of(1980, 1, 1), "M"), RiskLevel.NONE);
+        when(riskService.evaluateRiskLevels(List.of("1"))).thenThrow(new IllegalStateException("Note service unavailable"));
+
+        // When
+        updater.refresh(List.of("1"));
+
+        // Then
+        assertEquals(1, riskStats.size());
+    }
+
+    @Test
+    void loadLatestScan_shouldRecordEvaluatedPatientsOfLatestScan() throws IOException {
+        // Given
+        Path scan = tempDir.resolve("risk-scan-2025-06-15.ndjson");
+        Files.write(scan, List.of(
+                "{\"patientId\":\"1\",\"riskLevel\":\"BORDERLINE\",\"ageBand\":\"30-39\",\"gender\":\"MALE\"}",
+                "{\"patientId\":\"2\",\"gender\":\"FEMALE\",\"error\":\"Patient not found\"}",
+                "{\"patientId\":\"3\",\"riskLevel\":\"NONE\",\"ageBand\":\"70+\",\"gender\":\"FEMALE\"}"));
+        when(riskScanJob.latestCompletedScan()).thenReturn(Optional.of(scan));
+
+        // When
+        long loaded = updater.loadLatestScan();
+
+        // Then
+        assertEquals(2, loaded);
+        assertEquals(2, riskStats.stats(List.of()).getTotal());
+    }
+}
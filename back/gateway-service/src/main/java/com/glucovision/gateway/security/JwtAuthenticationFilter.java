@@ -13,10 +13,13 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.Optional;
+
 /**
  * Global JWT authentication filter for Spring Cloud Gateway.
  * <p>
- * Intercepts all incoming requests and validates JWT tokens.
+ * Intercepts all incoming requests and validates JWT tokens, each token being verified and decoded once,
+ * then served from the {@link VerifiedTokenCache} until it expires.
  * If the token is valid, user information is propagated in custom headers.
  * If the token is missing or invalid, a 401 Unauthorized response is returned.
  * <p>
@@ -27,7 +30,7 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
-    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache tokenCache;
 
     @Value("${security.enabled:true}")
     private boolean securityEnabled;
@@ -68,9 +71,10 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
             String token = authHeader.substring(7);
             log.debug("[GATEWAY] Bearer token received");
 
-            if (jwtUtil.isTokenValid(token)) {
-                String email = jwtUtil.extractUsername(token);
-                String role = jwtUtil.extractRole(token);
+            Optional<JwtPrincipal> principal = tokenCache.verify(token);
+            if (principal.isPresent()) {
+                String email = principal.get().subject();
+                String role = principal.get().role();
                 log.info("[GATEWAY] ✅ Valid token – User: {}, Role: {}", email, role);
 
                 exchange = exchange.mutate()
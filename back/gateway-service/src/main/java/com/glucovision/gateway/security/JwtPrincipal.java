@@ -0,0 +1,13 @@
+package com.glucovision.gateway.security;
+
+import java.time.Instant;
+
+/**
+ * Identity carried by a verified JWT token.
+ *
+ * @param subject   the subject of the token (the user's email)
+ * @param role      the user's role, from the {@code roles} claim
+ * @param expiresAt the expiration time of the token, or {@code null} if it has none
+ */
+public record JwtPrincipal(String subject, String role, Instant expiresAt) {
+}
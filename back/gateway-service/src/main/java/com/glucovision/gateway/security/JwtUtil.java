@@ -1,35 +1,58 @@
 package com.glucovision.gateway.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Autowired;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import java.util.Optional;
 
 /**
  * Utility class for handling JWT token operations such as validation,
  * claims extraction, and decoding the user's identity and role.
+ * <p>
+ * The signing key and the parser are built once from the configured secret; the parser is
+ * immutable and shared by all requests.
  */
+@Slf4j
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String SECRET_KEY;
+    private final JwtParser parser;
 
-    public JwtUtil(@Value("${jwt.secret:}") String secretKey) {
-        this.SECRET_KEY = secretKey;
+    public JwtUtil(@Value("${jwt.secret}") String secretKey) {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(secretKey.getBytes()))
+                .build();
     }
 
     /**
-     * Builds the signing key from the configured secret key.
+     * Verifies a JWT token and decodes the user's identity in a single parse.
      *
-     * @return the HMAC signing key
+     * @param token the JWT token string
+     * @return the principal carried by the token, or empty if the token is invalid, expired
+     * or has no {@code roles} claim
      */
-    private Key getSignKey() {
-        return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    public Optional<JwtPrincipal> verify(String token) {
+        try {
+            Claims claims = getClaims(token);
+            String role = claims.get("roles", String.class);
+            if (role == null) {
+                log.debug("JWT rejected: missing 'roles' claim");
+                return Optional.empty();
+            }
+            return Optional.of(new JwtPrincipal(
+                    claims.getSubject(),
+                    role,
+                    claims.getExpiration() != null ? claims.getExpiration().toInstant() : null));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("JWT rejected: {}", e.getMessage());
+            return Optional.empty();
+        }
     }
 
     /**
@@ -55,12 +78,7 @@ public class JwtUtil {
      * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
      */
     public Claims getClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     /**
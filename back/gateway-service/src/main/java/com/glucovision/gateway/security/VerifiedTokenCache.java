@@ -0,0 +1,170 @@
+package com.glucovision.gateway.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of verified JWT tokens, placed in front of {@link JwtUtil#verify(String)}.
+ * <p>
+ * Clients send the same bearer token for every request until it expires, so the signature is verified
+ * and the claims decoded once, then the {@link JwtPrincipal} is served from memory:
+ * <ul>
+ *     <li>entries are keyed by the SHA-256 hash of the raw token, the token itself is never retained;</li>
+ *     <li>an entry lives at most {@code gateway.jwt.cache.ttl} and never past the token's {@code exp} claim;</li>
+ *     <li>the cache holds at most {@code gateway.jwt.cache.max-size} entries; above that, expired entries
+ *     are purged first, then arbitrary entries are evicted;</li>
+ *     <li>only valid tokens are cached, so invalid tokens cannot fill the cache.</li>
+ * </ul>
+ * Lookups are lock-free reads of a {@link ConcurrentHashMap}, so the reactive event loop never blocks.
+ * Hits, misses and evictions are published as Micrometer counters.
+ */
+@Slf4j
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final int maxSize;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ThreadLocal<MessageDigest> digests = ThreadLocal.withInitial(VerifiedTokenCache::sha256);
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter expiredEvictions;
+    private final Counter sizeEvictions;
+
+    /**
+     * Creates the cache used by {@link JwtAuthenticationFilter}.
+     *
+     * @param jwtUtil       the verifier called on cache misses
+     * @param maxSize       the maximum number of cached tokens; {@code 0} disables caching
+     * @param ttl           the maximum time a verified token is served from the cache
+     * @param meterRegistry the registry receiving the cache metrics
+     */
+    @Autowired
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              @Value("${gateway.jwt.cache.max-size:10000}") int maxSize,
+                              @Value("${gateway.jwt.cache.ttl:5m}") Duration ttl,
+                              MeterRegistry meterRegistry) {
+        this(jwtUtil, maxSize, ttl, meterRegistry, Clock.systemUTC());
+    }
+
+    VerifiedTokenCache(JwtUtil jwtUtil, int maxSize, Duration ttl, MeterRegistry meterRegistry, Clock clock) {
+        this.jwtUtil = jwtUtil;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.hits = meterRegistry.counter("gateway.jwt.cache", "result", "hit");
+        this.misses = meterRegistry.counter("gateway.jwt.cache", "result", "miss");
+        this.expiredEvictions = meterRegistry.counter("gateway.jwt.cache.evictions", "cause", "expired");
+        this.sizeEvictions = meterRegistry.counter("gateway.jwt.cache.evictions", "cause", "size");
+        meterRegistry.gaugeMapSize("gateway.jwt.cache.size", List.of(), entries);
+    }
+
+    /**
+     * Returns the principal of a token, verifying it only if it is not already cached.
+     *
+     * @param token the raw JWT token
+     * @return the principal carried by the token, or empty if the token is invalid or expired
+     */
+    public Optional<JwtPrincipal> verify(String token) {
+        if (maxSize <= 0) {
+            return jwtUtil.verify(token);
+        }
+
+        String key = hash(token);
+        Instant now = clock.instant();
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (now.isBefore(entry.expiresAt())) {
+                hits.increment();
+                return Optional.of(entry.principal());
+            }
+            if (entries.remove(key, entry)) {
+                expiredEvictions.increment();
+            }
+        }
+
+        misses.increment();
+        Optional<JwtPrincipal> principal = jwtUtil.verify(token);
+        principal.ifPresent(p -> store(key, p, now));
+        return principal;
+    }
+
+    /**
+     * Returns the number of tokens currently cached, expired entries not yet purged included.
+     *
+     * @return the cache size
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void store(String key, JwtPrincipal principal, Instant now) {
+        Instant expiresAt = now.plus(ttl);
+        if (principal.expiresAt() != null && principal.expiresAt().isBefore(expiresAt)) {
+            expiresAt = principal.expiresAt();
+        }
+        if (!now.isBefore(expiresAt)) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        entries.put(key, new Entry(principal, expiresAt));
+    }
+
+    /**
+     * Purges expired entries, then evicts arbitrary entries until a tenth of the capacity is free,
+     * so that the sweep runs once per batch of insertions rather than on every miss.
+     */
+    private void evict(Instant now) {
+        int target = maxSize - Math.max(1, maxSize / 10);
+        for (Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+            if (!now.isBefore(it.next().getValue().expiresAt())) {
+                it.remove();
+                expiredEvictions.increment();
+            }
+        }
+        for (Iterator<String> it = entries.keySet().iterator(); it.hasNext() && entries.size() > target; ) {
+            it.next();
+            it.remove();
+            sizeEvictions.increment();
+        }
+        log.debug("[GATEWAY] Token cache swept, {} entr(ies) left", entries.size());
+    }
+
+    private String hash(String token) {
+        MessageDigest digest = digests.get();
+        return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Entry(JwtPrincipal principal, Instant expiresAt) {
+    }
+}
@@ -15,16 +15,21 @@ import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class JwtAuthenticationFilterTest {
 
     @Mock
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache tokenCache;
 
     @Mock
     private GatewayFilterChain chain;
@@ -48,9 +53,8 @@ public class JwtAuthenticationFilterTest {
                         .header(HttpHeaders.AUTHORIZATION, "Bearer valid-token")
         );
 
-        when(jwtUtil.isTokenValid("valid-token")).thenReturn(true);
-        when(jwtUtil.extractUsername("valid-token")).thenReturn("user@test.com");
-        when(jwtUtil.extractRole("valid-token")).thenReturn("ROLE_USER");
+        when(tokenCache.verify("valid-token"))
+                .thenReturn(Optional.of(new JwtPrincipal("user@test.com", "ROLE_USER", Instant.now().plusSeconds(3600))));
 
         // Act
         filter.filter(exchange, chain).block();
@@ -60,8 +64,10 @@ public class JwtAuthenticationFilterTest {
         verify(chain).filter(exchangeCaptor.capture());
 
         ServerWebExchange mutatedExchange = exchangeCaptor.getValue();
-        assertNotNull(mutatedExchange.getRequest().getHeaders().getFirst("X-auth-email"));
-        assertNotNull(mutatedExchange.getRequest().getHeaders().getFirst("X-auth-role"));
+        assertEquals("user@test.com", mutatedExchange.getRequest().getHeaders().getFirst("X-auth-email"));
+        assertEquals("ROLE_USER", mutatedExchange.getRequest().getHeaders().getFirst("X-auth-role"));
+        verify(tokenCache, times(1)).verify("valid-token");
+        verifyNoMoreInteractions(tokenCache);
     }
 
     @Test
@@ -82,7 +88,7 @@ public class JwtAuthenticationFilterTest {
     void expiredTokenReturns401() {
         ReflectionTestUtils.setField(filter, "securityEnabled", true);
 
-        when(jwtUtil.isTokenValid(any())).thenReturn(false);
+        when(tokenCache.verify(any())).thenReturn(Optional.empty());
 
         ServerWebExchange exchange = MockServerWebExchange.from(
                 MockServerHttpRequest.get("/api/patients")
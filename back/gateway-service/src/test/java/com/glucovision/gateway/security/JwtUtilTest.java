@@ -8,6 +8,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest(properties = {
@@ -68,4 +72,38 @@ public class JwtUtilTest {
         assertFalse(jwtUtil.isTokenValid(invalidToken));
     }
 
-}
\ No newline at end of file
+    @Test
+    void verifyDecodesSubjectRoleAndExpiry() {
+        Instant expiry = Instant.now().plusSeconds(3600).truncatedTo(ChronoUnit.SECONDS);
+        String token = Jwts.builder()
+                .setSubject("user@example.com")
+                .claim("roles", "ROLE_ADMIN")
+                .setExpiration(Date.from(expiry))
+                .signWith(Keys.hmacShaKeyFor(secretKey.getBytes()))
+                .compact();
+
+        JwtPrincipal principal = jwtUtil.verify(token).orElseThrow();
+
+        assertEquals("user@example.com", principal.subject());
+        assertEquals("ROLE_ADMIN", principal.role());
+        assertEquals(expiry, principal.expiresAt());
+    }
+
+    @Test
+    void verifyRejectsInvalidExpiredOrRolelessTokens() {
+        String expired = Jwts.builder()
+                .setSubject("user@example.com")
+                .claim("roles", "ROLE_USER")
+                .setExpiration(Date.from(Instant.now().minusSeconds(60)))
+                .signWith(Keys.hmacShaKeyFor(secretKey.getBytes()))
+                .compact();
+        String withoutRole = Jwts.builder()
+                .setSubject("user@example.com")
+                .signWith(Keys.hmacShaKeyFor(secretKey.getBytes()))
+                .compact();
+
+        assertTrue(jwtUtil.verify("token-invalide").isEmpty());
+        assertTrue(jwtUtil.verify(expired).isEmpty());
+        assertTrue(jwtUtil.verify(withoutRole).isEmpty());
+    }
+}
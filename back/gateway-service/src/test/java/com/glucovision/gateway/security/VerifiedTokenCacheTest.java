@@ -0,0 +1,168 @@
+package com.glucovision.gateway.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VerifiedTokenCacheTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    private final MutableClock clock = new MutableClock(NOW);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private VerifiedTokenCache cache(int maxSize) {
+        return new VerifiedTokenCache(jwtUtil, maxSize, Duration.ofMinutes(5), meterRegistry, clock);
+    }
+
+    private static JwtPrincipal principal(Instant expiresAt) {
+        return new JwtPrincipal("user@test.com", "ROLE_USER", expiresAt);
+    }
+
+    @Test
+    void verifiesTokenOnceThenServesItFromCache() {
+        // Arrange
+        VerifiedTokenCache cache = cache(100);
+        JwtPrincipal principal = principal(NOW.plus(Duration.ofHours(1)));
+        when(jwtUtil.verify("token")).thenReturn(Optional.of(principal));
+
+        // Act
+        Optional<JwtPrincipal> first = cache.verify("token");
+        Optional<JwtPrincipal> second = cache.verify("token");
+
+        // Assert
+        assertEquals(Optional.of(principal), first);
+        assertEquals(Optional.of(principal), second);
+        verify(jwtUtil, times(1)).verify("token");
+        assertEquals(1.0, meterRegistry.counter("gateway.jwt.cache", "result", "hit").count());
+        assertEquals(1.0, meterRegistry.counter("gateway.jwt.cache", "result", "miss").count());
+    }
+
+    @Test
+    void neverServesTokenPastItsExpiry() {
+        // Arrange
+        VerifiedTokenCache cache = cache(100);
+        when(jwtUtil.verify("token"))
+                .thenReturn(Optional.of(principal(NOW.plusSeconds(30))))
+                .thenReturn(Optional.empty());
+
+        // Act
+        cache.verify("token");
+        clock.advance(Duration.ofSeconds(30));
+        Optional<JwtPrincipal> afterExpiry = cache.verify("token");
+
+        // Assert
+        assertTrue(afterExpiry.isEmpty());
+        verify(jwtUtil, times(2)).verify("token");
+        assertEquals(1.0, meterRegistry.counter("gateway.jwt.cache.evictions", "cause", "expired").count());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void reverifiesTokenAfterTtl() {
+        // Arrange
+        VerifiedTokenCache cache = cache(100);
+        when(jwtUtil.verify("token")).thenReturn(Optional.of(principal(NOW.plus(Duration.ofHours(1)))));
+
+        // Act
+        cache.verify("token");
+        clock.advance(Duration.ofMinutes(5));
+        cache.verify("token");
+
+        // Assert
+        verify(jwtUtil, times(2)).verify("token");
+    }
+
+    @Test
+    void doesNotCacheInvalidTokens() {
+        // Arrange
+        VerifiedTokenCache cache = cache(100);
+        when(jwtUtil.verify("invalid")).thenReturn(Optional.empty());
+
+        // Act
+        cache.verify("invalid");
+        cache.verify("invalid");
+
+        // Assert
+        verify(jwtUtil, times(2)).verify("invalid");
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void staysWithinMaximumSize() {
+        // Arrange
+        VerifiedTokenCache cache = cache(10);
+        when(jwtUtil.verify(anyString())).thenReturn(Optional.of(principal(NOW.plus(Duration.ofHours(1)))));
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            cache.verify("token-" + i);
+        }
+
+        // Assert
+        assertTrue(cache.size() <= 10);
+        assertTrue(meterRegistry.counter("gateway.jwt.cache.evictions", "cause", "size").count() > 0);
+    }
+
+    @Test
+    void zeroMaximumSizeDisablesCaching() {
+        // Arrange
+        VerifiedTokenCache cache = cache(0);
+        when(jwtUtil.verify("token")).thenReturn(Optional.of(principal(NOW.plus(Duration.ofHours(1)))));
+
+        // Act
+        cache.verify("token");
+        cache.verify("token");
+
+        // Assert
+        verify(jwtUtil, times(2)).verify("token");
+        assertEquals(0, cache.size());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
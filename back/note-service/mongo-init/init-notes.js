@@ -49,3 +49,8 @@ db.note.insertMany([
     creationDate: new Date("2025-03-26T12:03:35.710Z")
   }
 ]);
+
+db.note.createIndex(
+  { patientId: 1, creationDate: 1 },
+  { name: "idx_note_patient_creation" }
+);
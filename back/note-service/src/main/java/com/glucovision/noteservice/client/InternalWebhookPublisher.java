@@ -0,0 +1,132 @@
+package com.glucovision.noteservice.client;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Posts events to the webhook of another internal service, e.g. {@code POST /api/risk/events}.
+ * <p>
+ * Events are sent from a single background thread so that writes never wait for the other service, and
+ * authenticated with the shared internal API key. An event that cannot be delivered, because the queue is full or
+ * the receiver failed, is logged and dropped. If the publisher has a loss notice, it is posted right after the next
+ * event delivered, so that the receiver can rebuild whatever it derived from the lost events; otherwise the
+ * receiver must not keep anything derived from them longer than its own TTL.
+ *
+ * @param <E> the type of the events, serialized as the JSON body
+ */
+@Slf4j
+public class InternalWebhookPublisher<E> {
+
+    private static final int QUEUE_CAPACITY = 1000;
+    private static final int TIMEOUT_MS = 2000;
+
+    private final String name;
+    private final String path;
+    private final Function<E, String> describe;
+    private final E lossNotice;
+    private final AtomicBoolean lost = new AtomicBoolean();
+    private final RestClient restClient;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Creates the publisher.
+     *
+     * @param name           the name of the events, used in the logs and as the name of the sending thread, e.g. {@code risk-events}
+     * @param baseUrl        the base URL of the receiving service
+     * @param path           the path of the webhook
+     * @param internalApiKey the API key shared by the internal services
+     * @param describe       describes an event in the logs
+     */
+    protected InternalWebhookPublisher(String name, String baseUrl, String path, String internalApiKey,
+                                       Function<E, String> describe) {
+        this(name, baseUrl, path, internalApiKey, describe, null);
+    }
+
+    /**
+     * Creates a publisher telling the receiver when events were dropped.
+     *
+     * @param name           the name of the events, used in the logs and as the name of the sending thread, e.g. {@code risk-events}
+     * @param baseUrl        the base URL of the receiving service
+     * @param path           the path of the webhook
+     * @param internalApiKey the API key shared by the internal services
+     * @param describe       describes an event in the logs
+     * @param lossNotice     the event posted after the next delivered event once events were dropped, {@code null} for none
+     */
+    protected InternalWebhookPublisher(String name, String baseUrl, String path, String internalApiKey,
+                                       Function<E, String> describe, E lossNotice) {
+        this.name = name;
+        this.path = path;
+        this.describe = describe;
+        this.lossNotice = lossNotice;
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(TIMEOUT_MS);
+        requestFactory.setReadTimeout(TIMEOUT_MS);
+        this.restClient = RestClient.builder()
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
+                .defaultHeader("Internal-Api-Key", internalApiKey)
+                .build();
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, name);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Queues an event without blocking the caller; a failure to deliver it is logged, never thrown.
+     *
+     * @param event the event to post
+     */
+    public void publish(E event) {
+        try {
+            executor.execute(() -> send(event));
+        } catch (RejectedExecutionException e) {
+            log.warn("⚠️ [{}] Queue full, dropped {}", name, describe.apply(event));
+            lost.set(true);
+        }
+    }
+
+    private void send(E event) {
+        if (post(event) && lossNotice != null && lost.getAndSet(false) && !post(lossNotice)) {
+            lost.set(true);
+        }
+    }
+
+    /**
+     * Posts an event, recording it as lost if it cannot be delivered.
+     *
+     * @return {@code true} if the event was delivered
+     */
+    private boolean post(E event) {
+        try {
+            restClient.post()
+                    .uri(path)
+                    .body(event)
+                    .retrieve()
+                    .toBodilessEntity();
+            log.debug("[{}] Sent {}", name, describe.apply(event));
+            return true;
+        } catch (RestClientException e) {
+            log.warn("❌ [{}] Could not send {}: {}", name, describe.apply(event), e.getMessage());
+            lost.set(true);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
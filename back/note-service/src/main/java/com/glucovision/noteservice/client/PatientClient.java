@@ -1,8 +1,14 @@
 package com.glucovision.noteservice.client;
 
+import com.glucovision.noteservice.dto.PatientBatchDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 /**
  * Feign client used to communicate with the Patient Service.
@@ -43,4 +49,17 @@ public interface PatientClient {
      */
     @GetMapping("/api/patients/{id}/exists")
     boolean isActivePatient(@PathVariable String id);
+
+    /** Fields of the patients read by the Note Service, besides their UID. */
+    String STATUS_FIELDS = "active";
+
+    /**
+     * Looks up several patients in one call.
+     *
+     * @param fields the fields to return besides the UID, e.g. {@link #STATUS_FIELDS}
+     * @param uids   the unique identifiers of the patients, at most 1000
+     * @return the patients found, with their active status, and the UIDs that match no patient
+     */
+    @PostMapping("/api/patients/batch")
+    PatientBatchDto getPatientsByIds(@RequestParam("fields") String fields, @RequestBody List<String> uids);
 }
@@ -0,0 +1,39 @@
+package com.glucovision.noteservice.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exposes the connection pool of the Feign clients as metrics.
+ * <p>
+ * The transport itself is configured under {@code spring.cloud.openfeign}: by default the clients share a pool
+ * of Apache HttpClient 5 connections, with per-host limits, timeouts and compressed responses; the JDK HTTP/2
+ * client can be used instead. With the pooled transport, the pool is published as
+ * {@code httpcomponents.httpclient.pool.*} with the tag {@code httpclient=feign}: leased, available and pending
+ * connections, and the configured maximums.
+ */
+@Configuration
+public class FeignTransportConfig {
+
+    static final String POOL_NAME = "feign";
+
+    /**
+     * Binds the pool metrics when the pooled transport is in use.
+     *
+     * @param connectionManager the connection manager of the Feign clients, absent with the HTTP/2 transport
+     * @return the binder of the pool metrics
+     */
+    @Bean
+    public MeterBinder feignConnectionPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+        return registry -> connectionManager.ifAvailable(manager -> {
+            if (manager instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, POOL_NAME).bindTo(registry);
+            }
+        });
+    }
+}
@@ -0,0 +1,166 @@
+package com.glucovision.noteservice.config;
+
+import com.glucovision.noteservice.model.Note;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks that the note queries of the service are served by an index.
+ * <p>
+ * Each query shape issued by {@link com.glucovision.noteservice.repository.NoteRepository} is explained
+ * with the {@code queryPlanner} verbosity, which only plans the query and does not read any document.
+ * A winning plan containing a {@code COLLSCAN} stage (full collection scan) or a blocking {@code SORT}
+ * stage (in-memory sort) is reported and logged as a warning.
+ * <p>
+ * The reports of the last check are kept for {@code note.indexes.health.refresh-interval}, so that the
+ * health endpoint, polled every few seconds, does not explain the queries again on each poll.
+ */
+@Slf4j
+@Component
+public class NoteIndexHealthCheck {
+
+    /** Patient ID used to plan the queries; the planner does not need it to exist. */
+    private static final String PROBE_PATIENT_ID = "index-health-probe";
+
+    private static final String COLLECTION_SCAN = "COLLSCAN";
+    private static final String IN_MEMORY_SORT = "SORT";
+
+    private final MongoTemplate mongoTemplate;
+    private final long refreshIntervalNanos;
+
+    private List<PlanReport> lastReports;
+    private long lastCheckNanos;
+
+    /**
+     * Creates the check.
+     *
+     * @param mongoTemplate   the template giving access to the note collection
+     * @param refreshInterval how long the reports of a check are reused by {@link #latest()}
+     */
+    public NoteIndexHealthCheck(MongoTemplate mongoTemplate,
+                                @Value("${note.indexes.health.refresh-interval:10m}") Duration refreshInterval) {
+        this.mongoTemplate = mongoTemplate;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+    }
+
+    /**
+     * Outcome of the plan inspection of a single query shape.
+     *
+     * @param query  a short description of the query
+     * @param stages the stages of the winning plan, from the root down
+     */
+    public record PlanReport(String query, List<String> stages) {
+
+        /**
+         * @return {@code true} if the winning plan scans the whole collection
+         */
+        public boolean collectionScan() {
+            return stages.contains(COLLECTION_SCAN);
+        }
+
+        /**
+         * @return {@code true} if the winning plan sorts the documents in memory
+         */
+        public boolean inMemorySort() {
+            return stages.contains(IN_MEMORY_SORT);
+        }
+
+        /**
+         * @return {@code true} if the query is fully served by an index
+         */
+        public boolean healthy() {
+            return !collectionScan() && !inMemorySort();
+        }
+    }
+
+    /**
+     * Explains every note query shape and logs a warning for each one that is not served by an index.
+     *
+     * @return one report per query shape
+     */
+    public synchronized List<PlanReport> check() {
+        String collection = mongoTemplate.getCollectionName(Note.class);
+        List<PlanReport> reports = new ArrayList<>();
+        reports.add(explain(collection, "notes by patient, sorted by creation date",
+                new Document("patientId", PROBE_PATIENT_ID),
+                new Document("creationDate", 1)));
+        reports.add(explain(collection, "note by patient and creation date",
+                new Document("patientId", PROBE_PATIENT_ID).append("creationDate", new Date(0)),
+                null));
+        reports.add(explain(collection, "notes of several patients",
+                new Document("patientId", new Document("$in", List.of(PROBE_PATIENT_ID, PROBE_PATIENT_ID + "-2"))),
+                null));
+
+        for (PlanReport report : reports) {
+            if (report.collectionScan()) {
+                log.warn("⚠️ [NOTE INDEX] Query '{}' scans the whole '{}' collection: {}",
+                        report.query(), collection, report.stages());
+            } else if (report.inMemorySort()) {
+                log.warn("⚠️ [NOTE INDEX] Query '{}' sorts in memory: {}", report.query(), report.stages());
+            } else {
+                log.debug("[NOTE INDEX] Query '{}' uses plan {}", report.query(), report.stages());
+            }
+        }
+        lastReports = List.copyOf(reports);
+        lastCheckNanos = System.nanoTime();
+        return lastReports;
+    }
+
+    /**
+     * Returns the reports of the last check, checking again when there is none or it is older than the
+     * refresh interval. A failed check is not kept, so the next call tries again.
+     *
+     * @return one report per query shape
+     */
+    public synchronized List<PlanReport> latest() {
+        if (lastReports == null || System.nanoTime() - lastCheckNanos >= refreshIntervalNanos) {
+            return check();
+        }
+        return lastReports;
+    }
+
+    private PlanReport explain(String collection, String query, Document filter, Document sort) {
+        Document find = new Document("find", collection).append("filter", filter);
+        if (sort != null) {
+            find.append("sort", sort);
+        }
+        Document command = new Document("explain", find).append("verbosity", "queryPlanner");
+        Document result = mongoTemplate.execute(db -> db.runCommand(command));
+
+        Document planner = result.get("queryPlanner", Document.class);
+        Object winningPlan = planner == null ? null : planner.get("winningPlan");
+        Set<String> stages = new LinkedHashSet<>();
+        collectStages(winningPlan, stages);
+        return new PlanReport(query, List.copyOf(stages));
+    }
+
+    /**
+     * Collects the {@code stage} names of a plan tree, whatever its nesting
+     * ({@code inputStage}, {@code inputStages}, or the {@code queryPlan} wrapper of the slot-based engine).
+     */
+    static void collectStages(Object node, Set<String> stages) {
+        if (node instanceof Map<?, ?> map) {
+            if (map.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            for (Object child : map.values()) {
+                collectStages(child, stages);
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object child : list) {
+                collectStages(child, stages);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.glucovision.noteservice.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes the result of the {@link NoteIndexHealthCheck} as the {@code noteIndexes} health component.
+ * <p>
+ * A query that is not served by an index is listed under {@code warnings} but keeps the status {@code UP}:
+ * the service still answers, only more slowly. The status is {@code UNKNOWN} when the plans cannot be read.
+ * The plans are those of the last check, refreshed every {@code note.indexes.health.refresh-interval}.
+ */
+@Component("noteIndexes")
+@RequiredArgsConstructor
+public class NoteIndexHealthIndicator implements HealthIndicator {
+
+    private final NoteIndexHealthCheck healthCheck;
+
+    @Override
+    public Health health() {
+        try {
+            Map<String, List<String>> plans = new LinkedHashMap<>();
+            List<String> warnings = new ArrayList<>();
+            for (NoteIndexHealthCheck.PlanReport report : healthCheck.latest()) {
+                plans.put(report.query(), report.stages());
+                if (report.collectionScan()) {
+                    warnings.add(report.query() + ": collection scan");
+                } else if (report.inMemorySort()) {
+                    warnings.add(report.query() + ": in-memory sort");
+                }
+            }
+            return Health.up()
+                    .withDetail("plans", plans)
+                    .withDetail("warnings", warnings)
+                    .build();
+        } catch (DataAccessException e) {
+            return Health.unknown().withException(e).build();
+        }
+    }
+}
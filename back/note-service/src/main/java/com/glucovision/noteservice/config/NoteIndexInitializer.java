@@ -0,0 +1,81 @@
+package com.glucovision.noteservice.config;
+
+import com.glucovision.noteservice.model.Note;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates and verifies the indexes of the {@code note} collection once the application is ready.
+ * <p>
+ * Spring Data does not create the indexes declared on {@link Note} by default
+ * ({@code spring.data.mongodb.auto-index-creation} is off), so they are ensured here: creating an index
+ * that already exists is a no-op. The index list is then read back to check that the compound
+ * {@code {patientId, creationDate}} index is present, and the query plans are checked by {@link NoteIndexHealthCheck}.
+ * <p>
+ * A failure is logged but does not prevent the service from starting, as it did not before.
+ * The bootstrap can be disabled with {@code note.indexes.bootstrap.enabled=false}.
+ */
+@Slf4j
+@Component
+public class NoteIndexInitializer {
+
+    private final MongoTemplate mongoTemplate;
+    private final NoteIndexHealthCheck healthCheck;
+    private final boolean enabled;
+
+    /**
+     * Creates the initializer.
+     *
+     * @param mongoTemplate the template giving access to the note collection
+     * @param healthCheck   the check run on the query plans once the indexes exist
+     * @param enabled       whether the indexes are ensured at startup
+     */
+    public NoteIndexInitializer(MongoTemplate mongoTemplate,
+                                NoteIndexHealthCheck healthCheck,
+                                @Value("${note.indexes.bootstrap.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.healthCheck = healthCheck;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Ensures the indexes declared on {@link Note}, verifies them and checks the query plans.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        if (!enabled) {
+            log.info("[NOTE INDEX] Index bootstrap disabled");
+            return;
+        }
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps(Note.class);
+            IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+            resolver.resolveIndexFor(Note.class).forEach(indexOps::ensureIndex);
+
+            List<IndexInfo> indexes = indexOps.getIndexInfo();
+            Set<String> names = indexes.stream().map(IndexInfo::getName).collect(Collectors.toSet());
+            if (!names.contains(Note.PATIENT_CREATION_INDEX)) {
+                log.error("❌ [NOTE INDEX] Index '{}' is missing from the note collection, found {}",
+                        Note.PATIENT_CREATION_INDEX, names);
+                return;
+            }
+            log.info("✅ [NOTE INDEX] Note collection indexes verified: {}", names);
+
+            healthCheck.check();
+        } catch (DataAccessException e) {
+            log.error("❌ [NOTE INDEX] Could not ensure the note collection indexes: {}", e.getMessage());
+        }
+    }
+}
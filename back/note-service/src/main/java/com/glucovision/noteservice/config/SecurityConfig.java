@@ -59,6 +59,10 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.GET, "/api/notes/**")
                         .hasAnyAuthority("ROLE_USER", "ROLE_ADMIN", "ROLE_INTERNAL_SERVICE")
+                        .requestMatchers(HttpMethod.POST, "/api/notes/patients", "/api/notes/patients/trigger-summary")
+                        .hasAnyAuthority("ROLE_USER", "ROLE_ADMIN", "ROLE_INTERNAL_SERVICE")
+                        // Authenticated by the internal API key in PatientStatusController
+                        .requestMatchers(HttpMethod.POST, "/api/notes/patient-status/events").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/notes/**")
                         .hasAnyAuthority("ROLE_USER", "ROLE_ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/notes/**")
@@ -0,0 +1,64 @@
+package com.glucovision.noteservice.config;
+
+import com.glucovision.noteservice.trigger.NormalizingTriggerMatcher;
+import com.glucovision.noteservice.trigger.TriggerDictionary;
+import com.glucovision.noteservice.trigger.TriggerMatcher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Provides the {@link TriggerMatcher} used to count risk trigger terms in medical notes.
+ * <p>
+ * The matcher is compiled once at startup and backs the trigger summaries served to the Diabetes Risk Service,
+ * so that the notes do not have to be downloaded to be scanned. Notes are normalized (accents, case, whitespace)
+ * before matching, and the synonyms from {@link TriggerProperties} are reported as their canonical term.
+ * <p>
+ * The terms and synonyms must stay identical to the ones of the Diabetes Risk Service: each trigger summary carries
+ * the {@link TriggerDictionary#version()}, and the Diabetes Risk Service scans the notes itself when it differs from
+ * the version of its own dictionary.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(TriggerProperties.class)
+public class TriggerMatcherConfig {
+
+    /**
+     * Trigger terms searched in the patient's notes, in bit order.
+     */
+    public static final List<String> TRIGGER_TERMS = List.of(
+            "HÉMOGLOBINE A1C", "MICROALBUMINE", "TAILLE", "POIDS", "FUMEUR",
+            "FUMEUSE", "ANORMAL", "CHOLESTÉROL", "VERTIGES", "RECHUTE",
+            "RÉACTION", "ANTICORPS"
+    );
+
+    /**
+     * Builds the normalizing matcher for the trigger terms and their configured synonyms.
+     *
+     * @param properties the configured synonyms
+     * @return the shared trigger matcher
+     */
+    @Bean
+    public TriggerMatcher triggerMatcher(TriggerProperties properties) {
+        log.info("Compiling trigger matcher for {} term(s) and {} synonym group(s)",
+                TRIGGER_TERMS.size(), properties.getSynonyms().size());
+        return new NormalizingTriggerMatcher(TRIGGER_TERMS, properties.synonymsByTerm());
+    }
+
+    /**
+     * Versions the trigger terms and synonyms the matcher was compiled with.
+     *
+     * @param triggerMatcher the shared trigger matcher
+     * @param properties     the configured synonyms
+     * @return the versioned dictionary used to tag the notes
+     */
+    @Bean
+    public TriggerDictionary triggerDictionary(TriggerMatcher triggerMatcher, TriggerProperties properties) {
+        TriggerDictionary dictionary = new TriggerDictionary(triggerMatcher, properties.synonymsByTerm());
+        log.info("Trigger dictionary version {}", dictionary.version());
+        return dictionary;
+    }
+}
@@ -1,23 +1,35 @@
 package com.glucovision.noteservice.controller;
 
+import com.glucovision.noteservice.dto.BulkNoteResult;
 import com.glucovision.noteservice.dto.NoteDto;
+import com.glucovision.noteservice.dto.TriggerSummaryDto;
 import com.glucovision.noteservice.exception.ErrorResponse;
+import com.glucovision.noteservice.service.BulkNoteService;
 import com.glucovision.noteservice.service.NoteService;
+import com.glucovision.noteservice.service.PatientDataService;
+import com.glucovision.noteservice.service.TriggerSummaryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 /**
@@ -25,8 +37,9 @@ import java.util.NoSuchElementException;
  * <p>
  * This controller allows users and administrators to:
  * <ul>
- *   <li>Create new medical notes</li>
+ *   <li>Create new medical notes, one at a time or in bulk</li>
  *   <li>Retrieve notes by patient ID</li>
+ *   <li>Retrieve a summary of the risk trigger terms found in a patient's notes</li>
  *   <li>Update or delete notes, with role-based restrictions</li>
  * </ul>
  * <p>
@@ -41,6 +54,9 @@ import java.util.NoSuchElementException;
 public class NoteController {
 
     private final NoteService noteService;
+    private final TriggerSummaryService triggerSummaryService;
+    private final PatientDataService patientDataService;
+    private final BulkNoteService bulkNoteService;
 
     /**
      * Creates a new medical note for a patient.
@@ -61,22 +77,101 @@ public class NoteController {
         return ResponseEntity.status(HttpStatus.CREATED).body(note);
     }
 
+    /**
+     * Creates many notes from a streamed NDJSON body (one note per line) or JSON array body.
+     * <p>
+     * The response is written while the body is read: one NDJSON {@link BulkNoteResult} per note, in request order.
+     *
+     * @param request  the request, whose body holds the notes
+     * @param response the response, receiving the results
+     * @throws IOException if the body cannot be read or the results cannot be written
+     */
+    @Operation(summary = "Create many notes from an NDJSON or JSON array body")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "One NDJSON result per note"),
+            @ApiResponse(responseCode = "400", description = "The JSON body is not an array")
+    })
+    @PostMapping(value = "/bulk",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void addNotes(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean ndjson = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+        log.info("[POST] Bulk note import ({})", ndjson ? "NDJSON" : "JSON array");
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        Map<BulkNoteResult.Status, Long> counts = bulkNoteService.importNotes(request.getInputStream(), ndjson, response.getOutputStream());
+        log.info("✅ Bulk note import done: {}", counts);
+    }
+
     /**
      * Retrieves all notes associated with a given patient ID.
+     * <p>
+     * When a clinician opens the patient, the patient's active status is loaded in the background,
+     * so that the notes written next do not wait for the Patient Service.
      *
-     * @param id the ID of the patient
+     * @param id             the ID of the patient
+     * @param authentication the caller
      * @return a list of notes
      */
     @Operation(summary = "Get all notes for a specific patient")
     @GetMapping("/patient/{id}")
     public ResponseEntity<List<NoteDto>> findById(
-            @Parameter(description = "Patient ID") @PathVariable String id) {
+            @Parameter(description = "Patient ID") @PathVariable String id,
+            @Parameter(hidden = true) Authentication authentication) {
         log.info("[GET] Retrieving notes for patientId={}", id);
+        if (!isInternalService(authentication)) {
+            patientDataService.prefetchAsync(List.of(id));
+        }
         List<NoteDto> noteDtoList = noteService.findAllByPatientId(id);
         log.info("✅ {} note(s) retrieved", noteDtoList.size());
         return ResponseEntity.ok(noteDtoList);
     }
 
+    /**
+     * Retrieves the notes of several patients in one call.
+     *
+     * @param patientIds the IDs of the patients
+     * @return the notes of each requested patient, keyed by patient ID
+     */
+    @Operation(summary = "Get the notes of several patients")
+    @PostMapping("/patients")
+    public ResponseEntity<Map<String, List<NoteDto>>> findByPatientIds(@RequestBody List<String> patientIds) {
+        log.info("[POST] Retrieving notes for {} patient(s)", patientIds.size());
+        Map<String, List<NoteDto>> notesByPatient = noteService.findAllByPatientIds(patientIds);
+        log.info("✅ Notes retrieved for {} patient(s)", notesByPatient.size());
+        return ResponseEntity.ok(notesByPatient);
+    }
+
+    /**
+     * Summarizes the risk trigger terms found in the notes of a patient, without returning the notes.
+     *
+     * @param id the ID of the patient
+     * @return the note count, the trigger count and the matched terms
+     */
+    @Operation(summary = "Get the trigger term summary of a patient's notes")
+    @GetMapping("/patient/{id}/trigger-summary")
+    public ResponseEntity<TriggerSummaryDto> getTriggerSummary(
+            @Parameter(description = "Patient ID") @PathVariable String id) {
+        log.info("[GET] Summarizing trigger terms for patientId={}", id);
+        TriggerSummaryDto summary = triggerSummaryService.summarize(id);
+        log.info("✅ {} trigger(s) found in {} note(s)", summary.getTriggerCount(), summary.getNoteCount());
+        return ResponseEntity.ok(summary);
+    }
+
+    /**
+     * Summarizes the risk trigger terms found in the notes of several patients in one call.
+     *
+     * @param patientIds the IDs of the patients
+     * @return the trigger summary of each requested patient, keyed by patient ID
+     */
+    @Operation(summary = "Get the trigger term summaries of several patients")
+    @PostMapping("/patients/trigger-summary")
+    public ResponseEntity<Map<String, TriggerSummaryDto>> getTriggerSummaries(@RequestBody List<String> patientIds) {
+        log.info("[POST] Summarizing trigger terms for {} patient(s)", patientIds.size());
+        Map<String, TriggerSummaryDto> summaries = triggerSummaryService.summarize(patientIds);
+        log.info("✅ Trigger summaries computed for {} patient(s)", summaries.size());
+        return ResponseEntity.ok(summaries);
+    }
+
     /**
      * Updates an existing note if it was created less than 24 hours ago.
      *
@@ -188,4 +283,10 @@ public class NoteController {
                     .body(new ErrorResponse(e.getMessage()));
         }
     }
+
+    private static boolean isInternalService(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch("ROLE_INTERNAL_SERVICE"::equals);
+    }
 }
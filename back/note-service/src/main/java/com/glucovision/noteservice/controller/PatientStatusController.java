@@ -0,0 +1,101 @@
+package com.glucovision.noteservice.controller;
+
+import com.glucovision.noteservice.dto.PatientStatusEvent;
+import com.glucovision.noteservice.service.PatientDataService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * Endpoints maintaining the cache of the patients' active status.
+ * <p>
+ * The Patient Service posts a {@link PatientStatusEvent} when a patient is activated, deactivated or deleted;
+ * it authenticates with the shared internal API key in the {@code Internal-Api-Key} header, as for internal
+ * token requests. The front end can ask for the statuses of several patients to be loaded ahead of note entry.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/notes/patient-status")
+@Tag(name = "Patient status", description = "Cache of the patients' active status")
+public class PatientStatusController {
+
+    /** Largest number of patients accepted by a prefetch request. */
+    static final int MAX_PREFETCH = 500;
+
+    private final PatientDataService patientDataService;
+    private final byte[] internalApiKey;
+
+    /**
+     * Creates the controller.
+     *
+     * @param patientDataService the service owning the status cache
+     * @param internalApiKey     the API key shared by the internal services
+     */
+    public PatientStatusController(PatientDataService patientDataService,
+                                   @Value("${internal.api.key}") String internalApiKey) {
+        this.patientDataService = patientDataService;
+        this.internalApiKey = internalApiKey.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Accepts a status change notification from the Patient Service.
+     *
+     * @param apiKey the internal API key
+     * @param event  the change
+     * @return HTTP 202 once the cached status is dropped, 401 if the key is wrong
+     */
+    @Operation(summary = "Notify a change of a patient's active status (internal)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Cached status dropped"),
+            @ApiResponse(responseCode = "400", description = "Invalid event"),
+            @ApiResponse(responseCode = "401", description = "Missing or wrong internal API key")
+    })
+    @PostMapping("/events")
+    public ResponseEntity<Void> onEvent(@RequestHeader(value = "Internal-Api-Key", required = false) String apiKey,
+                                        @Valid @RequestBody PatientStatusEvent event) {
+        if (apiKey == null || !MessageDigest.isEqual(internalApiKey, apiKey.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("❌ [PATIENT STATUS EVENTS] Rejected event with a missing or wrong API key");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        log.info("[PATIENT STATUS EVENTS] {} for patientId={}", event.getReason(), event.getPatientId());
+        patientDataService.invalidate(event.getPatientId());
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * Loads the active status of several patients in the background, with a single call to the Patient Service.
+     *
+     * @param patientIds the IDs of the patients, at most {@value #MAX_PREFETCH}
+     * @return HTTP 202 once the load is started
+     * @throws IllegalArgumentException if more than {@value #MAX_PREFETCH} patients are requested
+     */
+    @Operation(summary = "Load the active status of several patients ahead of note entry")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Load started"),
+            @ApiResponse(responseCode = "400", description = "Too many patients")
+    })
+    @PostMapping("/prefetch")
+    public ResponseEntity<Void> prefetch(@RequestBody List<String> patientIds) {
+        if (patientIds.size() > MAX_PREFETCH) {
+            throw new IllegalArgumentException("At most " + MAX_PREFETCH + " patients can be prefetched at once");
+        }
+        log.info("[POST] Prefetching the status of {} patient(s)", patientIds.size());
+        patientDataService.prefetchAsync(patientIds);
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.glucovision.noteservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one note of a bulk import, written as one NDJSON line of the {@code POST /api/notes/bulk} response.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Outcome of one note of a bulk import")
+public class BulkNoteResult {
+
+    /**
+     * What happened to the note.
+     */
+    public enum Status {
+        /** The note was written. */
+        CREATED,
+        /** The note is invalid or its patient is inactive or unknown; sending it again will not help. */
+        REJECTED,
+        /** The note could not be written for now, e.g. the Patient Service or the database failed; it can be sent again. */
+        FAILED
+    }
+
+    @Schema(description = "Position of the note in the request, starting at 0", example = "0")
+    private long index;
+
+    @Schema(description = "Patient of the note, when it could be read", example = "8e1f3b34-5c7e-4c17-9df6-bc6dd40efc62")
+    private String patientId;
+
+    @Schema(description = "What happened to the note", example = "CREATED")
+    private Status status;
+
+    @Schema(description = "Why the note was not written", example = "Patient not found")
+    private String error;
+}
@@ -1,6 +1,7 @@
 package com.glucovision.noteservice.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -62,4 +63,12 @@ public class NoteDto {
      */
     @Schema(description = "Date and time when the note was last modified", example = "2025-05-14T09:10:00.000")
     private LocalDateTime modificationDate;
+
+    /**
+     * Number of distinct risk trigger terms found in the note, precomputed when the note was written.
+     * Ignored on input; absent while the note has not been tagged with the current trigger dictionary.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Number of distinct risk trigger terms found in the note", example = "2", accessMode = Schema.AccessMode.READ_ONLY)
+    private Integer triggerCount;
 }
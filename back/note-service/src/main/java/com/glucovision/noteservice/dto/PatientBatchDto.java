@@ -0,0 +1,23 @@
+package com.glucovision.noteservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a bulk patient lookup by UID on the Patient Service, {@code POST /api/patients/batch}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PatientBatchDto {
+
+    /** Patients found for the requested UIDs. */
+    private List<PatientStatusDto> patients = new ArrayList<>();
+
+    /** Requested UIDs that do not match any patient. */
+    private List<String> missing = new ArrayList<>();
+}
@@ -0,0 +1,17 @@
+package com.glucovision.noteservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The part of a patient returned by the Patient Service that the Note Service uses: its UID and active status.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PatientStatusDto {
+
+    private String uid;
+    private Boolean active;
+}
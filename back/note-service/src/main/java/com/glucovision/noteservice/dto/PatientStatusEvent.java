@@ -0,0 +1,39 @@
+package com.glucovision.noteservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Notification that the active status of a patient may have changed.
+ * <p>
+ * Sent by the Patient Service to {@code POST /api/notes/patient-status/events} so that the cached status
+ * of the patient is dropped.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Change of the active status of a patient")
+public class PatientStatusEvent {
+
+    /**
+     * What changed.
+     */
+    public enum Reason {
+        /** The patient was activated or deactivated. */
+        STATUS_CHANGED,
+        /** The patient was deleted. */
+        PATIENT_DELETED
+    }
+
+    @NotNull(message = "Reason is required")
+    @Schema(description = "What changed", example = "STATUS_CHANGED", required = true)
+    private Reason reason;
+
+    @NotBlank(message = "PatientId is required")
+    @Schema(description = "Patient whose status may have changed", example = "8e1f3b34-5c7e-4c17-9df6-bc6dd40efc62", required = true)
+    private String patientId;
+}
@@ -0,0 +1,34 @@
+package com.glucovision.noteservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Notification sent to the Diabetes Risk Service when the data a patient's risk level depends on has changed,
+ * so that its cached risk level is dropped.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RiskInvalidationEvent {
+
+    /**
+     * What changed; must match the reasons accepted by {@code POST /api/risk/events}.
+     */
+    public enum Reason {
+        /** A note was added, updated or deleted. */
+        NOTE_CHANGED,
+        /** The birth date or the gender of the patient changed. */
+        PATIENT_CHANGED,
+        /** The patient was activated or deactivated. */
+        PATIENT_STATUS_CHANGED,
+        /** The patient was deleted. */
+        PATIENT_DELETED,
+        /** Earlier events were dropped by the sender; sent without a patient. */
+        EVENTS_DROPPED
+    }
+
+    private Reason reason;
+    private String patientId;
+}
@@ -0,0 +1,51 @@
+package com.glucovision.noteservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact summary of the risk trigger terms found in the notes of a patient.
+ * <p>
+ * Returned instead of the notes themselves to the Diabetes Risk Service, which only needs the counts.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Summary of the risk trigger terms found in the notes of a patient")
+public class TriggerSummaryDto {
+
+    /**
+     * Unique identifier of the patient.
+     */
+    @Schema(description = "Unique identifier of the patient", example = "8e1f3b34-5c7e-4c17-9df6-bc6dd40efc62")
+    private String patientId;
+
+    /**
+     * Number of notes of the patient.
+     */
+    @Schema(description = "Number of notes of the patient", example = "3")
+    private int noteCount;
+
+    /**
+     * Sum over the notes of the number of distinct trigger terms found in each note.
+     */
+    @Schema(description = "Sum over the notes of the distinct trigger terms found in each note", example = "4")
+    private int triggerCount;
+
+    /**
+     * Distinct trigger terms found in at least one note, in dictionary order.
+     */
+    @Schema(description = "Distinct trigger terms found in at least one note", example = "[\"POIDS\", \"FUMEUR\"]")
+    private List<String> matchedTerms = new ArrayList<>();
+
+    /**
+     * Version of the trigger dictionary the counts were computed with, see {@code TriggerDictionary#version()}.
+     */
+    @Schema(description = "Version of the trigger dictionary the counts were computed with", example = "3f9a1c0d52e7b814")
+    private String dictionaryVersion;
+}
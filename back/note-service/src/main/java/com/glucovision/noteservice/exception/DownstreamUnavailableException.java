@@ -0,0 +1,17 @@
+package com.glucovision.noteservice.exception;
+
+/**
+ * Exception thrown when a downstream service cannot answer: its circuit breaker is open,
+ * too many calls to it are already running, or it did not answer in time.
+ */
+public class DownstreamUnavailableException extends RuntimeException {
+
+    /**
+     * Constructs a new DownstreamUnavailableException with a specific message.
+     *
+     * @param message the detail message naming the unavailable service
+     */
+    public DownstreamUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -31,6 +31,18 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse(ex.getMessage()));
     }
 
+    /**
+     * Handles invalid request arguments, such as a request exceeding a size limit.
+     *
+     * @param ex the exception thrown
+     * @return a 400 BAD REQUEST response with the exception message
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleBadRequest(IllegalArgumentException ex) {
+        return ResponseEntity.badRequest()
+                .body(new ErrorResponse(ex.getMessage()));
+    }
+
     /**
      * Handles validation errors on request body parameters (e.g. @Valid).
      *
@@ -72,6 +84,18 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse(ex.getMessage()));
     }
 
+    /**
+     * Handles {@link DownstreamUnavailableException} when a downstream service is down, saturated or too slow.
+     *
+     * @param ex the exception thrown
+     * @return a 503 SERVICE UNAVAILABLE response with the exception message
+     */
+    @ExceptionHandler(DownstreamUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleDownstreamUnavailable(DownstreamUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ErrorResponse(ex.getMessage()));
+    }
+
     /**
      * Handles all unexpected exceptions not explicitly caught by other handlers.
      *
@@ -3,6 +3,7 @@ package com.glucovision.noteservice.model;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 
@@ -18,11 +19,19 @@ import java.util.UUID;
  *     <li>A timestamp for when the note was created</li>
  *     <li>An optional modification timestamp</li>
  * </ul>
+ * The compound {@code {patientId, creationDate}} index serves every note query of the service: lookups by
+ * patient (optionally sorted by date) and the exact {@code patientId + creationDate} match used on update.
  */
 @Data
 @Document(collection = "note")
+@CompoundIndex(name = Note.PATIENT_CREATION_INDEX, def = "{'patientId': 1, 'creationDate': 1}")
 public class Note {
 
+    /**
+     * Name of the compound index on {@code patientId} and {@code creationDate}.
+     */
+    public static final String PATIENT_CREATION_INDEX = "idx_note_patient_creation";
+
     /**
      * Default constructor for framework usage.
      */
@@ -67,4 +76,20 @@ public class Note {
      * Timestamp when the note was last modified, if applicable.
      */
     private LocalDateTime modificationDate;
+
+    /**
+     * Bitmask of the distinct risk trigger terms found in the comments, in the bit order of the trigger dictionary.
+     * Computed when the note is written; {@code null} for a note that has not been tagged yet.
+     */
+    private Long triggerMask;
+
+    /**
+     * Number of distinct risk trigger terms found in the comments, i.e. the bit count of {@link #triggerMask}.
+     */
+    private Integer triggerCount;
+
+    /**
+     * Version of the trigger dictionary {@link #triggerMask} was computed with.
+     */
+    private String triggerVersion;
 }
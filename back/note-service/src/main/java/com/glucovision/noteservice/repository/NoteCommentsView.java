@@ -0,0 +1,18 @@
+package com.glucovision.noteservice.repository;
+
+/**
+ * Projection of a {@link com.glucovision.noteservice.model.Note} reduced to its content, read to scan the notes
+ * whose precomputed trigger bitmask is missing or stale.
+ */
+public interface NoteCommentsView {
+
+    /**
+     * @return the ID of the note
+     */
+    String getId();
+
+    /**
+     * @return the content of the note
+     */
+    String getComments();
+}
@@ -4,6 +4,7 @@ import com.glucovision.noteservice.model.Note;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +23,38 @@ public interface NoteRepository extends MongoRepository<Note, String> {
      */
     List<Note> findAllByPatientId(String patientId);
 
+    /**
+     * Retrieves all notes associated with any of the given patient IDs.
+     *
+     * @param patientIds the IDs of the patients
+     * @return the notes linked to the specified patients, in no particular order
+     */
+    List<Note> findAllByPatientIdIn(Collection<String> patientIds);
+
+    /**
+     * Retrieves the trigger tags of the notes of a given patient, without their content or dates.
+     *
+     * @param patientId the ID of the patient
+     * @return the trigger view of each note of the patient
+     */
+    List<NoteTriggerView> findTriggersByPatientId(String patientId);
+
+    /**
+     * Retrieves the trigger tags of the notes of any of the given patients, without their content or dates.
+     *
+     * @param patientIds the IDs of the patients
+     * @return the trigger view of each note of these patients, in no particular order
+     */
+    List<NoteTriggerView> findTriggersByPatientIdIn(Collection<String> patientIds);
+
+    /**
+     * Retrieves the content of the given notes, without the other fields.
+     *
+     * @param ids the IDs of the notes
+     * @return the content of each note found, in no particular order
+     */
+    List<NoteCommentsView> findCommentsByIdIn(Collection<String> ids);
+
     /**
      * Finds a specific note by patient ID and its exact creation date.
      *
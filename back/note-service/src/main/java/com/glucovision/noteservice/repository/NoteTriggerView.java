@@ -0,0 +1,31 @@
+package com.glucovision.noteservice.repository;
+
+/**
+ * Projection of a {@link com.glucovision.noteservice.model.Note} reduced to what the trigger summaries need,
+ * so that the other fields are not read from MongoDB.
+ * <p>
+ * The content of the note is left out: it is only read, through {@link NoteCommentsView}, for the notes whose
+ * precomputed bitmask is missing or stale.
+ */
+public interface NoteTriggerView {
+
+    /**
+     * @return the ID of the note
+     */
+    String getId();
+
+    /**
+     * @return the ID of the patient associated with the note
+     */
+    String getPatientId();
+
+    /**
+     * @return the precomputed trigger bitmask, or {@code null} if the note has not been tagged
+     */
+    Long getTriggerMask();
+
+    /**
+     * @return the version of the trigger dictionary the bitmask was computed with
+     */
+    String getTriggerVersion();
+}
@@ -0,0 +1,342 @@
+package com.glucovision.noteservice.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.glucovision.noteservice.client.RiskEventPublisher;
+import com.glucovision.noteservice.dto.BulkNoteResult;
+import com.glucovision.noteservice.dto.NoteDto;
+import com.glucovision.noteservice.dto.RiskInvalidationEvent;
+import com.glucovision.noteservice.model.Note;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports a stream of notes, e.g. when migrating the history of a legacy system.
+ * <p>
+ * The notes are read one at a time from an NDJSON or JSON array body and written by batches of
+ * {@code note.bulk.batch-size} with one ordered Mongo bulk insert each, so memory use does not depend on the
+ * size of the body. Each note is validated like a note sent to {@code POST /api/notes}; the active status of
+ * its patient is checked once per import, the statuses of a batch being loaded with a single call to the
+ * Patient Service. Up to {@code note.bulk.patient-memo-size} statuses are remembered during an import.
+ * <p>
+ * One {@link BulkNoteResult} per note is written to the output as NDJSON, in request order, after the batch of
+ * the note is written. The Diabetes Risk Service is notified once per patient and batch.
+ */
+@Slf4j
+@Service
+public class BulkNoteService {
+
+    private final NoteService noteService;
+    private final PatientDataService patientDataService;
+    private final MongoTemplate mongoTemplate;
+    private final RiskEventPublisher riskEventPublisher;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter resultWriter;
+    private final Validator validator;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final int patientMemoSize;
+
+    /**
+     * Creates the service.
+     *
+     * @param noteService        the note service, converting and tagging the notes
+     * @param patientDataService the service checking the patients' active status
+     * @param mongoTemplate      the template giving access to the note collection
+     * @param riskEventPublisher the publisher notifying the Diabetes Risk Service
+     * @param objectMapper       the mapper reading the notes and writing the results
+     * @param validator          the validator applying the {@link NoteDto} constraints
+     * @param meterRegistry      the registry receiving the import metrics
+     * @param batchSize          the number of notes written per bulk insert
+     * @param patientMemoSize    the number of patient statuses remembered during an import
+     */
+    public BulkNoteService(NoteService noteService,
+                           PatientDataService patientDataService,
+                           MongoTemplate mongoTemplate,
+                           RiskEventPublisher riskEventPublisher,
+                           ObjectMapper objectMapper,
+                           Validator validator,
+                           MeterRegistry meterRegistry,
+                           @Value("${note.bulk.batch-size:500}") int batchSize,
+                           @Value("${note.bulk.patient-memo-size:10000}") int patientMemoSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("note.bulk.batch-size must be at least 1");
+        }
+        this.noteService = noteService;
+        this.patientDataService = patientDataService;
+        this.mongoTemplate = mongoTemplate;
+        this.riskEventPublisher = riskEventPublisher;
+        this.objectMapper = objectMapper;
+        this.resultWriter = objectMapper.writerFor(BulkNoteResult.class);
+        this.validator = validator;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.patientMemoSize = patientMemoSize;
+    }
+
+    /**
+     * Imports the notes read from the input and writes one result per note to the output.
+     *
+     * @param input  the request body
+     * @param ndjson {@code true} if the body holds one note per line, {@code false} if it is a JSON array
+     * @param output the response body, receiving the results as NDJSON
+     * @return the number of notes per status
+     * @throws IllegalArgumentException if a JSON array body does not start with an array; nothing is written then
+     * @throws IOException              if the request or the response cannot be read or written
+     */
+    public Map<BulkNoteResult.Status, Long> importNotes(InputStream input, boolean ndjson, OutputStream output) throws IOException {
+        Import run = new Import(output);
+        if (ndjson) {
+            readLines(input, run);
+        } else {
+            readArray(input, run);
+        }
+        run.flush();
+
+        log.info("✅ [BULK NOTES] {} note(s) read: {}", run.index, run.counts);
+        return run.counts;
+    }
+
+    private void readLines(InputStream input, Import run) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                run.add(objectMapper.readValue(line, NoteDto.class));
+            } catch (JsonProcessingException e) {
+                run.reject(null, "Malformed note: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void readArray(InputStream input, Import run) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("A JSON array of notes is expected");
+            }
+            try {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    JsonNode node = parser.readValueAsTree();
+                    try {
+                        run.add(objectMapper.treeToValue(node, NoteDto.class));
+                    } catch (JsonProcessingException e) {
+                        run.reject(null, "Malformed note: " + e.getOriginalMessage());
+                    }
+                }
+            } catch (JsonParseException e) {
+                run.reject(null, "Malformed JSON, the import stopped here: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    /**
+     * State of one import: the pending batch, the results waiting for it and the statuses already checked.
+     */
+    private final class Import {
+
+        private final OutputStream output;
+        private final Map<BulkNoteResult.Status, Long> counts = new LinkedHashMap<>();
+        private final Map<String, Boolean> activePatients = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > patientMemoSize;
+            }
+        };
+        private final List<BulkNoteResult> results = new ArrayList<>();
+        private final List<NoteDto> pending = new ArrayList<>();
+        private final List<BulkNoteResult> pendingResults = new ArrayList<>();
+        private long index;
+
+        private Import(OutputStream output) {
+            this.output = output;
+            for (BulkNoteResult.Status status : BulkNoteResult.Status.values()) {
+                counts.put(status, 0L);
+            }
+        }
+
+        void add(NoteDto note) throws IOException {
+            if (note == null) {
+                reject(null, "Malformed note: null");
+                return;
+            }
+            Set<ConstraintViolation<NoteDto>> violations = validator.validate(note);
+            if (!violations.isEmpty()) {
+                reject(note.getPatientId(), violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                return;
+            }
+            BulkNoteResult result = new BulkNoteResult(index++, note.getPatientId(), null, null);
+            results.add(result);
+            pending.add(note);
+            pendingResults.add(result);
+            if (results.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(String patientId, String error) throws IOException {
+            results.add(new BulkNoteResult(index++, patientId, BulkNoteResult.Status.REJECTED, error));
+            if (results.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        /**
+         * Writes the pending notes, then the results of every note read since the previous flush.
+         */
+        void flush() throws IOException {
+            if (!pending.isEmpty()) {
+                write();
+            }
+            for (BulkNoteResult result : results) {
+                counts.merge(result.getStatus(), 1L, Long::sum);
+                meterRegistry.counter("note.bulk.notes", "status", result.getStatus().name()).increment();
+                output.write(resultWriter.writeValueAsBytes(result));
+                output.write('\n');
+            }
+            output.flush();
+            results.clear();
+            pending.clear();
+            pendingResults.clear();
+        }
+
+        private void write() {
+            Map<String, String> patientErrors = checkPatients();
+
+            List<Note> notes = new ArrayList<>(pending.size());
+            List<BulkNoteResult> written = new ArrayList<>(pending.size());
+            for (int i = 0; i < pending.size(); i++) {
+                NoteDto note = pending.get(i);
+                BulkNoteResult result = pendingResults.get(i);
+                Boolean active = activePatients.get(note.getPatientId());
+                if (patientErrors.containsKey(note.getPatientId())) {
+                    fail(result, BulkNoteResult.Status.FAILED, patientErrors.get(note.getPatientId()));
+                } else if (!Boolean.TRUE.equals(active)) {
+                    fail(result, BulkNoteResult.Status.REJECTED, "Patient not found");
+                } else {
+                    notes.add(noteService.tagTriggers(noteService.convertToEntity(note)));
+                    written.add(result);
+                }
+            }
+            if (notes.isEmpty()) {
+                return;
+            }
+
+            int inserted = insert(notes, written);
+            Set<String> changedPatients = new LinkedHashSet<>();
+            for (int i = 0; i < inserted; i++) {
+                if (written.get(i).getStatus() == null) {
+                    written.get(i).setStatus(BulkNoteResult.Status.CREATED);
+                    changedPatients.add(written.get(i).getPatientId());
+                }
+            }
+            for (String patientId : changedPatients) {
+                riskEventPublisher.publish(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.NOTE_CHANGED, patientId));
+            }
+        }
+
+        /**
+         * Inserts the notes in order.
+         *
+         * @return the number of leading notes that were handled by the database, successfully unless marked failed
+         */
+        private int insert(List<Note> notes, List<BulkNoteResult> written) {
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Note.class)
+                        .insert(notes)
+                        .execute();
+                return notes.size();
+            } catch (BulkOperationException e) {
+                // Ordered: the notes before the first error are written, the ones after it are not tried
+                int firstError = notes.size();
+                for (BulkWriteError error : e.getErrors()) {
+                    fail(written.get(error.getIndex()), BulkNoteResult.Status.FAILED, error.getMessage());
+                    firstError = Math.min(firstError, error.getIndex());
+                }
+                for (int i = firstError + 1; i < notes.size(); i++) {
+                    fail(written.get(i), BulkNoteResult.Status.FAILED, "Not written, an earlier note of the batch failed");
+                }
+                log.warn("⚠️ [BULK NOTES] Batch stopped at note {} of {}: {}", firstError, notes.size(), e.getMessage());
+                return Math.min(firstError + 1, notes.size());
+            } catch (DataAccessException e) {
+                for (BulkNoteResult result : written) {
+                    fail(result, BulkNoteResult.Status.FAILED, "Database error: " + e.getMessage());
+                }
+                log.error("❌ [BULK NOTES] Batch of {} note(s) not written: {}", notes.size(), e.getMessage());
+                return 0;
+            }
+        }
+
+        /**
+         * Checks the active status of the patients of the batch that were not checked yet.
+         *
+         * @return the error of each patient whose status could not be obtained
+         */
+        private Map<String, String> checkPatients() {
+            Set<String> unknown = new LinkedHashSet<>();
+            for (NoteDto note : pending) {
+                if (!activePatients.containsKey(note.getPatientId())) {
+                    unknown.add(note.getPatientId());
+                }
+            }
+            if (unknown.isEmpty()) {
+                return Map.of();
+            }
+
+            try {
+                patientDataService.prefetch(unknown);
+            } catch (RuntimeException e) {
+                log.warn("⚠️ [BULK NOTES] Bulk status lookup failed, checking {} patient(s) one by one: {}",
+                        unknown.size(), e.getMessage());
+            }
+            Map<String, String> errors = new HashMap<>();
+            for (String patientId : unknown) {
+                try {
+                    activePatients.put(patientId, patientDataService.isActivePatient(patientId));
+                } catch (RuntimeException e) {
+                    errors.put(patientId, "Patient status unavailable: " + e.getMessage());
+                }
+            }
+            return errors;
+        }
+
+        private void fail(BulkNoteResult result, BulkNoteResult.Status status, String error) {
+            result.setStatus(status);
+            result.setError(error);
+        }
+    }
+}
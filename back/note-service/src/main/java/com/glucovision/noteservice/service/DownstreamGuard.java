@@ -0,0 +1,103 @@
+package com.glucovision.noteservice.service;
+
+import com.glucovision.noteservice.exception.DownstreamUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the Feign calls to a downstream service through the circuit breaker, semaphore bulkhead and
+ * time limiter named after the service, as configured under {@code resilience4j.*}.
+ * <p>
+ * While the circuit is open, or when the bulkhead is full, a call fails at once with a
+ * {@link DownstreamUnavailableException} instead of waiting for a slow service. A call outlasting the time
+ * limit fails the same way. The Feign call itself runs as a {@link java.util.concurrent.FutureTask} on a virtual
+ * thread, which the time limiter interrupts when it abandons the call ({@code cancel-running-future}): the blocked
+ * socket read is closed, so an abandoned call stops instead of running on past its bulkhead permit.
+ * Errors returned by the service are rethrown unchanged.
+ */
+@Slf4j
+@Component
+public class DownstreamGuard {
+
+    /** Name of the circuit breaker, bulkhead and time limiter of the Patient Service. */
+    public static final String PATIENT_SERVICE = "patient-service";
+
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final TimeLimiterRegistry timeLimiters;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("downstream-", 0).factory());
+
+    /**
+     * Creates the guard on the registries configured from the application properties.
+     *
+     * @param circuitBreakers the circuit breakers, one per downstream service
+     * @param bulkheads       the semaphore bulkheads, one per downstream service
+     * @param timeLimiters    the time limiters, one per downstream service
+     */
+    public DownstreamGuard(CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads, TimeLimiterRegistry timeLimiters) {
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+        this.timeLimiters = timeLimiters;
+    }
+
+    /**
+     * Calls a downstream service.
+     *
+     * @param service the name of the service, e.g. {@link #PATIENT_SERVICE}
+     * @param call    the Feign call
+     * @param <T>     the type of the response
+     * @return the response of the service
+     * @throws DownstreamUnavailableException if the circuit is open, the bulkhead is full or the service does not answer in time
+     */
+    public <T> T call(String service, Supplier<T> call) {
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(service);
+        Bulkhead bulkhead = bulkheads.bulkhead(service);
+        TimeLimiter timeLimiter = timeLimiters.timeLimiter(service);
+
+        // executor.submit returns a FutureTask, whose cancel(true) interrupts the running call; a CompletableFuture's does not
+        Callable<T> limited = timeLimiter.decorateFutureSupplier(() -> executor.submit(call::get));
+        Callable<T> guarded = circuitBreaker.decorateCallable(Bulkhead.decorateCallable(bulkhead, limited));
+        try {
+            return guarded.call();
+        } catch (CallNotPermittedException e) {
+            log.warn("⛔ [DOWNSTREAM] {} call rejected, circuit is {}", service, circuitBreaker.getState());
+            throw new DownstreamUnavailableException(service + " is unavailable, its circuit breaker is open");
+        } catch (BulkheadFullException e) {
+            log.warn("⛔ [DOWNSTREAM] {} call rejected, {} call(s) already running", service,
+                    bulkhead.getBulkheadConfig().getMaxConcurrentCalls());
+            throw new DownstreamUnavailableException(service + " is saturated, too many calls are running");
+        } catch (TimeoutException e) {
+            log.warn("⏱️ [DOWNSTREAM] {} call abandoned after the time limit", service);
+            throw new DownstreamUnavailableException(service + " did not answer within "
+                    + timeLimiter.getTimeLimiterConfig().getTimeoutDuration().toMillis() + " ms");
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DownstreamUnavailableException("Interrupted while calling " + service);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,16 +1,23 @@
 package com.glucovision.noteservice.service;
 
+import com.glucovision.noteservice.client.RiskEventPublisher;
 import com.glucovision.noteservice.dto.NoteDto;
+import com.glucovision.noteservice.dto.RiskInvalidationEvent;
 import com.glucovision.noteservice.exception.PatientNotFoundException;
 import com.glucovision.noteservice.model.Note;
 import com.glucovision.noteservice.repository.NoteRepository;
+import com.glucovision.noteservice.trigger.TriggerDictionary;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 /**
@@ -21,6 +28,10 @@ import java.util.stream.Collectors;
  * <p>
  * It also enforces validation rules, such as checking if a patient is active
  * and whether a note is eligible for modification or deletion.
+ * <p>
+ * Every written note is tagged with the risk trigger terms found in its comments
+ * (see {@link #tagTriggers(Note)}), so that they are not searched again on each risk evaluation.
+ * Every write is also notified to the Diabetes Risk Service, which drops the patient's cached risk level.
  */
 @Slf4j
 @Service
@@ -30,6 +41,8 @@ public class NoteService {
 
     private final NoteRepository noteRepository;
     private final PatientDataService patientDataService;
+    private final TriggerDictionary triggerDictionary;
+    private final RiskEventPublisher riskEventPublisher;
 
     /**
      * Converts a {@link Note} entity into a {@link NoteDto}.
@@ -43,6 +56,9 @@ public class NoteService {
         noteDto.setComments(note.getComments());
         noteDto.setCreationDate(note.getCreationDate());
         noteDto.setModificationDate(note.getModificationDate());
+        if (triggerDictionary.version().equals(note.getTriggerVersion())) {
+            noteDto.setTriggerCount(note.getTriggerCount());
+        }
         return noteDto;
     }
 
@@ -61,6 +77,20 @@ public class NoteService {
         return note;
     }
 
+    /**
+     * Computes the trigger bitmask and count of a note from its comments, with the current trigger dictionary.
+     *
+     * @param note the note to tag, before it is saved
+     * @return the same note
+     */
+    public Note tagTriggers(Note note) {
+        long mask = triggerDictionary.match(note.getComments());
+        note.setTriggerMask(mask);
+        note.setTriggerCount(Long.bitCount(mask));
+        note.setTriggerVersion(triggerDictionary.version());
+        return note;
+    }
+
     /**
      * Adds a new note for a given patient if the patient is active.
      *
@@ -74,8 +104,9 @@ public class NoteService {
             throw new PatientNotFoundException("Patient not found");
         }
         log.info("Adding note to patient with id {}", noteDto.getPatientId());
-        Note note = convertToEntity(noteDto);
+        Note note = tagTriggers(convertToEntity(noteDto));
         Note saveNote = noteRepository.save(note);
+        notifyNoteChanged(saveNote);
         return convertToDto(saveNote);
     }
 
@@ -90,6 +121,25 @@ public class NoteService {
                 .map(this::convertToDto).collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves the notes of several patients with a single query.
+     * <p>
+     * Every requested patient ID is present in the result, mapped to an empty list when the patient has no note.
+     *
+     * @param patientIds the IDs of the patients
+     * @return the note DTOs of each patient, keyed by patient ID in request order
+     */
+    public Map<String, List<NoteDto>> findAllByPatientIds(Collection<String> patientIds) {
+        Map<String, List<NoteDto>> notesByPatient = new LinkedHashMap<>();
+        for (String patientId : patientIds) {
+            notesByPatient.put(patientId, new ArrayList<>());
+        }
+        for (Note note : noteRepository.findAllByPatientIdIn(notesByPatient.keySet())) {
+            notesByPatient.get(note.getPatientId()).add(convertToDto(note));
+        }
+        return notesByPatient;
+    }
+
     /**
      * Updates a note if it was created less than 24 hours ago.
      *
@@ -108,8 +158,11 @@ public class NoteService {
 
         note.setModificationDate(LocalDateTime.now());
         note.setComments(noteDto.getComments());
+        tagTriggers(note);
 
-        return convertToDto(noteRepository.save(note));
+        Note savedNote = noteRepository.save(note);
+        notifyNoteChanged(savedNote);
+        return convertToDto(savedNote);
     }
 
     /**
@@ -128,6 +181,7 @@ public class NoteService {
         }
 
         noteRepository.delete(note);
+        notifyNoteChanged(note);
     }
 
     /**
@@ -143,7 +197,10 @@ public class NoteService {
 
         note.setModificationDate(LocalDateTime.now());
         note.setComments(noteDto.getComments());
-        return convertToDto(noteRepository.save(note));
+        tagTriggers(note);
+        Note savedNote = noteRepository.save(note);
+        notifyNoteChanged(savedNote);
+        return convertToDto(savedNote);
     }
 
     /**
@@ -157,5 +214,10 @@ public class NoteService {
                 .orElseThrow(() -> new NoSuchElementException("Note introuvable"));
 
         noteRepository.delete(note);
+        notifyNoteChanged(note);
+    }
+
+    private void notifyNoteChanged(Note note) {
+        riskEventPublisher.publish(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.NOTE_CHANGED, note.getPatientId()));
     }
 }
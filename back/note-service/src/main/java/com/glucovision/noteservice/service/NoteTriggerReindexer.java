@@ -0,0 +1,143 @@
+package com.glucovision.noteservice.service;
+
+import com.glucovision.noteservice.model.Note;
+import com.glucovision.noteservice.trigger.TriggerDictionary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Background job tagging the notes whose trigger bitmask is missing or was computed with another
+ * version of the {@link TriggerDictionary}, e.g. after a trigger term or synonym was added.
+ * <p>
+ * The job starts once the application is ready and walks the stale notes in {@code _id} order, by batches of
+ * {@code note.triggers.reindex.batch-size}: each batch reads only the comments and writes the new tags with one
+ * unordered bulk update. An update only applies if the note is still stale, so a note rewritten by
+ * {@link NoteService} in the meantime keeps the tags computed from its new comments.
+ * Tagged notes are counted by the {@code note.triggers.reindexed} metric.
+ */
+@Slf4j
+@Component
+public class NoteTriggerReindexer {
+
+    private final MongoTemplate mongoTemplate;
+    private final TriggerDictionary triggerDictionary;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Counter reindexed;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("note-trigger-reindex").daemon().factory());
+
+    /**
+     * Creates the re-index job.
+     *
+     * @param mongoTemplate     the template giving access to the note collection
+     * @param triggerDictionary the current trigger dictionary
+     * @param enabled           whether stale notes are tagged again at startup
+     * @param batchSize         the number of notes read and updated at once
+     * @param meterRegistry     the registry receiving the re-index metric
+     */
+    public NoteTriggerReindexer(MongoTemplate mongoTemplate,
+                                TriggerDictionary triggerDictionary,
+                                @Value("${note.triggers.reindex.enabled:true}") boolean enabled,
+                                @Value("${note.triggers.reindex.batch-size:500}") int batchSize,
+                                MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.triggerDictionary = triggerDictionary;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.reindexed = meterRegistry.counter("note.triggers.reindexed");
+    }
+
+    /**
+     * Starts the re-index in the background, so that startup does not wait for it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("[NOTE TRIGGERS] Re-index disabled");
+            return;
+        }
+        executor.submit(() -> {
+            try {
+                reindex();
+            } catch (DataAccessException e) {
+                log.error("❌ [NOTE TRIGGERS] Re-index interrupted: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Tags every note that is not tagged with the current dictionary version.
+     *
+     * @return the number of notes tagged
+     */
+    public long reindex() {
+        String version = triggerDictionary.version();
+        log.info("🔄 [NOTE TRIGGERS] Tagging notes not tagged with dictionary version {}", version);
+
+        long total = 0;
+        String lastId = null;
+        StringBuilder buffer = new StringBuilder(1024);
+        while (true) {
+            Query query = new Query(Criteria.where("triggerVersion").ne(version))
+                    .with(Sort.by("id"))
+                    .limit(batchSize);
+            if (lastId != null) {
+                query.addCriteria(Criteria.where("id").gt(lastId));
+            }
+            query.fields().include("comments");
+            List<Note> batch = mongoTemplate.find(query, Note.class);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class);
+            for (Note note : batch) {
+                long mask = triggerDictionary.match(note.getComments(), buffer);
+                bulk.updateOne(
+                        new Query(Criteria.where("id").is(note.getId()).and("triggerVersion").ne(version)),
+                        new Update()
+                                .set("triggerMask", mask)
+                                .set("triggerCount", Long.bitCount(mask))
+                                .set("triggerVersion", version));
+            }
+            int modified = bulk.execute().getModifiedCount();
+            reindexed.increment(modified);
+            total += modified;
+            lastId = batch.get(batch.size() - 1).getId();
+            log.debug("[NOTE TRIGGERS] {} note(s) tagged so far", total);
+
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+
+        log.info("✅ [NOTE TRIGGERS] {} note(s) tagged with dictionary version {}", total, version);
+        return total;
+    }
+
+    /**
+     * Stops the background job when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
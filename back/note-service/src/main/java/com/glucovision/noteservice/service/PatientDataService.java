@@ -1,32 +1,155 @@
 package com.glucovision.noteservice.service;
 
 import com.glucovision.noteservice.client.PatientClient;
-import lombok.AllArgsConstructor;
+import com.glucovision.noteservice.dto.PatientBatchDto;
+import com.glucovision.noteservice.dto.PatientStatusDto;
+import com.glucovision.noteservice.exception.DownstreamUnavailableException;
+import feign.FeignException;
+import feign.RetryableException;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
 /**
  * Service responsible for checking patient-related information via the Patient microservice.
  * <p>
- * Currently, it delegates the verification of a patient's active status to the {@link PatientClient}.
+ * Active statuses are read from the {@link PatientStatusCache} first; the Patient Service is only called,
+ * through the {@link DownstreamGuard}, for the patients whose status is unknown or expired. A patient the
+ * Patient Service does not know is cached as inactive. {@link #prefetchAsync(Collection)} loads the statuses
+ * of several patients with a single bulk call, ahead of the notes about to be written for them.
+ * <p>
+ * When {@code patient-status.fallback.enabled} is set and the Patient Service is down, saturated or too slow,
+ * the last-known status is used instead of failing.
  */
 @Slf4j
 @Service
-@AllArgsConstructor
 public class PatientDataService {
 
     private final PatientClient patientClient;
+    private final DownstreamGuard downstreamGuard;
+    private final PatientStatusCache statusCache;
+    private final boolean fallbackEnabled;
+    private final ExecutorService prefetcher = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("patient-status-prefetch-", 0).factory());
+
+    /**
+     * Creates the service.
+     *
+     * @param patientClient   the client of the Patient Service
+     * @param downstreamGuard the guard of the calls to the Patient Service
+     * @param statusCache     the cache of the active statuses
+     * @param fallbackEnabled whether the last-known status is used when the Patient Service cannot answer
+     */
+    public PatientDataService(PatientClient patientClient,
+                              DownstreamGuard downstreamGuard,
+                              PatientStatusCache statusCache,
+                              @Value("${patient-status.fallback.enabled:true}") boolean fallbackEnabled) {
+        this.patientClient = patientClient;
+        this.downstreamGuard = downstreamGuard;
+        this.statusCache = statusCache;
+        this.fallbackEnabled = fallbackEnabled;
+    }
 
     /**
-     * Checks whether a patient is active by delegating to the Patient microservice.
+     * Checks whether a patient is active, from the cache or by delegating to the Patient microservice.
      *
      * @param id the unique identifier of the patient
-     * @return true if the patient is active, false otherwise
+     * @return true if the patient is active, false if it is inactive or does not exist
+     * @throws DownstreamUnavailableException if the Patient Service cannot answer and no status is known
      */
     public boolean isActivePatient(String id) {
+        Boolean cached = statusCache.getFresh(id);
+        if (cached != null) {
+            log.debug("[PATIENT CHECK] Cached status for patientId={} => active={}", id, cached);
+            return cached;
+        }
+
         log.info("[PATIENT CHECK] Verifying active status for patientId={}", id);
-        boolean result = patientClient.isActivePatient(id);
+        long ticket = statusCache.ticket();
+        boolean result;
+        try {
+            result = downstreamGuard.call(DownstreamGuard.PATIENT_SERVICE, () -> patientClient.isActivePatient(id));
+        } catch (FeignException.NotFound e) {
+            result = false;
+        } catch (DownstreamUnavailableException | FeignException.FeignServerException | RetryableException e) {
+            Boolean lastKnown = fallbackEnabled ? statusCache.getLastKnown(id) : null;
+            if (lastKnown == null) {
+                throw e;
+            }
+            log.warn("⚠️ [PATIENT CHECK] Patient Service unavailable ({}), using last-known status for patientId={} => active={}",
+                    e.getMessage(), id, lastKnown);
+            return lastKnown;
+        }
+        statusCache.put(id, result, ticket);
         log.info("[PATIENT CHECK] Result for patientId={} => active={}", id, result);
         return result;
     }
+
+    /**
+     * Loads the statuses of the given patients that are not cached, with a single call to the Patient Service.
+     *
+     * @param ids the unique identifiers of the patients
+     * @return the number of statuses loaded
+     */
+    public int prefetch(Collection<String> ids) {
+        List<String> missing = ids.stream()
+                .distinct()
+                .filter(id -> statusCache.getFresh(id) == null)
+                .toList();
+        if (missing.isEmpty()) {
+            return 0;
+        }
+
+        long ticket = statusCache.ticket();
+        PatientBatchDto batch = downstreamGuard.call(DownstreamGuard.PATIENT_SERVICE, () -> patientClient.getPatientsByIds(PatientClient.STATUS_FIELDS, missing));
+        for (PatientStatusDto patient : batch.getPatients()) {
+            statusCache.put(patient.getUid(), Boolean.TRUE.equals(patient.getActive()), ticket);
+        }
+        for (String id : batch.getMissing()) {
+            statusCache.put(id, false, ticket);
+        }
+        log.debug("[PATIENT CHECK] Prefetched {} status(es)", missing.size());
+        return missing.size();
+    }
+
+    /**
+     * Runs {@link #prefetch(Collection)} in the background; a failure is logged, never thrown.
+     *
+     * @param ids the unique identifiers of the patients
+     */
+    public void prefetchAsync(Collection<String> ids) {
+        List<String> copy = List.copyOf(ids);
+        try {
+            prefetcher.execute(() -> {
+                try {
+                    prefetch(copy);
+                } catch (RuntimeException e) {
+                    log.warn("⚠️ [PATIENT CHECK] Could not prefetch {} status(es): {}", copy.size(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("[PATIENT CHECK] Prefetch skipped, the service is shutting down");
+        }
+    }
+
+    /**
+     * Drops the cached status of a patient, after the Patient Service notified a change.
+     *
+     * @param id the unique identifier of the patient
+     */
+    public void invalidate(String id) {
+        statusCache.invalidate(id);
+        log.info("[PATIENT CHECK] Cached status dropped for patientId={}", id);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        prefetcher.shutdownNow();
+    }
 }
@@ -0,0 +1,141 @@
+package com.glucovision.noteservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local cache of the active status of the patients, so that adding a note does not call the Patient Service
+ * (and fetch an internal token) every time.
+ * <p>
+ * An active status is fresh for {@code patient-status.cache.ttl}; an inactive or unknown patient is cached too,
+ * for the shorter {@code patient-status.cache.negative-ttl}. Expired entries are kept, least recently used first
+ * out beyond {@code patient-status.cache.max-size}, as the last-known status used while the Patient Service
+ * cannot answer. The Patient Service drops an entry through {@link #invalidate(String)} when the patient is
+ * activated, deactivated or deleted.
+ * <p>
+ * A status fetched before an invalidation is not stored: callers take a {@link #ticket()} before calling the
+ * Patient Service and pass it back to {@link #put(String, boolean, long)}.
+ * Fresh hits and misses are published as Micrometer counters.
+ */
+@Component
+public class PatientStatusCache {
+
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final Clock clock;
+    private final Map<String, Entry> entries;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+
+    /**
+     * Creates the cache.
+     *
+     * @param ttl           how long an active status is used without asking the Patient Service
+     * @param negativeTtl   how long an inactive or unknown patient is used without asking the Patient Service
+     * @param maxSize       the maximum number of patients kept
+     * @param meterRegistry the registry receiving the cache metrics
+     */
+    @Autowired
+    public PatientStatusCache(@Value("${patient-status.cache.ttl:30s}") Duration ttl,
+                              @Value("${patient-status.cache.negative-ttl:5s}") Duration negativeTtl,
+                              @Value("${patient-status.cache.max-size:10000}") int maxSize,
+                              MeterRegistry meterRegistry) {
+        this(ttl, negativeTtl, maxSize, meterRegistry, Clock.systemUTC());
+    }
+
+    PatientStatusCache(Duration ttl, Duration negativeTtl, int maxSize, MeterRegistry meterRegistry, Clock clock) {
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.clock = clock;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        });
+        this.hits = meterRegistry.counter("patient.status.cache", "result", "hit");
+        this.misses = meterRegistry.counter("patient.status.cache", "result", "miss");
+    }
+
+    /**
+     * Returns the status of a patient if it is still fresh.
+     *
+     * @param patientId the ID of the patient
+     * @return the cached status, or {@code null} if none is cached or it has expired
+     */
+    public Boolean getFresh(String patientId) {
+        Entry entry = entries.get(patientId);
+        if (entry != null && clock.instant().isBefore(entry.expiresAt())) {
+            hits.increment();
+            return entry.active();
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Returns the last status received for a patient, even if it has expired.
+     *
+     * @param patientId the ID of the patient
+     * @return the last-known status, or {@code null} if none is known
+     */
+    public Boolean getLastKnown(String patientId) {
+        Entry entry = entries.get(patientId);
+        return entry == null ? null : entry.active();
+    }
+
+    /**
+     * Returns the ticket to pass to {@link #put(String, boolean, long)} with the status about to be fetched.
+     *
+     * @return the current invalidation count
+     */
+    public long ticket() {
+        return invalidations.get();
+    }
+
+    /**
+     * Stores the status received for a patient, unless an invalidation happened since the ticket was taken.
+     *
+     * @param patientId the ID of the patient
+     * @param active    whether the patient is active
+     * @param ticket    the value returned by {@link #ticket()} before the status was fetched
+     */
+    public void put(String patientId, boolean active, long ticket) {
+        Entry entry = new Entry(active, clock.instant().plus(active ? ttl : negativeTtl));
+        synchronized (entries) {
+            if (invalidations.get() == ticket) {
+                entries.put(patientId, entry);
+            }
+        }
+    }
+
+    /**
+     * Drops the status of a patient, including its last-known value.
+     *
+     * @param patientId the ID of the patient
+     */
+    public void invalidate(String patientId) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.remove(patientId);
+        }
+    }
+
+    /**
+     * A cached status with the instant it stops being fresh.
+     */
+    private record Entry(boolean active, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.glucovision.noteservice.service;
+
+import com.glucovision.noteservice.dto.TriggerSummaryDto;
+import com.glucovision.noteservice.repository.NoteCommentsView;
+import com.glucovision.noteservice.repository.NoteRepository;
+import com.glucovision.noteservice.repository.NoteTriggerView;
+import com.glucovision.noteservice.trigger.TriggerDictionary;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the risk trigger terms found in the notes of a patient, next to the data.
+ * <p>
+ * The trigger bitmask precomputed on each note is used as is, without reading the content of the note; a note
+ * without bitmask, or tagged with another version of the trigger dictionary, is read again and scanned.
+ * Only the counts leave the service: each distinct term counts once per note, and a term repeated in several
+ * notes counts once for each of them, exactly as the Diabetes Risk Service counts them. Each summary carries the version of the dictionary, so that
+ * the Diabetes Risk Service can tell when its own dictionary differs.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TriggerSummaryService {
+
+    private final NoteRepository noteRepository;
+    private final TriggerDictionary triggerDictionary;
+
+    /**
+     * Summarizes the trigger terms found in the notes of a patient.
+     *
+     * @param patientId the ID of the patient
+     * @return the summary, with zero counts when the patient has no note
+     */
+    public TriggerSummaryDto summarize(String patientId) {
+        Accumulator accumulator = new Accumulator();
+        accumulate(noteRepository.findTriggersByPatientId(patientId), Map.of(patientId, accumulator));
+        return accumulator.toDto(patientId);
+    }
+
+    /**
+     * Summarizes the trigger terms found in the notes of several patients with a single query.
+     * <p>
+     * Every requested patient ID is present in the result, with zero counts when the patient has no note.
+     *
+     * @param patientIds the IDs of the patients
+     * @return the summary of each patient, keyed by patient ID in request order
+     */
+    public Map<String, TriggerSummaryDto> summarize(Collection<String> patientIds) {
+        Map<String, Accumulator> accumulators = new LinkedHashMap<>();
+        for (String patientId : patientIds) {
+            accumulators.put(patientId, new Accumulator());
+        }
+        accumulate(noteRepository.findTriggersByPatientIdIn(accumulators.keySet()), accumulators);
+
+        Map<String, TriggerSummaryDto> summaries = new LinkedHashMap<>();
+        accumulators.forEach((patientId, accumulator) -> summaries.put(patientId, accumulator.toDto(patientId)));
+        return summaries;
+    }
+
+    /**
+     * Adds the notes to the totals of their patient. The precomputed bitmask of a note is used when it is current;
+     * the other notes are read again, content included, with a single query and scanned.
+     */
+    private void accumulate(List<NoteTriggerView> notes, Map<String, Accumulator> accumulators) {
+        Map<String, String> patientByStaleNote = new HashMap<>();
+        for (NoteTriggerView note : notes) {
+            if (note.getTriggerMask() != null && triggerDictionary.version().equals(note.getTriggerVersion())) {
+                accumulators.get(note.getPatientId()).add(note.getTriggerMask());
+            } else {
+                patientByStaleNote.put(note.getId(), note.getPatientId());
+            }
+        }
+        if (patientByStaleNote.isEmpty()) {
+            return;
+        }
+
+        log.debug("[NOTE TRIGGERS] Scanning {} untagged or stale note(s)", patientByStaleNote.size());
+        StringBuilder buffer = new StringBuilder(1024);
+        for (NoteCommentsView note : noteRepository.findCommentsByIdIn(patientByStaleNote.keySet())) {
+            accumulators.get(patientByStaleNote.get(note.getId())).add(triggerDictionary.match(note.getComments(), buffer));
+        }
+    }
+
+    /**
+     * Running totals of the notes of one patient.
+     */
+    private final class Accumulator {
+
+        private int noteCount;
+        private int triggerCount;
+        private long matchedMask;
+
+        void add(long mask) {
+            noteCount++;
+            triggerCount += Long.bitCount(mask);
+            matchedMask |= mask;
+        }
+
+        TriggerSummaryDto toDto(String patientId) {
+            List<String> terms = triggerDictionary.matcher().terms();
+            List<String> matchedTerms = new ArrayList<>(Long.bitCount(matchedMask));
+            for (int i = 0; i < terms.size(); i++) {
+                if ((matchedMask & (1L << i)) != 0) {
+                    matchedTerms.add(terms.get(i));
+                }
+            }
+            return new TriggerSummaryDto(patientId, noteCount, triggerCount, matchedTerms, triggerDictionary.version());
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.glucovision.noteservice.trigger;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link TriggerMatcher} that runs notes through a {@link TextNormalizer} before matching.
+ * <p>
+ * Trigger terms keep their substring semantics but become insensitive to accents, Unicode
+ * normalization form, punctuation and repeated whitespace ("cholesterol" matches "CHOLESTÉROL").
+ * Each term can also be reported through synonyms:
+ * <ul>
+ *     <li>a plain synonym matches a whole word or phrase, e.g. {@code FUME} matches "il fume" but not "fumer";</li>
+ *     <li>a synonym ending with {@code *} is a stem matching any word starting with it, e.g. {@code HBA1*}.</li>
+ * </ul>
+ * Notes are normalized into a buffer before matching; callers scanning several notes pass the same buffer
+ * to {@link #match(CharSequence, StringBuilder)} so that matching does not allocate once it has grown.
+ */
+public class NormalizingTriggerMatcher implements TriggerMatcher {
+
+    private static final String STEM_MARKER = "*";
+
+    private final TextNormalizer normalizer;
+    private final AhoCorasickTriggerMatcher delegate;
+
+    /**
+     * Compiles the matcher for the given terms and synonyms.
+     *
+     * @param terms    the canonical trigger terms, in bit order
+     * @param synonyms additional spellings or stems per canonical term; terms without synonyms may be omitted
+     * @throws IllegalArgumentException if a synonym refers to an unknown term or normalizes to nothing
+     */
+    public NormalizingTriggerMatcher(List<String> terms, Map<String, List<String>> synonyms) {
+        this.normalizer = new TextNormalizer();
+
+        for (String term : synonyms.keySet()) {
+            if (!terms.contains(term)) {
+                throw new IllegalArgumentException("Synonyms declared for unknown trigger term: " + term);
+            }
+        }
+
+        List<Set<String>> patterns = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Set<String> termPatterns = new LinkedHashSet<>();
+            termPatterns.add(normalized(term));
+            for (String synonym : synonyms.getOrDefault(term, List.of())) {
+                if (synonym.endsWith(STEM_MARKER)) {
+                    termPatterns.add(" " + normalized(synonym.substring(0, synonym.length() - 1)));
+                } else {
+                    termPatterns.add(" " + normalized(synonym) + " ");
+                }
+            }
+            patterns.add(termPatterns);
+        }
+        this.delegate = new AhoCorasickTriggerMatcher(terms, patterns);
+    }
+
+    @Override
+    public long match(CharSequence text) {
+        return match(text, new StringBuilder(text.length() + 2));
+    }
+
+    @Override
+    public long match(CharSequence text, StringBuilder buffer) {
+        normalizer.normalize(text, buffer);
+        return delegate.match(buffer);
+    }
+
+    @Override
+    public List<String> terms() {
+        return delegate.terms();
+    }
+
+    private String normalized(String pattern) {
+        String normalized = normalizer.normalize(pattern);
+        if (normalized.isEmpty()) {
+            throw new IllegalArgumentException("Trigger pattern has no letter or digit: '" + pattern + "'");
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,155 @@
+package com.glucovision.noteservice.benchmark;
+
+import com.glucovision.noteservice.model.Note;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.Sorts;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the two note queries of {@link com.glucovision.noteservice.repository.NoteRepository}
+ * on a collection of 10M notes (100 per patient), with and without the compound
+ * {@code {patientId, creationDate}} index.
+ * <p>
+ * Needs a running MongoDB; the notes are written once into the {@code note-benchmark} database and reused
+ * by later runs with the same size. Seeding 10M notes takes a few minutes and about 2 GB of disk.
+ * Without the index, each query is a collection scan, hence the long iterations.
+ * <p>
+ * Run from {@code back/note-service}, e.g. against the docker-compose MongoDB:
+ * <pre>
+ * mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main NoteIndexBenchmark \
+ *      -p mongoUri=mongodb://localhost:27017 -p notes=10000000
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class NoteIndexBenchmark {
+
+    private static final String DATABASE = "note-benchmark";
+    private static final int NOTES_PER_PATIENT = 100;
+    private static final int BATCH_SIZE = 10_000;
+    private static final long FIRST_CREATION = Instant.parse("2020-01-01T00:00:00Z").toEpochMilli();
+
+    @Param("mongodb://localhost:27017")
+    private String mongoUri;
+
+    @Param("10000000")
+    private int notes;
+
+    @Param({"true", "false"})
+    private boolean indexed;
+
+    private MongoClient client;
+    private MongoCollection<Document> collection;
+    private int patients;
+
+    @Setup
+    public void setUp() {
+        client = MongoClients.create(mongoUri);
+        collection = client.getDatabase(DATABASE).getCollection("note");
+        patients = Math.max(1, notes / NOTES_PER_PATIENT);
+
+        if (collection.estimatedDocumentCount() != notes) {
+            seed();
+        }
+        if (indexed) {
+            collection.createIndex(Indexes.ascending("patientId", "creationDate"),
+                    new IndexOptions().name(Note.PATIENT_CREATION_INDEX));
+        } else {
+            collection.dropIndexes();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+    }
+
+    /**
+     * All the notes of a random patient, in creation order ({@code findAllByPatientId}).
+     */
+    @Benchmark
+    public List<Document> notesOfPatient() {
+        int patient = ThreadLocalRandom.current().nextInt(patients);
+        return collection.find(Filters.eq("patientId", patientId(patient)))
+                .sort(Sorts.ascending("creationDate"))
+                .into(new ArrayList<>());
+    }
+
+    /**
+     * A single note by patient and exact creation date ({@code findByPatientIdAndCreationDate}).
+     */
+    @Benchmark
+    public Document noteByPatientAndCreationDate() {
+        int note = ThreadLocalRandom.current().nextInt(notes);
+        return collection.find(Filters.and(
+                        Filters.eq("patientId", patientId(note % patients)),
+                        Filters.eq("creationDate", creationDate(note))))
+                .first();
+    }
+
+    private void seed() {
+        collection.drop();
+        List<Document> batch = new ArrayList<>(BATCH_SIZE);
+        InsertManyOptions unordered = new InsertManyOptions().ordered(false);
+        for (int i = 0; i < notes; i++) {
+            batch.add(new Document("patientId", patientId(i % patients))
+                    .append("comments", "Le patient déclare qu'il se sent bien. Poids, taille et cholestérol à surveiller. Note " + i)
+                    .append("creationDate", creationDate(i)));
+            if (batch.size() == BATCH_SIZE) {
+                collection.insertMany(batch, unordered);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            collection.insertMany(batch, unordered);
+        }
+    }
+
+    private static String patientId(int patient) {
+        return "patient-%08d".formatted(patient);
+    }
+
+    private static Date creationDate(int note) {
+        return new Date(FIRST_CREATION + note * 1000L);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NoteIndexBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
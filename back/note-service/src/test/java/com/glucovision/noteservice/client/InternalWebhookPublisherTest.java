@@ -0,0 +1,85 @@
+package com.glucovision.noteservice.client;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.glucovision.noteservice.dto.RiskInvalidationEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class InternalWebhookPublisherTest {
+
+    private static final String PATIENT_ID = "8e1f3b34-5c7e-4c17-9df6-bc6dd40efc62";
+
+    private WireMockServer wireMockServer;
+    private HttpRiskEventPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        wireMockServer.start();
+        publisher = new HttpRiskEventPublisher(wireMockServer.baseUrl(), "internal-key");
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.shutdown();
+        wireMockServer.stop();
+    }
+
+    @Test
+    void publish_shouldPostEventWithInternalApiKey() throws InterruptedException {
+        // Given
+        wireMockServer.stubFor(post(urlEqualTo("/api/risk/events")).willReturn(aResponse().withStatus(202)));
+
+        // When
+        publisher.publish(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.NOTE_CHANGED, PATIENT_ID));
+
+        // Then
+        awaitRequests(1);
+        wireMockServer.verify(postRequestedFor(urlEqualTo("/api/risk/events"))
+                .withHeader("Internal-Api-Key", equalTo("internal-key"))
+                .withRequestBody(equalToJson("{\"reason\":\"NOTE_CHANGED\",\"patientId\":\"" + PATIENT_ID + "\"}")));
+    }
+
+    @Test
+    void publish_shouldNotThrow_andKeepSending_whenDeliveryFails() throws InterruptedException {
+        // Given
+        wireMockServer.stubFor(post(urlEqualTo("/api/risk/events")).willReturn(aResponse().withStatus(500)));
+
+        // When
+        assertDoesNotThrow(() -> publisher.publish(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.NOTE_CHANGED, PATIENT_ID)));
+        publisher.publish(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.PATIENT_DELETED, PATIENT_ID));
+
+        // Then
+        awaitRequests(2);
+    }
+
+    @Test
+    void publish_shouldReportDroppedEvents_afterNextDeliveredEvent() throws InterruptedException {
+        // Given
+        wireMockServer.stubFor(post(urlEqualTo("/api/risk/events")).willReturn(aResponse().withStatus(202)));
+        wireMockServer.stubFor(post(urlEqualTo("/api/risk/events")).atPriority(1)
+                .withRequestBody(matchingJsonPath("$.reason", equalTo("PATIENT_DELETED")))
+                .willReturn(aResponse().withStatus(503)));
+
+        // When
+        publisher.publish(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.PATIENT_DELETED, PATIENT_ID));
+        publisher.publish(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.NOTE_CHANGED, PATIENT_ID));
+
+        // Then
+        awaitRequests(3);
+        wireMockServer.verify(1, postRequestedFor(urlEqualTo("/api/risk/events"))
+                .withRequestBody(matchingJsonPath("$.reason", equalTo("EVENTS_DROPPED"))));
+    }
+
+    private void awaitRequests(int count) throws InterruptedException {
+        for (int i = 0; i < 50 && wireMockServer.getAllServeEvents().size() < count; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(count, wireMockServer.getAllServeEvents().size());
+    }
+}
@@ -0,0 +1,51 @@
+package com.glucovision.noteservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeignTransportConfigTest {
+
+    private final FeignTransportConfig config = new FeignTransportConfig();
+
+    @Test
+    void feignConnectionPoolMetrics_shouldPublishPool_whenTransportIsPooled() {
+        // Arrange
+        PoolingHttpClientConnectionManager pool = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(200)
+                .setMaxConnPerRoute(50)
+                .build();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        // Act
+        config.feignConnectionPoolMetrics(new StaticListableBeanFactory(Map.of("hc5ConnectionManager", pool))
+                .getBeanProvider(HttpClientConnectionManager.class)).bindTo(registry);
+
+        // Assert
+        assertEquals(200, registry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", FeignTransportConfig.POOL_NAME).gauge().value());
+        assertEquals(50, registry.get("httpcomponents.httpclient.pool.route.max.default").gauge().value());
+        assertEquals(0, registry.get("httpcomponents.httpclient.pool.total.pending").gauge().value());
+        pool.close();
+    }
+
+    @Test
+    void feignConnectionPoolMetrics_shouldPublishNothing_whenTransportIsHttp2() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        // Act
+        config.feignConnectionPoolMetrics(new StaticListableBeanFactory()
+                .getBeanProvider(HttpClientConnectionManager.class)).bindTo(registry);
+
+        // Assert
+        assertTrue(registry.getMeters().isEmpty());
+    }
+}
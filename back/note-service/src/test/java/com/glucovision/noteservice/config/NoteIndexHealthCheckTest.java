@@ -0,0 +1,183 @@
+package com.glucovision.noteservice.config;
+
+import com.glucovision.noteservice.model.Note;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.data.mongodb.core.DbCallback;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.mongodb.client.MongoDatabase;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NoteIndexHealthCheckTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoDatabase database;
+
+    private NoteIndexHealthCheck healthCheck;
+
+    @BeforeEach
+    void setUp() {
+        healthCheck = new NoteIndexHealthCheck(mongoTemplate, Duration.ofMinutes(10));
+        lenient().when(mongoTemplate.getCollectionName(Note.class)).thenReturn("note");
+        lenient().when(mongoTemplate.execute(any(DbCallback.class)))
+                .thenAnswer(invocation -> invocation.<DbCallback<?>>getArgument(0).doInDB(database));
+    }
+
+    @Test
+    void check_shouldReportHealthyPlans_whenQueriesUseTheIndex() {
+        // Arrange
+        when(database.runCommand(any(Document.class))).thenReturn(explainResult(
+                stage("FETCH", stage("IXSCAN", null))));
+
+        // Act
+        List<NoteIndexHealthCheck.PlanReport> reports = healthCheck.check();
+
+        // Assert
+        assertEquals(3, reports.size());
+        assertTrue(reports.stream().allMatch(NoteIndexHealthCheck.PlanReport::healthy));
+        assertEquals(List.of("FETCH", "IXSCAN"), reports.get(0).stages());
+        verify(database, times(3)).runCommand(any(Document.class));
+    }
+
+    @Test
+    void check_shouldFlagCollectionScanAndInMemorySort_whenIndexIsMissing() {
+        // Arrange
+        when(database.runCommand(any(Document.class))).thenReturn(
+                explainResult(stage("SORT", stage("COLLSCAN", null))),
+                explainResult(stage("COLLSCAN", null)),
+                explainResult(stage("COLLSCAN", null)));
+
+        // Act
+        List<NoteIndexHealthCheck.PlanReport> reports = healthCheck.check();
+
+        // Assert
+        assertTrue(reports.stream().allMatch(NoteIndexHealthCheck.PlanReport::collectionScan));
+        assertTrue(reports.get(0).inMemorySort());
+        assertFalse(reports.get(1).inMemorySort());
+    }
+
+    @Test
+    void check_shouldExplainTheSortedPatientQuery() {
+        // Arrange
+        when(database.runCommand(any(Document.class))).thenReturn(explainResult(stage("IXSCAN", null)));
+
+        // Act
+        healthCheck.check();
+
+        // Assert
+        verify(database).runCommand(argThat((Document command) -> {
+            Document find = command.get("explain", Document.class);
+            return "queryPlanner".equals(command.getString("verbosity"))
+                    && "note".equals(find.getString("find"))
+                    && new Document("creationDate", 1).equals(find.get("sort"));
+        }));
+    }
+
+    @Test
+    void collectStages_shouldWalkNestedAndSlotBasedPlans() {
+        // Arrange
+        Document plan = new Document("queryPlan", stage("OR", null)
+                .append("inputStages", List.of(stage("IXSCAN", null), stage("COLLSCAN", null))));
+        Set<String> stages = new LinkedHashSet<>();
+
+        // Act
+        NoteIndexHealthCheck.collectStages(plan, stages);
+
+        // Assert
+        assertEquals(Set.of("OR", "IXSCAN", "COLLSCAN"), stages);
+    }
+
+    @Test
+    void healthIndicator_shouldStayUpAndListWarnings_whenACollectionScanIsFound() {
+        // Arrange
+        when(database.runCommand(any(Document.class))).thenReturn(
+                explainResult(stage("FETCH", stage("IXSCAN", null))),
+                explainResult(stage("COLLSCAN", null)),
+                explainResult(stage("FETCH", stage("IXSCAN", null))));
+
+        // Act
+        Health health = new NoteIndexHealthIndicator(healthCheck).health();
+
+        // Assert
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals(List.of("note by patient and creation date: collection scan"), health.getDetails().get("warnings"));
+        assertEquals(3, ((Map<?, ?>) health.getDetails().get("plans")).size());
+    }
+
+    @Test
+    void healthIndicator_shouldReuseTheLastCheck_untilTheRefreshInterval() {
+        // Arrange
+        when(database.runCommand(any(Document.class))).thenReturn(explainResult(stage("IXSCAN", null)));
+        healthCheck.check();
+        NoteIndexHealthIndicator indicator = new NoteIndexHealthIndicator(healthCheck);
+
+        // Act
+        indicator.health();
+        Health health = indicator.health();
+
+        // Assert
+        assertEquals(Status.UP, health.getStatus());
+        verify(database, times(3)).runCommand(any(Document.class));
+    }
+
+    @Test
+    void healthIndicator_shouldCheckAgain_onceTheRefreshIntervalIsOver() {
+        // Arrange
+        healthCheck = new NoteIndexHealthCheck(mongoTemplate, Duration.ZERO);
+        when(database.runCommand(any(Document.class))).thenReturn(explainResult(stage("IXSCAN", null)));
+        NoteIndexHealthIndicator indicator = new NoteIndexHealthIndicator(healthCheck);
+
+        // Act
+        indicator.health();
+        indicator.health();
+
+        // Assert
+        verify(database, times(6)).runCommand(any(Document.class));
+    }
+
+    @Test
+    void healthIndicator_shouldBeUnknown_whenPlansCannotBeRead() {
+        // Arrange
+        when(mongoTemplate.execute(any(DbCallback.class)))
+                .thenThrow(new DataAccessResourceFailureException("Mongo unreachable"));
+
+        // Act
+        Health health = new NoteIndexHealthIndicator(healthCheck).health();
+
+        // Assert
+        assertEquals(Status.UNKNOWN, health.getStatus());
+    }
+
+    private static Document explainResult(Document winningPlan) {
+        return new Document("queryPlanner", new Document("winningPlan", winningPlan));
+    }
+
+    private static Document stage(String name, Document input) {
+        Document stage = new Document("stage", name);
+        if (input != null) {
+            stage.append("inputStage", input);
+        }
+        return stage;
+    }
+}
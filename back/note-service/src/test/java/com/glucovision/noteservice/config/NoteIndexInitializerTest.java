@@ -0,0 +1,101 @@
+package com.glucovision.noteservice.config;
+
+import com.glucovision.noteservice.model.Note;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NoteIndexInitializerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private IndexOperations indexOps;
+
+    @Mock
+    private NoteIndexHealthCheck healthCheck;
+
+    @BeforeEach
+    void setUp() {
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        lenient().when(mongoTemplate.getConverter())
+                .thenReturn(new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext));
+        lenient().when(mongoTemplate.indexOps(Note.class)).thenReturn(indexOps);
+    }
+
+    @Test
+    void ensureIndexes_shouldCreateCompoundIndexAndCheckPlans() {
+        // Arrange
+        when(indexOps.getIndexInfo()).thenReturn(List.of(index("_id_"), index(Note.PATIENT_CREATION_INDEX)));
+
+        // Act
+        new NoteIndexInitializer(mongoTemplate, healthCheck, true).ensureIndexes();
+
+        // Assert
+        ArgumentCaptor<IndexDefinition> captor = ArgumentCaptor.forClass(IndexDefinition.class);
+        verify(indexOps).ensureIndex(captor.capture());
+        IndexDefinition definition = captor.getValue();
+        assertEquals(new Document("patientId", 1).append("creationDate", 1), definition.getIndexKeys());
+        assertEquals(Note.PATIENT_CREATION_INDEX, definition.getIndexOptions().getString("name"));
+        verify(healthCheck).check();
+    }
+
+    @Test
+    void ensureIndexes_shouldSkipPlanCheck_whenIndexIsStillMissing() {
+        // Arrange
+        when(indexOps.getIndexInfo()).thenReturn(List.of(index("_id_")));
+
+        // Act
+        new NoteIndexInitializer(mongoTemplate, healthCheck, true).ensureIndexes();
+
+        // Assert
+        verify(healthCheck, never()).check();
+    }
+
+    @Test
+    void ensureIndexes_shouldNotFailStartup_whenMongoIsUnreachable() {
+        // Arrange
+        when(indexOps.ensureIndex(any())).thenThrow(new DataAccessResourceFailureException("Mongo unreachable"));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> new NoteIndexInitializer(mongoTemplate, healthCheck, true).ensureIndexes());
+        verify(healthCheck, never()).check();
+    }
+
+    @Test
+    void ensureIndexes_shouldDoNothing_whenDisabled() {
+        // Act
+        new NoteIndexInitializer(mongoTemplate, healthCheck, false).ensureIndexes();
+
+        // Assert
+        verifyNoInteractions(mongoTemplate, healthCheck);
+    }
+
+    private static IndexInfo index(String name) {
+        return new IndexInfo(List.of(IndexField.create("patientId", org.springframework.data.domain.Sort.Direction.ASC)),
+                name, false, false, "");
+    }
+}
@@ -4,11 +4,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.glucovision.noteservice.dto.NoteDto;
+import com.glucovision.noteservice.dto.TriggerSummaryDto;
 import com.glucovision.noteservice.exception.ErrorResponse;
 import com.glucovision.noteservice.exception.GlobalExceptionHandler;
 import com.glucovision.noteservice.exception.PatientNotFoundException;
+import com.glucovision.noteservice.service.BulkNoteService;
 import com.glucovision.noteservice.service.NoteService;
 import com.glucovision.noteservice.service.PatientDataService;
+import com.glucovision.noteservice.service.TriggerSummaryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -24,17 +27,25 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -53,6 +64,15 @@ class NoteControllerTest {
     @Mock
     private NoteService noteService;
 
+    @Mock
+    private TriggerSummaryService triggerSummaryService;
+
+    @Mock
+    private PatientDataService patientDataService;
+
+    @Mock
+    private BulkNoteService bulkNoteService;
+
     @InjectMocks
     private NoteController noteController;
 
@@ -66,6 +86,43 @@ class NoteControllerTest {
         noteDto.setCreationDate(LocalDateTime.now());
     }
 
+    @Test
+    void findByPatientIds_ShouldReturnNotesGroupedByPatient() {
+        Map<String, List<NoteDto>> notes = Map.of("patient123", List.of(noteDto), "patient456", List.of());
+        when(noteService.findAllByPatientIds(List.of("patient123", "patient456"))).thenReturn(notes);
+
+        ResponseEntity<Map<String, List<NoteDto>>> response = noteController.findByPatientIds(List.of("patient123", "patient456"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(notes, response.getBody());
+    }
+
+    @Test
+    void getTriggerSummary_ShouldReturnSummaryOfPatient() {
+        TriggerSummaryDto summary = new TriggerSummaryDto("patient123", 2, 3, List.of("POIDS", "FUMEUR"), "v1");
+        when(triggerSummaryService.summarize("patient123")).thenReturn(summary);
+
+        ResponseEntity<TriggerSummaryDto> response = noteController.getTriggerSummary("patient123");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(summary, response.getBody());
+        verifyNoInteractions(noteService);
+    }
+
+    @Test
+    void getTriggerSummaries_ShouldReturnSummariesKeyedByPatient() {
+        List<String> ids = List.of("patient123", "patient456");
+        Map<String, TriggerSummaryDto> summaries = Map.of(
+                "patient123", new TriggerSummaryDto("patient123", 1, 1, List.of("POIDS"), "v1"),
+                "patient456", new TriggerSummaryDto("patient456", 0, 0, List.of(), "v1"));
+        when(triggerSummaryService.summarize(ids)).thenReturn(summaries);
+
+        ResponseEntity<Map<String, TriggerSummaryDto>> response = noteController.getTriggerSummaries(ids);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(summaries, response.getBody());
+    }
+
     @Test
     void addNote_ShouldReturnCreatedResponse() {
         when(noteService.addNote(any(NoteDto.class))).thenReturn(noteDto);
@@ -82,10 +139,34 @@ class NoteControllerTest {
         List<NoteDto> notes = Collections.singletonList(noteDto);
         when(noteService.findAllByPatientId("patient123")).thenReturn(notes);
 
-        ResponseEntity<List<NoteDto>> response = noteController.findById("patient123");
+        ResponseEntity<List<NoteDto>> response = noteController.findById("patient123", null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(notes, response.getBody());
+        verify(patientDataService).prefetchAsync(List.of("patient123"));
+    }
+
+    @Test
+    void addNotes_ShouldStreamNdjsonBodyToBulkService() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/notes/bulk");
+        request.setContentType("application/x-ndjson");
+        request.setContent("{\"patientId\":\"p1\",\"comments\":\"a\"}\n".getBytes());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        noteController.addNotes(request, response);
+
+        assertEquals("application/x-ndjson", response.getContentType());
+        verify(bulkNoteService).importNotes(any(InputStream.class), eq(true), any(OutputStream.class));
+    }
+
+    @Test
+    void findById_ShouldNotPrefetchStatus_WhenCalledByInternalService() {
+        when(noteService.findAllByPatientId("patient123")).thenReturn(List.of());
+        Authentication internal = new TestingAuthenticationToken("diabetes-risk-service", null, "ROLE_INTERNAL_SERVICE");
+
+        noteController.findById("patient123", internal);
+
+        verifyNoInteractions(patientDataService);
     }
 
     @Test
@@ -0,0 +1,69 @@
+package com.glucovision.noteservice.controller;
+
+import com.glucovision.noteservice.dto.PatientStatusEvent;
+import com.glucovision.noteservice.service.PatientDataService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PatientStatusControllerTest {
+
+    private static final String API_KEY = "api-key";
+
+    @Mock
+    private PatientDataService patientDataService;
+
+    private PatientStatusController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new PatientStatusController(patientDataService, API_KEY);
+    }
+
+    @Test
+    void onEvent_ShouldDropCachedStatus_WhenApiKeyIsValid() {
+        // Arrange
+        PatientStatusEvent event = new PatientStatusEvent(PatientStatusEvent.Reason.STATUS_CHANGED, "p1");
+
+        // Act
+        ResponseEntity<Void> response = controller.onEvent(API_KEY, event);
+
+        // Assert
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        verify(patientDataService).invalidate("p1");
+    }
+
+    @Test
+    void onEvent_ShouldReturnUnauthorized_WhenApiKeyIsWrong() {
+        // Arrange
+        PatientStatusEvent event = new PatientStatusEvent(PatientStatusEvent.Reason.PATIENT_DELETED, "p1");
+
+        // Act
+        ResponseEntity<Void> response = controller.onEvent("wrong-key", event);
+
+        // Assert
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verifyNoInteractions(patientDataService);
+    }
+
+    @Test
+    void prefetch_ShouldRejectTooManyPatients() {
+        // Arrange
+        List<String> patientIds = Collections.nCopies(PatientStatusController.MAX_PREFETCH + 1, "p1");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> controller.prefetch(patientIds));
+        verifyNoInteractions(patientDataService);
+    }
+}
@@ -0,0 +1,258 @@
+package com.glucovision.noteservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.glucovision.noteservice.client.RiskEventPublisher;
+import com.glucovision.noteservice.config.TriggerMatcherConfig;
+import com.glucovision.noteservice.dto.BulkNoteResult;
+import com.glucovision.noteservice.dto.RiskInvalidationEvent;
+import com.glucovision.noteservice.exception.DownstreamUnavailableException;
+import com.glucovision.noteservice.model.Note;
+import com.glucovision.noteservice.repository.NoteRepository;
+import com.glucovision.noteservice.trigger.NormalizingTriggerMatcher;
+import com.glucovision.noteservice.trigger.TriggerDictionary;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkNoteServiceTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private PatientDataService patientDataService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private RiskEventPublisher riskEventPublisher;
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<Note>> insertedBatches = new ArrayList<>();
+    private BulkNoteService bulkNoteService;
+
+    @BeforeEach
+    void setUp() {
+        TriggerDictionary dictionary = new TriggerDictionary(
+                new NormalizingTriggerMatcher(TriggerMatcherConfig.TRIGGER_TERMS, Map.of()), Map.of());
+        NoteService noteService = new NoteService(noteRepository, patientDataService, dictionary, riskEventPublisher);
+        bulkNoteService = new BulkNoteService(noteService, patientDataService, mongoTemplate, riskEventPublisher,
+                objectMapper, Validation.buildDefaultValidatorFactory().getValidator(), meterRegistry, BATCH_SIZE, 100);
+
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, Note.class)).thenReturn(bulkOperations);
+        lenient().when(bulkOperations.insert(anyList())).thenAnswer(invocation -> {
+            insertedBatches.add(new ArrayList<>(invocation.getArgument(0)));
+            return bulkOperations;
+        });
+        lenient().when(bulkOperations.execute()).thenReturn(BulkWriteResult.unacknowledged());
+        lenient().when(patientDataService.isActivePatient(anyString()))
+                .thenAnswer(invocation -> !"inactive".equals(invocation.getArgument(0)));
+    }
+
+    @Test
+    void importNotes_shouldWriteNdjsonByBatches_andReportEveryNoteInOrder() throws IOException {
+        // Given
+        String body = """
+                {"patientId":"p1","comments":"Fumeur"}
+                {"patientId":"p1","comments":"Poids"}
+
+                {"patientId":"p2","comments":""}
+                not json
+                {"patientId":"inactive","comments":"Vertiges"}
+                {"patientId":"p2","comments":"Anticorps","creationDate":"2020-01-02T10:00:00.000"}
+                """;
+
+        // When
+        List<BulkNoteResult> results = run(body, true);
+
+        // Then
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L), results.stream().map(BulkNoteResult::getIndex).toList());
+        assertEquals(List.of(BulkNoteResult.Status.CREATED, BulkNoteResult.Status.CREATED, BulkNoteResult.Status.REJECTED,
+                        BulkNoteResult.Status.REJECTED, BulkNoteResult.Status.REJECTED, BulkNoteResult.Status.CREATED),
+                results.stream().map(BulkNoteResult::getStatus).toList());
+        assertEquals("Comment is required", results.get(2).getError());
+        assertTrue(results.get(3).getError().startsWith("Malformed note"));
+        assertEquals("Patient not found", results.get(4).getError());
+
+        assertEquals(List.of(2, 1), insertedBatches.stream().map(List::size).toList());
+        Note tagged = insertedBatches.get(0).get(0);
+        assertEquals(1, tagged.getTriggerCount());
+        assertEquals(2020, insertedBatches.get(1).get(0).getCreationDate().getYear());
+        verify(patientDataService, times(1)).isActivePatient("p1");
+        verify(patientDataService, times(1)).isActivePatient("p2");
+        verify(riskEventPublisher, times(1)).publish(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.NOTE_CHANGED, "p1"));
+        assertEquals(3.0, meterRegistry.counter("note.bulk.notes", "status", "CREATED").count());
+    }
+
+    @Test
+    void importNotes_shouldReadJsonArray_andLoadPatientStatusesOncePerBatch() throws IOException {
+        // Given
+        String body = """
+                [{"patientId":"p1","comments":"a"}, {"patientId":"p2","comments":"b"},
+                 {"patientId":"p1","comments":"c"}, {"patientId":"p3","comments":"d"}]
+                """;
+
+        // When
+        List<BulkNoteResult> results = run(body, false);
+
+        // Then
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == BulkNoteResult.Status.CREATED));
+        verify(patientDataService).prefetch(Set.of("p1", "p2"));
+        verify(patientDataService).prefetch(Set.of("p3"));
+        verify(patientDataService, times(3)).isActivePatient(anyString());
+    }
+
+    @Test
+    void importNotes_shouldRejectJsonBodyThatIsNotAnArray_withoutWritingAnything() {
+        // Given
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> bulkNoteService.importNotes(
+                new ByteArrayInputStream("{\"patientId\":\"p1\"}".getBytes(StandardCharsets.UTF_8)), false, output));
+        assertEquals(0, output.size());
+    }
+
+    @Test
+    void importNotes_shouldReportNotesAfterAFailedInsertOfAnOrderedBatch() throws IOException {
+        // Given
+        BulkOperationException failure = new BulkOperationException("E11000", new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(1, 0, 0, 0, List.of(), List.of()),
+                List.of(new BulkWriteError(11000, "duplicate key", new BsonDocument(), 0)),
+                null, new ServerAddress(), Set.of()));
+        when(bulkOperations.execute()).thenThrow(failure).thenReturn(BulkWriteResult.unacknowledged());
+
+        // When
+        List<BulkNoteResult> results = run("""
+                {"patientId":"p1","comments":"a"}
+                {"patientId":"p1","comments":"b"}
+                {"patientId":"p1","comments":"c"}
+                """, true);
+
+        // Then
+        assertEquals(List.of(BulkNoteResult.Status.FAILED, BulkNoteResult.Status.FAILED, BulkNoteResult.Status.CREATED),
+                results.stream().map(BulkNoteResult::getStatus).toList());
+        assertEquals("duplicate key", results.get(0).getError());
+        assertEquals("Not written, an earlier note of the batch failed", results.get(1).getError());
+    }
+
+    @Test
+    void importNotes_shouldFailNotes_whenPatientStatusIsUnavailable() throws IOException {
+        // Given
+        when(patientDataService.isActivePatient("p1"))
+                .thenThrow(new DownstreamUnavailableException("patient-service is unavailable, its circuit breaker is open"));
+
+        // When
+        List<BulkNoteResult> results = run("{\"patientId\":\"p1\",\"comments\":\"a\"}\n", true);
+
+        // Then
+        assertEquals(BulkNoteResult.Status.FAILED, results.get(0).getStatus());
+        assertEquals("Patient status unavailable: patient-service is unavailable, its circuit breaker is open",
+                results.get(0).getError());
+        verifyNoInteractions(bulkOperations);
+    }
+
+    @Test
+    void importNotes_shouldStreamResults_withoutReadingTheWholeBody() throws IOException {
+        // Given: a body of 100 000 notes generated while it is read
+        int notes = 100_000;
+        GeneratedBody body = new GeneratedBody(notes);
+        AtomicLong linesReadAtFirstResult = new AtomicLong(-1);
+        AtomicLong resultLines = new AtomicLong();
+        OutputStream output = new OutputStream() {
+            @Override
+            public void write(int b) {
+                if (b == '\n') {
+                    linesReadAtFirstResult.compareAndSet(-1, body.produced);
+                    resultLines.incrementAndGet();
+                }
+            }
+        };
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+
+        // When
+        Map<BulkNoteResult.Status, Long> counts = bulkNoteService.importNotes(body, true, output);
+
+        // Then
+        assertEquals(notes, counts.get(BulkNoteResult.Status.CREATED));
+        assertEquals(notes, resultLines.get());
+        assertTrue(linesReadAtFirstResult.get() < notes / 10, "First result after " + linesReadAtFirstResult.get() + " notes");
+        verify(bulkOperations, times(notes / BATCH_SIZE)).execute();
+    }
+
+    private List<BulkNoteResult> run(String body, boolean ndjson) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        bulkNoteService.importNotes(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), ndjson, output);
+        List<BulkNoteResult> results = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readValue(line, BulkNoteResult.class));
+        }
+        return results;
+    }
+
+    /**
+     * NDJSON body producing its notes on demand, so that the test itself does not hold them in memory.
+     */
+    private static final class GeneratedBody extends InputStream {
+
+        private final int total;
+        private byte[] line = new byte[0];
+        private int position;
+        private volatile long produced;
+
+        private GeneratedBody(int total) {
+            this.total = total;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length) {
+                if (produced == total) {
+                    return -1;
+                }
+                line = ("{\"patientId\":\"p" + (produced % 50) + "\",\"comments\":\"Note " + produced + "\"}\n")
+                        .getBytes(StandardCharsets.UTF_8);
+                position = 0;
+                produced++;
+            }
+            return line[position++];
+        }
+    }
+}
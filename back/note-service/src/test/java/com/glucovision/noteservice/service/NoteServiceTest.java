@@ -1,21 +1,30 @@
 package com.glucovision.noteservice.service;
 
+import com.glucovision.noteservice.client.RiskEventPublisher;
+import com.glucovision.noteservice.config.TriggerMatcherConfig;
 import com.glucovision.noteservice.dto.NoteDto;
+import com.glucovision.noteservice.dto.RiskInvalidationEvent;
 import com.glucovision.noteservice.exception.PatientNotFoundException;
 import com.glucovision.noteservice.model.Note;
 import com.glucovision.noteservice.repository.NoteRepository;
+import com.glucovision.noteservice.trigger.NormalizingTriggerMatcher;
+import com.glucovision.noteservice.trigger.TriggerDictionary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -30,6 +39,13 @@ class NoteServiceTest {
     @Mock
     private PatientDataService patientDataService;
 
+    @Mock
+    private RiskEventPublisher riskEventPublisher;
+
+    @Spy
+    private TriggerDictionary triggerDictionary = new TriggerDictionary(
+            new NormalizingTriggerMatcher(TriggerMatcherConfig.TRIGGER_TERMS, Map.of()), Map.of());
+
     @InjectMocks
     private NoteService noteService;
 
@@ -88,6 +104,32 @@ class NoteServiceTest {
 
         assertNotNull(result);
         verify(noteRepository, times(1)).save(any(Note.class));
+        verify(riskEventPublisher).publish(noteChanged());
+    }
+
+    @Test
+    void addNote_ShouldStoreTriggerTagsComputedFromComments() {
+        noteDto.setComments("Fumeur, poids anormal. Fumeur depuis 10 ans.");
+        when(patientDataService.isActivePatient(noteDto.getPatientId())).thenReturn(true);
+        when(noteRepository.save(any(Note.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        NoteDto result = noteService.addNote(noteDto);
+
+        ArgumentCaptor<Note> saved = ArgumentCaptor.forClass(Note.class);
+        verify(noteRepository).save(saved.capture());
+        assertEquals(3, saved.getValue().getTriggerCount());
+        assertEquals(triggerDictionary.match(noteDto.getComments()), saved.getValue().getTriggerMask());
+        assertEquals(triggerDictionary.version(), saved.getValue().getTriggerVersion());
+        assertEquals(3, result.getTriggerCount());
+    }
+
+    @Test
+    void convertToDto_ShouldOmitTriggerCountTaggedWithAnotherDictionary() {
+        note.setTriggerMask(1L);
+        note.setTriggerCount(1);
+        note.setTriggerVersion("outdated");
+
+        assertNull(noteService.convertToDto(note).getTriggerCount());
     }
 
     @Test
@@ -96,6 +138,7 @@ class NoteServiceTest {
 
         assertThrows(PatientNotFoundException.class, () -> noteService.addNote(noteDto));
         verify(noteRepository, never()).save(any(Note.class));
+        verifyNoInteractions(riskEventPublisher);
     }
 
     @Test
@@ -117,6 +160,19 @@ class NoteServiceTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void findAllByPatientIds_ShouldGroupNotesAndKeepPatientsWithoutNotes() {
+        when(noteRepository.findAllByPatientIdIn(Set.of("patient123", "patient456")))
+                .thenReturn(Collections.singletonList(note));
+
+        Map<String, List<NoteDto>> result = noteService.findAllByPatientIds(List.of("patient123", "patient456"));
+
+        assertEquals(List.of("patient123", "patient456"), List.copyOf(result.keySet()));
+        assertEquals(1, result.get("patient123").size());
+        assertEquals(note.getComments(), result.get("patient123").get(0).getComments());
+        assertTrue(result.get("patient456").isEmpty());
+    }
+
     @Test
     void updateNote_ShouldUpdateNoteWhenWithin24Hours() {
         LocalDateTime now = LocalDateTime.now();
@@ -127,11 +183,15 @@ class NoteServiceTest {
                 .thenReturn(Optional.of(note));
         when(noteRepository.save(any(Note.class))).thenReturn(note);
 
+        noteDto.setComments("Vertiges et rechute");
         NoteDto result = noteService.updateNote(noteDto);
 
         assertNotNull(result.getModificationDate());
         assertEquals(noteDto.getComments(), result.getComments());
+        assertEquals(2, note.getTriggerCount());
+        assertEquals(triggerDictionary.version(), note.getTriggerVersion());
         verify(noteRepository, times(1)).save(note);
+        verify(riskEventPublisher).publish(noteChanged());
     }
 
     @Test
@@ -152,6 +212,7 @@ class NoteServiceTest {
 
         assertThrows(IllegalStateException.class, () -> noteService.updateNote(noteDto));
         verify(noteRepository, never()).save(any(Note.class));
+        verifyNoInteractions(riskEventPublisher);
     }
 
     @Test
@@ -166,6 +227,7 @@ class NoteServiceTest {
         noteService.deleteNote(noteDto);
 
         verify(noteRepository, times(1)).delete(note);
+        verify(riskEventPublisher).publish(noteChanged());
     }
 
     @Test
@@ -190,7 +252,10 @@ class NoteServiceTest {
 
         assertNotNull(result.getModificationDate());
         assertEquals(noteDto.getComments(), result.getComments());
+        assertEquals(0, note.getTriggerCount());
+        assertEquals(triggerDictionary.version(), note.getTriggerVersion());
         verify(noteRepository, times(1)).save(note);
+        verify(riskEventPublisher).publish(noteChanged());
     }
 
     @Test
@@ -201,5 +266,10 @@ class NoteServiceTest {
         noteService.deleteNoteForAdmin(noteDto);
 
         verify(noteRepository, times(1)).delete(note);
+        verify(riskEventPublisher).publish(noteChanged());
+    }
+
+    private RiskInvalidationEvent noteChanged() {
+        return new RiskInvalidationEvent(RiskInvalidationEvent.Reason.NOTE_CHANGED, "patient123");
     }
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package com.glucovision.noteservice.service;
+
+import com.glucovision.noteservice.config.TriggerMatcherConfig;
+import com.glucovision.noteservice.model.Note;
+import com.glucovision.noteservice.trigger.NormalizingTriggerMatcher;
+import com.glucovision.noteservice.trigger.TriggerDictionary;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.Document;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NoteTriggerReindexerTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private final TriggerDictionary dictionary = new TriggerDictionary(
+            new NormalizingTriggerMatcher(TriggerMatcherConfig.TRIGGER_TERMS, Map.of()), Map.of());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private NoteTriggerReindexer reindexer;
+
+    @BeforeEach
+    void setUp() {
+        reindexer = new NoteTriggerReindexer(mongoTemplate, dictionary, true, 2, meterRegistry);
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class)).thenReturn(bulkOperations);
+    }
+
+    @Test
+    void reindex_shouldTagStaleNotesBatchByBatch() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(Note.class))).thenReturn(
+                List.of(note("a1", "Fumeur et poids"), note("a2", "Rien")),
+                List.of(note("a3", "Vertiges")));
+        when(bulkOperations.execute()).thenReturn(
+                BulkWriteResult.acknowledged(0, 2, 0, 2, List.of(), List.of()),
+                BulkWriteResult.acknowledged(0, 1, 0, 1, List.of(), List.of()));
+
+        // Act
+        long tagged = reindexer.reindex();
+
+        // Assert
+        assertEquals(3, tagged);
+        assertEquals(3.0, meterRegistry.counter("note.triggers.reindexed").count());
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, times(2)).find(queries.capture(), eq(Note.class));
+        assertFalse(queries.getAllValues().get(0).getQueryObject().containsKey("id"));
+        assertTrue(queries.getAllValues().get(1).getQueryObject().containsKey("id"),
+                "The second batch should resume after the last note of the first one");
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations, times(3)).updateOne(any(Query.class), updates.capture());
+        Update first = updates.getAllValues().get(0);
+        assertEquals(2, ((Document) first.getUpdateObject().get("$set")).get("triggerCount"));
+        assertEquals(dictionary.version(), ((Document) first.getUpdateObject().get("$set")).get("triggerVersion"));
+    }
+
+    @Test
+    void reindex_shouldOnlyUpdateNotesThatAreStillStale() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(Note.class))).thenReturn(List.of(note("a1", "Taille")));
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()));
+
+        // Act
+        long tagged = reindexer.reindex();
+
+        // Assert
+        assertEquals(0, tagged);
+        ArgumentCaptor<Query> filter = ArgumentCaptor.forClass(Query.class);
+        verify(bulkOperations).updateOne(filter.capture(), any(Update.class));
+        assertTrue(filter.getValue().getQueryObject().containsKey("triggerVersion"));
+    }
+
+    @Test
+    void reindex_shouldStop_whenNoNoteIsStale() {
+        // Arrange
+        when(mongoTemplate.find(any(Query.class), eq(Note.class))).thenReturn(List.of());
+
+        // Act & Assert
+        assertEquals(0, reindexer.reindex());
+        verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(Note.class));
+    }
+
+    private static Note note(String id, String comments) {
+        Note note = new Note();
+        note.setId(id);
+        note.setComments(comments);
+        return note;
+    }
+}
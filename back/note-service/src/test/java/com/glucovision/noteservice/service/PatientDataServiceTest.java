@@ -1,14 +1,25 @@
 package com.glucovision.noteservice.service;
 
 import com.glucovision.noteservice.client.PatientClient;
+import com.glucovision.noteservice.dto.PatientBatchDto;
+import com.glucovision.noteservice.dto.PatientStatusDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import feign.FeignException;
 
+import java.time.Duration;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -17,9 +28,13 @@ public class PatientDataServiceTest {
     @Mock
     private PatientClient patientClient; // Mock du Feign Client
 
-    @InjectMocks
     private PatientDataService patientDataService; // Service à tester
 
+    @BeforeEach
+    void setUp() {
+        patientDataService = service(true, Duration.ofSeconds(30));
+    }
+
     @Test
     void isActivePatient_ShouldReturnTrue_WhenPatientIsActive() {
         // Arrange
@@ -61,4 +76,131 @@ public class PatientDataServiceTest {
         });
         verify(patientClient, times(1)).isActivePatient(patientId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void isActivePatient_ShouldUseCachedStatus_UntilItExpires() {
+        // Arrange
+        String patientId = "123e4567-e89b-12d3-a456-426614174000";
+        when(patientClient.isActivePatient(patientId)).thenReturn(true);
+
+        // Act
+        patientDataService.isActivePatient(patientId);
+        boolean result = patientDataService.isActivePatient(patientId);
+
+        // Assert
+        assertTrue(result);
+        verify(patientClient, times(1)).isActivePatient(patientId);
+    }
+
+    @Test
+    void isActivePatient_ShouldCacheUnknownPatientAsInactive() {
+        // Arrange
+        String patientId = "unknown-id";
+        when(patientClient.isActivePatient(patientId)).thenThrow(FeignException.NotFound.class);
+
+        // Act
+        boolean first = patientDataService.isActivePatient(patientId);
+        boolean second = patientDataService.isActivePatient(patientId);
+
+        // Assert
+        assertFalse(first);
+        assertFalse(second);
+        verify(patientClient, times(1)).isActivePatient(patientId);
+    }
+
+    @Test
+    void isActivePatient_ShouldAskPatientServiceAgain_WhenStatusIsInvalidated() {
+        // Arrange
+        String patientId = "123e4567-e89b-12d3-a456-426614174000";
+        when(patientClient.isActivePatient(patientId)).thenReturn(true, false);
+        patientDataService.isActivePatient(patientId);
+
+        // Act
+        patientDataService.invalidate(patientId);
+        boolean result = patientDataService.isActivePatient(patientId);
+
+        // Assert
+        assertFalse(result);
+        verify(patientClient, times(2)).isActivePatient(patientId);
+    }
+
+    @Test
+    void prefetch_ShouldLoadStatusesWithOneBulkCall() {
+        // Arrange
+        when(patientClient.getPatientsByIds(PatientClient.STATUS_FIELDS, List.of("p1", "p2", "p3"))).thenReturn(new PatientBatchDto(
+                List.of(new PatientStatusDto("p1", true), new PatientStatusDto("p2", false)), List.of("p3")));
+
+        // Act
+        int loaded = patientDataService.prefetch(List.of("p1", "p2", "p3", "p1"));
+
+        // Assert
+        assertEquals(3, loaded);
+        assertTrue(patientDataService.isActivePatient("p1"));
+        assertFalse(patientDataService.isActivePatient("p2"));
+        assertFalse(patientDataService.isActivePatient("p3"));
+        verify(patientClient, never()).isActivePatient(anyString());
+    }
+
+    @Test
+    void prefetch_ShouldSkipCachedStatuses() {
+        // Arrange
+        when(patientClient.isActivePatient("p1")).thenReturn(true);
+        patientDataService.isActivePatient("p1");
+
+        // Act
+        int loaded = patientDataService.prefetch(List.of("p1"));
+
+        // Assert
+        assertEquals(0, loaded);
+        verify(patientClient, never()).getPatientsByIds(anyString(), anyList());
+    }
+
+    @Test
+    void isActivePatient_ShouldReturnLastKnownStatus_WhenPatientServiceFails() {
+        // Arrange
+        String patientId = "123e4567-e89b-12d3-a456-426614174000";
+        PatientDataService expiring = service(true, Duration.ZERO);
+        when(patientClient.isActivePatient(patientId))
+                .thenReturn(true)
+                .thenThrow(FeignException.ServiceUnavailable.class);
+        expiring.isActivePatient(patientId);
+
+        // Act
+        boolean result = expiring.isActivePatient(patientId);
+
+        // Assert
+        assertTrue(result);
+        verify(patientClient, times(2)).isActivePatient(patientId);
+    }
+
+    @Test
+    void isActivePatient_ShouldRethrow_WhenPatientServiceFailsAndStatusIsUnknown() {
+        // Arrange
+        String patientId = "123e4567-e89b-12d3-a456-426614174000";
+        when(patientClient.isActivePatient(patientId)).thenThrow(FeignException.ServiceUnavailable.class);
+
+        // Act & Assert
+        assertThrows(FeignException.ServiceUnavailable.class, () -> patientDataService.isActivePatient(patientId));
+    }
+
+    @Test
+    void isActivePatient_ShouldRethrow_WhenFallbackIsDisabled() {
+        // Arrange
+        String patientId = "123e4567-e89b-12d3-a456-426614174000";
+        PatientDataService withoutFallback = service(false, Duration.ZERO);
+        when(patientClient.isActivePatient(patientId))
+                .thenReturn(true)
+                .thenThrow(FeignException.ServiceUnavailable.class);
+        withoutFallback.isActivePatient(patientId);
+
+        // Act & Assert
+        assertThrows(FeignException.ServiceUnavailable.class, () -> withoutFallback.isActivePatient(patientId));
+    }
+
+    private PatientDataService service(boolean fallbackEnabled, Duration ttl) {
+        PatientStatusCache cache = new PatientStatusCache(ttl, ttl, 100, new SimpleMeterRegistry());
+        DownstreamGuard guard = new DownstreamGuard(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(),
+                TimeLimiterRegistry.ofDefaults());
+        return new PatientDataService(patientClient, guard, cache, fallbackEnabled);
+    }
+}
@@ -0,0 +1,114 @@
+package com.glucovision.noteservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PatientStatusCacheTest {
+
+    private static final Instant NOW = Instant.parse("2025-05-13T10:00:00Z");
+
+    private final MutableClock clock = new MutableClock(NOW);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PatientStatusCache cache = new PatientStatusCache(Duration.ofSeconds(30), Duration.ofSeconds(5), 2, meterRegistry, clock);
+
+    @Test
+    void getFresh_shouldExpireActiveStatusAfterTtl_butKeepItAsLastKnown() {
+        // Given
+        cache.put("p1", true, cache.ticket());
+
+        // When
+        clock.advance(Duration.ofSeconds(29));
+        Boolean fresh = cache.getFresh("p1");
+        clock.advance(Duration.ofSeconds(1));
+        Boolean expired = cache.getFresh("p1");
+
+        // Then
+        assertEquals(Boolean.TRUE, fresh);
+        assertNull(expired);
+        assertEquals(Boolean.TRUE, cache.getLastKnown("p1"));
+        assertEquals(1.0, meterRegistry.counter("patient.status.cache", "result", "hit").count());
+        assertEquals(1.0, meterRegistry.counter("patient.status.cache", "result", "miss").count());
+    }
+
+    @Test
+    void getFresh_shouldExpireInactiveStatusAfterNegativeTtl() {
+        // Given
+        cache.put("p1", false, cache.ticket());
+
+        // When
+        clock.advance(Duration.ofSeconds(4));
+        Boolean fresh = cache.getFresh("p1");
+        clock.advance(Duration.ofSeconds(1));
+
+        // Then
+        assertEquals(Boolean.FALSE, fresh);
+        assertNull(cache.getFresh("p1"));
+    }
+
+    @Test
+    void put_shouldIgnoreStatusFetchedBeforeAnInvalidation() {
+        // Given
+        cache.put("p1", true, cache.ticket());
+        long ticket = cache.ticket();
+
+        // When: the patient is deactivated while its old status is on its way
+        cache.invalidate("p1");
+        cache.put("p1", true, ticket);
+
+        // Then
+        assertNull(cache.getFresh("p1"));
+        assertNull(cache.getLastKnown("p1"));
+    }
+
+    @Test
+    void put_shouldEvictLeastRecentlyUsedPatient_whenMaxSizeIsReached() {
+        // Given
+        cache.put("p1", true, cache.ticket());
+        cache.put("p2", true, cache.ticket());
+        cache.getFresh("p1");
+
+        // When
+        cache.put("p3", true, cache.ticket());
+
+        // Then
+        assertEquals(Boolean.TRUE, cache.getLastKnown("p1"));
+        assertNull(cache.getLastKnown("p2"));
+        assertEquals(Boolean.TRUE, cache.getLastKnown("p3"));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.glucovision.noteservice.service;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.glucovision.noteservice.exception.DownstreamUnavailableException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fault injection on the Patient Service with WireMock: the last-known status is used while it is too slow.
+ */
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "resilience4j.timelimiter.instances.patient-service.timeout-duration=1s",
+        "patient-status.cache.ttl=0s"
+})
+class PatientStatusFallbackTest {
+
+    private static final String PATIENT_ID = "8e1f3b34-5c7e-4c17-9df6-bc6dd40efc62";
+    private static final String STATUS_URL = "/api/patients/" + PATIENT_ID + "/exists";
+
+    private static final WireMockServer wireMockServer = startWireMock();
+
+    @Autowired
+    private PatientDataService patientDataService;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakers;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void useWireMock(DynamicPropertyRegistry registry) {
+        registry.add("patient-service.url", wireMockServer::baseUrl);
+        registry.add("auth-service.url", wireMockServer::baseUrl);
+    }
+
+    @AfterAll
+    static void stopWireMock() {
+        wireMockServer.stop();
+    }
+
+    @BeforeEach
+    void resetServices() {
+        wireMockServer.resetAll();
+        wireMockServer.stubFor(post(urlEqualTo("/internal-auth/internal-token"))
+                .willReturn(aResponse().withHeader("Content-Type", "text/plain").withBody("token")));
+        circuitBreakers.circuitBreaker(DownstreamGuard.PATIENT_SERVICE).reset();
+    }
+
+    @Test
+    void slowService_shouldAnswerWithLastKnownStatus() {
+        // Given
+        wireMockServer.stubFor(get(urlEqualTo(STATUS_URL)).willReturn(okJson("true")));
+        assertTrue(patientDataService.isActivePatient(PATIENT_ID));
+        wireMockServer.stubFor(get(urlEqualTo(STATUS_URL)).willReturn(okJson("false").withFixedDelay(3000)));
+
+        // When
+        long start = System.nanoTime();
+        boolean active = patientDataService.isActivePatient(PATIENT_ID);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Then
+        assertTrue(active);
+        assertTrue(elapsedMs < 2500, "Waited " + elapsedMs + " ms");
+    }
+
+    @Test
+    void slowService_shouldFail_whenNoStatusIsKnown() throws Exception {
+        // Given
+        String unknownId = "0b0e5c8e-1d7a-4a3b-9a59-6f0f0a1f7c11";
+        wireMockServer.stubFor(get(urlEqualTo("/api/patients/" + unknownId + "/exists"))
+                .willReturn(okJson("true").withFixedDelay(3000)));
+
+        // When
+        DownstreamUnavailableException exception = assertThrows(DownstreamUnavailableException.class,
+                () -> patientDataService.isActivePatient(unknownId));
+
+        // Then
+        assertEquals("patient-service did not answer within 1000 ms", exception.getMessage());
+        mockMvc.perform(MockMvcRequestBuilders.get("/actuator/circuitbreakers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.circuitBreakers['patient-service'].state").value("CLOSED"));
+    }
+
+    private static WireMockServer startWireMock() {
+        WireMockServer server = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        server.start();
+        return server;
+    }
+}
@@ -0,0 +1,178 @@
+package com.glucovision.noteservice.service;
+
+import com.glucovision.noteservice.config.TriggerMatcherConfig;
+import com.glucovision.noteservice.dto.TriggerSummaryDto;
+import com.glucovision.noteservice.repository.NoteCommentsView;
+import com.glucovision.noteservice.repository.NoteRepository;
+import com.glucovision.noteservice.repository.NoteTriggerView;
+import com.glucovision.noteservice.trigger.NormalizingTriggerMatcher;
+import com.glucovision.noteservice.trigger.TriggerDictionary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TriggerSummaryServiceTest {
+
+    @Mock
+    private NoteRepository noteRepository;
+
+    private TriggerDictionary dictionary;
+    private TriggerSummaryService triggerSummaryService;
+
+    /** Content of the notes built by {@link #note}, served by the repository for the stale ones. */
+    private final Map<String, String> commentsById = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        Map<String, List<String>> synonyms = Map.of("FUMEUR", List.of("FUME"));
+        dictionary = new TriggerDictionary(new NormalizingTriggerMatcher(TriggerMatcherConfig.TRIGGER_TERMS, synonyms), synonyms);
+        triggerSummaryService = new TriggerSummaryService(noteRepository, dictionary);
+        lenient().when(noteRepository.findCommentsByIdIn(anyCollection())).thenAnswer(invocation -> invocation
+                .<Collection<String>>getArgument(0).stream()
+                .map(id -> comments(id, commentsById.get(id)))
+                .toList());
+    }
+
+    @Test
+    void summarize_shouldCountDistinctTermsPerNote() {
+        // Given
+        when(noteRepository.findTriggersByPatientId("p1")).thenReturn(List.of(
+                note("p1", "Poids élevé, poids en hausse, il fume"),
+                note("p1", "Cholestérol anormal, POIDS stable"),
+                note("p1", "Rien à signaler")));
+
+        // When
+        TriggerSummaryDto summary = triggerSummaryService.summarize("p1");
+
+        // Then
+        assertEquals("p1", summary.getPatientId());
+        assertEquals(3, summary.getNoteCount());
+        assertEquals(5, summary.getTriggerCount());
+        assertEquals(List.of("POIDS", "FUMEUR", "ANORMAL", "CHOLESTÉROL"), summary.getMatchedTerms());
+        assertEquals(dictionary.version(), summary.getDictionaryVersion());
+    }
+
+    @Test
+    void summarize_shouldUsePrecomputedMask_andRescanStaleNotes() {
+        // Given
+        long poidsAndTaille = dictionary.match("Poids et taille");
+        when(noteRepository.findTriggersByPatientId("p1")).thenReturn(List.of(
+                note("p1", "Texte modifié hors service", poidsAndTaille, dictionary.version()),
+                note("p1", "Fumeur", 0L, "outdated"),
+                note("p1", "Anticorps", null, null)));
+
+        // When
+        TriggerSummaryDto summary = triggerSummaryService.summarize("p1");
+
+        // Then
+        assertEquals(4, summary.getTriggerCount());
+        assertEquals(List.of("TAILLE", "POIDS", "FUMEUR", "ANTICORPS"), summary.getMatchedTerms());
+        verify(noteRepository).findCommentsByIdIn(argThat((Collection<String> ids) -> ids.size() == 2));
+    }
+
+    @Test
+    void summarize_shouldNotReadTheNoteContent_whenEveryMaskIsCurrent() {
+        // Given
+        when(noteRepository.findTriggersByPatientId("p1")).thenReturn(List.of(
+                note("p1", "Poids", dictionary.match("Poids"), dictionary.version()),
+                note("p1", "Rien", 0L, dictionary.version())));
+
+        // When
+        TriggerSummaryDto summary = triggerSummaryService.summarize("p1");
+
+        // Then
+        assertEquals(2, summary.getNoteCount());
+        assertEquals(List.of("POIDS"), summary.getMatchedTerms());
+        verify(noteRepository, never()).findCommentsByIdIn(anyCollection());
+    }
+
+    @Test
+    void summarize_shouldReturnZeroCounts_whenPatientHasNoNote() {
+        // Given
+        when(noteRepository.findTriggersByPatientId("p1")).thenReturn(List.of());
+
+        // When
+        TriggerSummaryDto summary = triggerSummaryService.summarize("p1");
+
+        // Then
+        assertEquals(0, summary.getNoteCount());
+        assertEquals(0, summary.getTriggerCount());
+        assertTrue(summary.getMatchedTerms().isEmpty());
+    }
+
+    @Test
+    void summarize_shouldSummarizeEveryRequestedPatientWithOneQuery() {
+        // Given
+        List<String> ids = List.of("p2", "p1", "p3");
+        when(noteRepository.findTriggersByPatientIdIn(anyCollection())).thenReturn(List.of(
+                note("p1", "Fumeur"),
+                note("p2", "Vertiges et rechute"),
+                note("p1", "Taille")));
+
+        // When
+        Map<String, TriggerSummaryDto> summaries = triggerSummaryService.summarize(ids);
+
+        // Then
+        assertEquals(ids, List.copyOf(summaries.keySet()));
+        assertEquals(2, summaries.get("p1").getNoteCount());
+        assertEquals(2, summaries.get("p1").getTriggerCount());
+        assertEquals(List.of("VERTIGES", "RECHUTE"), summaries.get("p2").getMatchedTerms());
+        assertEquals(0, summaries.get("p3").getNoteCount());
+        verify(noteRepository, times(1)).findTriggersByPatientIdIn(anyCollection());
+    }
+
+    private NoteTriggerView note(String patientId, String comments) {
+        return note(patientId, comments, null, null);
+    }
+
+    private NoteTriggerView note(String patientId, String comments, Long triggerMask, String triggerVersion) {
+        String id = "n" + commentsById.size();
+        commentsById.put(id, comments);
+        return new NoteTriggerView() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public String getPatientId() {
+                return patientId;
+            }
+
+            @Override
+            public Long getTriggerMask() {
+                return triggerMask;
+            }
+
+            @Override
+            public String getTriggerVersion() {
+                return triggerVersion;
+            }
+        };
+    }
+
+    private static NoteCommentsView comments(String id, String comments) {
+        return new NoteCommentsView() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public String getComments() {
+                return comments;
+            }
+        };
+    }
+}
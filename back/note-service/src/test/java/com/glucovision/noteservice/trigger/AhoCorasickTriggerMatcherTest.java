@@ -0,0 +1,83 @@
+package com.glucovision.noteservice.trigger;
+
+import com.glucovision.noteservice.config.TriggerMatcherConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AhoCorasickTriggerMatcherTest {
+
+    private final TriggerMatcher matcher = new AhoCorasickTriggerMatcher(TriggerMatcherConfig.TRIGGER_TERMS);
+
+    /**
+     * Reference implementation: the substring search previously used by the risk service.
+     */
+    private static int naiveCount(String text) {
+        String upperCase = text.toUpperCase();
+        int count = 0;
+        for (String trigger : TriggerMatcherConfig.TRIGGER_TERMS) {
+            if (upperCase.contains(trigger)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    void match_shouldReturnZero_whenNoTriggerTerm() {
+        assertEquals(0L, matcher.match("Le patient va bien."));
+        assertEquals(0L, matcher.match(""));
+    }
+
+    @Test
+    void match_shouldSetBitOfEachDistinctTerm() {
+        long mask = matcher.match("Fumeur, fumeur et cholestérol anormal");
+
+        List<String> terms = matcher.terms();
+        assertEquals(3, Long.bitCount(mask));
+        assertTrue((mask & (1L << terms.indexOf("FUMEUR"))) != 0);
+        assertTrue((mask & (1L << terms.indexOf("CHOLESTÉROL"))) != 0);
+        assertTrue((mask & (1L << terms.indexOf("ANORMAL"))) != 0);
+    }
+
+    @Test
+    void match_shouldBeCaseInsensitive_includingAccents() {
+        assertEquals(3, Long.bitCount(matcher.match("Patient fumeur avec cholestÉrol et hémoglobine a1c")));
+    }
+
+    @Test
+    void match_shouldFindOverlappingTerms() {
+        // "FUMEUSE" and "FUMEUR" share a prefix, "ANORMAL" sits right after
+        assertEquals(2, Long.bitCount(matcher.match("fumeusanormal fumeus fumeuse")));
+    }
+
+    @Test
+    void match_shouldAgreeWithSubstringSearch_onRandomText() {
+        Random random = new Random(42);
+        String alphabet = "aéeÉrtuimnolcshfARTUIMNOLCSHF1 ,.";
+        for (int run = 0; run < 5_000; run++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(120);
+            while (text.length() < length) {
+                if (random.nextInt(6) == 0) {
+                    String term = TriggerMatcherConfig.TRIGGER_TERMS.get(random.nextInt(TriggerMatcherConfig.TRIGGER_TERMS.size()));
+                    text.append(random.nextBoolean() ? term.toLowerCase() : term);
+                } else {
+                    text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+            }
+            String note = text.toString();
+            assertEquals(naiveCount(note), Long.bitCount(matcher.match(note)), note);
+        }
+    }
+
+    @Test
+    void constructor_shouldRejectInvalidTerms() {
+        assertThrows(IllegalArgumentException.class, () -> new AhoCorasickTriggerMatcher(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> new AhoCorasickTriggerMatcher(List.of("")));
+        assertThrows(IllegalArgumentException.class, () -> new AhoCorasickTriggerMatcher(List.of("ЖИР")));
+    }
+}
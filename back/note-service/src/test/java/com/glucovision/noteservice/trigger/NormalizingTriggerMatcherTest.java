@@ -0,0 +1,71 @@
+package com.glucovision.noteservice.trigger;
+
+import com.glucovision.noteservice.config.TriggerMatcherConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NormalizingTriggerMatcherTest {
+
+    private final TriggerMatcher matcher = new NormalizingTriggerMatcher(TriggerMatcherConfig.TRIGGER_TERMS, Map.of(
+            "FUMEUR", List.of("FUME"),
+            "HÉMOGLOBINE A1C", List.of("HbA1c*")
+    ));
+
+    private int count(String note) {
+        return Long.bitCount(matcher.match(note));
+    }
+
+    @Test
+    void match_shouldIgnoreAccentsAndWhitespace() {
+        assertEquals(2, count("Taux de cholesterol LDL eleve, hemoglobine   a1c normale"));
+    }
+
+    @Test
+    void match_shouldKeepSubstringSemantics_forCanonicalTerms() {
+        assertEquals(2, count("audition anormale, réactions aux médicaments"));
+    }
+
+    @Test
+    void match_shouldReportSynonymAsCanonicalTerm() {
+        long mask = matcher.match("Le patient déclare qu'il fume depuis peu !");
+
+        assertEquals(1L << matcher.terms().indexOf("FUMEUR"), mask);
+    }
+
+    @Test
+    void match_shouldMatchPlainSynonym_asWholeWordOnly() {
+        assertEquals(0, count("Il a cessé de fumer"));
+    }
+
+    @Test
+    void match_shouldMatchStemSynonym_asWordPrefix() {
+        assertEquals(1, count("HbA1c à 7%"));
+        assertEquals(1, count("hba1cémie élevée"));
+        assertEquals(0, count("xhba1c"));
+    }
+
+    @Test
+    void match_shouldCountSynonymAndTermOnce() {
+        assertEquals(1, count("Fumeur : il fume un paquet par jour"));
+    }
+
+    @Test
+    void match_shouldGiveTheSameMask_whenReusingTheCallerBuffer() {
+        StringBuilder buffer = new StringBuilder();
+        String longNote = "Poids stable. ".repeat(500) + "Vertiges";
+
+        assertEquals(matcher.match(longNote), matcher.match(longNote, buffer));
+        assertEquals(matcher.match("Fumeur, cholestérol"), matcher.match("Fumeur, cholestérol", buffer));
+        assertEquals(0L, matcher.match("Rien à signaler", buffer));
+    }
+
+    @Test
+    void constructor_shouldRejectSynonymsOfUnknownTerm() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new NormalizingTriggerMatcher(TriggerMatcherConfig.TRIGGER_TERMS, Map.of("GLYCÉMIE", List.of("SUCRE"))));
+    }
+}
@@ -0,0 +1,47 @@
+package com.glucovision.noteservice.trigger;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.Normalizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextNormalizerTest {
+
+    private final TextNormalizer normalizer = new TextNormalizer();
+
+    @Test
+    void normalize_shouldFoldAccentsAndCase() {
+        assertEquals("CHOLESTEROL ELEVE", normalizer.normalize("Cholestérol élevé"));
+    }
+
+    @Test
+    void normalize_shouldGiveSameResult_forNfcAndNfd() {
+        String text = "Hémoglobine A1C réaction";
+
+        String nfc = normalizer.normalize(Normalizer.normalize(text, Normalizer.Form.NFC));
+        String nfd = normalizer.normalize(Normalizer.normalize(text, Normalizer.Form.NFD));
+
+        assertEquals("HEMOGLOBINE A1C REACTION", nfc);
+        assertEquals(nfc, nfd);
+    }
+
+    @Test
+    void normalize_shouldCollapseWhitespaceAndPunctuation() {
+        assertEquals("QU IL FUME DEPUIS PEU", normalizer.normalize("  qu'il\tfume  depuis   peu !"));
+    }
+
+    @Test
+    void normalize_shouldExpandLigatures() {
+        assertEquals("COEUR", normalizer.normalize("cœur"));
+    }
+
+    @Test
+    void normalize_shouldReuseBuffer_andPadWithSpaces() {
+        StringBuilder buffer = new StringBuilder("previous content");
+
+        normalizer.normalize("Poids", buffer);
+
+        assertEquals(" POIDS ", buffer.toString());
+    }
+}
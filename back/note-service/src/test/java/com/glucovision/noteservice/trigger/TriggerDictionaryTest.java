@@ -0,0 +1,53 @@
+package com.glucovision.noteservice.trigger;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TriggerDictionaryTest {
+
+    private static final List<String> TERMS = List.of("POIDS", "FUMEUR", "TAILLE");
+
+    @Test
+    void version_shouldNotDependOnSynonymDeclarationOrder() {
+        Map<String, List<String>> first = new LinkedHashMap<>();
+        first.put("FUMEUR", List.of("FUME", "CLOPE"));
+        first.put("POIDS", List.of("MASSE"));
+        Map<String, List<String>> second = new LinkedHashMap<>();
+        second.put("POIDS", List.of("MASSE"));
+        second.put("FUMEUR", List.of("CLOPE", "FUME"));
+
+        assertEquals(dictionary(TERMS, first).version(), dictionary(TERMS, second).version());
+    }
+
+    @Test
+    void version_shouldChange_whenTermsOrSynonymsChange() {
+        String base = dictionary(TERMS, Map.of()).version();
+
+        assertNotEquals(base, dictionary(List.of("POIDS", "FUMEUR", "TAILLE", "VERTIGES"), Map.of()).version());
+        assertNotEquals(base, dictionary(List.of("FUMEUR", "POIDS", "TAILLE"), Map.of()).version());
+        assertNotEquals(base, dictionary(TERMS, Map.of("FUMEUR", List.of("FUME"))).version());
+    }
+
+    @Test
+    void version_shouldKeepTheFingerprintSharedWithTheOtherService() {
+        // The same value is asserted by TriggerDictionaryTest in diabetes-risk-service: change both together
+        assertEquals("198a17c6437ad423", dictionary(TERMS, Map.of("FUMEUR", List.of("FUME"))).version());
+    }
+
+    @Test
+    void match_shouldReturnZero_forMissingComments() {
+        TriggerDictionary dictionary = dictionary(TERMS, Map.of());
+
+        assertEquals(0L, dictionary.match(null));
+        assertEquals(0b101L, dictionary.match("Poids et taille"));
+    }
+
+    private static TriggerDictionary dictionary(List<String> terms, Map<String, List<String>> synonyms) {
+        return new TriggerDictionary(new NormalizingTriggerMatcher(terms, synonyms), synonyms);
+    }
+}
@@ -12,7 +12,8 @@ CREATE TABLE `patients` (
                             `phone` varchar(255) DEFAULT NULL,
                             `active` tinyint(1) NOT NULL,
                             PRIMARY KEY (`uid`),
-                            UNIQUE KEY `uk_patients_identity` (`first_name`,`last_name`,`birth_date`)
+                            UNIQUE KEY `uk_patients_identity` (`first_name`,`last_name`,`birth_date`),
+                            KEY `idx_patients_name_seek` (`last_name`,`first_name`,`uid`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 
 LOCK TABLES `patients` WRITE;
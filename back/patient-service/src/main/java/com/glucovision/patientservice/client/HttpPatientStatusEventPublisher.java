@@ -0,0 +1,28 @@
+package com.glucovision.patientservice.client;
+
+import com.glucovision.patientservice.dto.PatientStatusEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Posts the events to the Note Service webhook, {@code POST /api/notes/patient-status/events}, in the background.
+ * An event that cannot be delivered is dropped: the cached status then expires with the cache TTL.
+ */
+@Component
+@ConditionalOnProperty(name = "patient-status-events.publisher", havingValue = "http")
+public class HttpPatientStatusEventPublisher extends InternalWebhookPublisher<PatientStatusEvent>
+        implements PatientStatusEventPublisher {
+
+    /**
+     * Creates the publisher.
+     *
+     * @param noteServiceUrl the base URL of the Note Service
+     * @param internalApiKey the API key shared by the internal services
+     */
+    public HttpPatientStatusEventPublisher(@Value("${note-service.url}") String noteServiceUrl,
+                                           @Value("${internal.api.key}") String internalApiKey) {
+        super("patient-status-events", noteServiceUrl, "/api/notes/patient-status/events", internalApiKey,
+                event -> event.getReason() + " for patientId=" + event.getPatientId());
+    }
+}
@@ -0,0 +1,29 @@
+package com.glucovision.patientservice.client;
+
+import com.glucovision.patientservice.dto.RiskInvalidationEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Posts the events to the Diabetes Risk Service webhook, {@code POST /api/risk/events}, in the background.
+ * Once events are dropped, an {@code EVENTS_DROPPED} event follows the next delivered event, so that the
+ * risk service evaluates the levels again.
+ */
+@Component
+@ConditionalOnProperty(name = "risk-events.publisher", havingValue = "http")
+public class HttpRiskEventPublisher extends InternalWebhookPublisher<RiskInvalidationEvent> implements RiskEventPublisher {
+
+    /**
+     * Creates the publisher.
+     *
+     * @param riskServiceUrl the base URL of the Diabetes Risk Service
+     * @param internalApiKey the API key shared by the internal services
+     */
+    public HttpRiskEventPublisher(@Value("${diabetes-risk-service.url}") String riskServiceUrl,
+                                  @Value("${internal.api.key}") String internalApiKey) {
+        super("risk-events", riskServiceUrl, "/api/risk/events", internalApiKey,
+                event -> event.getReason() + " for patientId=" + event.getPatientId(),
+                new RiskInvalidationEvent(RiskInvalidationEvent.Reason.EVENTS_DROPPED, null));
+    }
+}
@@ -0,0 +1,20 @@
+package com.glucovision.patientservice.client;
+
+import com.glucovision.patientservice.dto.PatientStatusEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local stand-in for the note service webhook: events are only logged.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "patient-status-events.publisher", havingValue = "log", matchIfMissing = true)
+public class LoggingPatientStatusEventPublisher implements PatientStatusEventPublisher {
+
+    @Override
+    public void publish(PatientStatusEvent event) {
+        log.info("[PATIENT STATUS EVENTS] {} for patientId={} (not sent)", event.getReason(), event.getPatientId());
+    }
+}
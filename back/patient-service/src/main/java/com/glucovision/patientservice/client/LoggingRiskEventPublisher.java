@@ -0,0 +1,20 @@
+package com.glucovision.patientservice.client;
+
+import com.glucovision.patientservice.dto.RiskInvalidationEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local stand-in for the risk service webhook: events are only logged.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "risk-events.publisher", havingValue = "log", matchIfMissing = true)
+public class LoggingRiskEventPublisher implements RiskEventPublisher {
+
+    @Override
+    public void publish(RiskInvalidationEvent event) {
+        log.info("[RISK EVENTS] {} for patientId={} (not sent)", event.getReason(), event.getPatientId());
+    }
+}
@@ -0,0 +1,19 @@
+package com.glucovision.patientservice.client;
+
+import com.glucovision.patientservice.dto.PatientStatusEvent;
+
+/**
+ * Notifies the Note Service of the changes that invalidate a patient's cached active status.
+ * <p>
+ * The implementation is selected with {@code patient-status-events.publisher}: {@code http} posts to the note
+ * service webhook, {@code log} (the default) only logs the events, for local runs and tests.
+ */
+public interface PatientStatusEventPublisher {
+
+    /**
+     * Sends an event without blocking the caller; a failure to deliver it is logged, never thrown.
+     *
+     * @param event the change to notify
+     */
+    void publish(PatientStatusEvent event);
+}
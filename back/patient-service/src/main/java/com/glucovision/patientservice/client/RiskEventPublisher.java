@@ -0,0 +1,19 @@
+package com.glucovision.patientservice.client;
+
+import com.glucovision.patientservice.dto.RiskInvalidationEvent;
+
+/**
+ * Notifies the Diabetes Risk Service of the changes that invalidate a patient's cached risk level.
+ * <p>
+ * The implementation is selected with {@code risk-events.publisher}: {@code http} posts to the risk service
+ * webhook, {@code log} (the default) only logs the events, for local runs and tests.
+ */
+public interface RiskEventPublisher {
+
+    /**
+     * Sends an event without blocking the caller; a failure to deliver it is logged, never thrown.
+     *
+     * @param event the change to notify
+     */
+    void publish(RiskInvalidationEvent event);
+}
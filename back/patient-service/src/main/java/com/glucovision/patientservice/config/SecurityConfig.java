@@ -63,6 +63,9 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/api/patients/**")
                         .hasAnyAuthority("ROLE_USER", "ROLE_ADMIN", "ROLE_INTERNAL_SERVICE")
 
+                        .requestMatchers(HttpMethod.POST, "/api/patients/batch")
+                        .hasAnyAuthority("ROLE_USER", "ROLE_ADMIN", "ROLE_INTERNAL_SERVICE")
+
                         .requestMatchers(HttpMethod.POST, "/api/patients/**")
                         .hasAnyAuthority("ROLE_USER", "ROLE_ADMIN")
 
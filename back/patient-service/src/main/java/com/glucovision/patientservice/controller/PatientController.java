@@ -1,26 +1,41 @@
 package com.glucovision.patientservice.controller;
 
+import com.glucovision.patientservice.dto.PatientBatchDTO;
 import com.glucovision.patientservice.dto.PatientDTO;
+import com.glucovision.patientservice.dto.PatientFieldsBatchDTO;
+import com.glucovision.patientservice.dto.PatientImportProgress;
+import com.glucovision.patientservice.dto.PatientScrollDTO;
 import com.glucovision.patientservice.exception.DuplicatePatientException;
 import com.glucovision.patientservice.model.Patient;
+import com.glucovision.patientservice.service.PatientExportService;
+import com.glucovision.patientservice.service.PatientFileFormat;
+import com.glucovision.patientservice.service.PatientImportService;
 import com.glucovision.patientservice.service.PatientService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 /**
@@ -37,6 +52,8 @@ import java.util.List;
 public class PatientController {
 
     private final PatientService patientService;
+    private final PatientImportService patientImportService;
+    private final PatientExportService patientExportService;
 
     /**
      * Creates a new patient.
@@ -58,6 +75,56 @@ public class PatientController {
         return ResponseEntity.status(HttpStatus.CREATED).body(savedPatient);
     }
 
+    /**
+     * Imports many patients from a CSV or NDJSON body, streaming the progress of the import.
+     * Only accessible to users with the ADMIN role.
+     *
+     * @param request  the request, whose body holds the patients
+     * @param response the response, receiving one progress line per committed chunk and a last one
+     * @throws IOException if the body cannot be read or the progress cannot be written
+     */
+    @Operation(summary = "Import many patients from a CSV or NDJSON body (admin only)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "NDJSON progress lines, the last one with done = true"),
+            @ApiResponse(responseCode = "400", description = "The CSV header lacks a required column")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import",
+            consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importPatients(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        PatientFileFormat format = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))
+                ? PatientFileFormat.NDJSON
+                : PatientFileFormat.CSV;
+        log.info("[POST] Patient import ({})", format);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        PatientImportProgress progress = patientImportService.importPatients(request.getInputStream(), format, response.getOutputStream());
+        log.info("✅ Patient import {} done: {} inserted", progress.getImportId(), progress.getInserted());
+    }
+
+    /**
+     * Downloads the rows of an import that were not inserted.
+     * Only accessible to users with the ADMIN role.
+     *
+     * @param importId the identifier of the import
+     * @return the error file, one NDJSON line per row
+     */
+    @Operation(summary = "Download the error file of a patient import (admin only)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "One NDJSON line per row not inserted"),
+            @ApiResponse(responseCode = "400", description = "Invalid import identifier"),
+            @ApiResponse(responseCode = "404", description = "The import has no error file")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(value = "/import/{importId}/errors", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Resource> getImportErrors(
+            @Parameter(description = "Import identifier") @PathVariable String importId) {
+        log.info("[GET] Retrieving the error file of patient import {}", importId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(new FileSystemResource(patientImportService.errorFile(importId)));
+    }
+
     /**
      * Retrieves a patient by UID.
      *
@@ -75,6 +142,48 @@ public class PatientController {
         return ResponseEntity.ok(patientDto);
     }
 
+    /**
+     * Retrieves several patients by UID in one call.
+     *
+     * @param uids the UIDs to look up, at most 1000 distinct ones
+     * @return the found patients and the UIDs that match no patient
+     */
+    @Operation(summary = "Get several patients by UID")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lookup done; unknown UIDs are listed as missing"),
+            @ApiResponse(responseCode = "400", description = "Null or blank UID, or too many UIDs")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<PatientBatchDTO> getPatientsByIds(@RequestBody List<String> uids) {
+        log.info("[POST] Bulk lookup of {} patient UID(s)", uids.size());
+        PatientBatchDTO result = patientService.findPatientsByIds(uids);
+        log.info("✅ {} patient(s) found, {} missing", result.getPatients().size(), result.getMissing().size());
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Retrieves several patients by UID in one call, keeping only the requested fields.
+     *
+     * @param fields the fields to return besides the UID, e.g. {@code birthDate,gender}
+     * @param uids   the UIDs to look up, at most 1000 distinct ones
+     * @return the requested fields of the found patients, and the UIDs that match no patient
+     */
+    @Operation(summary = "Get some fields of several patients by UID")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Lookup done; unknown UIDs are listed as missing"),
+            @ApiResponse(responseCode = "400", description = "Unknown field, null or blank UID, or too many UIDs")
+    })
+    @PostMapping(value = "/batch", params = "fields")
+    public ResponseEntity<PatientFieldsBatchDTO> getPatientFieldsByIds(
+            @Parameter(description = "Fields to return besides the UID", example = "birthDate,gender")
+            @RequestParam List<String> fields,
+            @RequestBody List<String> uids) {
+        log.info("[POST] Bulk lookup of {} patient UID(s), fields {}", uids.size(), fields);
+        PatientFieldsBatchDTO result = patientService.findPatientFieldsByIds(uids, fields);
+        log.info("✅ {} patient(s) found, {} missing", result.getPatients().size(), result.getMissing().size());
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Retrieves all patients (active and inactive).
      *
@@ -90,6 +199,26 @@ public class PatientController {
         return ResponseEntity.ok(patientDtos);
     }
 
+    /**
+     * Streams all patients (active and inactive) as they are read from the database.
+     *
+     * @param format   the format of the response (default = NDJSON)
+     * @param response the response, receiving one patient per line
+     * @throws IOException if the response cannot be written
+     */
+    @Operation(summary = "Stream all patients (active and inactive) as NDJSON or CSV")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "One patient per line, sorted by last name and first name")
+    })
+    @GetMapping("/stream")
+    public void streamPatients(
+            @Parameter(description = "NDJSON or CSV") @RequestParam(defaultValue = "NDJSON") PatientFileFormat format,
+            HttpServletResponse response) throws IOException {
+        log.info("[GET] Streaming all patients as {}", format);
+        long count = patientExportService.export(false, format, prepare(response, format, "patients"));
+        log.info("✅ {} patient(s) streamed", count);
+    }
+
     @GetMapping("/page")
     public ResponseEntity<Page<PatientDTO>> getPatientsPaginated(
             @RequestParam(defaultValue = "0") int page,
@@ -116,6 +245,35 @@ public class PatientController {
         return ResponseEntity.ok(patientDtos);
     }
 
+    /**
+     * Streams the active patients as they are read from the database.
+     *
+     * @param format   the format of the response (default = NDJSON)
+     * @param response the response, receiving one patient per line
+     * @throws IOException if the response cannot be written
+     */
+    @Operation(summary = "Stream active patients as NDJSON or CSV")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "One patient per line, sorted by last name and first name")
+    })
+    @GetMapping("/active/stream")
+    public void streamActivePatients(
+            @Parameter(description = "NDJSON or CSV") @RequestParam(defaultValue = "NDJSON") PatientFileFormat format,
+            HttpServletResponse response) throws IOException {
+        log.info("[GET] Streaming active patients as {}", format);
+        long count = patientExportService.export(true, format, prepare(response, format, "active-patients"));
+        log.info("✅ {} active patient(s) streamed", count);
+    }
+
+    private static OutputStream prepare(HttpServletResponse response, PatientFileFormat format, String name) throws IOException {
+        response.setContentType(format.getMediaType().toString());
+        response.setCharacterEncoding("UTF-8");
+        if (format == PatientFileFormat.CSV) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + ".csv\"");
+        }
+        return response.getOutputStream();
+    }
+
     /**
      * Retrieves a paginated list of all patients (active and inactive).
      *
@@ -138,6 +296,30 @@ public class PatientController {
         return ResponseEntity.ok(patientPage);
     }
 
+    /**
+     * Retrieves active patients with keyset pagination.
+     *
+     * @param after        continuation token returned with the previous page (absent for the first page)
+     * @param size         number of records per page (default = 10, max = 100)
+     * @param includeTotal whether to count all active patients (default = false)
+     * @return the page and the token of the next one
+     */
+    @Operation(summary = "Scroll through active patients (keyset pagination)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid continuation token")
+    })
+    @GetMapping("/active/scroll")
+    public ResponseEntity<PatientScrollDTO> scrollActivePatients(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.info("[GET] Scrolling active patients (after={}, size={})", after, size);
+        PatientScrollDTO result = patientService.scrollActivePatients(after, size, includeTotal);
+        log.info("✅ {} active patient(s) returned, more: {}", result.getPatients().size(), result.getNext() != null);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Retrieves a patient by their last name.
      *
@@ -207,6 +389,32 @@ public class PatientController {
         return ResponseEntity.ok(results);
     }
 
+    /**
+     * Searches all patients by last name with keyset pagination.
+     *
+     * @param name         partial or full last name to search
+     * @param after        continuation token returned with the previous page (absent for the first page)
+     * @param size         number of records per page (default = 10, max = 100)
+     * @param includeTotal whether to count all matching patients (default = false)
+     * @return the page and the token of the next one
+     */
+    @Operation(summary = "Search patients by last name (keyset pagination)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Matching patients found"),
+            @ApiResponse(responseCode = "400", description = "Invalid continuation token")
+    })
+    @GetMapping("/search/scroll")
+    public ResponseEntity<PatientScrollDTO> scrollPatientsByName(
+            @RequestParam String name,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        log.info("[GET] Scrolling patients by name='{}' (after={}, size={})", name, after, size);
+        PatientScrollDTO result = patientService.scrollPatientsByName(name, after, size, includeTotal);
+        log.info("✅ {} result(s) returned, more: {}", result.getPatients().size(), result.getNext() != null);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Updates an existing patient by ID.
      *
@@ -0,0 +1,27 @@
+package com.glucovision.patientservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a bulk patient lookup by UID.
+ * <p>
+ * Lists the patients that were found and the requested UIDs that do not match any patient.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Result of a bulk patient lookup by UID")
+public class PatientBatchDTO {
+
+    @Schema(description = "Patients found for the requested UIDs")
+    private List<PatientDTO> patients = new ArrayList<>();
+
+    @Schema(description = "Requested UIDs that do not match any patient", example = "[\"8e1f3b34-5c7e-4c17-9df6-bc6dd40efc62\"]")
+    private List<String> missing = new ArrayList<>();
+}
@@ -0,0 +1,29 @@
+package com.glucovision.patientservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a bulk patient lookup by UID restricted to some fields.
+ * <p>
+ * Has the shape of a {@link PatientBatchDTO}, each patient holding only its UID and the requested fields.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Result of a bulk patient lookup by UID restricted to some fields")
+public class PatientFieldsBatchDTO {
+
+    @Schema(description = "Requested fields of the patients found, keyed by field name",
+            example = "[{\"uid\":\"8e1f3b34-5c7e-4c17-9df6-bc6dd40efc62\",\"birthDate\":\"1985-04-23\",\"gender\":\"MALE\"}]")
+    private List<Map<String, Object>> patients = new ArrayList<>();
+
+    @Schema(description = "Requested UIDs that do not match any patient", example = "[\"8e1f3b34-5c7e-4c17-9df6-bc6dd40efc62\"]")
+    private List<String> missing = new ArrayList<>();
+}
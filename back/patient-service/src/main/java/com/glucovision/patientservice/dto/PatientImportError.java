@@ -0,0 +1,38 @@
+package com.glucovision.patientservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A row of a patient import that was not inserted, as written to the error file of the import.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Row of a patient import that was not inserted")
+public class PatientImportError {
+
+    /**
+     * Why a row was not inserted.
+     */
+    public enum Reason {
+        /** A patient with the same first name, last name and birth date exists, or appeared earlier in the file. */
+        DUPLICATE,
+        /** The row could not be read or breaks a constraint. */
+        INVALID
+    }
+
+    @Schema(description = "Line of the body where the row starts, from 1", example = "12")
+    private long line;
+
+    @Schema(description = "Why the row was not inserted", example = "DUPLICATE")
+    private Reason reason;
+
+    @Schema(description = "Detail of the error", example = "This patient already exists in the system.")
+    private String error;
+
+    @Schema(description = "The row as read", example = "Alice,Durand,1990-01-15,FEMALE,,")
+    private String record;
+}
@@ -0,0 +1,40 @@
+package com.glucovision.patientservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Progress of a patient import, written as an NDJSON line after each committed chunk and once at the end.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Progress of a patient import")
+public class PatientImportProgress {
+
+    @Schema(description = "Identifier of the import", example = "0c4a3f4e-2f7a-4d39-a0a4-1c1f3a7e2b9d")
+    private String importId;
+
+    @Schema(description = "Number of rows read so far", example = "20000")
+    private long rows;
+
+    @Schema(description = "Number of patients inserted so far", example = "19950")
+    private long inserted;
+
+    @Schema(description = "Number of rows skipped because the patient already exists", example = "42")
+    private long duplicates;
+
+    @Schema(description = "Number of rows rejected because they are invalid", example = "8")
+    private long rejected;
+
+    @Schema(description = "Whether the whole body was read")
+    private boolean done;
+
+    @Schema(description = "Path of the error file listing the skipped and rejected rows, once there is one",
+            example = "/api/patients/import/0c4a3f4e-2f7a-4d39-a0a4-1c1f3a7e2b9d/errors")
+    private String errors;
+}
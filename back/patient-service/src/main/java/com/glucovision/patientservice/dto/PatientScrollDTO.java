@@ -0,0 +1,33 @@
+package com.glucovision.patientservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated patient listing.
+ * <p>
+ * The next page is requested by sending {@code next} back as the {@code after} parameter;
+ * {@code next} is absent on the last page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "One page of a keyset-paginated patient listing")
+public class PatientScrollDTO {
+
+    @Schema(description = "Patients of this page, sorted by last name, first name and UID")
+    private List<PatientDTO> patients = new ArrayList<>();
+
+    @Schema(description = "Opaque token to pass as 'after' to get the next page; absent on the last page")
+    private String next;
+
+    @Schema(description = "Total number of matching patients, only computed when requested with includeTotal=true")
+    private Long total;
+}
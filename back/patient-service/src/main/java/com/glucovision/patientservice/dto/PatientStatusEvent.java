@@ -0,0 +1,28 @@
+package com.glucovision.patientservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Notification sent to the Note Service when the active status of a patient may have changed,
+ * so that its cached status is dropped.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PatientStatusEvent {
+
+    /**
+     * What changed; must match the reasons accepted by {@code POST /api/notes/patient-status/events}.
+     */
+    public enum Reason {
+        /** The patient was activated or deactivated. */
+        STATUS_CHANGED,
+        /** The patient was deleted. */
+        PATIENT_DELETED
+    }
+
+    private Reason reason;
+    private String patientId;
+}
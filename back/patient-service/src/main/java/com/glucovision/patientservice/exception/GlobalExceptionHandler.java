@@ -69,4 +69,15 @@ public class GlobalExceptionHandler {
     public ResponseEntity<String> handleDuplicatePatientException(DuplicatePatientException ex) {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
     }
+
+    /**
+     * Handles invalid request parameters, such as a malformed continuation token.
+     *
+     * @param ex the exception thrown
+     * @return a 400 Bad Request response with message
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
 }
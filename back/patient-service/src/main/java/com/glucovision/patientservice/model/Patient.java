@@ -18,7 +18,9 @@ import java.util.UUID;
 @Getter
 @Setter
 @Entity
-@Table(name = "patients")
+@Table(name = "patients", indexes = {
+        @Index(name = "idx_patients_name_seek", columnList = "last_name, first_name, uid")
+})
 public class Patient {
 
     /**
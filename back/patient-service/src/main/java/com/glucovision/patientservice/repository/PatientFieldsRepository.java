@@ -0,0 +1,22 @@
+package com.glucovision.patientservice.repository;
+
+import com.glucovision.patientservice.model.Patient;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads only some columns of the patients, chosen at runtime, without loading the entities.
+ */
+public interface PatientFieldsRepository {
+
+    /**
+     * Selects the UID and the given attributes of the patients whose UID is in the given collection.
+     *
+     * @param uids   the UIDs to look up
+     * @param fields the attributes of {@link Patient} to read besides the UID, which must exist
+     * @return one map per patient found, holding its UID then the fields in the given order; unknown UIDs are simply absent
+     */
+    List<Map<String, Object>> findFieldsByUidIn(Collection<String> uids, List<String> fields);
+}
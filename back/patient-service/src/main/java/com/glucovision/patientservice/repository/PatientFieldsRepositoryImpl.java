@@ -0,0 +1,52 @@
+package com.glucovision.patientservice.repository;
+
+import com.glucovision.patientservice.model.Patient;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of {@link PatientFieldsRepository}, picked up by Spring Data as a fragment of
+ * {@link PatientRepository}: a Criteria tuple query selecting only the requested columns.
+ */
+class PatientFieldsRepositoryImpl implements PatientFieldsRepository {
+
+    private final EntityManager entityManager;
+
+    PatientFieldsRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByUidIn(Collection<String> uids, List<String> fields) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Patient> patient = query.from(Patient.class);
+        List<Selection<?>> columns = new ArrayList<>(fields.size() + 1);
+        columns.add(patient.get("uid").alias("uid"));
+        for (String field : fields) {
+            columns.add(patient.get(field).alias(field));
+        }
+        query.multiselect(columns).where(patient.get("uid").in(uids));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (TupleElement<?> element : tuple.getElements()) {
+                row.put(element.getAlias(), tuple.get(element));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
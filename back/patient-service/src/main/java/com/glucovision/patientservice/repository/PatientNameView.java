@@ -0,0 +1,15 @@
+package com.glucovision.patientservice.repository;
+
+/**
+ * Projection of the patient columns needed to build the last-name search index.
+ */
+public interface PatientNameView {
+
+    String getUid();
+
+    String getLastName();
+
+    String getFirstName();
+
+    Boolean getActive();
+}
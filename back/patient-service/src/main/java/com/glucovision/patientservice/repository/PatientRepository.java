@@ -1,12 +1,16 @@
 package com.glucovision.patientservice.repository;
 
 import com.glucovision.patientservice.model.Patient;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,9 +18,10 @@ import java.util.Optional;
  * Repository interface for accessing and managing {@link Patient} entities.
  * <p>
  * Extends {@link JpaRepository} to provide standard CRUD operations, and declares
- * additional query methods for custom access patterns.
+ * additional query methods for custom access patterns; the column projections of {@link PatientFieldsRepository}
+ * are implemented by hand.
  */
-public interface PatientRepository extends JpaRepository<Patient, Long> {
+public interface PatientRepository extends JpaRepository<Patient, Long>, PatientFieldsRepository {
 
     /**
      * Finds a patient by their last name.
@@ -34,6 +39,14 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
      */
     Optional<Patient> findByUid(String uid);
 
+    /**
+     * Finds all patients whose UID is in the given collection.
+     *
+     * @param uids the UIDs to look up
+     * @return the matching patients, in no particular order; unknown UIDs are simply absent
+     */
+    List<Patient> findByUidIn(Collection<String> uids);
+
     /**
      * Retrieves all active patients, sorted according to the provided {@link Sort} parameter.
      *
@@ -60,6 +73,39 @@ public interface PatientRepository extends JpaRepository<Patient, Long> {
     boolean existsByFirstNameAndLastNameAndBirthDate(String firstName, String lastName, LocalDate birthDate);
 
     Page<Patient> findByActiveTrue(Pageable pageable);
+
+    /**
+     * Retrieves a window of active patients located after the given keyset position.
+     *
+     * @param position the keyset position to resume from
+     * @param sort     the sort criteria, which must make the ordering total
+     * @param limit    the maximum number of patients to return
+     * @return the window of patients, telling whether more follow
+     */
+    Window<Patient> findByActiveTrue(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Retrieves a window of patients whose last name contains the given text, located after the given keyset position.
+     *
+     * @param lastName the text to search in last names, ignoring case
+     * @param position the keyset position to resume from
+     * @param sort     the sort criteria, which must make the ordering total
+     * @param limit    the maximum number of patients to return
+     * @return the window of patients, telling whether more follow
+     */
+    Window<Patient> findByLastNameContainingIgnoreCase(String lastName, ScrollPosition position, Sort sort, Limit limit);
+
+    long countByActiveTrue();
+
+    /**
+     * Retrieves the UID, names and status of every patient, used to build the last-name search index.
+     *
+     * @return one lightweight view per patient
+     */
+    List<PatientNameView> findAllNameViewsBy();
+
+    long countByLastNameContainingIgnoreCase(String lastName);
+
     Page<Patient> findByActiveTrueAndLastNameContainingIgnoreCase(String lastName, Pageable pageable);
     Page<Patient> findByLastNameContainingIgnoreCase(String lastName,Pageable pageable);
 }
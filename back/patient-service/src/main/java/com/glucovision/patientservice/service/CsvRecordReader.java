@@ -0,0 +1,139 @@
+package com.glucovision.patientservice.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader returning one record at a time.
+ * <p>
+ * Fields are separated by commas or semicolons (the separator of the header line is kept for the whole file)
+ * and may be quoted, in which case they can hold separators, line breaks and doubled quotes. Blank lines are
+ * skipped and a leading byte order mark is ignored.
+ */
+final class CsvRecordReader {
+
+    private final Reader reader;
+    private final StringBuilder raw = new StringBuilder();
+    private char separator;
+    private int lookahead = -2;
+    private long line = 1;
+    private long recordLine;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the fields of the record, or {@code null} at the end of the input
+     * @throws IOException if the input cannot be read
+     */
+    List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        raw.setLength(0);
+        recordLine = line;
+
+        int c;
+        while ((c = read()) != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        field.append((char) read());
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+                fieldStarted = true;
+            } else if (isSeparator(c)) {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStarted = true;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                if (fields.isEmpty() && !fieldStarted && field.isEmpty()) {
+                    // Blank line
+                    raw.setLength(0);
+                    recordLine = line;
+                    continue;
+                }
+                break;
+            } else {
+                field.append((char) c);
+                fieldStarted = true;
+            }
+        }
+
+        if (c == -1 && fields.isEmpty() && !fieldStarted && field.isEmpty()) {
+            return null;
+        }
+        fields.add(field.toString());
+        if (separator == 0) {
+            separator = ',';
+        }
+        return fields;
+    }
+
+    /**
+     * @return the line of the input where the last record read starts, from 1
+     */
+    long recordLine() {
+        return recordLine;
+    }
+
+    /**
+     * @return the text of the last record read, without its line break
+     */
+    String rawRecord() {
+        int end = raw.length();
+        while (end > 0 && (raw.charAt(end - 1) == '\n' || raw.charAt(end - 1) == '\r')) {
+            end--;
+        }
+        return raw.substring(0, end);
+    }
+
+    private boolean isSeparator(int c) {
+        if (separator == 0 && (c == ',' || c == ';')) {
+            separator = (char) c;
+        }
+        return c == separator;
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (lookahead != -2) {
+            c = lookahead;
+            lookahead = -2;
+        } else {
+            c = reader.read();
+            if (c == '\uFEFF' && line == 1 && raw.isEmpty()) {
+                c = reader.read();
+            }
+        }
+        if (c != -1) {
+            raw.append((char) c);
+            if (c == '\n') {
+                line++;
+            }
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (lookahead == -2) {
+            lookahead = reader.read();
+        }
+        return lookahead;
+    }
+}
@@ -0,0 +1,92 @@
+package com.glucovision.patientservice.service;
+
+import com.glucovision.patientservice.model.Patient;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Position of a patient in the {@code (lastName, firstName, uid)} ordering used by keyset pagination.
+ * <p>
+ * Clients receive the position of the last patient of a page as an opaque URL-safe token and send it back
+ * to get the next page; the next query then seeks directly past that patient instead of skipping an offset.
+ *
+ * @param lastName  the last name of the last patient returned
+ * @param firstName the first name of the last patient returned
+ * @param uid       the UID of the last patient returned, breaking ties between homonyms
+ */
+public record PatientCursor(String lastName, String firstName, String uid) {
+
+    private static final int VERSION = 1;
+
+    /**
+     * Returns the cursor positioned on the given patient.
+     *
+     * @param patient the last patient of a page
+     * @return the cursor pointing after this patient
+     */
+    public static PatientCursor of(Patient patient) {
+        return new PatientCursor(patient.getLastName(), patient.getFirstName(), patient.getUid());
+    }
+
+    /**
+     * Encodes the cursor as an opaque continuation token.
+     *
+     * @return the URL-safe token
+     */
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeUTF(lastName);
+            out.writeUTF(firstName);
+            out.writeUTF(uid);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Decodes a continuation token produced by {@link #encode()}.
+     *
+     * @param token the token sent by the client
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static PatientCursor decode(String token) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readByte() != VERSION) {
+                throw new IllegalArgumentException("Unsupported cursor version");
+            }
+            PatientCursor cursor = new PatientCursor(in.readUTF(), in.readUTF(), in.readUTF());
+            if (in.available() > 0) {
+                throw new IllegalArgumentException("Trailing data in cursor");
+            }
+            return cursor;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    /**
+     * Converts the cursor to the keyset position expected by Spring Data.
+     *
+     * @return the position right after the patient designated by this cursor
+     */
+    public ScrollPosition toScrollPosition() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("lastName", lastName);
+        keys.put("firstName", firstName);
+        keys.put("uid", uid);
+        return ScrollPosition.forward(keys);
+    }
+}
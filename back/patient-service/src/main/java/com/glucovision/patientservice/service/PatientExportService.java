@@ -0,0 +1,136 @@
+package com.glucovision.patientservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.glucovision.patientservice.dto.PatientDTO;
+import com.glucovision.patientservice.model.Gender;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Streams the patient listings to a response, as NDJSON or CSV, without loading them in memory.
+ * <p>
+ * Patients are read with a forward-only cursor and written one at a time, so memory use does not depend on
+ * the number of patients. The fetch size is {@code patient.export.fetch-size}; its default,
+ * {@link Integer#MIN_VALUE}, makes MySQL Connector/J stream the rows instead of buffering the whole result.
+ * Rows come sorted by last name, first name and UID, the order of the {@code idx_patients_name_seek} index,
+ * so that no sort of the whole table is needed.
+ * <p>
+ * The CSV columns are the ones read by {@link PatientImportService}, so an export can be imported elsewhere.
+ */
+@Slf4j
+@Service
+public class PatientExportService {
+
+    static final String SELECT_SQL = "SELECT uid, first_name, last_name, birth_date, gender, address, phone, active "
+            + "FROM patients%s ORDER BY last_name, first_name, uid";
+
+    static final String CSV_HEADER = "uid,firstName,lastName,birthDate,gender,address,phone,active\n";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectWriter patientWriter;
+
+    /**
+     * Creates the service.
+     *
+     * @param jdbcTemplate the template whose data source is read
+     * @param objectMapper the mapper writing NDJSON patients
+     * @param fetchSize    the JDBC fetch size of the cursor
+     */
+    public PatientExportService(JdbcTemplate jdbcTemplate,
+                                ObjectMapper objectMapper,
+                                @Value("${patient.export.fetch-size:-2147483648}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.patientWriter = objectMapper.writerFor(PatientDTO.class);
+    }
+
+    /**
+     * Writes the patients to the output as they are read.
+     *
+     * @param activeOnly whether to write only the active patients
+     * @param format     the format of the output
+     * @param output     the response body
+     * @return the number of patients written
+     * @throws IOException if the output cannot be written, e.g. because the client went away
+     */
+    public long export(boolean activeOnly, PatientFileFormat format, OutputStream output) throws IOException {
+        long start = System.nanoTime();
+        OutputStream out = new BufferedOutputStream(output, BUFFER_SIZE);
+        if (format == PatientFileFormat.CSV) {
+            out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+
+        long[] count = {0};
+        try {
+            jdbcTemplate.query(SELECT_SQL.formatted(activeOnly ? " WHERE active = 1" : ""), rs -> {
+                try {
+                    write(toDTO(rs), format, out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            log.warn("⚠️ [EXPORT] Stopped after {} patient(s): {}", count[0], e.getCause().getMessage());
+            throw e.getCause();
+        }
+        out.flush();
+
+        log.info("[EXPORT] {} {}patient(s) streamed as {} in {} ms", count[0], activeOnly ? "active " : "", format,
+                (System.nanoTime() - start) / 1_000_000);
+        return count[0];
+    }
+
+    private void write(PatientDTO patient, PatientFileFormat format, OutputStream out) throws IOException {
+        if (format == PatientFileFormat.NDJSON) {
+            out.write(patientWriter.writeValueAsBytes(patient));
+        } else {
+            String line = String.join(",",
+                    csv(patient.getUid()), csv(patient.getFirstName()), csv(patient.getLastName()),
+                    patient.getBirthDate().toString(), patient.getGender().name(),
+                    csv(patient.getAddress()), csv(patient.getPhone()), patient.getActive().toString());
+            out.write(line.getBytes(StandardCharsets.UTF_8));
+        }
+        out.write('\n');
+    }
+
+    /**
+     * Quotes a CSV field when it holds a separator, a quote or a line break.
+     */
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.chars().noneMatch(c -> c == ',' || c == ';' || c == '"' || c == '\n' || c == '\r')) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static PatientDTO toDTO(ResultSet rs) throws SQLException {
+        PatientDTO patient = new PatientDTO(
+                rs.getString("uid"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getObject("birth_date", LocalDate.class),
+                Gender.valueOf(rs.getString("gender")),
+                rs.getString("address"),
+                rs.getString("phone"));
+        patient.setActive(rs.getBoolean("active"));
+        return patient;
+    }
+}
@@ -0,0 +1,28 @@
+package com.glucovision.patientservice.service;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Formats of the patient files read by the import and written by the streamed listings.
+ */
+public enum PatientFileFormat {
+
+    /** Comma or semicolon separated values, with a header line naming the columns. */
+    CSV(new MediaType("text", "csv")),
+
+    /** One JSON patient per line. */
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private final MediaType mediaType;
+
+    PatientFileFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * @return the media type of the format
+     */
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+}
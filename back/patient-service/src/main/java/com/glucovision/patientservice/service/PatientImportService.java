@@ -0,0 +1,518 @@
+package com.glucovision.patientservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.glucovision.patientservice.dto.PatientDTO;
+import com.glucovision.patientservice.dto.PatientImportError;
+import com.glucovision.patientservice.dto.PatientImportProgress;
+import com.glucovision.patientservice.model.Gender;
+import com.glucovision.patientservice.model.Patient;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Imports a stream of patients, e.g. when onboarding a clinic.
+ * <p>
+ * The patients are read one at a time from a CSV (with a header line) or NDJSON body and handled by chunks of
+ * {@code patient.import.chunk-size}, so memory use does not depend on the size of the body. For each chunk, the
+ * patients already known are found with a single query on the {@code uk_patients_identity} key (first name,
+ * last name, birth date), then the new ones are inserted with one JDBC batch and committed together; with
+ * {@code rewriteBatchedStatements=true} on the MySQL URL, the batch is sent as multi-row inserts. The unique
+ * key stays the last word: if a concurrent write makes the batch fail, the chunk is inserted row by row.
+ * <p>
+ * After each chunk, a {@link PatientImportProgress} line is written to the output. The rows that are not
+ * inserted are written to an NDJSON error file in {@code patient.import.error-dir}, one
+ * {@link PatientImportError} per row. Since known patients are skipped, an interrupted import can be resumed by
+ * sending the same body again.
+ */
+@Slf4j
+@Service
+public class PatientImportService {
+
+    static final String INSERT_SQL = "INSERT INTO patients (uid, first_name, last_name, birth_date, gender, address, phone, active) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String EXISTING_SQL = "SELECT first_name, last_name, birth_date FROM patients "
+            + "WHERE (first_name, last_name, birth_date) IN (%s)";
+
+    private static final DateTimeFormatter[] DATE_FORMATS = {
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("dd-MM-yyyy"),
+            DateTimeFormatter.ofPattern("dd/MM/yyyy")
+    };
+
+    private static final Set<String> REQUIRED_COLUMNS = Set.of("firstname", "lastname", "birthdate", "gender");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PatientNameIndex nameIndex;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter progressWriter;
+    private final ObjectWriter errorWriter;
+    private final Validator validator;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final Path errorDir;
+
+    /**
+     * Creates the service.
+     *
+     * @param jdbcTemplate       the template running the duplicate checks and the batched inserts
+     * @param transactionManager the manager of the transaction of each chunk
+     * @param nameIndex          the last-name search index, given the inserted patients
+     * @param objectMapper       the mapper reading NDJSON patients and writing the progress and error lines
+     * @param validator          the validator applying the {@link PatientDTO} constraints
+     * @param meterRegistry      the registry receiving the import metrics
+     * @param chunkSize          the number of rows checked, inserted and committed together
+     * @param errorDir           the directory receiving the error files
+     */
+    public PatientImportService(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                PatientNameIndex nameIndex,
+                                ObjectMapper objectMapper,
+                                Validator validator,
+                                MeterRegistry meterRegistry,
+                                @Value("${patient.import.chunk-size:1000}") int chunkSize,
+                                @Value("${patient.import.error-dir:${java.io.tmpdir}/patient-imports}") String errorDir) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("patient.import.chunk-size must be at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nameIndex = nameIndex;
+        this.objectMapper = objectMapper;
+        this.progressWriter = objectMapper.writerFor(PatientImportProgress.class);
+        this.errorWriter = objectMapper.writerFor(PatientImportError.class);
+        this.validator = validator;
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        this.errorDir = Path.of(errorDir);
+    }
+
+    /**
+     * Imports the patients read from the input and writes the progress of the import to the output.
+     *
+     * @param input  the request body
+     * @param format the format of the body
+     * @param output the response body, receiving one {@link PatientImportProgress} line per chunk and a last one
+     * @return the final progress of the import
+     * @throws IllegalArgumentException if the CSV header lacks a required column; nothing is written then
+     * @throws IOException              if the request, the response or the error file cannot be read or written
+     */
+    public PatientImportProgress importPatients(InputStream input, PatientFileFormat format, OutputStream output) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Import run = new Import(UUID.randomUUID().toString(), output);
+        log.info("[IMPORT] Starting {} patient import {}", format, run.progress.getImportId());
+        try {
+            if (format == PatientFileFormat.CSV) {
+                readCsv(reader, run);
+            } else {
+                readLines(reader, run);
+            }
+            run.flush();
+        } finally {
+            run.closeErrorFile();
+        }
+        run.progress.setDone(true);
+        run.writeProgress();
+
+        PatientImportProgress progress = run.progress;
+        log.info("✅ [IMPORT] {} done: {} row(s) read, {} inserted, {} duplicate(s), {} rejected",
+                progress.getImportId(), progress.getRows(), progress.getInserted(), progress.getDuplicates(), progress.getRejected());
+        return progress;
+    }
+
+    /**
+     * Resolves the error file of an import.
+     *
+     * @param importId the identifier of the import
+     * @return the path of the error file
+     * @throws IllegalArgumentException if the identifier is not a UUID
+     * @throws NoSuchElementException   if the import has no error file
+     */
+    public Path errorFile(String importId) {
+        Path file = errorDir.resolve(UUID.fromString(importId) + ".ndjson");
+        if (!Files.isRegularFile(file)) {
+            throw new NoSuchElementException("No error file for import " + importId);
+        }
+        return file;
+    }
+
+    private void readCsv(BufferedReader reader, Import run) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = columns(header);
+
+        List<String> fields;
+        while ((fields = csv.next()) != null) {
+            if (fields.stream().allMatch(String::isBlank)) {
+                continue;
+            }
+            PatientDTO patient;
+            try {
+                patient = toPatient(fields, columns);
+            } catch (IllegalArgumentException e) {
+                run.reject(csv.recordLine(), csv.rawRecord(), e.getMessage());
+                continue;
+            }
+            run.add(csv.recordLine(), csv.rawRecord(), patient);
+        }
+    }
+
+    private void readLines(BufferedReader reader, Import run) throws IOException {
+        String text;
+        long line = 0;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                run.add(line, text, objectMapper.readValue(text, PatientDTO.class));
+            } catch (JsonProcessingException e) {
+                run.reject(line, text, "Malformed patient: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    /**
+     * Maps the normalized column names of the header (e.g. {@code first_name} and {@code First Name} both
+     * become {@code firstname}) to their position.
+     */
+    private static Map<String, Integer> columns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(header.get(i).toLowerCase(Locale.ROOT).replaceAll("[^a-z]", ""), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream()
+                .filter(column -> !columns.containsKey(column))
+                .sorted()
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("The CSV header lacks the column(s) " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private static PatientDTO toPatient(List<String> fields, Map<String, Integer> columns) {
+        PatientDTO patient = new PatientDTO();
+        patient.setFirstName(field(fields, columns, "firstname"));
+        patient.setLastName(field(fields, columns, "lastname"));
+        patient.setBirthDate(parseDate(field(fields, columns, "birthdate")));
+        patient.setGender(parseGender(field(fields, columns, "gender")));
+        patient.setAddress(field(fields, columns, "address"));
+        patient.setPhone(field(fields, columns, "phone"));
+        patient.setActive(parseActive(field(fields, columns, "active")));
+        return patient;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(value, format);
+            } catch (DateTimeParseException ignored) {
+                // continue trying other formats
+            }
+        }
+        throw new IllegalArgumentException("Invalid birth date: " + value);
+    }
+
+    private static Gender parseGender(String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.toUpperCase(Locale.ROOT)) {
+            case "MALE" -> Gender.MALE;
+            case "FEMALE" -> Gender.FEMALE;
+            default -> throw new IllegalArgumentException("Unknown gender: " + value);
+        };
+    }
+
+    private static boolean parseActive(String value) {
+        if (value == null) {
+            return true;
+        }
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "1" -> true;
+            case "false", "0" -> false;
+            default -> throw new IllegalArgumentException("Invalid active flag: " + value);
+        };
+    }
+
+    /**
+     * Key of a patient on {@code uk_patients_identity}, ignoring case and accents as the MySQL collation does.
+     */
+    private static String identityKey(String firstName, String lastName, LocalDate birthDate) {
+        return PatientNameIndex.normalize(firstName) + '\u0000' + PatientNameIndex.normalize(lastName) + '\u0000' + birthDate;
+    }
+
+    /**
+     * A valid row waiting for its chunk to be written.
+     */
+    private record Row(long line, String raw, String uid, PatientDTO patient, String key) {
+    }
+
+    /**
+     * State of one import: the pending chunk, the counters and the error file.
+     */
+    private final class Import {
+
+        private final PatientImportProgress progress;
+        private final OutputStream output;
+        private final List<Row> pending = new ArrayList<>();
+        private final Set<String> pendingKeys = new HashSet<>();
+        private OutputStream errorFile;
+        private long rowsAtLastFlush;
+
+        private Import(String importId, OutputStream output) {
+            this.progress = new PatientImportProgress(importId, 0, 0, 0, 0, false, null);
+            this.output = output;
+        }
+
+        void add(long line, String raw, PatientDTO patient) throws IOException {
+            if (patient == null) {
+                reject(line, raw, "Malformed patient: null");
+                return;
+            }
+            patient.setUid(null);
+            patient.setFirstName(patient.getFirstName() == null ? null : patient.getFirstName().trim());
+            patient.setLastName(patient.getLastName() == null ? null : patient.getLastName().trim());
+            patient.setAddress(patient.getAddress() == null ? "" : patient.getAddress());
+            patient.setPhone(patient.getPhone() == null ? "" : patient.getPhone());
+            patient.setActive(patient.getActive() == null || patient.getActive());
+
+            Set<ConstraintViolation<PatientDTO>> violations = validator.validate(patient);
+            if (!violations.isEmpty()) {
+                reject(line, raw, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                return;
+            }
+
+            progress.setRows(progress.getRows() + 1);
+            String key = identityKey(patient.getFirstName(), patient.getLastName(), patient.getBirthDate());
+            if (!pendingKeys.add(key)) {
+                duplicate(line, raw, "This patient appears earlier in the file.");
+            } else {
+                pending.add(new Row(line, raw, UUID.randomUUID().toString(), patient, key));
+            }
+            flushIfFull();
+        }
+
+        void reject(long line, String raw, String error) throws IOException {
+            progress.setRows(progress.getRows() + 1);
+            progress.setRejected(progress.getRejected() + 1);
+            meterRegistry.counter("patient.import.rows", "result", "rejected").increment();
+            writeError(new PatientImportError(line, PatientImportError.Reason.INVALID, error, raw));
+            flushIfFull();
+        }
+
+        private void duplicate(long line, String raw, String error) throws IOException {
+            progress.setDuplicates(progress.getDuplicates() + 1);
+            meterRegistry.counter("patient.import.rows", "result", "duplicate").increment();
+            writeError(new PatientImportError(line, PatientImportError.Reason.DUPLICATE, error, raw));
+        }
+
+        private void flushIfFull() throws IOException {
+            if (progress.getRows() - rowsAtLastFlush >= chunkSize) {
+                flush();
+            }
+        }
+
+        /**
+         * Writes the pending chunk, then a progress line.
+         */
+        void flush() throws IOException {
+            if (!pending.isEmpty()) {
+                Set<String> existing = existingKeys();
+                List<Row> fresh = new ArrayList<>(pending.size());
+                for (Row row : pending) {
+                    if (existing.contains(row.key())) {
+                        duplicate(row.line(), row.raw(), "This patient already exists in the system.");
+                    } else {
+                        fresh.add(row);
+                    }
+                }
+                if (!fresh.isEmpty()) {
+                    insert(fresh);
+                }
+                pending.clear();
+                pendingKeys.clear();
+            }
+            if (errorFile != null) {
+                errorFile.flush();
+            }
+            if (progress.getRows() > rowsAtLastFlush) {
+                rowsAtLastFlush = progress.getRows();
+                writeProgress();
+                log.info("[IMPORT] {}: {} row(s) read, {} inserted, {} duplicate(s), {} rejected", progress.getImportId(),
+                        progress.getRows(), progress.getInserted(), progress.getDuplicates(), progress.getRejected());
+            }
+        }
+
+        /**
+         * Finds which pending rows match a known patient, with one query on the unique key.
+         */
+        private Set<String> existingKeys() {
+            Object[] args = new Object[pending.size() * 3];
+            for (int i = 0; i < pending.size(); i++) {
+                PatientDTO patient = pending.get(i).patient();
+                args[3 * i] = patient.getFirstName();
+                args[3 * i + 1] = patient.getLastName();
+                args[3 * i + 2] = patient.getBirthDate();
+            }
+            String sql = EXISTING_SQL.formatted(String.join(", ", Collections.nCopies(pending.size(), "(?, ?, ?)")));
+
+            Set<String> keys = new HashSet<>();
+            jdbcTemplate.query(sql, rs -> {
+                keys.add(identityKey(rs.getString(1), rs.getString(2), rs.getObject(3, LocalDate.class)));
+            }, args);
+            return keys;
+        }
+
+        /**
+         * Inserts the rows with one batch in one transaction, or row by row if the batch breaks a constraint.
+         */
+        private void insert(List<Row> rows) throws IOException {
+            List<Row> inserted = new ArrayList<>(rows.size());
+            List<PatientImportError> failures = new ArrayList<>();
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), PatientImportService::bind));
+                inserted.addAll(rows);
+            } catch (DataIntegrityViolationException e) {
+                log.warn("⚠️ [IMPORT] Batch of {} patient(s) rejected ({}), inserting them one by one",
+                        rows.size(), e.getMostSpecificCause().getMessage());
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (Row row : rows) {
+                        try {
+                            jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, row));
+                            inserted.add(row);
+                        } catch (DuplicateKeyException duplicate) {
+                            failures.add(new PatientImportError(row.line(), PatientImportError.Reason.DUPLICATE,
+                                    "This patient already exists in the system.", row.raw()));
+                        } catch (DataIntegrityViolationException invalid) {
+                            failures.add(new PatientImportError(row.line(), PatientImportError.Reason.INVALID,
+                                    invalid.getMostSpecificCause().getMessage(), row.raw()));
+                        }
+                    }
+                });
+            }
+
+            for (Row row : inserted) {
+                nameIndex.put(toEntity(row));
+            }
+            progress.setInserted(progress.getInserted() + inserted.size());
+            meterRegistry.counter("patient.import.rows", "result", "inserted").increment(inserted.size());
+            for (PatientImportError failure : failures) {
+                if (failure.getReason() == PatientImportError.Reason.DUPLICATE) {
+                    duplicate(failure.getLine(), failure.getRecord(), failure.getError());
+                } else {
+                    progress.setRejected(progress.getRejected() + 1);
+                    meterRegistry.counter("patient.import.rows", "result", "rejected").increment();
+                    writeError(failure);
+                }
+            }
+        }
+
+        private void writeError(PatientImportError error) throws IOException {
+            if (errorFile == null) {
+                Files.createDirectories(errorDir);
+                errorFile = new BufferedOutputStream(Files.newOutputStream(errorDir.resolve(progress.getImportId() + ".ndjson")));
+                progress.setErrors("/api/patients/import/" + progress.getImportId() + "/errors");
+            }
+            errorFile.write(errorWriter.writeValueAsBytes(error));
+            errorFile.write('\n');
+        }
+
+        void writeProgress() throws IOException {
+            output.write(progressWriter.writeValueAsBytes(progress));
+            output.write('\n');
+            output.flush();
+        }
+
+        void closeErrorFile() throws IOException {
+            if (errorFile != null) {
+                errorFile.close();
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement ps, Row row) throws SQLException {
+        PatientDTO patient = row.patient();
+        ps.setString(1, row.uid());
+        ps.setString(2, patient.getFirstName());
+        ps.setString(3, patient.getLastName());
+        ps.setObject(4, patient.getBirthDate());
+        ps.setString(5, patient.getGender().name());
+        ps.setString(6, patient.getAddress());
+        ps.setString(7, patient.getPhone());
+        ps.setBoolean(8, patient.getActive());
+    }
+
+    private static Patient toEntity(Row row) {
+        PatientDTO dto = row.patient();
+        Patient patient = new Patient();
+        patient.setUid(row.uid());
+        patient.setFirstName(dto.getFirstName());
+        patient.setLastName(dto.getLastName());
+        patient.setBirthDate(dto.getBirthDate());
+        patient.setGender(dto.getGender());
+        patient.setAddress(dto.getAddress());
+        patient.setPhone(dto.getPhone());
+        patient.setActive(dto.getActive());
+        return patient;
+    }
+}
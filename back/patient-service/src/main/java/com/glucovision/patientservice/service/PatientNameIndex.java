@@ -0,0 +1,291 @@
+package com.glucovision.patientservice.service;
+
+import com.glucovision.patientservice.model.Patient;
+import com.glucovision.patientservice.repository.PatientNameView;
+import com.glucovision.patientservice.repository.PatientRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory trigram index of patient last names, used instead of {@code LIKE '%x%'} table scans.
+ * <p>
+ * Last names are normalized (lower case, no accents) and split into trigrams; each trigram points to the
+ * distinct names containing it. A search reads the smallest posting list among the query's trigrams and
+ * checks each candidate name, so its cost depends on the number of candidate names rather than on the
+ * number of patients. Queries shorter than a trigram scan the distinct names.
+ * <p>
+ * Results are ranked with names starting with the query first, then by last name, first name and UID.
+ * <p>
+ * The index is built from the database once the application is ready and then kept up to date by
+ * {@link PatientService} on every write. Until it is built, {@link #isReady()} returns {@code false}
+ * and searches fall back to the database.
+ */
+@Slf4j
+@Component
+public class PatientNameIndex {
+
+    private static final int GRAM = 3;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final PatientRepository patientRepository;
+    private final boolean enabled;
+
+    private final Map<String, Entry> byUid = new ConcurrentHashMap<>();
+    private final Map<String, Homonyms> byName = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> namesByTrigram = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public PatientNameIndex(PatientRepository patientRepository,
+                            @Value("${patient.search.index.enabled:true}") boolean enabled) {
+        this.patientRepository = patientRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Builds the index from the database once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            log.info("[SEARCH] Patient name index disabled, searches use the database");
+            return;
+        }
+        long start = System.nanoTime();
+        synchronized (this) {
+            List<PatientNameView> patients = patientRepository.findAllNameViewsBy();
+            byUid.clear();
+            byName.clear();
+            namesByTrigram.clear();
+            for (PatientNameView patient : patients) {
+                add(new Entry(patient.getUid(), patient.getLastName(), patient.getFirstName(),
+                        normalize(patient.getLastName()), Boolean.TRUE.equals(patient.getActive())));
+            }
+            ready = true;
+        }
+        log.info("[SEARCH] ✅ Patient name index built: {} patient(s), {} distinct name(s), {} trigram(s) in {} ms",
+                byUid.size(), byName.size(), namesByTrigram.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Tells whether the index has been built and can serve searches.
+     *
+     * @return {@code true} once the index is built
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Adds or replaces a patient in the index.
+     *
+     * @param patient the saved patient
+     */
+    public synchronized void put(Patient patient) {
+        remove(patient.getUid());
+        add(new Entry(patient.getUid(), patient.getLastName(), patient.getFirstName(),
+                normalize(patient.getLastName()), Boolean.TRUE.equals(patient.getActive())));
+    }
+
+    /**
+     * Removes a patient from the index; unknown UIDs are ignored.
+     *
+     * @param uid the UID of the deleted patient
+     */
+    public synchronized void remove(String uid) {
+        Entry entry = byUid.remove(uid);
+        if (entry == null) {
+            return;
+        }
+        Homonyms homonyms = byName.get(entry.normalizedLastName());
+        if (homonyms != null) {
+            homonyms.remove(entry);
+            if (homonyms.entries.isEmpty()) {
+                byName.remove(entry.normalizedLastName());
+                for (String trigram : trigrams(entry.normalizedLastName())) {
+                    Set<String> names = namesByTrigram.get(trigram);
+                    if (names != null) {
+                        names.remove(entry.normalizedLastName());
+                        if (names.isEmpty()) {
+                            namesByTrigram.remove(trigram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the patients whose last name contains the query, ignoring case and accents.
+     *
+     * @param query      the text to search in last names
+     * @param activeOnly whether to keep active patients only
+     * @return the UIDs of all matching patients, prefix matches first
+     */
+    public List<String> search(String query, boolean activeOnly) {
+        return search(query, activeOnly, 0, Integer.MAX_VALUE).uids();
+    }
+
+    /**
+     * Finds one page of the patients whose last name contains the query, ignoring case and accents.
+     * <p>
+     * Only the UIDs of the requested page are collected; the other matches are just counted.
+     *
+     * @param query      the text to search in last names
+     * @param activeOnly whether to keep active patients only
+     * @param offset     the number of matches to skip
+     * @param limit      the maximum number of UIDs to return
+     * @return the UIDs of the page, prefix matches first, and the total number of matches
+     */
+    public SearchResult search(String query, boolean activeOnly, long offset, int limit) {
+        String normalized = normalize(query == null ? "" : query);
+
+        List<String> names = new ArrayList<>();
+        for (String name : candidateNames(normalized)) {
+            if (name.contains(normalized)) {
+                names.add(name);
+            }
+        }
+        names.sort(Comparator.comparing((String name) -> !name.startsWith(normalized))
+                .thenComparing(Comparator.naturalOrder()));
+
+        List<String> uids = new ArrayList<>(Math.min(limit, 1024));
+        long end = offset + limit;
+        int total = 0;
+        for (String name : names) {
+            Homonyms homonyms = byName.get(name);
+            if (homonyms == null) {
+                continue;
+            }
+            int count = homonyms.count(activeOnly);
+            if (total + count > offset && total < end) {
+                int position = total;
+                for (Entry entry : homonyms.entries) {
+                    if (activeOnly && !entry.active()) {
+                        continue;
+                    }
+                    if (position >= offset && position < end) {
+                        uids.add(entry.uid());
+                    }
+                    position++;
+                }
+            }
+            total += count;
+        }
+        return new SearchResult(uids, total);
+    }
+
+    /**
+     * Returns the number of indexed patients.
+     *
+     * @return the index size
+     */
+    public int size() {
+        return byUid.size();
+    }
+
+    private Collection<String> candidateNames(String normalized) {
+        if (normalized.length() < GRAM) {
+            return byName.keySet();
+        }
+        Set<String> smallest = null;
+        for (String trigram : trigrams(normalized)) {
+            Set<String> names = namesByTrigram.get(trigram);
+            if (names == null) {
+                return Set.of();
+            }
+            if (smallest == null || names.size() < smallest.size()) {
+                smallest = names;
+            }
+        }
+        return smallest;
+    }
+
+    private void add(Entry entry) {
+        byUid.put(entry.uid(), entry);
+        byName.computeIfAbsent(entry.normalizedLastName(), name -> {
+            for (String trigram : trigrams(name)) {
+                namesByTrigram.computeIfAbsent(trigram, t -> ConcurrentHashMap.newKeySet()).add(name);
+            }
+            return new Homonyms();
+        }).add(entry);
+    }
+
+    private static Set<String> trigrams(String normalized) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            trigrams.add(normalized.substring(i, i + GRAM));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Normalizes a last name or a query: lower case, accents removed, surrounding spaces trimmed.
+     *
+     * @param text the text to normalize
+     * @return the normalized text
+     */
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text.trim(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * One page of search results.
+     *
+     * @param uids  the UIDs of the page, in rank order
+     * @param total the total number of matching patients
+     */
+    public record SearchResult(List<String> uids, int total) {
+    }
+
+    /**
+     * Patients sharing a normalized last name, kept sorted, with the number of active ones.
+     */
+    private static final class Homonyms {
+
+        private final NavigableSet<Entry> entries = new ConcurrentSkipListSet<>(Entry.ORDER);
+        private final AtomicInteger active = new AtomicInteger();
+
+        void add(Entry entry) {
+            if (entries.add(entry) && entry.active()) {
+                active.incrementAndGet();
+            }
+        }
+
+        void remove(Entry entry) {
+            if (entries.remove(entry) && entry.active()) {
+                active.decrementAndGet();
+            }
+        }
+
+        int count(boolean activeOnly) {
+            return activeOnly ? active.get() : entries.size();
+        }
+    }
+
+    private record Entry(String uid, String lastName, String firstName, String normalizedLastName, boolean active) {
+
+        static final Comparator<Entry> ORDER = Comparator
+                .comparing(Entry::lastName, String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(Entry::firstName, String.CASE_INSENSITIVE_ORDER)
+                .thenComparing(Entry::uid);
+    }
+}
@@ -1,33 +1,72 @@
 package com.glucovision.patientservice.service;
 
+import com.glucovision.patientservice.client.PatientStatusEventPublisher;
+import com.glucovision.patientservice.client.RiskEventPublisher;
+import com.glucovision.patientservice.dto.PatientBatchDTO;
 import com.glucovision.patientservice.dto.PatientDTO;
+import com.glucovision.patientservice.dto.PatientFieldsBatchDTO;
+import com.glucovision.patientservice.dto.PatientScrollDTO;
+import com.glucovision.patientservice.dto.PatientStatusEvent;
+import com.glucovision.patientservice.dto.RiskInvalidationEvent;
 import com.glucovision.patientservice.exception.DuplicatePatientException;
 import com.glucovision.patientservice.exception.PatientNotFoundException;
 import com.glucovision.patientservice.model.Patient;
 import com.glucovision.patientservice.repository.PatientRepository;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Service layer for managing {@link Patient} entities.
  * <p>
  * Provides business logic for creating, updating, retrieving, and deleting patients.
+ * Changes of the birth date or gender, and deletions, are notified to the Diabetes Risk Service,
+ * whose risk levels depend on them.
  */
 @Service
 @Slf4j
 @AllArgsConstructor
 public class PatientService {
 
+    /** Total ordering used by keyset pagination, backed by the {@code idx_patients_name_seek} index. */
+    static final Sort SCROLL_SORT = Sort.by("lastName", "firstName", "uid");
+
+    /** Largest page served by the keyset-paginated listings. */
+    static final int MAX_SCROLL_SIZE = 100;
+
+    /** Largest number of UIDs accepted by a bulk lookup. */
+    static final int MAX_BATCH_SIZE = 1000;
+
+    /** Number of UIDs per {@code IN (...)} query of a bulk lookup, keeping the statements and their plans small. */
+    static final int BATCH_QUERY_SIZE = 500;
+
+    /** Fields a bulk lookup can be restricted to, named after the {@link Patient} attributes; the UID is always returned. */
+    static final Set<String> PROJECTABLE_FIELDS = Set.of("firstName", "lastName", "birthDate", "gender", "address", "phone", "active");
+
     private final PatientRepository patientRepository;
+    private final PatientNameIndex nameIndex;
+    private final RiskEventPublisher riskEventPublisher;
+    private final PatientStatusEventPublisher statusEventPublisher;
 
     /**
      * Retrieves all patients sorted by last name and first name.
@@ -98,6 +137,7 @@ public class PatientService {
         newPatient.setActive(true);
 
         Patient saved = patientRepository.save(newPatient);
+        nameIndex.put(saved);
         log.info("Patient created successfully with UID: {}", saved.getUid());
         return saved;
     }
@@ -115,20 +155,61 @@ public class PatientService {
                 .orElseThrow(() -> new PatientNotFoundException("Patient with name " + lastName + " not found"));
     }
 
+    /**
+     * Searches active patients by last name (partial match, ignoring case and accents).
+     * <p>
+     * Served by the {@link PatientNameIndex} once it is built, with prefix matches ranked first;
+     * falls back to a database query sorted by {@code pageable} before that.
+     *
+     * @param lastName the text to search in last names
+     * @param pageable the page to return
+     * @return the requested page of matching patients
+     */
     public Page<PatientDTO> findPatientActiveByNamePaginated(String lastName, Pageable pageable) {
         log.debug("Searching for active patients by last name (partial match): {}", lastName);
+        if (nameIndex.isReady()) {
+            return indexedSearch(lastName, true, pageable);
+        }
         Page<Patient> patients = patientRepository.findByActiveTrueAndLastNameContainingIgnoreCase(lastName, pageable);
         List<PatientDTO> dtoList = convertToDTOList(patients.getContent());
         return new PageImpl<>(dtoList, pageable, patients.getTotalElements());
     }
 
+    /**
+     * Searches all patients, active or not, by last name (partial match, ignoring case and accents).
+     *
+     * @param lastName the text to search in last names
+     * @param pageable the page to return
+     * @return the requested page of matching patients
+     * @see #findPatientActiveByNamePaginated(String, Pageable)
+     */
     public Page<PatientDTO> searchPatientsPaginated(String lastName, Pageable pageable) {
         log.debug("Searching for active patients by last name (partial match): {}", lastName);
+        if (nameIndex.isReady()) {
+            return indexedSearch(lastName, false, pageable);
+        }
         Page<Patient> patients = patientRepository.findByLastNameContainingIgnoreCase(lastName, pageable);
         List<PatientDTO> dtoList = convertToDTOList(patients.getContent());
         return new PageImpl<>(dtoList, pageable, patients.getTotalElements());
     }
 
+    /**
+     * Ranks the matches with the name index, then loads only the patients of the requested page.
+     */
+    private Page<PatientDTO> indexedSearch(String lastName, boolean activeOnly, Pageable pageable) {
+        PatientNameIndex.SearchResult ranked = nameIndex.search(lastName, activeOnly, pageable.getOffset(), pageable.getPageSize());
+        List<String> pageUids = ranked.uids();
+
+        Map<String, Patient> byUid = patientRepository.findByUidIn(pageUids).stream()
+                .collect(Collectors.toMap(Patient::getUid, Function.identity()));
+        List<PatientDTO> dtoList = pageUids.stream()
+                .map(byUid::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToDTO)
+                .toList();
+        return new PageImpl<>(dtoList, pageable, ranked.total());
+    }
+
     /**
      * Updates an existing patient by UID.
      *
@@ -141,8 +222,20 @@ public class PatientService {
         log.info("Updating patient with UID: {}", uid);
         return patientRepository.findByUid(uid)
                 .map(existingPatient -> {
+                    boolean riskInputsChanged = !Objects.equals(existingPatient.getBirthDate(), patientDTO.getBirthDate())
+                            || existingPatient.getGender() != patientDTO.getGender();
+                    boolean statusChanged = !Objects.equals(existingPatient.getActive(), patientDTO.getActive());
                     updateFields(existingPatient, patientDTO);
                     Patient updatedPatient = patientRepository.save(existingPatient);
+                    nameIndex.put(updatedPatient);
+                    if (riskInputsChanged) {
+                        riskEventPublisher.publish(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.PATIENT_CHANGED, uid));
+                    } else if (statusChanged) {
+                        riskEventPublisher.publish(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.PATIENT_STATUS_CHANGED, uid));
+                    }
+                    if (statusChanged) {
+                        statusEventPublisher.publish(new PatientStatusEvent(PatientStatusEvent.Reason.STATUS_CHANGED, uid));
+                    }
                     log.info("Patient with UID {} updated successfully.", uid);
                     return convertToDTO(updatedPatient);
                 })
@@ -177,6 +270,9 @@ public class PatientService {
             throw new PatientNotFoundException(uid);
         }
         patientRepository.deleteByUid(uid);
+        nameIndex.remove(uid);
+        riskEventPublisher.publish(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.PATIENT_DELETED, uid));
+        statusEventPublisher.publish(new PatientStatusEvent(PatientStatusEvent.Reason.PATIENT_DELETED, uid));
         log.info("Patient with UID {} deleted successfully.", uid);
     }
 
@@ -229,6 +325,9 @@ public class PatientService {
                 .orElseThrow(() -> new PatientNotFoundException(uid));
         patient.setActive(!patient.getActive());
         Patient savedPatient = patientRepository.save(patient);
+        nameIndex.put(savedPatient);
+        riskEventPublisher.publish(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.PATIENT_STATUS_CHANGED, uid));
+        statusEventPublisher.publish(new PatientStatusEvent(PatientStatusEvent.Reason.STATUS_CHANGED, uid));
         log.info("Patient UID {} is now active = {}", uid, savedPatient.getActive());
         return convertToDTO(savedPatient);
     }
@@ -246,6 +345,148 @@ public class PatientService {
                 .orElseThrow(() -> new PatientNotFoundException(uid));
     }
 
+    /**
+     * Retrieves a page of active patients with keyset pagination.
+     * <p>
+     * Unlike offset pagination, the cost of a page does not grow with its depth, and no count is run
+     * unless {@code includeTotal} is set.
+     *
+     * @param after        the continuation token returned with the previous page, or {@code null} for the first page
+     * @param size         the page size, capped at {@value #MAX_SCROLL_SIZE}
+     * @param includeTotal whether to count all active patients
+     * @return the page and the token of the next one
+     * @throws IllegalArgumentException if the continuation token is invalid
+     */
+    public PatientScrollDTO scrollActivePatients(String after, int size, boolean includeTotal) {
+        log.debug("Scrolling active patients (after={}, size={})", after, size);
+        Window<Patient> window = patientRepository.findByActiveTrue(scrollPosition(after), SCROLL_SORT, scrollLimit(size));
+        return toScrollDTO(window, includeTotal ? patientRepository.countByActiveTrue() : null);
+    }
+
+    /**
+     * Searches patients by last name with keyset pagination.
+     *
+     * @param lastName     the text to search in last names, ignoring case
+     * @param after        the continuation token returned with the previous page, or {@code null} for the first page
+     * @param size         the page size, capped at {@value #MAX_SCROLL_SIZE}
+     * @param includeTotal whether to count all matching patients
+     * @return the page and the token of the next one
+     * @throws IllegalArgumentException if the continuation token is invalid
+     */
+    public PatientScrollDTO scrollPatientsByName(String lastName, String after, int size, boolean includeTotal) {
+        log.debug("Scrolling patients by name '{}' (after={}, size={})", lastName, after, size);
+        Window<Patient> window = patientRepository.findByLastNameContainingIgnoreCase(
+                lastName, scrollPosition(after), SCROLL_SORT, scrollLimit(size));
+        return toScrollDTO(window, includeTotal ? patientRepository.countByLastNameContainingIgnoreCase(lastName) : null);
+    }
+
+    private static ScrollPosition scrollPosition(String after) {
+        return after == null || after.isBlank() ? ScrollPosition.keyset() : PatientCursor.decode(after).toScrollPosition();
+    }
+
+    private static Limit scrollLimit(int size) {
+        return Limit.of(Math.clamp(size, 1, MAX_SCROLL_SIZE));
+    }
+
+    private PatientScrollDTO toScrollDTO(Window<Patient> window, Long total) {
+        List<Patient> patients = window.getContent();
+        String next = window.hasNext() && !patients.isEmpty()
+                ? PatientCursor.of(patients.get(patients.size() - 1)).encode()
+                : null;
+        return new PatientScrollDTO(convertToDTOList(patients), next, total);
+    }
+
+    /**
+     * Retrieves several patients by UID with a single query per {@value #BATCH_QUERY_SIZE} UIDs.
+     * <p>
+     * Duplicate UIDs are looked up once; the found patients are returned in request order.
+     *
+     * @param uids the UIDs to look up, at most {@value #MAX_BATCH_SIZE} distinct ones
+     * @return the found patients and the UIDs that match no patient
+     * @throws IllegalArgumentException if more than {@value #MAX_BATCH_SIZE} distinct UIDs are requested
+     */
+    public PatientBatchDTO findPatientsByIds(Collection<String> uids) {
+        List<String> requested = distinctUids(uids);
+        log.debug("Bulk lookup of {} patient UID(s)", requested.size());
+
+        Map<String, Patient> byUid = new HashMap<>();
+        for (int from = 0; from < requested.size(); from += BATCH_QUERY_SIZE) {
+            List<String> chunk = requested.subList(from, Math.min(from + BATCH_QUERY_SIZE, requested.size()));
+            for (Patient patient : patientRepository.findByUidIn(chunk)) {
+                byUid.put(patient.getUid(), patient);
+            }
+        }
+
+        PatientBatchDTO result = new PatientBatchDTO();
+        for (String uid : requested) {
+            Patient patient = byUid.get(uid);
+            if (patient != null) {
+                result.getPatients().add(convertToDTO(patient));
+            } else {
+                result.getMissing().add(uid);
+            }
+        }
+        log.debug("Bulk lookup found {} patient(s), {} missing", result.getPatients().size(), result.getMissing().size());
+        return result;
+    }
+
+    /**
+     * Retrieves several patients by UID, keeping only the requested fields of each one.
+     *
+     * @param uids   the UIDs to look up, at most {@value #MAX_BATCH_SIZE} distinct ones
+     * @param fields the fields to return besides the UID, among {@link #PROJECTABLE_FIELDS}
+     * @return the requested fields of the found patients, and the UIDs that match no patient
+     * @throws IllegalArgumentException if a field is unknown or too many UIDs are requested
+     * @see #findPatientsByIds(Collection)
+     */
+    public PatientFieldsBatchDTO findPatientFieldsByIds(Collection<String> uids, Collection<String> fields) {
+        List<String> unknown = fields.stream()
+                .filter(field -> !field.equals("uid") && !PROJECTABLE_FIELDS.contains(field))
+                .toList();
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown patient field(s): " + String.join(", ", unknown)
+                    + "; expected " + String.join(", ", new TreeSet<>(PROJECTABLE_FIELDS)));
+        }
+        List<String> columns = fields.stream().filter(PROJECTABLE_FIELDS::contains).distinct().toList();
+        List<String> requested = distinctUids(uids);
+        log.debug("Bulk lookup of {} patient UID(s), columns {}", requested.size(), columns);
+
+        Map<String, Map<String, Object>> byUid = new HashMap<>();
+        for (int from = 0; from < requested.size(); from += BATCH_QUERY_SIZE) {
+            List<String> chunk = requested.subList(from, Math.min(from + BATCH_QUERY_SIZE, requested.size()));
+            for (Map<String, Object> row : patientRepository.findFieldsByUidIn(chunk, columns)) {
+                byUid.put((String) row.get("uid"), row);
+            }
+        }
+
+        PatientFieldsBatchDTO result = new PatientFieldsBatchDTO(new ArrayList<>(byUid.size()), new ArrayList<>());
+        for (String uid : requested) {
+            Map<String, Object> patient = byUid.get(uid);
+            if (patient != null) {
+                result.getPatients().add(patient);
+            } else {
+                result.getMissing().add(uid);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes the duplicates of a bulk lookup, keeping the order of the first occurrences.
+     *
+     * @throws IllegalArgumentException if a UID is null or blank, or more than {@value #MAX_BATCH_SIZE} distinct UIDs are requested
+     */
+    private static List<String> distinctUids(Collection<String> uids) {
+        if (uids.stream().anyMatch(uid -> uid == null || uid.isBlank())) {
+            throw new IllegalArgumentException("Patient UIDs cannot be null or blank");
+        }
+        List<String> requested = List.copyOf(new LinkedHashSet<>(uids));
+        if (requested.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " patients can be looked up at once");
+        }
+        return requested;
+    }
+
     /**
      * Checks if a patient is active based on their UID.
      *
@@ -0,0 +1,113 @@
+package com.glucovision.patientservice.benchmark;
+
+import com.glucovision.patientservice.model.Gender;
+import com.glucovision.patientservice.model.Patient;
+import com.glucovision.patientservice.service.PatientNameIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Last-name search over 1M synthetic patients: {@link PatientNameIndex} against a full scan, the
+ * in-memory equivalent of the {@code LIKE '%x%'} query it replaces (a lower bound for the database,
+ * which also has to read the rows from disk).
+ * <p>
+ * Names are built from three random syllables, giving about 64,000 distinct last names.
+ * <p>
+ * Run from {@code back/patient-service} (needs a heap of about 2 GB):
+ * <pre>
+ * mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main PatientNameSearchBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class PatientNameSearchBenchmark {
+
+    private static final String[] SYLLABLES = {
+            "ba", "be", "bo", "da", "de", "do", "du", "fa", "fe", "ga", "gi", "la", "le", "li", "lo",
+            "ma", "me", "mi", "mo", "na", "ne", "no", "pa", "pe", "ra", "re", "ri", "ro", "sa", "se",
+            "ta", "te", "ti", "to", "va", "ve", "vi", "rand", "mont", "nier"
+    };
+
+    @Param("1000000")
+    private int patients;
+
+    /** A frequent trigram, a selective query and a query shorter than a trigram. */
+    @Param({"mar", "dupont", "vilo", "ri"})
+    private String query;
+
+    private PatientNameIndex index;
+    private List<Patient> table;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new PatientNameIndex(null, true);
+        table = new ArrayList<>(patients);
+        for (int i = 0; i < patients; i++) {
+            String lastName = capitalize(SYLLABLES[random.nextInt(SYLLABLES.length)]
+                    + SYLLABLES[random.nextInt(SYLLABLES.length)]
+                    + SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            Patient patient = new Patient();
+            patient.setUid(UUID.randomUUID().toString());
+            patient.setLastName(lastName);
+            patient.setFirstName("Patient" + i);
+            patient.setGender(i % 2 == 0 ? Gender.MALE : Gender.FEMALE);
+            patient.setActive(random.nextInt(10) > 0);
+            table.add(patient);
+            index.put(patient);
+        }
+    }
+
+    /** First page of 10, as served by {@code /api/patients/active/search}. */
+    @Benchmark
+    public PatientNameIndex.SearchResult indexedSearch() {
+        return index.search(query, true, 0, 10);
+    }
+
+    @Benchmark
+    public int fullScan() {
+        String needle = query.toLowerCase(Locale.ROOT);
+        int matches = 0;
+        for (Patient patient : table) {
+            if (patient.getActive() && patient.getLastName().toLowerCase(Locale.ROOT).contains(needle)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PatientNameSearchBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
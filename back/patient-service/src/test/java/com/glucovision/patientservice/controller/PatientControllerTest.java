@@ -1,9 +1,16 @@
 package com.glucovision.patientservice.controller;
 
+import com.glucovision.patientservice.dto.PatientBatchDTO;
 import com.glucovision.patientservice.dto.PatientDTO;
+import com.glucovision.patientservice.dto.PatientFieldsBatchDTO;
+import com.glucovision.patientservice.dto.PatientImportProgress;
+import com.glucovision.patientservice.dto.PatientScrollDTO;
 import com.glucovision.patientservice.exception.GlobalExceptionHandler;
 import com.glucovision.patientservice.exception.PatientNotFoundException;
 import com.glucovision.patientservice.model.Patient;
+import com.glucovision.patientservice.service.PatientExportService;
+import com.glucovision.patientservice.service.PatientFileFormat;
+import com.glucovision.patientservice.service.PatientImportService;
 import com.glucovision.patientservice.service.PatientService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -22,8 +29,10 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import static com.glucovision.patientservice.model.Gender.FEMALE;
 import static com.glucovision.patientservice.model.Gender.MALE;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.UUID;
 
@@ -39,6 +48,12 @@ public class PatientControllerTest {
     @Mock
     private PatientService patientService;
 
+    @Mock
+    private PatientImportService patientImportService;
+
+    @Mock
+    private PatientExportService patientExportService;
+
     @InjectMocks
     private PatientController patientController;
 
@@ -471,4 +486,113 @@ public class PatientControllerTest {
                 .andExpect(jsonPath("$.content.length()").value(0));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testGetPatientsByIds_ReturnsFoundAndMissing() throws Exception {
+        // Arrange
+        PatientDTO found = new PatientDTO("uid-1", "John", "Doe", LocalDate.of(1980, 1, 1), MALE, null, null);
+        when(patientService.findPatientsByIds(List.of("uid-1", "uid-2")))
+                .thenReturn(new PatientBatchDTO(List.of(found), List.of("uid-2")));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/patients/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"uid-1\", \"uid-2\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.patients.length()").value(1))
+                .andExpect(jsonPath("$.patients[0].uid").value("uid-1"))
+                .andExpect(jsonPath("$.missing[0]").value("uid-2"));
+    }
+
+    @Test
+    void testGetPatientsByIds_RejectsNullUid() throws Exception {
+        // Arrange
+        when(patientService.findPatientsByIds(any())).thenCallRealMethod();
+
+        // Act & Assert
+        mockMvc.perform(post("/api/patients/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"uid-1\", null]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Patient UIDs cannot be null or blank"));
+    }
+
+    @Test
+    void testGetPatientFieldsByIds_ReturnsOnlyRequestedFields() throws Exception {
+        // Arrange
+        when(patientService.findPatientFieldsByIds(List.of("uid-1", "uid-2"), List.of("birthDate", "gender")))
+                .thenReturn(new PatientFieldsBatchDTO(
+                        List.of(Map.of("uid", "uid-1", "birthDate", "1980-01-01", "gender", "MALE")), List.of("uid-2")));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/patients/batch")
+                        .param("fields", "birthDate,gender")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"uid-1\", \"uid-2\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.patients[0].gender").value("MALE"))
+                .andExpect(jsonPath("$.patients[0].lastName").doesNotExist())
+                .andExpect(jsonPath("$.missing[0]").value("uid-2"));
+        verify(patientService, never()).findPatientsByIds(any());
+    }
+
+    @Test
+    void testImportPatients_StreamsProgressOfCsvBody() throws Exception {
+        // Arrange
+        when(patientImportService.importPatients(any(), eq(PatientFileFormat.CSV), any()))
+                .thenAnswer(invocation -> {
+                    invocation.<OutputStream>getArgument(2).write("{\"rows\":1,\"done\":true}\n".getBytes());
+                    return new PatientImportProgress("import-1", 1, 1, 0, 0, true, null);
+                });
+
+        // Act & Assert
+        mockMvc.perform(post("/api/patients/import")
+                        .contentType("text/csv")
+                        .content("firstName,lastName,birthDate,gender\nJohn,Doe,1980-01-01,MALE\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"rows\":1,\"done\":true}\n"));
+    }
+
+    @Test
+    void testStreamActivePatients_AsCsvAttachment() throws Exception {
+        // Arrange
+        when(patientExportService.export(eq(true), eq(PatientFileFormat.CSV), any())).thenReturn(0L);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/patients/active/stream").param("format", "CSV"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"active-patients.csv\""));
+        verify(patientExportService).export(eq(true), eq(PatientFileFormat.CSV), any());
+    }
+
+    @Test
+    void scrollActivePatients_ShouldReturnPageAndNextToken() throws Exception {
+        PatientDTO dto = new PatientDTO();
+        dto.setUid(UUID.randomUUID().toString());
+        dto.setLastName("Martin");
+        when(patientService.scrollActivePatients("token", 1, false))
+                .thenReturn(new PatientScrollDTO(List.of(dto), "next-token", null));
+
+        mockMvc.perform(get("/api/patients/active/scroll")
+                        .param("after", "token")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.patients[0].lastName").value("Martin"))
+                .andExpect(jsonPath("$.next").value("next-token"))
+                .andExpect(jsonPath("$.total").doesNotExist());
+    }
+
+    @Test
+    void scrollPatientsByName_ShouldReturnBadRequest_WhenCursorIsInvalid() throws Exception {
+        when(patientService.scrollPatientsByName("mar", "bad", 10, true))
+                .thenThrow(new IllegalArgumentException("Invalid cursor: bad"));
+
+        mockMvc.perform(get("/api/patients/search/scroll")
+                        .param("name", "mar")
+                        .param("after", "bad")
+                        .param("includeTotal", "true"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid cursor: bad"));
+    }
+}
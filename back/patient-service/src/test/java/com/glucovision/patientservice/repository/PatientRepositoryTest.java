@@ -0,0 +1,134 @@
+package com.glucovision.patientservice.repository;
+
+import com.glucovision.patientservice.client.LoggingPatientStatusEventPublisher;
+import com.glucovision.patientservice.client.LoggingRiskEventPublisher;
+import com.glucovision.patientservice.dto.PatientDTO;
+import com.glucovision.patientservice.dto.PatientScrollDTO;
+import com.glucovision.patientservice.model.Patient;
+import com.glucovision.patientservice.service.PatientNameIndex;
+import com.glucovision.patientservice.service.PatientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static com.glucovision.patientservice.model.Gender.FEMALE;
+import static com.glucovision.patientservice.model.Gender.MALE;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own database, queried with the H2 dialect: the MySQL dialect set in application.yml emits a LIKE escape H2 rejects
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:scrolldb;MODE=MySQL",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PatientService.class, PatientNameIndex.class, LoggingRiskEventPublisher.class, LoggingPatientStatusEventPublisher.class})
+class PatientRepositoryTest {
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PatientService patientService;
+
+    private final List<Patient> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        patientRepository.deleteAll();
+        saved.clear();
+        // Homonyms on purpose: the UID must break ties between pages
+        saved.add(save("Alice", "Martin", "1990-01-15", true));
+        saved.add(save("Alice", "Martin", "1991-02-16", true));
+        saved.add(save("Alice", "Martin", "1992-03-17", true));
+        saved.add(save("Bob", "Martin", "1982-07-09", true));
+        saved.add(save("Chloé", "Durand", "1995-11-30", true));
+        saved.add(save("David", "Nguyen", "1978-03-22", false));
+        saved.add(save("Emma", "Bernard", "2000-08-10", true));
+    }
+
+    private Patient save(String firstName, String lastName, String birthDate, boolean active) {
+        Patient patient = new Patient(firstName, lastName, birthDate, firstName.startsWith("A") ? FEMALE : MALE, "", "");
+        patient.setActive(active);
+        return patientRepository.save(patient);
+    }
+
+    @Test
+    void scrollActivePatients_ShouldVisitEveryActivePatientOnceInOrder() {
+        // Given
+        List<String> expected = saved.stream()
+                .filter(Patient::getActive)
+                .sorted(Comparator.comparing(Patient::getLastName)
+                        .thenComparing(Patient::getFirstName)
+                        .thenComparing(Patient::getUid))
+                .map(Patient::getUid)
+                .toList();
+
+        // When
+        List<String> visited = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        do {
+            PatientScrollDTO page = patientService.scrollActivePatients(after, 2, false);
+            page.getPatients().forEach(p -> visited.add(p.getUid()));
+            after = page.getNext();
+            pages++;
+        } while (after != null && pages < 10);
+
+        // Then
+        assertEquals(expected, visited);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void scrollActivePatients_ShouldCountOnlyWhenRequested() {
+        // When
+        PatientScrollDTO withoutTotal = patientService.scrollActivePatients(null, 10, false);
+        PatientScrollDTO withTotal = patientService.scrollActivePatients(null, 10, true);
+
+        // Then
+        assertNull(withoutTotal.getTotal());
+        assertEquals(6L, withTotal.getTotal());
+        assertNull(withTotal.getNext());
+    }
+
+    @Test
+    void scrollPatientsByName_ShouldPageThroughMatchesOnly() {
+        // When
+        PatientScrollDTO first = patientService.scrollPatientsByName("mart", null, 3, true);
+        PatientScrollDTO second = patientService.scrollPatientsByName("mart", first.getNext(), 3, false);
+
+        // Then
+        assertEquals(4L, first.getTotal());
+        assertEquals(3, first.getPatients().size());
+        assertNotNull(first.getNext());
+        assertEquals(List.of("Bob"), second.getPatients().stream().map(PatientDTO::getFirstName).toList());
+        assertNull(second.getNext());
+    }
+
+    @Test
+    void findFieldsByUidIn_ShouldSelectOnlyTheUidAndRequestedColumns() {
+        // Given
+        Patient chloe = saved.get(4);
+
+        // When
+        List<Map<String, Object>> rows = patientRepository.findFieldsByUidIn(
+                List.of(chloe.getUid(), "unknown"), List.of("gender", "birthDate"));
+
+        // Then
+        assertEquals(1, rows.size());
+        assertEquals(List.of("uid", "gender", "birthDate"), List.copyOf(rows.get(0).keySet()));
+        assertEquals(chloe.getUid(), rows.get(0).get("uid"));
+        assertEquals(MALE, rows.get(0).get("gender"));
+        assertEquals(chloe.getBirthDate(), rows.get(0).get("birthDate"));
+    }
+}
@@ -0,0 +1,211 @@
+package com.glucovision.patientservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.glucovision.patientservice.model.Gender;
+import com.glucovision.patientservice.model.Patient;
+import com.glucovision.patientservice.repository.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional: the export reads through its own connection
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:exportdb;MODE=MySQL",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PatientExportServiceTest {
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private PatientExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new PatientExportService(jdbcTemplate, objectMapper, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("TRUNCATE TABLE patients");
+    }
+
+    @Test
+    void export_shouldWriteActivePatientsAsNdjson_sortedByName() throws IOException {
+        // Given
+        save("Bob", "Martin", true);
+        save("Alice", "Martin", true);
+        save("Chloé", "Durand", false);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        long count = exportService.export(true, PatientFileFormat.NDJSON, output);
+
+        // Then
+        assertEquals(2, count);
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, lines.size());
+        assertEquals("Alice", objectMapper.readTree(lines.get(0)).get("firstName").asText());
+        assertEquals("1990-01-15", objectMapper.readTree(lines.get(0)).get("birthDate").asText());
+        assertEquals("ACTIF", objectMapper.readTree(lines.get(1)).get("status").asText());
+    }
+
+    @Test
+    void export_shouldWriteAllPatientsAsCsv_quotingFieldsWhenNeeded() throws IOException {
+        // Given
+        Patient patient = save("Bob", "Martin", false);
+        patient.setAddress("3 Impasse des \"Lilas\", Lyon");
+        patientRepository.save(patient);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // When
+        exportService.export(false, PatientFileFormat.CSV, output);
+
+        // Then
+        assertEquals(PatientExportService.CSV_HEADER
+                        + patient.getUid() + ",Bob,Martin,1990-01-15,MALE,\"3 Impasse des \"\"Lilas\"\", Lyon\",,false\n",
+                output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void export_shouldStreamAMillionPatients_inBoundedMemory() throws IOException {
+        // Given: a forward-only cursor over 1M patients generated as they are fetched
+        int patients = 1_000_000;
+        List<Integer> fetchSizes = new ArrayList<>();
+        exportService = new PatientExportService(new JdbcTemplate(generatedPatients(patients, fetchSizes)), objectMapper, Integer.MIN_VALUE);
+        HeapSamplingOutput output = new HeapSamplingOutput(usedHeapAfterGc());
+
+        // When
+        long count = exportService.export(false, PatientFileFormat.NDJSON, output);
+
+        // Then: loading the list, as GET /api/patients does, takes hundreds of MB for 1M patients
+        assertEquals(patients, count);
+        assertEquals(patients, output.lines);
+        assertEquals(List.of(Integer.MIN_VALUE), fetchSizes);
+        assertTrue(output.samples >= 4, "Heap sampled " + output.samples + " times");
+        assertTrue(output.peakGrowth < 32L * 1024 * 1024,
+                "Retained heap grew by " + output.peakGrowth / (1024 * 1024) + " MB during the export");
+    }
+
+    private Patient save(String firstName, String lastName, boolean active) {
+        Patient patient = new Patient(firstName, lastName, "1990-01-15", Gender.MALE, "", "");
+        patient.setActive(active);
+        return patientRepository.save(patient);
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Data source whose only query returns {@code total} patients, each one built when the cursor reaches it.
+     */
+    private static DataSource generatedPatients(int total, List<Integer> fetchSizes) {
+        long[] row = {0};
+        ResultSet resultSet = stub(ResultSet.class, (method, args) -> switch (method.getName()) {
+            case "next" -> ++row[0] <= total;
+            case "getString" -> switch ((String) args[0]) {
+                case "uid" -> "uid-" + row[0];
+                case "first_name" -> "First" + row[0];
+                case "last_name" -> "Last" + row[0] % 1000;
+                case "gender" -> row[0] % 2 == 0 ? "MALE" : "FEMALE";
+                case "address" -> "Address " + row[0];
+                default -> "0102030405";
+            };
+            case "getObject" -> LocalDate.of(1940, 1, 1).plusDays(row[0] % 20_000);
+            case "getBoolean" -> true;
+            default -> null;
+        });
+        Statement statement = stub(Statement.class, (method, args) -> switch (method.getName()) {
+            case "setFetchSize" -> fetchSizes.add((Integer) args[0]);
+            case "executeQuery" -> resultSet;
+            default -> null;
+        });
+        Connection connection = stub(Connection.class, (method, args) ->
+                method.getName().equals("createStatement") ? statement : null);
+        return stub(DataSource.class, (method, args) ->
+                method.getName().equals("getConnection") ? connection : null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, BiFunction<Method, Object[], Object> answer) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object result = answer.apply(method, args);
+            Class<?> returnType = method.getReturnType();
+            if (result == null && returnType.isPrimitive() && returnType != void.class) {
+                return Array.get(Array.newInstance(returnType, 1), 0);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Discards the export, measuring the retained heap every 200 000 lines.
+     */
+    private static final class HeapSamplingOutput extends OutputStream {
+
+        private final long baseline;
+        private long lines;
+        private int samples;
+        private long peakGrowth;
+
+        private HeapSamplingOutput(long baseline) {
+            this.baseline = baseline;
+        }
+
+        @Override
+        public void write(int b) {
+            if (b == '\n' && ++lines % 200_000 == 0) {
+                peakGrowth = Math.max(peakGrowth, usedHeapAfterGc() - baseline);
+                samples++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.glucovision.patientservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.glucovision.patientservice.dto.PatientImportError;
+import com.glucovision.patientservice.dto.PatientImportProgress;
+import com.glucovision.patientservice.model.Gender;
+import com.glucovision.patientservice.model.Patient;
+import com.glucovision.patientservice.repository.PatientRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional: each chunk is committed by the import itself
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:importdb;MODE=MySQL",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PatientImportServiceTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path errorDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PatientNameIndex nameIndex;
+    private PatientImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        patientRepository.deleteAll();
+        patientRepository.save(new Patient("Alice", "Durand", "1990-01-15", Gender.FEMALE, "", ""));
+        nameIndex = new PatientNameIndex(patientRepository, true);
+        nameIndex.rebuild();
+        importService = new PatientImportService(jdbcTemplate, transactionManager, nameIndex, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), meterRegistry, CHUNK_SIZE, errorDir.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        patientRepository.deleteAll();
+    }
+
+    @Test
+    void importPatients_shouldInsertNewCsvRows_andListSkippedRowsInTheErrorFile() throws IOException {
+        // Given
+        String body = """
+                first_name,last_name,birth_date,gender,address,phone
+                Bob,Martin,1982-07-09,male,"3 Impasse des Lilas, Lyon",0607080910
+                Alice,Durand,1990-01-15,FEMALE,,
+
+                Chloé;Lemoine,1995-11-30,FEMALE,,
+                Chloé,Lemoine,30/11/1995,female,,
+                Bob,Martin,09-07-1982,MALE,,
+                David,Nguyen,1978-03-22,OTHER,,
+                Emma,Bernard,2000-08-10,FEMALE,,123
+                """;
+
+        // When
+        List<PatientImportProgress> progress = run(body, PatientFileFormat.CSV);
+
+        // Then
+        PatientImportProgress last = progress.get(progress.size() - 1);
+        assertTrue(last.isDone());
+        assertEquals(7, last.getRows());
+        assertEquals(2, last.getInserted());
+        assertEquals(2, last.getDuplicates());
+        assertEquals(3, last.getRejected());
+        assertEquals("/api/patients/import/" + last.getImportId() + "/errors", last.getErrors());
+        assertTrue(progress.size() > 2, "One progress line per chunk");
+
+        assertEquals("3 Impasse des Lilas, Lyon", patientRepository.findAll().stream()
+                .filter(patient -> patient.getFirstName().equals("Bob"))
+                .findFirst().orElseThrow().getAddress());
+        assertEquals(LocalDate.of(1995, 11, 30), patientRepository.findAll().stream()
+                .filter(patient -> patient.getFirstName().equals("Chloé"))
+                .findFirst().orElseThrow().getBirthDate());
+        assertEquals(3, patientRepository.count());
+        assertEquals(1, nameIndex.search("lemoine", true, 0, 10).total());
+
+        List<PatientImportError> errors = errors(last.getImportId());
+        assertEquals(List.of(3L, 5L, 7L, 8L, 9L), errors.stream().map(PatientImportError::getLine).sorted().toList());
+        PatientImportError known = errors.stream().filter(error -> error.getLine() == 3).findFirst().orElseThrow();
+        assertEquals(PatientImportError.Reason.DUPLICATE, known.getReason());
+        assertEquals("Alice,Durand,1990-01-15,FEMALE,,", known.getRecord());
+        PatientImportError repeated = errors.stream().filter(error -> error.getLine() == 7).findFirst().orElseThrow();
+        assertEquals(PatientImportError.Reason.DUPLICATE, repeated.getReason());
+        PatientImportError gender = errors.stream().filter(error -> error.getLine() == 8).findFirst().orElseThrow();
+        assertEquals("Unknown gender: OTHER", gender.getError());
+        assertEquals(2.0, meterRegistry.counter("patient.import.rows", "result", "inserted").count());
+    }
+
+    @Test
+    void importPatients_shouldReadNdjson_andRejectMalformedLines() throws IOException {
+        // Given
+        String body = """
+                {"firstName":"Bob","lastName":"Martin","birthDate":"1982-07-09","gender":"MALE","active":false}
+                not json
+                {"firstName":"David","lastName":"Nguyen","birthDate":"1978-03-22","gender":"OTHER"}
+                {"firstName":"","lastName":"Roux","birthDate":"1986-09-07","gender":"FEMALE"}
+                """;
+
+        // When
+        List<PatientImportProgress> progress = run(body, PatientFileFormat.NDJSON);
+
+        // Then
+        PatientImportProgress last = progress.get(progress.size() - 1);
+        assertEquals(1, last.getInserted());
+        assertEquals(3, last.getRejected());
+        assertFalse(patientRepository.findAll().stream()
+                .filter(patient -> patient.getFirstName().equals("Bob"))
+                .findFirst().orElseThrow().getActive());
+        List<PatientImportError> errors = errors(last.getImportId());
+        assertTrue(errors.get(0).getError().startsWith("Malformed patient"));
+        assertEquals("First name is required", errors.get(2).getError());
+    }
+
+    @Test
+    void importPatients_shouldInsertRowByRow_whenTheBatchBreaksAConstraint() throws IOException {
+        // Given: an address longer than the column passes validation but not the insert
+        String body = "firstName,lastName,birthDate,gender,address\n"
+                + "Bob,Martin,1982-07-09,MALE,\n"
+                + "Emma,Bernard,2000-08-10,FEMALE," + "x".repeat(300) + "\n";
+
+        // When
+        List<PatientImportProgress> progress = run(body, PatientFileFormat.CSV);
+
+        // Then
+        PatientImportProgress last = progress.get(progress.size() - 1);
+        assertEquals(1, last.getInserted());
+        assertEquals(1, last.getRejected());
+        assertEquals(2, patientRepository.count());
+        assertEquals(PatientImportError.Reason.INVALID, errors(last.getImportId()).get(0).getReason());
+    }
+
+    @Test
+    void importPatients_shouldRejectCsvHeaderWithoutRequiredColumns_withoutWritingAnything() {
+        // Given
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        InputStream body = new ByteArrayInputStream("firstName,lastName\nBob,Martin\n".getBytes(StandardCharsets.UTF_8));
+
+        // When & Then
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> importService.importPatients(body, PatientFileFormat.CSV, output));
+        assertEquals("The CSV header lacks the column(s) birthdate, gender", error.getMessage());
+        assertEquals(0, output.size());
+    }
+
+    @Test
+    void errorFile_shouldRejectUnknownOrInvalidImports() {
+        assertThrows(IllegalArgumentException.class, () -> importService.errorFile("../secrets"));
+        assertThrows(NoSuchElementException.class, () -> importService.errorFile("0c4a3f4e-2f7a-4d39-a0a4-1c1f3a7e2b9d"));
+    }
+
+    @Test
+    void importPatients_shouldReportProgress_withoutReadingTheWholeBody() throws IOException {
+        // Given: a body of 20 000 patients generated while it is read
+        int patients = 20_000;
+        importService = new PatientImportService(jdbcTemplate, transactionManager, nameIndex, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), meterRegistry, 500, errorDir.toString());
+        GeneratedCsv body = new GeneratedCsv(patients);
+        AtomicLong rowsReadAtFirstProgress = new AtomicLong(-1);
+        AtomicLong progressLines = new AtomicLong();
+        OutputStream output = new OutputStream() {
+            @Override
+            public void write(int b) {
+                if (b == '\n') {
+                    rowsReadAtFirstProgress.compareAndSet(-1, body.produced);
+                    progressLines.incrementAndGet();
+                }
+            }
+        };
+
+        // When
+        PatientImportProgress progress = importService.importPatients(body, PatientFileFormat.CSV, output);
+
+        // Then
+        assertEquals(patients, progress.getInserted());
+        assertEquals(patients + 1, patientRepository.count());
+        assertEquals(patients / 500 + 1, progressLines.get());
+        assertTrue(rowsReadAtFirstProgress.get() < patients / 10, "First progress after " + rowsReadAtFirstProgress.get() + " rows");
+        assertNull(progress.getErrors());
+    }
+
+    private List<PatientImportProgress> run(String body, PatientFileFormat format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        importService.importPatients(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format, output);
+        List<PatientImportProgress> progress = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            progress.add(objectMapper.readValue(line, PatientImportProgress.class));
+        }
+        return progress;
+    }
+
+    private List<PatientImportError> errors(String importId) throws IOException {
+        List<PatientImportError> errors = new ArrayList<>();
+        for (String line : Files.readAllLines(importService.errorFile(importId))) {
+            errors.add(objectMapper.readValue(line, PatientImportError.class));
+        }
+        return errors;
+    }
+
+    /**
+     * CSV body producing its rows on demand, so that the test itself does not hold them in memory.
+     */
+    private static final class GeneratedCsv extends InputStream {
+
+        private final int total;
+        private byte[] line = "firstName,lastName,birthDate,gender\n".getBytes(StandardCharsets.UTF_8);
+        private int position;
+        private volatile long produced;
+
+        private GeneratedCsv(int total) {
+            this.total = total;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length) {
+                if (produced == total) {
+                    return -1;
+                }
+                line = ("First" + produced + ",Last" + (produced % 100) + ",1980-01-01,MALE\n").getBytes(StandardCharsets.UTF_8);
+                position = 0;
+                produced++;
+            }
+            return line[position++];
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.glucovision.patientservice.service;
+
+import com.glucovision.patientservice.model.Patient;
+import com.glucovision.patientservice.repository.PatientNameView;
+import com.glucovision.patientservice.repository.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PatientNameIndexTest {
+
+    @Mock
+    private PatientRepository patientRepository;
+
+    private PatientNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PatientNameIndex(patientRepository, true);
+        when(patientRepository.findAllNameViewsBy()).thenReturn(List.of(
+                view("uid-1", "Martin", "Bob", true),
+                view("uid-2", "Martin", "Alice", true),
+                view("uid-3", "Lamartine", "Alphonse", true),
+                view("uid-4", "Lemoine", "Chloé", true),
+                view("uid-5", "Martinez", "Hugo", false)
+        ));
+        index.rebuild();
+    }
+
+    @Test
+    void search_ShouldRankPrefixMatchesFirst() {
+        // When
+        List<String> uids = index.search("mart", false);
+
+        // Then: "Martin" and "Martinez" start with the query, "Lamartine" only contains it
+        assertEquals(List.of("uid-2", "uid-1", "uid-5", "uid-3"), uids);
+    }
+
+    @Test
+    void search_ShouldReturnRequestedPageAndTotal() {
+        // When
+        PatientNameIndex.SearchResult page = index.search("mart", false, 1, 2);
+
+        // Then
+        assertEquals(List.of("uid-1", "uid-5"), page.uids());
+        assertEquals(4, page.total());
+    }
+
+    @Test
+    void search_ShouldKeepActivePatientsOnly_WhenRequested() {
+        assertEquals(List.of("uid-2", "uid-1", "uid-3"), index.search("MART", true));
+    }
+
+    @Test
+    void search_ShouldIgnoreAccentsAndCase() {
+        // Given
+        Patient patient = new Patient("Héléne", "Roy-Éloïse", "1981-05-25", null, "", "");
+        index.put(patient);
+
+        // Then
+        assertEquals(List.of(patient.getUid()), index.search("eloi", true));
+        assertEquals(List.of("uid-4"), index.search("LÉMOI", true));
+    }
+
+    @Test
+    void search_ShouldHandleQueriesShorterThanATrigram() {
+        assertEquals(List.of("uid-2", "uid-1", "uid-3"), index.search("ma", true));
+        assertEquals(List.of("uid-4"), index.search("le", true));
+        assertEquals(5, index.search("", false).size());
+        assertTrue(index.search("zzz", false).isEmpty());
+    }
+
+    @Test
+    void put_ShouldReindexRenamedPatient() {
+        // Given
+        Patient renamed = new Patient("Bob", "Durand", "1982-07-09", null, "", "");
+        renamed.setUid("uid-1");
+
+        // When
+        index.put(renamed);
+
+        // Then
+        assertEquals(List.of("uid-2", "uid-5", "uid-3"), index.search("mart", false));
+        assertEquals(List.of("uid-1"), index.search("dur", false));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void remove_ShouldDropPatientAndUnusedTrigrams() {
+        // When
+        index.remove("uid-4");
+        index.remove("unknown");
+
+        // Then
+        assertTrue(index.search("lemoine", false).isEmpty());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void rebuild_ShouldLeaveIndexUnbuilt_WhenDisabled() {
+        // Given
+        PatientNameIndex disabled = new PatientNameIndex(patientRepository, false);
+
+        // When
+        disabled.rebuild();
+
+        // Then
+        assertFalse(disabled.isReady());
+        assertTrue(index.isReady());
+        verify(patientRepository, times(1)).findAllNameViewsBy();
+    }
+
+    private static PatientNameView view(String uid, String lastName, String firstName, boolean active) {
+        return new PatientNameView() {
+            @Override
+            public String getUid() {
+                return uid;
+            }
+
+            @Override
+            public String getLastName() {
+                return lastName;
+            }
+
+            @Override
+            public String getFirstName() {
+                return firstName;
+            }
+
+            @Override
+            public Boolean getActive() {
+                return active;
+            }
+        };
+    }
+}
@@ -1,6 +1,12 @@
 package com.glucovision.patientservice.service;
 
+import com.glucovision.patientservice.client.PatientStatusEventPublisher;
+import com.glucovision.patientservice.client.RiskEventPublisher;
+import com.glucovision.patientservice.dto.PatientBatchDTO;
 import com.glucovision.patientservice.dto.PatientDTO;
+import com.glucovision.patientservice.dto.PatientFieldsBatchDTO;
+import com.glucovision.patientservice.dto.PatientStatusEvent;
+import com.glucovision.patientservice.dto.RiskInvalidationEvent;
 import com.glucovision.patientservice.exception.DuplicatePatientException;
 import com.glucovision.patientservice.exception.PatientNotFoundException;
 import com.glucovision.patientservice.model.Patient;
@@ -14,9 +20,13 @@ import org.springframework.data.domain.*;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static com.glucovision.patientservice.model.Gender.FEMALE;
 import static com.glucovision.patientservice.model.Gender.MALE;
@@ -30,6 +40,15 @@ class PatientServiceTest {
     @Mock
     private PatientRepository patientRepository;
 
+    @Mock
+    private PatientNameIndex nameIndex;
+
+    @Mock
+    private RiskEventPublisher riskEventPublisher;
+
+    @Mock
+    private PatientStatusEventPublisher statusEventPublisher;
+
     @InjectMocks
     private PatientService patientService;
 
@@ -137,6 +156,8 @@ class PatientServiceTest {
 
         // Assert
         verify(patientRepository, times(1)).deleteByUid(id);
+        verify(riskEventPublisher).publish(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.PATIENT_DELETED, id));
+        verify(statusEventPublisher).publish(new PatientStatusEvent(PatientStatusEvent.Reason.PATIENT_DELETED, id));
     }
 
     @Test
@@ -187,6 +208,83 @@ class PatientServiceTest {
         assertFalse(result.getActive());
         verify(patientRepository, times(1)).findByUid(id);
         verify(patientRepository, times(1)).save(existingPatient);
+        verify(riskEventPublisher).publish(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.PATIENT_CHANGED, id));
+        verify(statusEventPublisher).publish(new PatientStatusEvent(PatientStatusEvent.Reason.STATUS_CHANGED, id));
+    }
+
+    @Test
+    void testUpdatePatient_ShouldNotNotifyRiskService_whenBirthDateAndGenderAreUnchanged() {
+        // Arrange
+        String id = String.valueOf(UUID.randomUUID());
+        Patient existingPatient = new Patient();
+        existingPatient.setUid(id);
+        existingPatient.setFirstName("John");
+        existingPatient.setBirthDate(LocalDate.of(1990, 5, 15));
+        existingPatient.setGender(MALE);
+
+        PatientDTO updateDTO = new PatientDTO();
+        updateDTO.setFirstName("Johnny");
+        updateDTO.setBirthDate(LocalDate.of(1990, 5, 15));
+        updateDTO.setGender(MALE);
+
+        when(patientRepository.findByUid(id)).thenReturn(Optional.of(existingPatient));
+        when(patientRepository.save(any(Patient.class))).thenReturn(existingPatient);
+
+        // Act
+        patientService.updatePatient(id, updateDTO);
+
+        // Assert
+        verifyNoInteractions(riskEventPublisher);
+        verifyNoInteractions(statusEventPublisher);
+    }
+
+    @Test
+    void testUpdatePatient_ShouldNotifyRiskService_whenOnlyActiveStatusChanges() {
+        // Arrange
+        String id = String.valueOf(UUID.randomUUID());
+        Patient existingPatient = new Patient();
+        existingPatient.setUid(id);
+        existingPatient.setBirthDate(LocalDate.of(1990, 5, 15));
+        existingPatient.setGender(MALE);
+        existingPatient.setActive(true);
+
+        PatientDTO updateDTO = new PatientDTO();
+        updateDTO.setBirthDate(LocalDate.of(1990, 5, 15));
+        updateDTO.setGender(MALE);
+        updateDTO.setActive(false);
+
+        when(patientRepository.findByUid(id)).thenReturn(Optional.of(existingPatient));
+        when(patientRepository.save(any(Patient.class))).thenReturn(existingPatient);
+
+        // Act
+        patientService.updatePatient(id, updateDTO);
+
+        // Assert
+        verify(riskEventPublisher).publish(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.PATIENT_STATUS_CHANGED, id));
+        verify(statusEventPublisher).publish(new PatientStatusEvent(PatientStatusEvent.Reason.STATUS_CHANGED, id));
+    }
+
+    @Test
+    void testUpdatePatient_ShouldNotifyRiskService_whenGenderChanges() {
+        // Arrange
+        String id = String.valueOf(UUID.randomUUID());
+        Patient existingPatient = new Patient();
+        existingPatient.setUid(id);
+        existingPatient.setBirthDate(LocalDate.of(1990, 5, 15));
+        existingPatient.setGender(MALE);
+
+        PatientDTO updateDTO = new PatientDTO();
+        updateDTO.setBirthDate(LocalDate.of(1990, 5, 15));
+        updateDTO.setGender(FEMALE);
+
+        when(patientRepository.findByUid(id)).thenReturn(Optional.of(existingPatient));
+        when(patientRepository.save(any(Patient.class))).thenReturn(existingPatient);
+
+        // Act
+        patientService.updatePatient(id, updateDTO);
+
+        // Assert
+        verify(riskEventPublisher).publish(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.PATIENT_CHANGED, id));
     }
 
     @Test
@@ -318,6 +416,8 @@ class PatientServiceTest {
         assertFalse(result.getActive());
         verify(patientRepository, times(1)).findByUid(id);
         verify(patientRepository, times(1)).save(patient);
+        verify(statusEventPublisher).publish(new PatientStatusEvent(PatientStatusEvent.Reason.STATUS_CHANGED, id));
+        verify(riskEventPublisher).publish(new RiskInvalidationEvent(RiskInvalidationEvent.Reason.PATIENT_STATUS_CHANGED, id));
     }
 
     @Test
@@ -490,5 +590,173 @@ class PatientServiceTest {
         verify(patientRepository, times(1)).findByActiveTrueAndLastNameContainingIgnoreCase(lastName, pageable);
     }
 
+    @Test
+    void testFindPatientsByIds_ReturnsFoundInRequestOrderAndMissing() {
+        // Arrange
+        Patient first = new Patient();
+        first.setUid("uid-1");
+        first.setLastName("Doe");
+        first.setGender(MALE);
+        first.setActive(true);
+        Patient second = new Patient();
+        second.setUid("uid-2");
+        second.setLastName("Roe");
+        second.setGender(FEMALE);
+        second.setActive(false);
+
+        when(patientRepository.findByUidIn(List.of("uid-2", "unknown", "uid-1")))
+                .thenReturn(List.of(first, second));
+
+        // Act
+        PatientBatchDTO result = patientService.findPatientsByIds(List.of("uid-2", "unknown", "uid-1", "uid-2"));
+
+        // Assert
+        assertEquals(List.of("uid-2", "uid-1"), result.getPatients().stream().map(PatientDTO::getUid).toList());
+        assertEquals(List.of("unknown"), result.getMissing());
+        verify(patientRepository, times(1)).findByUidIn(any());
+    }
+
+    @Test
+    void testFindPatientsByIds_QueriesLargeListsByChunks() {
+        // Arrange
+        List<String> uids = IntStream.range(0, PatientService.BATCH_QUERY_SIZE + 200).mapToObj(i -> "uid-" + i).toList();
+        when(patientRepository.findByUidIn(any())).thenReturn(List.of());
+
+        // Act
+        PatientBatchDTO result = patientService.findPatientsByIds(uids);
+
+        // Assert
+        assertEquals(uids, result.getMissing());
+        verify(patientRepository).findByUidIn(uids.subList(0, PatientService.BATCH_QUERY_SIZE));
+        verify(patientRepository).findByUidIn(uids.subList(PatientService.BATCH_QUERY_SIZE, uids.size()));
+    }
+
+    @Test
+    void testFindPatientsByIds_RejectsTooManyUids() {
+        List<String> uids = IntStream.rangeClosed(0, PatientService.MAX_BATCH_SIZE).mapToObj(i -> "uid-" + i).toList();
+
+        assertThrows(IllegalArgumentException.class, () -> patientService.findPatientsByIds(uids));
+        verifyNoInteractions(patientRepository);
+    }
+
+    @Test
+    void testFindPatientFieldsByIds_RejectsNullOrBlankUids() {
+        assertThrows(IllegalArgumentException.class,
+                () -> patientService.findPatientFieldsByIds(Arrays.asList("uid-1", null), List.of("gender")));
+        assertThrows(IllegalArgumentException.class,
+                () -> patientService.findPatientFieldsByIds(List.of("uid-1", " "), List.of("gender")));
+        verifyNoInteractions(patientRepository);
+    }
+
+    @Test
+    void testFindPatientFieldsByIds_KeepsOnlyUidAndRequestedFields() {
+        // Arrange
+        Patient patient = new Patient("John", "Doe", "1980-01-01", MALE, "1 Main St", "0102030405");
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("uid", patient.getUid());
+        row.put("birthDate", patient.getBirthDate());
+        row.put("gender", patient.getGender());
+        when(patientRepository.findFieldsByUidIn(List.of(patient.getUid(), "unknown"), List.of("birthDate", "gender")))
+                .thenReturn(List.of(row));
+
+        // Act
+        PatientFieldsBatchDTO result = patientService.findPatientFieldsByIds(
+                List.of(patient.getUid(), "unknown"), List.of("birthDate", "gender"));
+
+        // Assert
+        assertEquals(List.of(Map.of("uid", patient.getUid(), "birthDate", LocalDate.of(1980, 1, 1), "gender", MALE)),
+                result.getPatients());
+        assertEquals(List.of("uid", "birthDate", "gender"), List.copyOf(result.getPatients().get(0).keySet()));
+        assertEquals(List.of("unknown"), result.getMissing());
+        verify(patientRepository, never()).findByUidIn(any());
+    }
+
+    @Test
+    void testFindPatientFieldsByIds_RejectsUnknownFields() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> patientService.findPatientFieldsByIds(List.of("uid-1"), List.of("gender", "ssn")));
+
+        assertTrue(error.getMessage().startsWith("Unknown patient field(s): ssn"));
+        verifyNoInteractions(patientRepository);
+    }
+
+    @Test
+    void patientCursor_ShouldRoundTripThroughOpaqueToken() {
+        PatientCursor cursor = new PatientCursor("Lemoine", "Chloé", UUID.randomUUID().toString());
+
+        String token = cursor.encode();
+
+        assertFalse(token.contains("Lemoine"));
+        assertEquals(cursor, PatientCursor.decode(token));
+    }
 
-}
\ No newline at end of file
+    @Test
+    void scrollActivePatients_ShouldRejectInvalidCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> patientService.scrollActivePatients("not-a-cursor", 10, false));
+        verifyNoInteractions(patientRepository);
+    }
+
+    @Test
+    void scrollActivePatients_ShouldCapPageSizeAndSkipCount() {
+        when(patientRepository.findByActiveTrue(any(ScrollPosition.class), any(Sort.class), any(Limit.class)))
+                .thenReturn(Window.from(List.of(), ScrollPosition::offset));
+
+        patientService.scrollActivePatients(null, 10_000, false);
+
+        verify(patientRepository).findByActiveTrue(ScrollPosition.keyset(), PatientService.SCROLL_SORT, Limit.of(100));
+        verify(patientRepository, never()).countByActiveTrue();
+    }
+
+    @Test
+    void searchPatientsPaginated_ShouldUseNameIndexOnceReady() {
+        // Arrange
+        Patient martin = new Patient("Bob", "Martin", "1982-07-09", MALE, "", "");
+        Patient lamartine = new Patient("Alphonse", "Lamartine", "1790-10-21", MALE, "", "");
+        Patient martinez = new Patient("Hugo", "Martinez", "1990-01-01", MALE, "", "");
+        when(nameIndex.isReady()).thenReturn(true);
+        when(nameIndex.search("mart", false, 0, 10)).thenReturn(new PatientNameIndex.SearchResult(
+                List.of(martin.getUid(), martinez.getUid(), lamartine.getUid()), 3));
+        when(nameIndex.search("mart", false, 2, 2)).thenReturn(new PatientNameIndex.SearchResult(
+                List.of(lamartine.getUid()), 3));
+        when(patientRepository.findByUidIn(List.of(martin.getUid(), martinez.getUid(), lamartine.getUid())))
+                .thenReturn(List.of(lamartine, martin, martinez));
+        when(patientRepository.findByUidIn(List.of(lamartine.getUid())))
+                .thenReturn(List.of(lamartine));
+
+        // Act
+        Page<PatientDTO> all = patientService.searchPatientsPaginated("mart", PageRequest.of(0, 10));
+        Page<PatientDTO> last = patientService.searchPatientsPaginated("mart", PageRequest.of(1, 2));
+
+        // Assert: index ranking is kept whatever the database order
+        assertEquals(List.of("Martin", "Martinez", "Lamartine"), all.getContent().stream().map(PatientDTO::getLastName).toList());
+        assertEquals(3, last.getTotalElements());
+        assertEquals(List.of("Lamartine"), last.getContent().stream().map(PatientDTO::getLastName).toList());
+        verify(patientRepository, never()).findByLastNameContainingIgnoreCase(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void writes_ShouldKeepNameIndexUpToDate() throws DuplicatePatientException {
+        // Arrange
+        PatientDTO dto = new PatientDTO();
+        dto.setFirstName("Alice");
+        dto.setLastName("Durand");
+        dto.setBirthDate(LocalDate.of(1990, 1, 15));
+        dto.setGender(FEMALE);
+        dto.setActive(true);
+        Patient saved = new Patient("Alice", "Durand", "1990-01-15", FEMALE, "", "");
+        when(patientRepository.save(any(Patient.class))).thenReturn(saved);
+        when(patientRepository.findByUid(saved.getUid())).thenReturn(Optional.of(saved));
+        when(patientRepository.existsByUid(saved.getUid())).thenReturn(true);
+
+        // Act
+        patientService.addPatient(dto);
+        patientService.updatePatient(saved.getUid(), dto);
+        patientService.toggleActivePatient(saved.getUid());
+        patientService.deletePatient(saved.getUid());
+
+        // Assert
+        verify(nameIndex, times(3)).put(saved);
+        verify(nameIndex).remove(saved.getUid());
+    }
+}
@@ -6,6 +6,9 @@ CREATE TABLE patients (
                           gender VARCHAR(255) NOT NULL,
                           address VARCHAR(255),
                           phone VARCHAR(255),
-                          active TINYINT(1) NOT NULL
+                          active TINYINT(1) NOT NULL,
+                          CONSTRAINT uk_patients_identity UNIQUE (first_name, last_name, birth_date)
 
 );
+
+CREATE INDEX idx_patients_name_seek ON patients (last_name, first_name, uid);